@@ -2,17 +2,23 @@ package dna.graph;
 
 import com.google.common.collect.ObjectArrays;
 
+import dna.graph.datastructures.DAdaptiveList;
 import dna.graph.datastructures.DArray;
 import dna.graph.datastructures.DArrayDeque;
 import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DBloomFilter;
 import dna.graph.datastructures.DEmpty;
 import dna.graph.datastructures.DHashArrayList;
 import dna.graph.datastructures.DHashMap;
 import dna.graph.datastructures.DHashMultimap;
 import dna.graph.datastructures.DHashSet;
 import dna.graph.datastructures.DHashTable;
+import dna.graph.datastructures.DIntArray;
+import dna.graph.datastructures.DIntHashSet;
+import dna.graph.datastructures.DIntNeighborList;
 import dna.graph.datastructures.DLinkedHashMultimap;
 import dna.graph.datastructures.DLinkedList;
+import dna.graph.datastructures.DOffHeap;
 import dna.graph.edges.DirectedEdge;
 import dna.graph.edges.DirectedWeightedEdge;
 import dna.graph.edges.UndirectedEdge;
@@ -39,11 +45,25 @@ public class ClassPointers {
 	public static final Class[] elementClasses = ObjectArrays.concat(nodeTypes,
 			edgeTypes, Class.class);
 
-	public static final Class[] dataStructures = { DArray.class,
+	/**
+	 * lists whose combinations with each other are tested (cf.
+	 * GraphDataStructure.getTestDatastructureCombinations)
+	 */
+	public static final Class[] commonDataStructures = { DArray.class,
 			DArrayDeque.class, DArrayList.class, DHashArrayList.class,
 			DHashMap.class, DHashMultimap.class, DHashSet.class, DHashTable.class,
 			DLinkedHashMultimap.class, DLinkedList.class, DEmpty.class };
 
+	/**
+	 * lists that are only tested in combination with DArrayList
+	 */
+	public static final Class[] specializedDataStructures = {
+			DAdaptiveList.class, DBloomFilter.class, DIntArray.class,
+			DIntNeighborList.class, DOffHeap.class, DIntHashSet.class };
+
+	public static final Class[] dataStructures = ObjectArrays.concat(
+			commonDataStructures, specializedDataStructures, Class.class);
+
 	public static final Class[] graphGenerators = { CliqueGraph.class,
 			RingGraph.class, BarabasiAlbertGraph.class, RandomGraph.class,
 			EmptyGraph.class };
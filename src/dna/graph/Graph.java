@@ -1,8 +1,17 @@
 package dna.graph;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
-
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import dna.graph.csr.CSRGraph;
+import dna.graph.datastructures.DBloomFilter;
+import dna.graph.datastructures.DIntHashSet;
+import dna.graph.datastructures.DIntNeighborList;
+import dna.graph.datastructures.DOffHeap;
 import dna.graph.datastructures.DataStructure.ListType;
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.datastructures.IDataStructure;
@@ -10,11 +19,20 @@ import dna.graph.datastructures.IEdgeListDatastructure;
 import dna.graph.datastructures.IEdgeListDatastructureReadable;
 import dna.graph.datastructures.INodeListDatastructure;
 import dna.graph.datastructures.INodeListDatastructureReadable;
+import dna.graph.datastructures.NodeTable;
 import dna.graph.edges.DirectedEdge;
 import dna.graph.edges.Edge;
+import dna.graph.edges.EdgeIndex;
 import dna.graph.edges.UndirectedEdge;
 import dna.graph.nodes.Node;
+import dna.graph.snapshots.GraphSnapshot;
+import dna.graph.snapshots.GraphVersions;
+import dna.profiler.Profiler;
+import dna.updates.batch.Batch;
+import dna.updates.update.Update;
+import dna.util.Config;
 import dna.util.Log;
+import dna.util.Rand;
 
 /**
  * Class for graphs. Methods that need special data structures are also defined
@@ -32,20 +50,85 @@ public class Graph {
 	private long timestamp;
 	protected GraphDataStructure gds;
 
+	/**
+	 * number of structural changes (node / edge additions and removals)
+	 * performed on this graph, used to detect outdated CSR snapshots
+	 */
+	private long modifications;
+
+	private CSRGraph csr;
+
+	private long csrTimestamp;
+
+	private long csrModifications;
+
+	/**
+	 * index of all edges of this graph by the indices of their nodes, used for
+	 * lookups instead of the edge list (null if disabled via GRAPH_EDGE_INDEX,
+	 * while profiling, or if the edge list does not benefit from it, cf.
+	 * isEdgeIndexed)
+	 */
+	private EdgeIndex edgeIndex;
+
+	/**
+	 * table in which the DOffHeap and DIntNeighborList lists of this graph and
+	 * its nodes register their nodes (null if the gds does not use such lists)
+	 */
+	private NodeTable nodeTable;
+
+	/**
+	 * snapshots of this graph (null if disabled, cf. enableVersioning)
+	 */
+	private volatile GraphVersions versions;
+
 	public Graph(String name, long timestamp, GraphDataStructure gds) {
+		this(name, timestamp, gds, 0, 0);
+	}
+
+	public Graph(String name, long timestamp, GraphDataStructure gds,
+			int nodeSize, int edgeSize) {
 		this.name = name;
 		this.timestamp = timestamp;
-		this.nodes = (INodeListDatastructure) gds.newList(ListType.GlobalNodeList);
-		this.edges = (IEdgeListDatastructure) gds.newList(ListType.GlobalEdgeList);
+		if (gds.usesNodeTable()) {
+			this.nodeTable = new NodeTable(gds);
+		}
+		this.nodes = (INodeListDatastructure) gds.newList(
+				ListType.GlobalNodeList, this.nodeTable);
+		this.edges = (IEdgeListDatastructure) gds.newList(
+				ListType.GlobalEdgeList, this.nodeTable);
 		this.gds = gds;
+		if (Config.getBoolean("GRAPH_EDGE_INDEX") && !Profiler.isActive()
+				&& isEdgeIndexed(gds, this.edges)) {
+			this.edgeIndex = new EdgeIndex(gds.createsDirected(), edgeSize);
+		}
+		if (Config.getInt("GRAPH_SNAPSHOTS") > 0) {
+			this.enableVersioning(Config.getInt("GRAPH_SNAPSHOTS"),
+					(long) Config.getInt("GRAPH_SNAPSHOTS_SIZE") << 20);
+		}
 	}
 
-	public Graph(String name, long timestamp, GraphDataStructure gds,
-			int nodeSize, int edgeSize) {
-		this(name, timestamp, gds);
+	/**
+	 * 
+	 * @return false in case the edge list does not store edges, stores them
+	 *         outside of the heap, or already looks them up by a primitive key
+	 *         (DIntHashSet) or answers failing lookups without a search
+	 *         (DBloomFilter), i.e., an index would only duplicate the edges
+	 */
+	private static boolean isEdgeIndexed(GraphDataStructure gds,
+			IEdgeListDatastructure edges) {
+		return gds.isReadable(edges) && !(edges instanceof DOffHeap)
+				&& !(edges instanceof DIntHashSet)
+				&& !(edges instanceof DBloomFilter);
 	}
 
 	public boolean addNode(Node n) {
+		if (this.nodeTable != null) {
+			n.setNodeTable(this.nodeTable);
+		}
+		this.modifications++;
+		if (this.versions != null) {
+			this.versions.nodeChanged(n);
+		}
 		return nodes.add(n);
 	}
 
@@ -71,9 +154,20 @@ public class Graph {
 	 * @return
 	 */
 	public Node getRandomNode() {
+		return this.getRandomNode(Rand.get());
+	}
+
+	/**
+	 * Retrieve a random node
+	 * 
+	 * @param rand
+	 *            random source used to select the node
+	 * @return
+	 */
+	public Node getRandomNode(Random rand) {
 		if (!gds.isReadable(nodes))
 			throw new RuntimeException("This is not a readable graph");
-		return (Node) ((INodeListDatastructureReadable) nodes).getRandom();
+		return (Node) ((INodeListDatastructureReadable) nodes).getRandom(rand);
 	}
 
 	/**
@@ -88,6 +182,10 @@ public class Graph {
 	}
 
 	public boolean removeNode(Node n) {
+		this.modifications++;
+		if (this.versions != null) {
+			this.versions.nodeChanged(n);
+		}
 		return nodes.remove(n);
 	}
 
@@ -110,21 +208,53 @@ public class Graph {
 	}
 
 	public boolean addEdge(Edge e) {
-		return this.containsNodes(e) && edges.add(e);
+		this.modifications++;
+		if (!this.containsNodes(e) || !edges.add(e)) {
+			return false;
+		}
+		if (this.edgeIndex != null) {
+			this.edgeIndex.add(e);
+		}
+		if (this.versions != null) {
+			this.versions.edgeChanged(e);
+		}
+		return true;
 	}
-	
+
 	public boolean containsEdge(Node n1, Node n2) {
-		return containsEdge(gds.getDummyEdge(n1, n2));
+		return containsEdge(n1.getIndex(), n2.getIndex());
 	}
 
+	/**
+	 * Check whether the graph contains an edge between the nodes with the
+	 * given indices (a lookup in the edge index of this graph if available)
+	 * 
+	 * @param n1
+	 * @param n2
+	 * @return
+	 */
 	public boolean containsEdge(int n1, int n2) {
+		if (this.edgeIndex != null) {
+			return this.edgeIndex.contains(n1, n2);
+		}
 		return containsEdge(gds.getDummyEdge(n1, n2));
 	}
 
 	public boolean containsEdge(Edge e) {
+		if (this.edgeIndex != null) {
+			return this.edgeIndex.contains(e);
+		}
 		return edges.contains(e);
 	}
 
+	/**
+	 * @return true if edge lookups of this graph are performed using an
+	 *         EdgeIndex instead of the edge list
+	 */
+	public boolean hasEdgeIndex() {
+		return this.edgeIndex != null;
+	}
+
 	public boolean containsNodes(Edge e) {
 		if (e instanceof DirectedEdge) {
 			return this.containsNode(((DirectedEdge) e).getSrc())
@@ -145,10 +275,24 @@ public class Graph {
 	 * @param Node n1, Node n2
 	 */
 	public Edge getEdge(Node n1, Node n2) {
+		return getEdge(n1.getIndex(), n2.getIndex());
+	}
+
+	/**
+	 * Get an edge by the indices of its attached nodes
+	 * 
+	 * @param n1
+	 * @param n2
+	 * @return
+	 */
+	public Edge getEdge(int n1, int n2) {
+		if (this.edgeIndex != null) {
+			return this.edgeIndex.get(n1, n2);
+		}
 		if (!gds.isReadable(edges))
 			throw new RuntimeException("This is not a readable graph");
 		return ((IEdgeListDatastructureReadable) edges).get(gds.getDummyEdge(n1, n2));
-	}	
+	}
 
 	/**
 	 * Retrieve a random edge
@@ -156,9 +300,20 @@ public class Graph {
 	 * @return
 	 */
 	public Edge getRandomEdge() {
+		return this.getRandomEdge(Rand.get());
+	}
+
+	/**
+	 * Retrieve a random edge
+	 * 
+	 * @param rand
+	 *            random source used to select the edge
+	 * @return
+	 */
+	public Edge getRandomEdge(Random rand) {
 		if (!gds.isReadable(edges))
 			throw new RuntimeException("This is not a readable graph");
-		return (Edge) ((IEdgeListDatastructureReadable) edges).getRandom();
+		return (Edge) ((IEdgeListDatastructureReadable) edges).getRandom(rand);
 	}
 
 	/**
@@ -173,7 +328,210 @@ public class Graph {
 	}
 
 	public boolean removeEdge(Edge e) {
-		return edges.remove(e);
+		this.modifications++;
+		if (!edges.remove(e)) {
+			return false;
+		}
+		if (this.edgeIndex != null) {
+			this.edgeIndex.remove(e);
+		}
+		if (this.versions != null) {
+			this.versions.edgeChanged(e);
+		}
+		return true;
+	}
+
+	/**
+	 * Adds all given nodes using a single bulk operation of the node list
+	 * (cf. IDataStructure.addAll)
+	 * 
+	 * @param nodes
+	 * @return number of nodes that were added
+	 */
+	public int addNodes(Collection<Node> nodes) {
+		this.modifications += nodes.size();
+		if (this.nodeTable != null) {
+			for (Node n : nodes) {
+				n.setNodeTable(this.nodeTable);
+			}
+		}
+		if (this.versions != null) {
+			for (Node n : nodes) {
+				this.versions.nodeChanged(n);
+			}
+		}
+		return this.nodes.addAll(nodes);
+	}
+
+	/**
+	 * Adds all given edges whose nodes are contained in this graph using a
+	 * single bulk operation of the edge list and connects each added edge to
+	 * its nodes
+	 * 
+	 * @param edges
+	 * @return number of edges that were added and connected to their nodes
+	 */
+	public int addEdges(Collection<Edge> edges) {
+		this.modifications += edges.size();
+		ArrayList<Edge> candidates = new ArrayList<Edge>(edges.size());
+		for (Edge e : edges) {
+			if (this.containsNodes(e)) {
+				candidates.add(e);
+			} else {
+				Log.error("could not add edge " + e + " (nodes not contained)");
+			}
+		}
+		boolean allAdded = this.edges.addAll(candidates) == candidates.size();
+		int added = 0;
+		for (Edge e : candidates) {
+			/**
+			 * In case not all edges were added, the ones that were already
+			 * contained (in the graph or earlier in the given collection) are
+			 * already connected to their nodes, i.e., connecting them fails
+			 */
+			if (!e.connectToNodes()) {
+				if (allAdded) {
+					Log.error("could not connect edge " + e);
+				} else {
+					Log.error("could not add edge " + e + " (already contained)");
+				}
+				continue;
+			}
+			if (this.edgeIndex != null) {
+				this.edgeIndex.add(e);
+			}
+			if (this.versions != null) {
+				this.versions.edgeChanged(e);
+			}
+			added++;
+		}
+		return added;
+	}
+
+	/**
+	 * Adds all given edges using a single bulk operation of the edge list
+	 * without connecting them to their nodes, i.e., they must already be
+	 * contained in the lists of their nodes (e.g., when building the
+	 * adjacency lists of all nodes in bulk, cf. ParallelGraphLoader)
+	 * 
+	 * @param edges
+	 * @return number of edges that were added
+	 */
+	public int addConnectedEdges(Collection<Edge> edges) {
+		this.modifications += edges.size();
+		Collection<Edge> toAdd = edges;
+		if (this.edgeIndex != null) {
+			/**
+			 * The index rejects the edges that are already contained (in the
+			 * graph or earlier in the given collection), so only the new ones
+			 * are added to the edge list and reported as changed
+			 */
+			toAdd = new ArrayList<Edge>(edges.size());
+			for (Edge e : edges) {
+				if (this.edgeIndex.add(e)) {
+					toAdd.add(e);
+				} else {
+					Log.error("could not add edge " + e + " (already contained)");
+				}
+			}
+		}
+		int added = this.edges.addAll(toAdd);
+		if (this.versions != null) {
+			/**
+			 * Without an index, rejected edges cannot be told apart from the
+			 * added ones, reporting them as changed only makes the next
+			 * snapshot copy the lists of their nodes
+			 */
+			for (Edge e : toAdd) {
+				this.versions.edgeChanged(e);
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Removes all given edges using a single bulk operation of the edge list
+	 * and disconnects them from their nodes
+	 * 
+	 * @param edges
+	 * @return number of edges that were removed
+	 */
+	public int removeEdges(Collection<Edge> edges) {
+		this.modifications += edges.size();
+		/**
+		 * Only the edges contained in the lists of both their nodes (i.e., in
+		 * this graph) are removed, each of them once, so that the index, the
+		 * versions, and the local lists are not touched for other edges
+		 */
+		LinkedHashSet<Edge> toRemove = new LinkedHashSet<Edge>(edges.size());
+		for (Edge e : edges) {
+			if (!e.getN1().hasEdge(e) || !e.getN2().hasEdge(e)
+					|| !toRemove.add(e)) {
+				Log.error("could not remove edge " + e + " (not contained)");
+			}
+		}
+		int removed = this.edges.removeAll(toRemove);
+		for (Edge e : toRemove) {
+			if (this.edgeIndex != null) {
+				this.edgeIndex.remove(e);
+			}
+			if (this.versions != null) {
+				this.versions.edgeChanged(e);
+			}
+			if (!e.disconnectFromNodes()) {
+				Log.error("could not disconnect edge " + e);
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Applies the given batch like applying each of its updates, but adds the
+	 * nodes and adds and removes the edges of the batch using the bulk
+	 * operations (addNodes, addEdges, removeEdges). Node removals and weight
+	 * updates are applied one by one. Must not be used if the updates need to
+	 * be observed individually, e.g., by metrics or the profiler.
+	 * 
+	 * @param b
+	 * @return true if all updates have been applied successfully
+	 */
+	public boolean applyBulk(Batch b) {
+		if (b.getFrom() != this.timestamp) {
+			throw new IllegalStateException("cannot apply batch "
+					+ b.toString() + " to graph " + this.toString());
+		}
+
+		// keep the graph before this batch in case versioning is enabled
+		this.getSnapshot();
+
+		boolean success = true;
+
+		success &= this.apply(b.getNodeRemovals());
+		success &= this.removeEdges(b.getRemovedEdges()) == b
+				.getEdgeRemovalsCount();
+
+		success &= this.addNodes(b.getAddedNodes()) == b
+				.getNodeAdditionsCount();
+		success &= this.addEdges(b.getAddedEdges()) == b
+				.getEdgeAdditionsCount();
+
+		success &= this.apply(b.getNodeWeights());
+		success &= this.apply(b.getEdgeWeights());
+
+		this.setTimestamp(b.getTo());
+
+		return success;
+	}
+
+	private boolean apply(Iterable<? extends Update> updates) {
+		boolean success = true;
+		for (Update u : updates) {
+			if (!u.apply(this)) {
+				Log.error("cannot apply '" + u + "' to '" + this + "'");
+				success = false;
+			}
+		}
+		return success;
 	}
 
 	/**
@@ -222,12 +580,89 @@ public class Graph {
 
 	public void setTimestamp(long timestamp) {
 		this.timestamp = timestamp;
+		// publish the new state for concurrent readers (cf. getLatestSnapshot)
+		this.getSnapshot();
 	}
 
 	public long getTimestamp() {
 		return this.timestamp;
 	}
 
+	/**
+	 * Retrieve an immutable CSR snapshot of this graph. The snapshot is only
+	 * rebuilt in case the timestamp has changed or nodes / edges have been
+	 * added or removed since the last call. Changes of weights at the same
+	 * timestamp are not reflected.
+	 * 
+	 * @return CSR snapshot of the current graph
+	 */
+	public synchronized CSRGraph getCSR() {
+		if (this.csr == null || this.csrTimestamp != this.timestamp
+				|| this.csrModifications != this.modifications) {
+			this.csr = new CSRGraph(this);
+			this.csrTimestamp = this.timestamp;
+			this.csrModifications = this.modifications;
+		}
+		return this.csr;
+	}
+
+	/**
+	 * Enables snapshots of this graph, one is taken whenever a batch has been
+	 * applied and before each batch is applied (cf. GraphVersions)
+	 * 
+	 * @param maxSnapshots
+	 *            maximum number of snapshots to retain
+	 * @param maxSize
+	 *            maximum number of bytes of all retained snapshots
+	 */
+	public void enableVersioning(int maxSnapshots, long maxSize) {
+		this.versions = new GraphVersions(this, maxSnapshots, maxSize);
+	}
+
+	public void disableVersioning() {
+		this.versions = null;
+	}
+
+	public GraphVersions getVersions() {
+		return this.versions;
+	}
+
+	/**
+	 * Retrieve an immutable snapshot of the current structure of this graph
+	 * 
+	 * @return snapshot of the current graph, null if versioning is disabled
+	 */
+	public GraphSnapshot getSnapshot() {
+		return this.versions == null ? null : this.versions.snapshot();
+	}
+
+	/**
+	 * Retrieve a retained snapshot of this graph, e.g., the graph before
+	 * applying batch b via getSnapshot(b.getFrom())
+	 * 
+	 * @param timestamp
+	 * @return snapshot of this graph at the given timestamp, null if none is
+	 *         retained or versioning is disabled
+	 */
+	public GraphSnapshot getSnapshot(long timestamp) {
+		return this.versions == null ? null : this.versions
+				.getSnapshot(timestamp);
+	}
+
+	/**
+	 * Retrieve the latest snapshot of this graph without locking, i.e., the
+	 * graph after the last batch that has been applied completely. Can be
+	 * called by any thread while a single writer modifies the graph, e.g.,
+	 * applies the next batch.
+	 * 
+	 * @return latest snapshot of this graph, null if none has been taken yet
+	 *         or versioning is disabled
+	 */
+	public GraphSnapshot getLatestSnapshot() {
+		GraphVersions versions = this.versions;
+		return versions == null ? null : versions.getLatest();
+	}
+
 	public GraphDataStructure getGraphDatastructures() {
 		return this.gds;
 	}
@@ -328,13 +763,20 @@ public class Graph {
 	
 	public void switchDataStructure(ListType type, Class<? extends IDataStructure> newDatastructureType) {
 		IDataStructure newDatastructure;
+		if (this.nodeTable == null
+				&& (newDatastructureType == DOffHeap.class
+				|| newDatastructureType == DIntNeighborList.class)) {
+			this.nodeTable = new NodeTable(gds);
+		}
 		switch(type) {
 		case GlobalEdgeList:
-			newDatastructure = gds.newList(type, newDatastructureType);
+			newDatastructure = gds.newList(type, newDatastructureType,
+					this.nodeTable);
 			this.edges = (IEdgeListDatastructure) ((IEdgeListDatastructureReadable)this.edges).switchTo(newDatastructure);
 			break;
 		case GlobalNodeList:
-			newDatastructure = gds.newList(type, newDatastructureType);
+			newDatastructure = gds.newList(type, newDatastructureType,
+					this.nodeTable);
 			this.nodes = (INodeListDatastructure) ((INodeListDatastructureReadable)this.nodes).switchTo(newDatastructure);
 			break;
 		case LocalEdgeList:
@@ -342,7 +784,8 @@ public class Graph {
 		case LocalOutEdgeList:
 		case LocalNodeList:
 			for ( IElement n: this.getNodes()) {
-				newDatastructure = gds.newList(type, newDatastructureType);
+				newDatastructure = gds.newList(type, newDatastructureType,
+						this.nodeTable);
 				((Node) n).switchDataStructure(type, newDatastructure);
 			}
 		}
@@ -0,0 +1,277 @@
+package dna.graph.csr;
+
+import java.util.Arrays;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.graph.weights.DoubleWeight;
+import dna.graph.weights.IWeightedEdge;
+import dna.graph.weights.IntWeight;
+import dna.graph.weights.LongWeight;
+import dna.graph.weights.Weight;
+
+/**
+ *
+ * immutable compressed sparse row (CSR) snapshot of a graph. the adjacency of
+ * node n is stored in targets[offsets[n]] to targets[offsets[n+1] - 1] and is
+ * sorted by node index, i.e., containsEdge(src, dst) is a binary search.
+ * offsets are indexed by node index (not by position) so that metrics can use
+ * their existing arrays of size maxNodeIndex + 1.
+ *
+ * for directed graphs, separate out- and in-adjacencies are stored, for
+ * undirected graphs both refer to the same arrays. weights are only stored
+ * for edges with a single-valued weight (IntWeight, LongWeight, DoubleWeight).
+ *
+ * a snapshot of a graph should be obtained using Graph.getCSR() which only
+ * rebuilds it in case the graph has changed.
+ *
+ * @author benni
+ *
+ */
+public class CSRGraph implements IGraphTraversal {
+
+	private boolean directed;
+
+	private int[] nodes;
+
+	private boolean[] contained;
+
+	private int edgeCount;
+
+	private int[] outOffsets;
+
+	private int[] outTargets;
+
+	private double[] outWeights;
+
+	private int[] inOffsets;
+
+	private int[] inTargets;
+
+	private double[] inWeights;
+
+	public CSRGraph(Graph g) {
+		this.directed = g.isDirected();
+		this.edgeCount = g.getEdgeCount();
+
+		int maxIndex = Math.max(g.getMaxNodeIndex(), -1);
+		this.nodes = new int[g.getNodeCount()];
+		this.contained = new boolean[maxIndex + 1];
+		int pos = 0;
+		for (IElement n_ : g.getNodes()) {
+			int index = ((Node) n_).getIndex();
+			this.nodes[pos++] = index;
+			this.contained[index] = true;
+		}
+		if (pos != this.nodes.length) {
+			this.nodes = Arrays.copyOf(this.nodes, pos);
+		}
+
+		boolean weighted = g.getGraphDatastructures().createsWeightedEdges()
+				&& isSingleValued(g.getGraphDatastructures()
+						.getEdgeWeightType());
+
+		/*
+		 * collect all (src,dst) pairs, undirected edges in both directions
+		 */
+		int entries = this.directed ? this.edgeCount : 2 * this.edgeCount;
+		int[] src = new int[entries];
+		int[] dst = new int[entries];
+		double[] w = weighted ? new double[entries] : null;
+		int e = 0;
+		for (IElement e_ : g.getEdges()) {
+			Edge edge = (Edge) e_;
+			int n1 = edge.getN1Index();
+			int n2 = edge.getN2Index();
+			double weight = weighted ? getWeight(((IWeightedEdge) edge)
+					.getWeight()) : 0;
+			src[e] = n1;
+			dst[e] = n2;
+			if (weighted)
+				w[e] = weight;
+			e++;
+			if (!this.directed) {
+				src[e] = n2;
+				dst[e] = n1;
+				if (weighted)
+					w[e] = weight;
+				e++;
+			}
+		}
+
+		/*
+		 * two stable counting sorts: bucketing by dst and then by src results
+		 * in out-adjacencies sorted by dst (and vice versa for in)
+		 */
+		int[] byDstOffsets = offsets(dst, e, maxIndex);
+		int[] byDst = new int[e];
+		int[] fill = Arrays.copyOf(byDstOffsets, byDstOffsets.length);
+		for (int i = 0; i < e; i++) {
+			byDst[fill[dst[i]]++] = i;
+		}
+
+		this.outOffsets = offsets(src, e, maxIndex);
+		this.outTargets = new int[e];
+		this.outWeights = weighted ? new double[e] : null;
+		int[] bySrc = new int[e];
+		fill = Arrays.copyOf(this.outOffsets, this.outOffsets.length);
+		for (int i = 0; i < e; i++) {
+			int edgeId = byDst[i];
+			int p = fill[src[edgeId]]++;
+			bySrc[p] = edgeId;
+			this.outTargets[p] = dst[edgeId];
+			if (weighted)
+				this.outWeights[p] = w[edgeId];
+		}
+
+		if (!this.directed) {
+			this.inOffsets = this.outOffsets;
+			this.inTargets = this.outTargets;
+			this.inWeights = this.outWeights;
+			return;
+		}
+
+		this.inOffsets = byDstOffsets;
+		this.inTargets = new int[e];
+		this.inWeights = weighted ? new double[e] : null;
+		fill = Arrays.copyOf(this.inOffsets, this.inOffsets.length);
+		for (int i = 0; i < e; i++) {
+			int edgeId = bySrc[i];
+			int p = fill[dst[edgeId]]++;
+			this.inTargets[p] = src[edgeId];
+			if (weighted)
+				this.inWeights[p] = w[edgeId];
+		}
+	}
+
+	private static int[] offsets(int[] keys, int length, int maxIndex) {
+		int[] offsets = new int[maxIndex + 2];
+		for (int i = 0; i < length; i++) {
+			offsets[keys[i] + 1]++;
+		}
+		for (int i = 1; i < offsets.length; i++) {
+			offsets[i] += offsets[i - 1];
+		}
+		return offsets;
+	}
+
+	private static boolean isSingleValued(Class<? extends Weight> type) {
+		return type != null
+				&& (IntWeight.class.isAssignableFrom(type)
+						|| LongWeight.class.isAssignableFrom(type) || DoubleWeight.class
+							.isAssignableFrom(type));
+	}
+
+	private static double getWeight(Weight w) {
+		if (w instanceof IntWeight) {
+			return ((IntWeight) w).getWeight();
+		} else if (w instanceof LongWeight) {
+			return ((LongWeight) w).getWeight();
+		} else if (w instanceof DoubleWeight) {
+			return ((DoubleWeight) w).getWeight();
+		}
+		return Double.NaN;
+	}
+
+	@Override
+	public boolean isDirected() {
+		return this.directed;
+	}
+
+	@Override
+	public int getNodeCount() {
+		return this.nodes.length;
+	}
+
+	@Override
+	public int getEdgeCount() {
+		return this.edgeCount;
+	}
+
+	@Override
+	public int getMaxNodeIndex() {
+		return this.contained.length - 1;
+	}
+
+	@Override
+	public int getNodeIndex(int position) {
+		return this.nodes[position];
+	}
+
+	@Override
+	public boolean containsNode(int index) {
+		return index >= 0 && index < this.contained.length
+				&& this.contained[index];
+	}
+
+	@Override
+	public int outStart(int index) {
+		return this.outOffsets[index];
+	}
+
+	@Override
+	public int outEnd(int index) {
+		return this.outOffsets[index + 1];
+	}
+
+	@Override
+	public int outTarget(int position) {
+		return this.outTargets[position];
+	}
+
+	@Override
+	public int getOutDegree(int index) {
+		return this.outOffsets[index + 1] - this.outOffsets[index];
+	}
+
+	@Override
+	public int inStart(int index) {
+		return this.inOffsets[index];
+	}
+
+	@Override
+	public int inEnd(int index) {
+		return this.inOffsets[index + 1];
+	}
+
+	@Override
+	public int inTarget(int position) {
+		return this.inTargets[position];
+	}
+
+	@Override
+	public int getInDegree(int index) {
+		return this.inOffsets[index + 1] - this.inOffsets[index];
+	}
+
+	@Override
+	public boolean hasWeights() {
+		return this.outWeights != null;
+	}
+
+	@Override
+	public double outWeight(int position) {
+		return this.outWeights[position];
+	}
+
+	@Override
+	public double inWeight(int position) {
+		return this.inWeights[position];
+	}
+
+	@Override
+	public boolean containsEdge(int src, int dst) {
+		if (!this.containsNode(src)) {
+			return false;
+		}
+		return Arrays.binarySearch(this.outTargets, this.outOffsets[src],
+				this.outOffsets[src + 1], dst) >= 0;
+	}
+
+	public String toString() {
+		return "CSR (" + this.getNodeCount() + "/" + this.getEdgeCount()
+				+ (this.directed ? ", directed" : ", undirected") + ")";
+	}
+}
@@ -0,0 +1,90 @@
+package dna.graph.csr;
+
+/**
+ *
+ * primitive, index-based view of the adjacency of a graph. all nodes are
+ * identified by their index, all adjacencies are addressed by positions in a
+ * shared target array:
+ *
+ * for (int i = outStart(n); i < outEnd(n); i++) { int m = outTarget(i); }
+ *
+ * traversing the graph this way does not allocate any objects. for undirected
+ * graphs, the in- and out-adjacency are identical and contain each edge in both
+ * directions.
+ *
+ * @author benni
+ *
+ */
+public interface IGraphTraversal {
+
+	/**
+	 * @return true, in case the traversed graph is directed
+	 */
+	public boolean isDirected();
+
+	/**
+	 * @return number of nodes contained in the graph
+	 */
+	public int getNodeCount();
+
+	/**
+	 * @return number of edges contained in the graph (undirected edges are
+	 *         counted once)
+	 */
+	public int getEdgeCount();
+
+	/**
+	 * @return highest index of all nodes contained in the graph
+	 */
+	public int getMaxNodeIndex();
+
+	/**
+	 * @param position
+	 *            position in [0, getNodeCount())
+	 * @return index of the node at the given position, i.e., nodes are
+	 *         traversed in the same order as by Graph.getNodes()
+	 */
+	public int getNodeIndex(int position);
+
+	/**
+	 * @param index
+	 *            node index
+	 * @return true, in case a node with this index is contained in the graph
+	 */
+	public boolean containsNode(int index);
+
+	public int outStart(int index);
+
+	public int outEnd(int index);
+
+	public int outTarget(int position);
+
+	public int getOutDegree(int index);
+
+	public int inStart(int index);
+
+	public int inEnd(int index);
+
+	public int inTarget(int position);
+
+	public int getInDegree(int index);
+
+	/**
+	 * @return true, in case weights are available via outWeight / inWeight
+	 */
+	public boolean hasWeights();
+
+	public double outWeight(int position);
+
+	public double inWeight(int position);
+
+	/**
+	 * @param src
+	 *            index of the source node
+	 * @param dst
+	 *            index of the destination node
+	 * @return true, in case the edge src -> dst (or src <-> dst in case of an
+	 *         undirected graph) exists
+	 */
+	public boolean containsEdge(int src, int dst);
+}
@@ -0,0 +1,196 @@
+package dna.graph.datastructures;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Random;
+
+import dna.graph.IElement;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.util.Config;
+
+/**
+ * Data structure intended for local lists whose size varies strongly between
+ * nodes, e.g., the edge lists of the nodes of a power-law graph. Elements are
+ * kept in a compact DIntArray as long as the list is small. Once it holds more
+ * than ADAPTIVELIST_PROMOTION_SIZE elements, it is promoted to a DIntHashSet
+ * (constant-time contains, get, and remove). When a promoted list shrinks to
+ * a quarter of that size, it is demoted to a DIntArray again. The gap between
+ * both thresholds prevents a list from switching back and forth when elements
+ * are added and removed around a single threshold.
+ *
+ * @author benni
+ *
+ */
+public class DAdaptiveList extends DataStructureReadable implements
+		INodeListDatastructureReadable, IEdgeListDatastructureReadable {
+	private DataStructureReadable list;
+
+	private boolean hashed;
+
+	private static int promotionSize = Config
+			.getInt("ADAPTIVELIST_PROMOTION_SIZE");
+
+	public DAdaptiveList(ListType lt, Class<? extends IElement> dT) {
+		super(lt, dT);
+	}
+
+	public void init(Class<? extends IElement> dT, int initialSize,
+			boolean firstTime) {
+		this.hashed = initialSize > promotionSize;
+		this.list = this.newList(this.hashed, dT, initialSize);
+	}
+
+	private DataStructureReadable newList(boolean hashed,
+			Class<? extends IElement> dT, int size) {
+		DataStructureReadable list = hashed ? new DIntHashSet(this.listType,
+				dT) : new DIntArray(this.listType, dT);
+		list.reinitializeWithSize(size);
+		return list;
+	}
+
+	/**
+	 * moves all elements into a new list of the given representation
+	 */
+	private void convert(boolean hashed) {
+		DataStructureReadable newList = this.newList(hashed, this.dataType,
+				hashed ? 2 * this.list.size() : promotionSize);
+		for (IElement e : this.list) {
+			if (e instanceof Node)
+				newList.add_((Node) e);
+			else
+				newList.add_((Edge) e);
+		}
+		this.list.prepareForGC();
+		this.list = newList;
+		this.hashed = hashed;
+	}
+
+	/**
+	 *
+	 * @param size
+	 *            number of elements in the list
+	 * @return class of the list the elements are stored in when the list is
+	 *         grown to the given size
+	 */
+	public static Class<? extends IDataStructure> getStorageClass(double size) {
+		return size > promotionSize ? DIntHashSet.class : DIntArray.class;
+	}
+
+	/**
+	 *
+	 * @return true if the elements are currently stored in a hash table
+	 */
+	public boolean isHashed() {
+		return this.hashed;
+	}
+
+	public boolean add(IElement element) {
+		if (element instanceof Node)
+			return this.add((Node) element);
+		if (element instanceof Edge)
+			return this.add((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	protected boolean add_(Node element) {
+		return this.added(this.list.add_(element));
+	}
+
+	@Override
+	protected boolean add_(Edge element) {
+		return this.added(this.list.add_(element));
+	}
+
+	private boolean added(boolean success) {
+		if (success && !this.hashed && this.list.size() > promotionSize) {
+			this.convert(true);
+		}
+		return success;
+	}
+
+	@Override
+	public boolean contains(IElement element) {
+		return this.list.contains(element);
+	}
+
+	@Override
+	public boolean contains(Node element) {
+		return this.list.contains(element);
+	}
+
+	@Override
+	public boolean contains(Edge element) {
+		return this.list.contains(element);
+	}
+
+	@Override
+	public boolean remove(IElement element) {
+		return this.removed(this.list.remove(element));
+	}
+
+	@Override
+	public boolean remove(Node element) {
+		return this.removed(this.list.remove(element));
+	}
+
+	@Override
+	public boolean remove(Edge element) {
+		return this.removed(this.list.remove(element));
+	}
+
+	private boolean removed(boolean success) {
+		if (success && this.hashed
+				&& this.list.size() <= promotionSize / 4) {
+			this.convert(false);
+		}
+		return success;
+	}
+
+	@Override
+	public int size() {
+		return this.list.size();
+	}
+
+	@Override
+	public IElement getRandom(Random rand) {
+		return this.list.getRandom(rand);
+	}
+
+	@Override
+	public Collection<IElement> getElements() {
+		return this.list.getElements();
+	}
+
+	@Override
+	protected Iterator<IElement> iterator_() {
+		return this.list.iterator();
+	}
+
+	@Override
+	public Node get(int index) {
+		return ((INodeListDatastructureReadable) this.list).get(index);
+	}
+
+	@Override
+	public Edge get(int n1, int n2) {
+		return ((IEdgeListDatastructureReadable) this.list).get(n1, n2);
+	}
+
+	@Override
+	public Edge get(Edge element) {
+		return ((IEdgeListDatastructureReadable) this.list).get(element);
+	}
+
+	@Override
+	public int getMaxNodeIndex() {
+		return ((INodeListDatastructure) this.list).getMaxNodeIndex();
+	}
+
+	public void prepareForGC() {
+		this.list.prepareForGC();
+		this.list = null;
+	}
+}
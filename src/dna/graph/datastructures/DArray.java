@@ -3,18 +3,28 @@ package dna.graph.datastructures;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Random;
 
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
 import dna.util.Log;
-import dna.util.Rand;
+import dna.util.OpenAddressingTable;
 
 /**
  * Data structure to store IElements in an array
- * 
+ *
+ * Nodes are stored at the position of their index. Edges are stored at
+ * arbitrary positions: positions freed by a removal are kept on a stack and
+ * re-used by the next addition, the position of each edge is kept in an index
+ * (keyed by its nodes' indices) so that edges can be found and removed in
+ * constant time.
+ *
+ * The array grows geometrically and shrinks once less than a quarter of it is
+ * used, so all operations are amortized O(1).
+ *
  * @author Nico
- * 
+ *
  */
 public class DArray extends DataStructureReadable implements
 		INodeListDatastructureReadable, IEdgeListDatastructureReadable {
@@ -22,6 +32,75 @@ public class DArray extends DataStructureReadable implements
 	private int count;
 	private int maxNodeIndex;
 
+	/**
+	 * edges only: first position that has never been used
+	 */
+	private int end;
+
+	/**
+	 * edges only: stack of free positions < end
+	 */
+	private int[] free;
+	private int freeCount;
+
+	/**
+	 * edges only: open-addressing index from edge key (cf. DIntArray.getKey)
+	 * to position, null until the first edge is added
+	 */
+	private Index index;
+
+	/**
+	 * keys and positions + 1 in two parallel arrays, 0 denotes an empty slot
+	 */
+	private static final class Index extends OpenAddressingTable<Index> {
+		private int[] keys;
+		private int[] positions;
+
+		private Index(int bits) {
+			super(bits);
+			this.keys = new int[1 << bits];
+			this.positions = new int[1 << bits];
+		}
+
+		@Override
+		public int home(long key) {
+			return this.hash((int) key);
+		}
+
+		@Override
+		public boolean isEmpty(int slot) {
+			return this.positions[slot] == 0;
+		}
+
+		@Override
+		public long getKey(int slot) {
+			return this.keys[slot];
+		}
+
+		@Override
+		protected void copy(Index index, int from, int to) {
+			this.keys[to] = index.keys[from];
+			this.positions[to] = index.positions[from];
+		}
+
+		@Override
+		protected void clear(int slot) {
+			this.positions[slot] = 0;
+		}
+
+		@Override
+		protected Index newTable(int bits) {
+			return new Index(bits);
+		}
+
+		private void put(int key, int pos) {
+			int i = this.findEmpty(key);
+			this.keys[i] = key;
+			this.positions[i] = pos + 1;
+			this.size++;
+		}
+	}
+
 	public DArray(ListType lt, Class<? extends IElement> dT) {
 		super(lt, dT);
 	}
@@ -29,7 +108,12 @@ public class DArray extends DataStructureReadable implements
 	public void init(Class<? extends IElement> dT, int initialSize,
 			boolean firstTime) {
 		this.list = new IElement[initialSize];
+		this.count = 0;
 		this.maxNodeIndex = -1;
+		this.end = 0;
+		this.free = null;
+		this.freeCount = 0;
+		this.index = null;
 	}
 
 	public boolean add(IElement element) {
@@ -46,51 +130,81 @@ public class DArray extends DataStructureReadable implements
 	 * array might need to grow to the proper size
 	 */
 	protected boolean add_(Node element) {
-		if (this.list.length == 0) {
-			this.list = new IElement[element.getIndex() + 1];
-		}
-
-		while (element.getIndex() >= this.list.length) {
-			this.resize();
+		int index = element.getIndex();
+		if (index >= this.list.length) {
+			this.resize(Math.max(index + 1, 2 * this.list.length));
 		}
-		if (this.list[element.getIndex()] != null) {
+		if (this.list[index] != null) {
 			return false;
 		}
-		this.list[element.getIndex()] = element;
+		this.list[index] = element;
 		this.count++;
-		if (element.getIndex() > this.maxNodeIndex) {
-			this.maxNodeIndex = element.getIndex();
+		if (index > this.maxNodeIndex) {
+			this.maxNodeIndex = index;
 		}
 		return true;
 	}
 
 	@Override
 	protected boolean add_(Edge element) {
-		int addPos = 0;
-
-		// TODO these lists need shrinking!
-
-		if (this.count == this.list.length) {
-			addPos = this.list.length;
-			this.resize();
+		int addPos;
+		if (this.freeCount > 0) {
+			addPos = this.free[--this.freeCount];
 		} else {
-			// Find first free position
-			while (addPos < this.list.length && this.list[addPos] != null)
-				addPos++;
-		}
-		while (addPos > this.list.length) {
-			this.resize();
+			if (this.end == this.list.length) {
+				this.resize(Math.max(this.defaultSize, 2 * this.list.length));
+			}
+			addPos = this.end++;
 		}
 		if (this.list[addPos] != null)
 			throw new RuntimeException("Won't overwrite");
 		this.list[addPos] = element;
 		this.count++;
+		this.indexPut(DIntArray.getKey(element), addPos);
 		return true;
 	}
 
-	public void resize() {
-		IElement[] newList = new IElement[this.list.length + 1];
-		System.arraycopy(this.list, 0, newList, 0, this.list.length);
+	/**
+	 * Grows the array once to hold all elements before adding them
+	 */
+	@Override
+	public int addAll(Collection<? extends IElement> elements) {
+		int maxIndex = -1;
+		int edges = 0;
+		for (IElement element : elements) {
+			this.canAdd(element);
+			if (element instanceof Node)
+				maxIndex = Math.max(maxIndex, ((Node) element).getIndex());
+			else
+				edges++;
+		}
+		int length = Math.max(maxIndex + 1, this.end
+				+ Math.max(0, edges - this.freeCount));
+		if (length > this.list.length) {
+			this.resize(Math.max(length, 2 * this.list.length));
+		}
+		boolean check = isContainsCheckEnabled();
+		int added = 0;
+		for (IElement element : elements) {
+			if (element instanceof Node) {
+				if (this.add_((Node) element))
+					added++;
+			} else if (!check || !this.contains((Edge) element)) {
+				if (this.add_((Edge) element))
+					added++;
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * copies the first min(length, list.length) positions into an array of the
+	 * given length
+	 */
+	private void resize(int length) {
+		IElement[] newList = new IElement[length];
+		System.arraycopy(this.list, 0, newList, 0,
+				Math.min(length, this.list.length));
 		this.list = newList;
 	}
 
@@ -111,13 +225,7 @@ public class DArray extends DataStructureReadable implements
 
 	@Override
 	public boolean contains(Edge element) {
-		for (IElement e : this.list) {
-			if (e == null)
-				continue;
-			if (e.equals(element))
-				return true;
-		}
-		return false;
+		return this.indexFind(element.getN1Index(), element.getN2Index()) >= 0;
 	}
 
 	public boolean remove(IElement element) {
@@ -134,58 +242,106 @@ public class DArray extends DataStructureReadable implements
 	 * might also shrink again
 	 */
 	public boolean remove(Node element) {
-		if (this.list.length <= element.getIndex()) {
+		int index = element.getIndex();
+		if (this.list.length <= index || this.list[index] == null) {
 			return false;
 		}
-		if (this.list[element.getIndex()] == null) {
-			return false;
-		}
-		this.list[element.getIndex()] = null;
-
+		this.list[index] = null;
 		this.count--;
 
-		if (element.getIndex() == this.maxNodeIndex) {
-			for (int i = this.maxNodeIndex; i >= 0; i--) {
-				if (this.list[i] != null) {
-					this.maxNodeIndex = ((Node) this.list[i]).getIndex();
-					break;
-				}
-				if (i == 0 && this.maxNodeIndex == element.getIndex()) {
-					this.maxNodeIndex = -1;
-				}
+		if (index == this.maxNodeIndex) {
+			int max = index - 1;
+			while (max >= 0 && this.list[max] == null) {
+				max--;
 			}
+			this.maxNodeIndex = max;
 		}
 
-		if (this.list[this.list.length - 1] != null) {
-			return true;
-		}
-
-		if (this.maxNodeIndex >= this.list.length / 2) {
-			return true;
+		if (this.list.length > this.defaultSize
+				&& this.maxNodeIndex < this.list.length / 4) {
+			this.resize(Math.max(this.defaultSize, 2 * (this.maxNodeIndex + 1)));
 		}
-
-		IElement[] nodesNew = new IElement[this.maxNodeIndex + 1];
-		System.arraycopy(this.list, 0, nodesNew, 0, this.maxNodeIndex + 1);
-		this.list = nodesNew;
-
 		return true;
 	}
 
 	@Override
 	public boolean remove(Edge element) {
-		for (int i = 0; i < this.list.length; i++) {
-			if (this.list[i] == null)
-				continue;
-			if (this.list[i].equals(element)) {
-				this.list[i] = null;
-				this.count--;
-				return true;
+		int slot = this.indexFind(element.getN1Index(), element.getN2Index());
+		if (slot < 0) {
+			Log.debug("Cannot remove element " + element.asString()
+					+ " that is not in list of size " + this.size()
+					+ " / length " + this.list.length);
+			return false;
+		}
+		int pos = this.index.positions[slot] - 1;
+		this.index.removeAt(slot);
+		this.list[pos] = null;
+		this.count--;
+
+		if (this.list.length > this.defaultSize
+				&& this.count < this.list.length / 4) {
+			this.compact();
+		} else {
+			if (this.free == null || this.freeCount == this.free.length) {
+				int[] newFree = new int[this.free == null ? this.defaultSize
+						: 2 * this.free.length];
+				if (this.free != null)
+					System.arraycopy(this.free, 0, newFree, 0, this.freeCount);
+				this.free = newFree;
 			}
+			this.free[this.freeCount++] = pos;
+		}
+		return true;
+	}
+
+	/**
+	 * moves all edges to the beginning of a smaller array and rebuilds the
+	 * index, no position is free afterwards
+	 */
+	private void compact() {
+		IElement[] newList = new IElement[Math.max(this.defaultSize,
+				2 * this.count)];
+		int pos = 0;
+		for (int i = 0; i < this.end; i++) {
+			if (this.list[i] != null)
+				newList[pos++] = this.list[i];
+		}
+		this.list = newList;
+		this.end = pos;
+		this.free = null;
+		this.freeCount = 0;
+		this.index = null;
+		for (int i = 0; i < this.end; i++) {
+			this.indexPut(DIntArray.getKey((Edge) this.list[i]), i);
 		}
-		Log.debug("Cannot remove element " + element.asString()
-				+ " that is not in list of size " + this.size() + " / length "
-				+ this.list.length);
-		return false;
+	}
+
+	private void indexPut(int key, int pos) {
+		if (this.index == null) {
+			this.index = new Index(OpenAddressingTable.getBits(4, this.count));
+		} else if (this.index.isFull()) {
+			this.index = this.index.rehash(this.index.getBits() + 1);
+		}
+		this.index.put(key, pos);
+	}
+
+	/**
+	 *
+	 * @return slot of the index that points to the edge between the given
+	 *         nodes, -1 if there is no such edge
+	 */
+	private int indexFind(int n1, int n2) {
+		Index index = this.index;
+		if (index == null)
+			return -1;
+		int key = DIntArray.getKey(n1, n2);
+		for (int i = index.home(key); !index.isEmpty(i); i = index.next(i)) {
+			if (index.keys[i] == key
+					&& DIntArray.connects(this.list[index.positions[i] - 1],
+							n1, n2))
+				return i;
+		}
+		return -1;
 	}
 
 	@Override
@@ -194,13 +350,13 @@ public class DArray extends DataStructureReadable implements
 	}
 
 	@Override
-	public IElement getRandom() {
+	public IElement getRandom(Random rand) {
 		if (this.size() == 0)
 			return null;
 
-		int index = Rand.rand.nextInt(this.list.length);
+		int index = rand.nextInt(this.list.length);
 		while (this.list[index] == null) {
-			index = Rand.rand.nextInt(this.list.length);
+			index = rand.nextInt(this.list.length);
 		}
 		return this.list[index];
 	}
@@ -228,14 +384,10 @@ public class DArray extends DataStructureReadable implements
 
 	@Override
 	public Edge get(int n1, int n2) {
-		for (IElement eU : list) {
-			if (eU == null)
-				continue;
-			Edge e = (Edge) eU;
-			if (e.getN1Index() == n1 && e.getN2Index() == n2)
-				return e;
-		}
-		return null;
+		int slot = this.indexFind(n1, n2);
+		if (slot < 0)
+			return null;
+		return (Edge) this.list[this.index.positions[slot] - 1];
 	}
 
 	@Override
@@ -282,5 +434,7 @@ public class DArray extends DataStructureReadable implements
 
 	public void prepareForGC() {
 		this.list = null;
+		this.free = null;
+		this.index = null;
 	}
 }
@@ -3,11 +3,11 @@ package dna.graph.datastructures;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Random;
 
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
-import dna.util.Rand;
 
 public class DArrayDeque extends DataStructureReadable implements
 		INodeListDatastructureReadable, IEdgeListDatastructureReadable {
@@ -133,8 +133,8 @@ public class DArrayDeque extends DataStructureReadable implements
 	}
 
 	@Override
-	public IElement getRandom() {
-		int listIndex = Rand.rand.nextInt(this.list.size());
+	public IElement getRandom(Random rand) {
+		int listIndex = rand.nextInt(this.list.size());
 		int count = 0;
 
 		for (IElement el : this.list) {
@@ -2,12 +2,13 @@ package dna.graph.datastructures;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Random;
 
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
-import dna.util.Rand;
 
 /**
  * Data structure to store IElements in an arraylist
@@ -51,6 +52,38 @@ public class DArrayList extends DataStructureReadable implements
 		return this.list.add(element);
 	}
 
+	/**
+	 * Instead of scanning the list for each element, the elements that are
+	 * already stored are determined in a single pass over the list
+	 */
+	@Override
+	public int addAll(Collection<? extends IElement> elements) {
+		for (IElement element : elements) {
+			this.canAdd(element);
+		}
+		HashSet<IElement> toAdd = null;
+		if (isContainsCheckEnabled()) {
+			toAdd = new HashSet<IElement>(elements);
+			for (IElement element : this.list) {
+				toAdd.remove(element);
+			}
+		}
+		this.list.ensureCapacity(this.list.size() + elements.size());
+		int added = 0;
+		for (IElement element : elements) {
+			if (toAdd != null && !toAdd.remove(element)) {
+				continue;
+			}
+			this.list.add(element);
+			if (element instanceof Node) {
+				this.maxNodeIndex = Math.max(this.maxNodeIndex,
+						((Node) element).getIndex());
+			}
+			added++;
+		}
+		return added;
+	}
+
 	@Override
 	public boolean contains(IElement element) {
 		if (element instanceof Node)
@@ -101,6 +134,39 @@ public class DArrayList extends DataStructureReadable implements
 		return this.list.remove(e);
 	}
 
+	/**
+	 * Removes all elements in a single pass over the list (keeping the order
+	 * of the remaining ones) instead of searching and shifting the list for
+	 * each element
+	 */
+	@Override
+	public int removeAll(Collection<? extends IElement> elements) {
+		HashSet<IElement> toRemove = new HashSet<IElement>(elements);
+		boolean maxNodeRemoved = false;
+		int pos = 0;
+		for (int i = 0; i < this.list.size(); i++) {
+			IElement element = this.list.get(i);
+			if (toRemove.remove(element)) {
+				if (element instanceof Node
+						&& ((Node) element).getIndex() == this.maxNodeIndex) {
+					maxNodeRemoved = true;
+				}
+				continue;
+			}
+			this.list.set(pos++, element);
+		}
+		int removed = this.list.size() - pos;
+		this.list.subList(pos, this.list.size()).clear();
+		if (maxNodeRemoved) {
+			int max = -1;
+			for (IElement n : this.list) {
+				max = Math.max(((Node) n).getIndex(), max);
+			}
+			this.maxNodeIndex = max;
+		}
+		return removed;
+	}
+
 	@Override
 	public int size() {
 		return list.size();
@@ -164,8 +230,8 @@ public class DArrayList extends DataStructureReadable implements
 	}
 
 	@Override
-	public IElement getRandom() {
-		return this.list.get(Rand.rand.nextInt(this.list.size()));
+	public IElement getRandom(Random rand) {
+		return this.list.get(rand.nextInt(this.list.size()));
 	}
 
 	@Override
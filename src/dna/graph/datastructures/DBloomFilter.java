@@ -1,111 +1,309 @@
 package dna.graph.datastructures;
 
+import java.util.Collection;
 import java.util.Iterator;
-
-import com.google.common.hash.BloomFilter;
-import com.google.common.hash.Funnel;
-import com.google.common.hash.PrimitiveSink;
+import java.util.Random;
 
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
+import dna.util.Config;
+
+/**
+ * Data structure that places a counting bloom filter in front of another,
+ * readable data structure (BLOOMFILTER_DATASTRUCTURE) that actually stores
+ * the elements. contains, get, and remove for an element that is not stored
+ * return after checking the filter, i.e., without accessing the wrapped list.
+ * This includes the duplicate check performed by DataStructure.add and
+ * Graph.containsEdge in case the filter is used as the global edge list. All
+ * other operations are delegated to the wrapped list.
+ *
+ * The filter consists of BLOOMFILTER_COUNTERS_PER_ELEMENT 8-bit counters per
+ * element the filter has been sized for, which allows to remove elements
+ * (counters that overflowed are never decremented). Once more elements are
+ * stored, the filter is rebuilt from the wrapped list with twice the size.
+ *
+ * @author benni
+ *
+ */
+public class DBloomFilter extends DataStructureReadable implements
+		INodeListDatastructureReadable, IEdgeListDatastructureReadable {
+	private static final int minCapacity = 16;
+
+	private static int countersPerElement = Config
+			.getInt("BLOOMFILTER_COUNTERS_PER_ELEMENT");
+
+	private static Class<? extends IDataStructure> wrappedClass = null;
+
+	private DataStructureReadable list;
 
-public class DBloomFilter extends DataStructure implements
-		INodeListDatastructure, IEdgeListDatastructure {
-	private BloomFilter<IElement> list;
-	private int maxNodeIndex;
+	/**
+	 * number of elements the counters have been sized for
+	 */
+	private int capacity;
+
+	private byte[] counters;
+
+	private int hashes;
 
 	public DBloomFilter(ListType lt, Class<? extends IElement> dT) {
 		super(lt, dT);
 	}
 
+	/**
+	 *
+	 * @return number of 8-bit counters per element, i.e., the memory (in
+	 *         bytes) taken by a bloom filter per stored element
+	 */
+	public static int getCountersPerElement() {
+		return countersPerElement;
+	}
+
+	/**
+	 *
+	 * @return class of the data structure wrapped by bloom filters
+	 *         (BLOOMFILTER_DATASTRUCTURE, resolved once)
+	 */
+	public static Class<? extends IDataStructure> getWrappedClass() {
+		if (wrappedClass == null) {
+			wrappedClass = loadWrappedClass();
+		}
+		return wrappedClass;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends IDataStructure> loadWrappedClass() {
+		String name = Config.get("BLOOMFILTER_DATASTRUCTURE");
+		if (!name.contains(".")) {
+			name = DBloomFilter.class.getPackage().getName() + "." + name;
+		}
+		try {
+			Class<?> c = Class.forName(name);
+			if (!DataStructureReadable.class.isAssignableFrom(c)
+					|| c == DBloomFilter.class) {
+				throw new RuntimeException(name
+						+ " cannot be wrapped by a bloom filter");
+			}
+			return (Class<? extends IDataStructure>) c;
+		} catch (ClassNotFoundException e) {
+			throw new RuntimeException("unknown data structure " + name, e);
+		}
+	}
+
 	public void init(Class<? extends IElement> dT, int initialSize,
 			boolean firstTime) {
-		this.list = BloomFilter.create(new IElementFunnel(), initialSize);
-		this.maxNodeIndex = -1;
+		if (firstTime || this.list == null) {
+			this.list = (DataStructureReadable) GraphDataStructure
+					.constructList(this.listType, getWrappedClass(), dT);
+		}
+		this.list.reinitializeWithSize(initialSize);
+		this.initFilter(initialSize);
 	}
 
-	@Override
-	public boolean contains(IElement element) {
-		return this.list.mightContain(element);
+	private void initFilter(int capacity) {
+		this.capacity = Math.max(capacity, minCapacity);
+		long length = Math.min((long) this.capacity * countersPerElement,
+				1 << 30);
+		this.counters = new byte[Integer.highestOneBit((int) length - 1) << 1];
+		this.hashes = Math.max(1,
+				(int) Math.round(Math.log(2) * countersPerElement));
+	}
+
+	/**
+	 * rebuilds the filter for the given capacity from the wrapped list
+	 */
+	private void rebuild(int capacity) {
+		this.initFilter(capacity);
+		for (IElement e : this.list) {
+			this.count(getKey(e), 1);
+		}
+	}
+
+	private static long getKey(IElement element) {
+		if (element instanceof Node)
+			return ((Node) element).getIndex();
+		return getKey(((Edge) element).getN1Index(),
+				((Edge) element).getN2Index());
+	}
+
+	private static long getKey(int n1, int n2) {
+		return ((long) n1 << 32) | (n2 & 0xFFFFFFFFL);
+	}
+
+	private static long mix(long key) {
+		long z = key + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * adds delta to all counters of the key, saturated counters (255) remain
+	 * unchanged
+	 */
+	private void count(long key, int delta) {
+		long h = mix(key);
+		int h1 = (int) h;
+		int h2 = (int) (h >>> 32) | 1;
+		int mask = this.counters.length - 1;
+		for (int i = 0; i < this.hashes; i++) {
+			int pos = (h1 + i * h2) & mask;
+			int c = this.counters[pos] & 0xFF;
+			if (c != 0xFF) {
+				this.counters[pos] = (byte) (c + delta);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return false if the key is definitely not stored
+	 */
+	private boolean mightContain(long key) {
+		long h = mix(key);
+		int h1 = (int) h;
+		int h2 = (int) (h >>> 32) | 1;
+		int mask = this.counters.length - 1;
+		for (int i = 0; i < this.hashes; i++) {
+			if (this.counters[(h1 + i * h2) & mask] == 0)
+				return false;
+		}
+		return true;
+	}
+
+	public boolean add(IElement element) {
+		if (element instanceof Node)
+			return this.add((Node) element);
+		if (element instanceof Edge)
+			return this.add((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
 	}
 
 	@Override
-	public boolean remove(IElement element) {
-		// TODO Auto-generated method stub
-		return false;
+	protected boolean add_(Node element) {
+		return this.added(element, this.list.add_(element));
 	}
 
 	@Override
-	public int size() {
-		// TODO Auto-generated method stub
-		return 0;
+	protected boolean add_(Edge element) {
+		return this.added(element, this.list.add_(element));
+	}
+
+	private boolean added(IElement element, boolean success) {
+		if (!success)
+			return false;
+		if (this.list.size() > this.capacity) {
+			this.rebuild(2 * this.capacity);
+		} else {
+			this.count(getKey(element), 1);
+		}
+		return true;
 	}
 
 	@Override
-	protected Iterator<IElement> iterator_() {
-		// TODO Auto-generated method stub
-		return null;
+	public boolean contains(IElement element) {
+		if (element instanceof Node)
+			return this.contains((Node) element);
+		if (element instanceof Edge)
+			return this.contains((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
 	}
 
 	@Override
-	protected boolean add_(Edge element) {
-		// TODO Auto-generated method stub
-		return false;
+	public boolean contains(Node element) {
+		return this.mightContain(getKey(element))
+				&& this.list.contains(element);
 	}
 
 	@Override
 	public boolean contains(Edge element) {
-		// TODO Auto-generated method stub
-		return false;
+		return this.mightContain(getKey(element))
+				&& this.list.contains(element);
+	}
+
+	@Override
+	public boolean remove(IElement element) {
+		if (element instanceof Node)
+			return this.remove((Node) element);
+		if (element instanceof Edge)
+			return this.remove((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean remove(Node element) {
+		return this.mightContain(getKey(element))
+				&& this.removed(element, this.list.remove(element));
 	}
 
 	@Override
 	public boolean remove(Edge element) {
-		// TODO Auto-generated method stub
-		return false;
+		return this.mightContain(getKey(element))
+				&& this.removed(element, this.list.remove(element));
+	}
+
+	private boolean removed(IElement element, boolean success) {
+		if (!success)
+			return false;
+		if (this.capacity > minCapacity
+				&& this.list.size() < this.capacity / 8) {
+			this.rebuild(this.capacity / 2);
+		} else {
+			this.count(getKey(element), -1);
+		}
+		return true;
 	}
 
 	@Override
-	protected boolean add_(Node element) {
-		// TODO Auto-generated method stub
-		return false;
+	public int size() {
+		return this.list.size();
 	}
 
 	@Override
-	public boolean contains(Node element) {
-		// TODO Auto-generated method stub
-		return false;
+	public IElement getRandom(Random rand) {
+		return this.list.getRandom(rand);
 	}
 
 	@Override
-	public boolean remove(Node element) {
-		// TODO Auto-generated method stub
-		return false;
+	public Collection<IElement> getElements() {
+		return this.list.getElements();
 	}
 
 	@Override
-	public int getMaxNodeIndex() {
-		// TODO Auto-generated method stub
-		return 0;
+	protected Iterator<IElement> iterator_() {
+		return this.list.iterator();
 	}
 
 	@Override
-	public boolean add(IElement element) {
-		// TODO Auto-generated method stub
-		return false;
+	public Node get(int index) {
+		if (!this.mightContain(index))
+			return null;
+		return ((INodeListDatastructureReadable) this.list).get(index);
 	}
 
-	private class IElementFunnel implements Funnel<IElement> {
+	@Override
+	public Edge get(int n1, int n2) {
+		if (!this.mightContain(getKey(n1, n2)))
+			return null;
+		return ((IEdgeListDatastructureReadable) this.list).get(n1, n2);
+	}
 
-		@Override
-		public void funnel(IElement element, PrimitiveSink into) {
-			into.putUnencodedChars(element.asString());
-		}
+	@Override
+	public Edge get(Edge element) {
+		return this.get(element.getN1Index(), element.getN2Index());
+	}
 
+	@Override
+	public int getMaxNodeIndex() {
+		return ((INodeListDatastructure) this.list).getMaxNodeIndex();
 	}
 
 	public void prepareForGC() {
+		this.list.prepareForGC();
 		this.list = null;
+		this.counters = null;
 	}
 }
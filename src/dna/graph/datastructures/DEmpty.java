@@ -3,6 +3,7 @@ package dna.graph.datastructures;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Random;
 
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
@@ -78,7 +79,7 @@ public class DEmpty extends DataStructureReadable implements
 	}
 
 	@Override
-	public IElement getRandom() {
+	public IElement getRandom(Random rand) {
 		return null;
 	}
 
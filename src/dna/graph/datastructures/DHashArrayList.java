@@ -4,11 +4,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Random;
 
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
-import dna.util.Rand;
 
 /**
  * Implementation of a HashArrayList, as proposed in Xu:
@@ -174,8 +174,8 @@ public class DHashArrayList extends DataStructureReadable implements
 	}
 
 	@Override
-	public IElement getRandom() {
-		return this.list.get(Rand.rand.nextInt(this.list.size()));
+	public IElement getRandom(Random rand) {
+		return this.list.get(rand.nextInt(this.list.size()));
 	}
 
 	@Override
@@ -3,11 +3,11 @@ package dna.graph.datastructures;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Random;
 
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
-import dna.util.Rand;
 
 /**
  * Data structure to store IElements in a hashmap
@@ -55,6 +55,35 @@ public class DHashMap extends DataStructureReadable implements
 		return true;
 	}
 
+	/**
+	 * The hash map is only re-created with the final size if it is empty,
+	 * contained elements are detected by their key (instead of searching all
+	 * values for a node as contains does)
+	 */
+	@Override
+	public int addAll(Collection<? extends IElement> elements) {
+		if (this.list.isEmpty() && elements.size() > this.defaultSize) {
+			this.list = new HashMap<Integer, IElement>(
+					elements.size() * 4 / 3 + 1);
+		}
+		boolean check = isContainsCheckEnabled();
+		int added = 0;
+		for (IElement element : elements) {
+			this.canAdd(element);
+			int key = element instanceof Node ? ((Node) element).getIndex()
+					: element.hashCode();
+			if (check && this.list.containsKey(key)) {
+				continue;
+			}
+			this.list.put(key, element);
+			if (element instanceof Node && key > this.maxNodeIndex) {
+				this.maxNodeIndex = key;
+			}
+			added++;
+		}
+		return added;
+	}
+
 	@Override
 	public boolean contains(IElement element) {
 		if (element instanceof Node)
@@ -108,14 +137,42 @@ public class DHashMap extends DataStructureReadable implements
 		return true;
 	}
 
+	/**
+	 * The maxNodeIndex is recomputed only once after removing all elements
+	 */
+	@Override
+	public int removeAll(Collection<? extends IElement> elements) {
+		boolean maxNodeRemoved = false;
+		int removed = 0;
+		for (IElement element : elements) {
+			int key = element instanceof Node ? ((Node) element).getIndex()
+					: element.hashCode();
+			if (this.list.remove(key) == null) {
+				continue;
+			}
+			if (element instanceof Node && key == this.maxNodeIndex) {
+				maxNodeRemoved = true;
+			}
+			removed++;
+		}
+		if (maxNodeRemoved) {
+			int max = this.maxNodeIndex - 1;
+			while (!this.list.containsKey(max) && max >= 0) {
+				max--;
+			}
+			this.maxNodeIndex = max;
+		}
+		return removed;
+	}
+
 	@Override
 	public int size() {
 		return list.size();
 	}
 
 	@Override
-	public IElement getRandom() {
-		int index = Rand.rand.nextInt(this.list.size());
+	public IElement getRandom(Random rand) {
+		int index = rand.nextInt(this.list.size());
 		int counter = 0;
 		for (IElement element : this.list.values()) {
 			if (counter == index) {
@@ -2,6 +2,7 @@ package dna.graph.datastructures;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Random;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterables;
@@ -9,7 +10,6 @@ import com.google.common.collect.Iterables;
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
-import dna.util.Rand;
 
 public class DHashMultimap extends DataStructureReadable implements
 		INodeListDatastructureReadable, IEdgeListDatastructureReadable {
@@ -114,8 +114,8 @@ public class DHashMultimap extends DataStructureReadable implements
 	}
 
 	@Override
-	public IElement getRandom() {
-		int index = Rand.rand.nextInt(this.list.size());
+	public IElement getRandom(Random rand) {
+		int index = rand.nextInt(this.list.size());
 		int counter = 0;
 		for (IElement element : this.list.values()) {
 			if (counter == index) {
@@ -3,11 +3,11 @@ package dna.graph.datastructures;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Random;
 
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
-import dna.util.Rand;
 
 /**
  * Data structure to store IElements in a hashset
@@ -62,6 +62,31 @@ public class DHashSet extends DataStructureReadable implements
 		return element != null && this.list.add(element);
 	}
 
+	/**
+	 * The hash set is only re-created with the final size if it is empty,
+	 * HashSet.add already fails for contained elements so that no separate
+	 * contains check is performed
+	 */
+	@Override
+	public int addAll(Collection<? extends IElement> elements) {
+		if (this.list.isEmpty() && elements.size() > this.defaultSize) {
+			this.list = new HashSet<>(elements.size() * 4 / 3 + 1);
+		}
+		int added = 0;
+		for (IElement element : elements) {
+			this.canAdd(element);
+			if (element == null || !this.list.add(element)) {
+				continue;
+			}
+			if (element instanceof Node
+					&& ((Node) element).getIndex() > this.maxNodeIndex) {
+				this.maxNodeIndex = ((Node) element).getIndex();
+			}
+			added++;
+		}
+		return added;
+	}
+
 	@Override
 	public boolean contains(IElement element) {
 		if (element instanceof Node)
@@ -113,6 +138,32 @@ public class DHashSet extends DataStructureReadable implements
 		return this.list.remove(element);
 	}
 
+	/**
+	 * The maxNodeIndex is recomputed only once after removing all elements
+	 */
+	@Override
+	public int removeAll(Collection<? extends IElement> elements) {
+		boolean maxNodeRemoved = false;
+		int removed = 0;
+		for (IElement element : elements) {
+			if (!this.list.remove(element)) {
+				continue;
+			}
+			if (element instanceof Node
+					&& ((Node) element).getIndex() == this.maxNodeIndex) {
+				maxNodeRemoved = true;
+			}
+			removed++;
+		}
+		if (maxNodeRemoved) {
+			maxNodeIndex = -1;
+			for (IElement n : getElements()) {
+				maxNodeIndex = Math.max(maxNodeIndex, ((Node) n).getIndex());
+			}
+		}
+		return removed;
+	}
+
 	@Override
 	public int size() {
 		return list.size();
@@ -146,8 +197,8 @@ public class DHashSet extends DataStructureReadable implements
 	}
 
 	@Override
-	public IElement getRandom() {
-		int index = Rand.rand.nextInt(this.list.size());
+	public IElement getRandom(Random rand) {
+		int index = rand.nextInt(this.list.size());
 		int counter = 0;
 		Iterator<IElement> iter = this.list.iterator();
 		while (iter.hasNext()) {
@@ -3,11 +3,11 @@ package dna.graph.datastructures;
 import java.util.Collection;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.Random;
 
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
-import dna.util.Rand;
 
 /**
  * Data structure to store IElements in a hashtable
@@ -128,8 +128,8 @@ public class DHashTable extends DataStructureReadable implements
 	}
 
 	@Override
-	public IElement getRandom() {
-		int index = Rand.rand.nextInt(this.list.size());
+	public IElement getRandom(Random rand) {
+		int index = rand.nextInt(this.list.size());
 		int counter = 0;
 		for (IElement element : this.list.values()) {
 			if (counter == index) {
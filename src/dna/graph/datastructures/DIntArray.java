@@ -0,0 +1,265 @@
+package dna.graph.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import dna.graph.IElement;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+
+/**
+ * Data structure to store IElements in a compact array together with a
+ * primitive int key for each of them (the index of a node, a key computed from
+ * the indices of an edge's nodes). contains, get, and remove only scan the int
+ * array and compare the elements themselves only in case of a matching key,
+ * i.e., no element is dereferenced and no Integer is boxed for a lookup.
+ * Removal moves the last element into the free position, so the elements are
+ * always stored in the first size() positions.
+ *
+ * Intended for small lists like the local edge and node lists of a node.
+ *
+ * @author benni
+ *
+ */
+public class DIntArray extends DataStructureReadable implements
+		INodeListDatastructureReadable, IEdgeListDatastructureReadable {
+	private int[] keys;
+	private IElement[] elements;
+	private int count;
+	private int maxNodeIndex;
+
+	public DIntArray(ListType lt, Class<? extends IElement> dT) {
+		super(lt, dT);
+	}
+
+	public void init(Class<? extends IElement> dT, int initialSize,
+			boolean firstTime) {
+		initialSize = Math.max(initialSize, 1);
+		this.keys = new int[initialSize];
+		this.elements = new IElement[initialSize];
+		this.count = 0;
+		this.maxNodeIndex = -1;
+	}
+
+	/**
+	 *
+	 * @return key of the edge between the nodes with the given indices, the
+	 *         keys of all edges with the same first (or the same second) node
+	 *         are distinct
+	 */
+	static int getKey(int n1, int n2) {
+		return n1 ^ (n2 * 0x9E3779B9);
+	}
+
+	static int getKey(Edge e) {
+		return getKey(e.getN1Index(), e.getN2Index());
+	}
+
+	static boolean connects(IElement element, int n1, int n2) {
+		Edge e = (Edge) element;
+		return e.getN1Index() == n1 && e.getN2Index() == n2;
+	}
+
+	public boolean add(IElement element) {
+		if (element instanceof Node)
+			return this.add((Node) element);
+		if (element instanceof Edge)
+			return this.add((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	protected boolean add_(Node element) {
+		this.append(element.getIndex(), element);
+		if (element.getIndex() > this.maxNodeIndex) {
+			this.maxNodeIndex = element.getIndex();
+		}
+		return true;
+	}
+
+	@Override
+	protected boolean add_(Edge element) {
+		this.append(getKey(element), element);
+		return true;
+	}
+
+	private void append(int key, IElement element) {
+		if (this.count == this.keys.length) {
+			this.resize(this.count + (this.count >> 1) + 1);
+		}
+		this.keys[this.count] = key;
+		this.elements[this.count] = element;
+		this.count++;
+	}
+
+	private void resize(int capacity) {
+		int[] keysNew = new int[capacity];
+		IElement[] elementsNew = new IElement[capacity];
+		System.arraycopy(this.keys, 0, keysNew, 0, this.count);
+		System.arraycopy(this.elements, 0, elementsNew, 0, this.count);
+		this.keys = keysNew;
+		this.elements = elementsNew;
+	}
+
+	private int indexOfNode(int index) {
+		for (int i = 0; i < this.count; i++) {
+			if (this.keys[i] == index)
+				return i;
+		}
+		return -1;
+	}
+
+	private int indexOfEdge(int n1, int n2) {
+		int key = getKey(n1, n2);
+		for (int i = 0; i < this.count; i++) {
+			if (this.keys[i] == key && connects(this.elements[i], n1, n2))
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(IElement element) {
+		if (element instanceof Node)
+			return this.contains((Node) element);
+		if (element instanceof Edge)
+			return this.contains((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean contains(Node element) {
+		return this.indexOfNode(element.getIndex()) >= 0;
+	}
+
+	@Override
+	public boolean contains(Edge element) {
+		return this.indexOfEdge(element.getN1Index(), element.getN2Index()) >= 0;
+	}
+
+	@Override
+	public boolean remove(IElement element) {
+		if (element instanceof Node)
+			return this.remove((Node) element);
+		if (element instanceof Edge)
+			return this.remove((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean remove(Node element) {
+		int i = this.indexOfNode(element.getIndex());
+		if (i < 0) {
+			return false;
+		}
+		this.removeAt(i);
+		if (element.getIndex() == this.maxNodeIndex) {
+			this.maxNodeIndex = -1;
+			for (int j = 0; j < this.count; j++) {
+				this.maxNodeIndex = Math.max(this.maxNodeIndex, this.keys[j]);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean remove(Edge element) {
+		int i = this.indexOfEdge(element.getN1Index(), element.getN2Index());
+		if (i < 0) {
+			return false;
+		}
+		this.removeAt(i);
+		return true;
+	}
+
+	private void removeAt(int i) {
+		this.count--;
+		this.keys[i] = this.keys[this.count];
+		this.elements[i] = this.elements[this.count];
+		this.elements[this.count] = null;
+		if (this.keys.length > this.defaultSize
+				&& this.count < this.keys.length / 4) {
+			this.resize(Math.max(this.keys.length / 2, this.defaultSize));
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.count;
+	}
+
+	@Override
+	public IElement getRandom(Random rand) {
+		if (this.count == 0)
+			return null;
+		return this.elements[rand.nextInt(this.count)];
+	}
+
+	@Override
+	public Collection<IElement> getElements() {
+		ArrayList<IElement> res = new ArrayList<IElement>(this.count);
+		for (int i = 0; i < this.count; i++) {
+			res.add(this.elements[i]);
+		}
+		return res;
+	}
+
+	@Override
+	protected Iterator<IElement> iterator_() {
+		return new DIntArrayIterator();
+	}
+
+	@Override
+	public Node get(int index) {
+		int i = this.indexOfNode(index);
+		return i < 0 ? null : (Node) this.elements[i];
+	}
+
+	@Override
+	public Edge get(int n1, int n2) {
+		int i = this.indexOfEdge(n1, n2);
+		return i < 0 ? null : (Edge) this.elements[i];
+	}
+
+	@Override
+	public Edge get(Edge element) {
+		return get(element.getN1Index(), element.getN2Index());
+	}
+
+	@Override
+	public int getMaxNodeIndex() {
+		return this.maxNodeIndex;
+	}
+
+	private class DIntArrayIterator implements Iterator<IElement> {
+		private int pos = 0;
+
+		@Override
+		public boolean hasNext() {
+			return this.pos < count;
+		}
+
+		@Override
+		public IElement next() {
+			if (this.pos >= count)
+				throw new NoSuchElementException();
+			return elements[this.pos++];
+		}
+
+		@Override
+		public void remove() {
+			throw new RuntimeException("Not allowed");
+		}
+	}
+
+	public void prepareForGC() {
+		this.keys = null;
+		this.elements = null;
+	}
+}
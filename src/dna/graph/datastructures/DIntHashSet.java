@@ -0,0 +1,301 @@
+package dna.graph.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import dna.graph.IElement;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.util.OpenAddressingTable;
+
+/**
+ * Data structure to store IElements in an open-addressing hash table keyed by
+ * a primitive int (the index of a node, the key of an edge as computed by
+ * DIntArray). Keys and elements are stored in two parallel arrays and
+ * collisions are resolved by linear probing (cf. OpenAddressingTable), so no
+ * entry objects are created and no Integer is boxed. The table grows when it
+ * is filled to 3/4 and shrinks when it is filled to less than 1/8.
+ *
+ * @author benni
+ *
+ */
+public class DIntHashSet extends DataStructureReadable implements
+		INodeListDatastructureReadable, IEdgeListDatastructureReadable {
+	private static final int minBits = 2;
+
+	private Table table;
+	private int maxNodeIndex;
+
+	/**
+	 * keys and elements in two parallel arrays, null denotes an empty slot
+	 */
+	private static final class Table extends OpenAddressingTable<Table> {
+		private int[] keys;
+		private IElement[] elements;
+
+		private Table(int bits) {
+			super(bits);
+			this.keys = new int[1 << bits];
+			this.elements = new IElement[1 << bits];
+		}
+
+		@Override
+		public int home(long key) {
+			return this.hash((int) key);
+		}
+
+		@Override
+		public boolean isEmpty(int slot) {
+			return this.elements[slot] == null;
+		}
+
+		@Override
+		public long getKey(int slot) {
+			return this.keys[slot];
+		}
+
+		@Override
+		protected void copy(Table table, int from, int to) {
+			this.keys[to] = table.keys[from];
+			this.elements[to] = table.elements[from];
+		}
+
+		@Override
+		protected void clear(int slot) {
+			this.elements[slot] = null;
+		}
+
+		@Override
+		protected Table newTable(int bits) {
+			return new Table(bits);
+		}
+
+		private void insert(int key, IElement element) {
+			int i = this.findEmpty(key);
+			this.keys[i] = key;
+			this.elements[i] = element;
+			this.size++;
+		}
+	}
+
+	public DIntHashSet(ListType lt, Class<? extends IElement> dT) {
+		super(lt, dT);
+	}
+
+	public void init(Class<? extends IElement> dT, int initialSize,
+			boolean firstTime) {
+		this.table = new Table(OpenAddressingTable.getBits(minBits,
+				initialSize));
+		this.maxNodeIndex = -1;
+	}
+
+	public boolean add(IElement element) {
+		if (element instanceof Node)
+			return this.add((Node) element);
+		if (element instanceof Edge)
+			return this.add((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	protected boolean add_(Node element) {
+		this.insert(element.getIndex(), element);
+		if (element.getIndex() > this.maxNodeIndex) {
+			this.maxNodeIndex = element.getIndex();
+		}
+		return true;
+	}
+
+	@Override
+	protected boolean add_(Edge element) {
+		this.insert(DIntArray.getKey(element), element);
+		return true;
+	}
+
+	private void insert(int key, IElement element) {
+		if (this.table.isFull()) {
+			this.table = this.table.rehash(this.table.getBits() + 1);
+		}
+		this.table.insert(key, element);
+	}
+
+	private int slotOfNode(int index) {
+		return this.table.find(index);
+	}
+
+	/**
+	 * edges with different nodes can have the same key, all entries with the
+	 * key are checked
+	 */
+	private int slotOfEdge(int n1, int n2) {
+		int key = DIntArray.getKey(n1, n2);
+		Table t = this.table;
+		for (int i = t.home(key); !t.isEmpty(i); i = t.next(i)) {
+			if (t.keys[i] == key && DIntArray.connects(t.elements[i], n1, n2))
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(IElement element) {
+		if (element instanceof Node)
+			return this.contains((Node) element);
+		if (element instanceof Edge)
+			return this.contains((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean contains(Node element) {
+		return this.slotOfNode(element.getIndex()) >= 0;
+	}
+
+	@Override
+	public boolean contains(Edge element) {
+		return this.slotOfEdge(element.getN1Index(), element.getN2Index()) >= 0;
+	}
+
+	@Override
+	public boolean remove(IElement element) {
+		if (element instanceof Node)
+			return this.remove((Node) element);
+		if (element instanceof Edge)
+			return this.remove((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean remove(Node element) {
+		int i = this.slotOfNode(element.getIndex());
+		if (i < 0) {
+			return false;
+		}
+		this.removeAt(i);
+		if (element.getIndex() == this.maxNodeIndex) {
+			this.maxNodeIndex = -1;
+			Table t = this.table;
+			for (int j = 0; j < t.getCapacity(); j++) {
+				if (!t.isEmpty(j))
+					this.maxNodeIndex = Math.max(this.maxNodeIndex, t.keys[j]);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean remove(Edge element) {
+		int i = this.slotOfEdge(element.getN1Index(), element.getN2Index());
+		if (i < 0) {
+			return false;
+		}
+		this.removeAt(i);
+		return true;
+	}
+
+	private void removeAt(int i) {
+		this.table.removeAt(i);
+		if (this.table.isSparse(minBits)) {
+			this.table = this.table.rehash(this.table.getBits() - 1);
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.table.size();
+	}
+
+	@Override
+	public IElement getRandom(Random rand) {
+		if (this.table.size() == 0)
+			return null;
+		IElement[] elements = this.table.elements;
+		int i = rand.nextInt(elements.length);
+		while (elements[i] == null) {
+			i = rand.nextInt(elements.length);
+		}
+		return elements[i];
+	}
+
+	@Override
+	public Collection<IElement> getElements() {
+		ArrayList<IElement> res = new ArrayList<IElement>(this.table.size());
+		for (IElement e : this.table.elements) {
+			if (e != null)
+				res.add(e);
+		}
+		return res;
+	}
+
+	@Override
+	protected Iterator<IElement> iterator_() {
+		return new DIntHashSetIterator(this.table.elements);
+	}
+
+	@Override
+	public Node get(int index) {
+		int i = this.slotOfNode(index);
+		return i < 0 ? null : (Node) this.table.elements[i];
+	}
+
+	@Override
+	public Edge get(int n1, int n2) {
+		int i = this.slotOfEdge(n1, n2);
+		return i < 0 ? null : (Edge) this.table.elements[i];
+	}
+
+	@Override
+	public Edge get(Edge element) {
+		return get(element.getN1Index(), element.getN2Index());
+	}
+
+	@Override
+	public int getMaxNodeIndex() {
+		return this.maxNodeIndex;
+	}
+
+	private static class DIntHashSetIterator implements Iterator<IElement> {
+		private IElement[] elements;
+		private int pos = 0;
+
+		public DIntHashSetIterator(IElement[] elements) {
+			this.elements = elements;
+			this.skip();
+		}
+
+		private void skip() {
+			while (this.pos < this.elements.length
+					&& this.elements[this.pos] == null)
+				this.pos++;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.pos < this.elements.length;
+		}
+
+		@Override
+		public IElement next() {
+			if (this.pos >= this.elements.length)
+				throw new NoSuchElementException();
+			IElement res = this.elements[this.pos++];
+			this.skip();
+			return res;
+		}
+
+		@Override
+		public void remove() {
+			throw new RuntimeException("Not allowed");
+		}
+	}
+
+	public void prepareForGC() {
+		this.table = null;
+	}
+}
@@ -0,0 +1,353 @@
+package dna.graph.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import dna.graph.IElement;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.graph.weights.IWeighted;
+
+/**
+ * Data structure for the local lists of a node that only stores the index of
+ * each neighbor in an int array: the index of each node of a node list, the
+ * index of the other node of each edge of an edge list (the node the list
+ * belongs to is determined from the first edges and stored once). In contrast
+ * to DIntArray and DArrayList, no reference is kept for an element, so a local
+ * list takes 4 bytes per entry, lookups and iteration only read the int array,
+ * and edges that are not stored in another list (e.g., with a global edge list
+ * of type DOffHeap or DEmpty) are not kept on the heap at all.
+ *
+ * Nodes are resolved through the NodeTable of the graph. Edges are materialized
+ * on access: get, getRandom, and the iterator return a new edge instance
+ * between the nodes, i.e., edges returned by this list are equal but not
+ * identical to the ones that were added. Weighted edges are not supported
+ * since their weights would be lost, and the list cannot be used as global
+ * node or edge list (cf. GraphDataStructure.storesLocalListsOnly and
+ * canStoreWeightedEdges), so the recommender only proposes it for the local
+ * lists of graphs with unweighted edges.
+ *
+ * Lists must be created via GraphDataStructure.newList so that they are
+ * assigned to a node table.
+ *
+ * @author benni
+ *
+ */
+public class DIntNeighborList extends DataStructureReadable implements
+		INodeListDatastructureReadable, IEdgeListDatastructureReadable {
+	private NodeTable nodes;
+
+	private int[] indices;
+
+	private int count;
+
+	private int maxNodeIndex;
+
+	/**
+	 * edges only: index of the node the list belongs to, -1 until it is known
+	 */
+	private int owner;
+
+	/**
+	 * undirected edges only: the node a list belongs to is not known from a
+	 * single edge, while it holds only one edge, its first node is stored here
+	 * and its second node at position 0
+	 */
+	private int first;
+
+	public DIntNeighborList(ListType lt, Class<? extends IElement> dT) {
+		super(lt, dT);
+	}
+
+	public void init(Class<? extends IElement> dT, int initialSize,
+			boolean firstTime) {
+		this.indices = new int[Math.max(initialSize, 1)];
+		this.count = 0;
+		this.maxNodeIndex = -1;
+		this.owner = -1;
+		this.first = -1;
+	}
+
+	/**
+	 * the nodes stored so far are registered in the given table as well
+	 */
+	public void setNodeTable(NodeTable nodes) {
+		if (this.nodes != null && this.nodes != nodes && this.size() > 0) {
+			nodes.registerAll(this);
+		}
+		this.nodes = nodes;
+	}
+
+	@Override
+	public boolean canAdd(IElement element) {
+		if (this.nodes == null) {
+			throw new RuntimeException(
+					"DIntNeighborList must be created via GraphDataStructure.newList");
+		}
+		if (element instanceof Edge) {
+			if (element instanceof IWeighted) {
+				throw new RuntimeException(
+						"DIntNeighborList cannot store weighted edges");
+			}
+			if (this.listType != ListType.LocalEdgeList
+					&& this.listType != ListType.LocalInEdgeList
+					&& this.listType != ListType.LocalOutEdgeList) {
+				throw new RuntimeException(
+						"DIntNeighborList can only store the edges of a node");
+			}
+		}
+		return super.canAdd(element);
+	}
+
+	public boolean add(IElement element) {
+		if (element instanceof Node)
+			return this.add((Node) element);
+		if (element instanceof Edge)
+			return this.add((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	protected boolean add_(Node element) {
+		this.nodes.register(element);
+		this.append(element.getIndex());
+		if (element.getIndex() > this.maxNodeIndex) {
+			this.maxNodeIndex = element.getIndex();
+		}
+		return true;
+	}
+
+	@Override
+	protected boolean add_(Edge element) {
+		int n1 = element.getN1Index();
+		int n2 = element.getN2Index();
+		this.nodes.register(element.getN1());
+		this.nodes.register(element.getN2());
+		if (this.owner < 0) {
+			if (this.listType == ListType.LocalOutEdgeList) {
+				this.owner = n1;
+			} else if (this.listType == ListType.LocalInEdgeList) {
+				this.owner = n2;
+			} else if (this.count == 0) {
+				this.first = n1;
+				this.append(n2);
+				return true;
+			} else {
+				// the list belongs to the node both edges are connected to
+				int second = this.indices[0];
+				this.owner = n1 == this.first || n2 == this.first ? this.first
+						: second;
+				this.indices[0] = this.owner == this.first ? second
+						: this.first;
+				this.first = -1;
+			}
+		}
+		this.append(this.owner == n1 ? n2 : n1);
+		return true;
+	}
+
+	private void append(int index) {
+		if (this.count == this.indices.length) {
+			this.resize(this.count + (this.count >> 1) + 1);
+		}
+		this.indices[this.count++] = index;
+	}
+
+	private void resize(int capacity) {
+		int[] indicesNew = new int[capacity];
+		System.arraycopy(this.indices, 0, indicesNew, 0, this.count);
+		this.indices = indicesNew;
+	}
+
+	private int indexOf(int index) {
+		for (int i = 0; i < this.count; i++) {
+			if (this.indices[i] == index)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return position of the edge between the nodes with the given indices,
+	 *         -1 if it is not contained
+	 */
+	private int indexOfEdge(int n1, int n2) {
+		if (this.owner < 0) {
+			return this.count == 1
+					&& (this.first == n1 && this.indices[0] == n2 || this.first == n2
+							&& this.indices[0] == n1) ? 0 : -1;
+		}
+		if (this.listType == ListType.LocalOutEdgeList) {
+			return n1 == this.owner ? this.indexOf(n2) : -1;
+		}
+		if (this.listType == ListType.LocalInEdgeList) {
+			return n2 == this.owner ? this.indexOf(n1) : -1;
+		}
+		if (n1 == this.owner) {
+			return this.indexOf(n2);
+		}
+		return n2 == this.owner ? this.indexOf(n1) : -1;
+	}
+
+	/**
+	 * @return element stored at the given position
+	 */
+	private IElement materialize(int i) {
+		if (Node.class.isAssignableFrom(this.dataType)) {
+			return this.nodes.getNode(this.indices[i]);
+		}
+		if (this.owner < 0) {
+			return this.nodes.newEdge(this.first, this.indices[0]);
+		}
+		if (this.listType == ListType.LocalInEdgeList) {
+			return this.nodes.newEdge(this.indices[i], this.owner);
+		}
+		return this.nodes.newEdge(this.owner, this.indices[i]);
+	}
+
+	@Override
+	public boolean contains(IElement element) {
+		if (element instanceof Node)
+			return this.contains((Node) element);
+		if (element instanceof Edge)
+			return this.contains((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean contains(Node element) {
+		return this.indexOf(element.getIndex()) >= 0;
+	}
+
+	@Override
+	public boolean contains(Edge element) {
+		return this.indexOfEdge(element.getN1Index(), element.getN2Index()) >= 0;
+	}
+
+	@Override
+	public boolean remove(IElement element) {
+		if (element instanceof Node)
+			return this.remove((Node) element);
+		if (element instanceof Edge)
+			return this.remove((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean remove(Node element) {
+		int i = this.indexOf(element.getIndex());
+		if (i < 0) {
+			return false;
+		}
+		this.removeAt(i);
+		if (element.getIndex() == this.maxNodeIndex) {
+			this.maxNodeIndex = -1;
+			for (int j = 0; j < this.count; j++) {
+				this.maxNodeIndex = Math.max(this.maxNodeIndex,
+						this.indices[j]);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean remove(Edge element) {
+		int i = this.indexOfEdge(element.getN1Index(), element.getN2Index());
+		if (i < 0) {
+			return false;
+		}
+		this.removeAt(i);
+		return true;
+	}
+
+	private void removeAt(int i) {
+		this.count--;
+		this.indices[i] = this.indices[this.count];
+		if (this.count == 0) {
+			this.first = -1;
+		}
+		if (this.indices.length > this.defaultSize
+				&& this.count < this.indices.length / 4) {
+			this.resize(Math.max(this.indices.length / 2, this.defaultSize));
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.count;
+	}
+
+	@Override
+	public IElement getRandom(Random rand) {
+		if (this.count == 0)
+			return null;
+		return this.materialize(rand.nextInt(this.count));
+	}
+
+	@Override
+	public Collection<IElement> getElements() {
+		ArrayList<IElement> res = new ArrayList<IElement>(this.count);
+		for (int i = 0; i < this.count; i++) {
+			res.add(this.materialize(i));
+		}
+		return res;
+	}
+
+	@Override
+	protected Iterator<IElement> iterator_() {
+		return new DIntNeighborListIterator();
+	}
+
+	@Override
+	public Node get(int index) {
+		return this.indexOf(index) < 0 ? null : this.nodes.getNode(index);
+	}
+
+	@Override
+	public Edge get(int n1, int n2) {
+		int i = this.indexOfEdge(n1, n2);
+		return i < 0 ? null : (Edge) this.materialize(i);
+	}
+
+	@Override
+	public Edge get(Edge element) {
+		return get(element.getN1Index(), element.getN2Index());
+	}
+
+	@Override
+	public int getMaxNodeIndex() {
+		return this.maxNodeIndex;
+	}
+
+	private class DIntNeighborListIterator implements Iterator<IElement> {
+		private int pos = 0;
+
+		@Override
+		public boolean hasNext() {
+			return this.pos < count;
+		}
+
+		@Override
+		public IElement next() {
+			if (this.pos >= count)
+				throw new NoSuchElementException();
+			return materialize(this.pos++);
+		}
+
+		@Override
+		public void remove() {
+			throw new RuntimeException("Not allowed");
+		}
+	}
+
+	public void prepareForGC() {
+		this.indices = null;
+		this.nodes = null;
+	}
+}
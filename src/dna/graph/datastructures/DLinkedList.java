@@ -3,11 +3,11 @@ package dna.graph.datastructures;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Random;
 
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
-import dna.util.Rand;
 
 /**
  * Data structure to store IElements in a linked list
@@ -164,8 +164,8 @@ public class DLinkedList extends DataStructureReadable implements
 	}
 
 	@Override
-	public IElement getRandom() {
-		return this.list.get(Rand.rand.nextInt(this.list.size()));
+	public IElement getRandom(Random rand) {
+		return this.list.get(rand.nextInt(this.list.size()));
 	}
 
 	@Override
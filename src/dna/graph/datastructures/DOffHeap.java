@@ -0,0 +1,402 @@
+package dna.graph.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import dna.graph.IElement;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.graph.weights.IWeighted;
+import dna.util.OpenAddressingTable;
+
+/**
+ * Data structure that stores its elements outside of the Java heap, in a
+ * region of the OffHeapStore of the GraphDataStructure that created it. Only a
+ * long key is stored for each element (the index of a node, the indices of
+ * both nodes of an edge), organized as an open-addressing hash table with
+ * linear probing (cf. OpenAddressingTable) that grows when it is filled to 3/4
+ * and shrinks when it is filled to less than 1/8.
+ *
+ * Nodes are kept on the heap (they hold their local lists) and are registered
+ * in the NodeTable of their graph by index. Edges are not kept at all: get,
+ * getRandom, and the iterator return a new edge instance between the
+ * registered nodes, i.e., edges returned by this list are equal but not
+ * identical to the ones that were added. Using DOffHeap for all list types,
+ * a graph only keeps its nodes and their (small) list objects on the heap.
+ * Weighted edges are not supported since their weights would be lost.
+ *
+ * Lists must be created via GraphDataStructure.newList so that they are
+ * assigned to a store and a node table.
+ *
+ * @author benni
+ *
+ */
+public class DOffHeap extends DataStructureReadable implements
+		INodeListDatastructureReadable, IEdgeListDatastructureReadable {
+	private static final int minBits = 2;
+
+	private OffHeapStore store;
+
+	private NodeTable nodes;
+
+	/**
+	 * hash table in the store, null until the first element is added
+	 */
+	private Table table;
+
+	/**
+	 * number of bits of the table allocated by the first addition
+	 */
+	private int bits;
+
+	private int maxNodeIndex;
+
+	/**
+	 * region of 2^bits longs in a store, each slot holds 0 (empty) or key + 1
+	 */
+	private static final class Table extends OpenAddressingTable<Table> {
+		private final OffHeapStore store;
+
+		private final long address;
+
+		private Table(OffHeapStore store, int bits) {
+			super(bits);
+			this.store = store;
+			this.address = store.allocate(bits);
+		}
+
+		@Override
+		public int home(long key) {
+			return this.hash(key);
+		}
+
+		@Override
+		public boolean isEmpty(int slot) {
+			return this.store.get(this.address + slot) == 0;
+		}
+
+		@Override
+		public long getKey(int slot) {
+			return this.store.get(this.address + slot) - 1;
+		}
+
+		@Override
+		protected void copy(Table table, int from, int to) {
+			this.store.set(this.address + to,
+					table.store.get(table.address + from));
+		}
+
+		@Override
+		protected void clear(int slot) {
+			this.store.set(this.address + slot, 0);
+		}
+
+		@Override
+		protected Table newTable(int bits) {
+			return new Table(this.store, bits);
+		}
+
+		/**
+		 * @return false if the key is already contained
+		 */
+		private boolean insert(long key) {
+			int i = this.findOrEmpty(key);
+			if (!this.isEmpty(i))
+				return false;
+			this.store.set(this.address + i, key + 1);
+			this.size++;
+			return true;
+		}
+
+		/**
+		 * returns the region of this table to the store
+		 */
+		private void free() {
+			this.store.free(this.address, this.getBits());
+		}
+	}
+
+	public DOffHeap(ListType lt, Class<? extends IElement> dT) {
+		super(lt, dT);
+	}
+
+	public void init(Class<? extends IElement> dT, int initialSize,
+			boolean firstTime) {
+		if (this.table != null) {
+			this.table.free();
+		}
+		this.table = null;
+		this.bits = OpenAddressingTable.getBits(minBits, initialSize);
+		this.maxNodeIndex = -1;
+	}
+
+	public void setStore(OffHeapStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * the nodes stored so far are registered in the given table as well
+	 */
+	public void setNodeTable(NodeTable nodes) {
+		if (this.nodes != null && this.nodes != nodes && this.size() > 0) {
+			nodes.registerAll(this);
+		}
+		this.nodes = nodes;
+	}
+
+	private static long getKey(int n1, int n2) {
+		return ((long) n1 << 32) | n2;
+	}
+
+	private static long getKey(Edge e) {
+		return getKey(e.getN1Index(), e.getN2Index());
+	}
+
+	@Override
+	public boolean canAdd(IElement element) {
+		if (element instanceof Edge && element instanceof IWeighted) {
+			throw new RuntimeException("DOffHeap cannot store weighted edges");
+		}
+		return super.canAdd(element);
+	}
+
+	public boolean add(IElement element) {
+		if (element instanceof Node)
+			return this.add((Node) element);
+		if (element instanceof Edge)
+			return this.add((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	protected boolean add_(Node element) {
+		if (!this.insert(element.getIndex())) {
+			return false;
+		}
+		this.nodes.register(element);
+		if (element.getIndex() > this.maxNodeIndex) {
+			this.maxNodeIndex = element.getIndex();
+		}
+		return true;
+	}
+
+	@Override
+	protected boolean add_(Edge element) {
+		if (!this.insert(getKey(element))) {
+			return false;
+		}
+		this.nodes.register(element.getN1());
+		this.nodes.register(element.getN2());
+		return true;
+	}
+
+	/**
+	 * @return false if the key is already contained
+	 */
+	private boolean insert(long key) {
+		if (this.store == null || this.nodes == null) {
+			throw new RuntimeException(
+					"DOffHeap must be created via GraphDataStructure.newList");
+		}
+		if (this.table == null) {
+			this.table = new Table(this.store, this.bits);
+		} else if (this.table.isFull()) {
+			this.rehash(this.table.getBits() + 1);
+		}
+		return this.table.insert(key);
+	}
+
+	private void rehash(int bitsNew) {
+		Table old = this.table;
+		this.table = old.rehash(bitsNew);
+		old.free();
+	}
+
+	/**
+	 * @return slot of the given key, -1 if it is not contained
+	 */
+	private int find(long key) {
+		return this.table == null ? -1 : this.table.find(key);
+	}
+
+	@Override
+	public boolean contains(IElement element) {
+		if (element instanceof Node)
+			return this.contains((Node) element);
+		if (element instanceof Edge)
+			return this.contains((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean contains(Node element) {
+		return this.find(element.getIndex()) >= 0;
+	}
+
+	@Override
+	public boolean contains(Edge element) {
+		return this.find(getKey(element)) >= 0;
+	}
+
+	@Override
+	public boolean remove(IElement element) {
+		if (element instanceof Node)
+			return this.remove((Node) element);
+		if (element instanceof Edge)
+			return this.remove((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean remove(Node element) {
+		int i = this.find(element.getIndex());
+		if (i < 0) {
+			return false;
+		}
+		this.removeAt(i);
+		if (element.getIndex() == this.maxNodeIndex) {
+			this.maxNodeIndex = -1;
+			Table t = this.table;
+			for (int j = 0; t != null && j < t.getCapacity(); j++) {
+				if (!t.isEmpty(j))
+					this.maxNodeIndex = Math.max(this.maxNodeIndex,
+							(int) t.getKey(j));
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean remove(Edge element) {
+		int i = this.find(getKey(element));
+		if (i < 0) {
+			return false;
+		}
+		this.removeAt(i);
+		return true;
+	}
+
+	private void removeAt(int i) {
+		this.table.removeAt(i);
+		if (this.table.size() == 0) {
+			this.table.free();
+			this.table = null;
+			this.bits = minBits;
+		} else if (this.table.isSparse(minBits)) {
+			this.rehash(this.table.getBits() - 1);
+		}
+	}
+
+	/**
+	 * @return element represented by the given key
+	 */
+	private IElement materialize(long key) {
+		if (Node.class.isAssignableFrom(this.dataType)) {
+			return this.nodes.getNode((int) key);
+		}
+		return this.nodes.newEdge((int) (key >>> 32), (int) key);
+	}
+
+	@Override
+	public int size() {
+		return this.table == null ? 0 : this.table.size();
+	}
+
+	@Override
+	public IElement getRandom(Random rand) {
+		Table t = this.table;
+		if (t == null)
+			return null;
+		int i = rand.nextInt(t.getCapacity());
+		while (t.isEmpty(i)) {
+			i = rand.nextInt(t.getCapacity());
+		}
+		return this.materialize(t.getKey(i));
+	}
+
+	@Override
+	public Collection<IElement> getElements() {
+		ArrayList<IElement> res = new ArrayList<IElement>(this.size());
+		for (IElement e : this) {
+			res.add(e);
+		}
+		return res;
+	}
+
+	@Override
+	protected Iterator<IElement> iterator_() {
+		return new DOffHeapIterator();
+	}
+
+	@Override
+	public Node get(int index) {
+		return this.find(index) < 0 ? null : this.nodes.getNode(index);
+	}
+
+	@Override
+	public Edge get(int n1, int n2) {
+		return this.find(getKey(n1, n2)) < 0 ? null : this.nodes.newEdge(n1,
+				n2);
+	}
+
+	@Override
+	public Edge get(Edge element) {
+		return get(element.getN1Index(), element.getN2Index());
+	}
+
+	@Override
+	public int getMaxNodeIndex() {
+		return this.maxNodeIndex;
+	}
+
+	private class DOffHeapIterator implements Iterator<IElement> {
+		private Table table = DOffHeap.this.table;
+
+		private int capacity = table == null ? 0 : table.getCapacity();
+
+		private int pos = 0;
+
+		public DOffHeapIterator() {
+			this.skip();
+		}
+
+		private void skip() {
+			while (this.pos < this.capacity && this.table.isEmpty(this.pos))
+				this.pos++;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.pos < this.capacity;
+		}
+
+		@Override
+		public IElement next() {
+			if (this.pos >= this.capacity)
+				throw new NoSuchElementException();
+			IElement res = materialize(this.table.getKey(this.pos++));
+			this.skip();
+			return res;
+		}
+
+		@Override
+		public void remove() {
+			throw new RuntimeException("Not allowed");
+		}
+	}
+
+	public void prepareForGC() {
+		if (this.table != null) {
+			this.table.free();
+		}
+		this.table = null;
+		this.store = null;
+		this.nodes = null;
+	}
+}
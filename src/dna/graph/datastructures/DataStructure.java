@@ -1,5 +1,6 @@
 package dna.graph.datastructures;
 
+import java.util.Collection;
 import java.util.Iterator;
 
 import dna.graph.IElement;
@@ -116,6 +117,24 @@ public abstract class DataStructure implements IDataStructure {
 
 	protected abstract boolean add_(Edge e);
 
+	public int addAll(Collection<? extends IElement> elements) {
+		int added = 0;
+		for (IElement element : elements) {
+			if (this.add(element))
+				added++;
+		}
+		return added;
+	}
+
+	public int removeAll(Collection<? extends IElement> elements) {
+		int removed = 0;
+		for (IElement element : elements) {
+			if (this.remove(element))
+				removed++;
+		}
+		return removed;
+	}
+
 	public boolean canAdd(IElement element) {
 		if (!dataType.isInstance(element))
 			throw new RuntimeException("Datatype to be stored here: "
@@ -170,4 +189,13 @@ public abstract class DataStructure implements IDataStructure {
 	public static void enableContainsOnAddition() {
 		overrideContainsCheck = false;
 	}
+
+	/**
+	 * 
+	 * @return true if add checks whether an element is already contained
+	 *         before adding it
+	 */
+	protected static boolean isContainsCheckEnabled() {
+		return !overrideContainsCheck;
+	}
 }
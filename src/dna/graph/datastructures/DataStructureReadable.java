@@ -4,6 +4,7 @@ import java.util.Iterator;
 
 import dna.graph.IElement;
 import dna.util.Log;
+import dna.util.Rand;
 
 /**
  * Base class for storing IElements in a format that supports reading (eg.
@@ -19,6 +20,11 @@ public abstract class DataStructureReadable extends DataStructure implements
 		super(lt, dT);
 	}
 
+	@Override
+	public IElement getRandom() {
+		return this.getRandom(Rand.get());
+	}
+
 	public boolean dataEquals(IDataStructure that) {
 		if (that instanceof DataStructureReadable) {
 			return dataEquals((DataStructureReadable) that);
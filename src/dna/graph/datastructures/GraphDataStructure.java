@@ -1,12 +1,14 @@
 package dna.graph.datastructures;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import dna.graph.ClassPointers;
 import dna.graph.Graph;
@@ -25,10 +27,15 @@ import dna.graph.nodes.UndirectedNode;
 import dna.graph.weights.IWeighted;
 import dna.graph.weights.Weight;
 import dna.graph.weights.Weight.WeightSelection;
+import dna.profiler.Profiler;
 import dna.profiler.ProfilerMeasurementData;
 import dna.profiler.ProfilerMeasurementData.ProfilerDataType;
+import dna.profiler.datatypes.AddedComparableEntry;
 import dna.profiler.datatypes.ComparableEntry;
+import dna.profiler.datatypes.benchmarkresults.BenchmarkingResult;
+import dna.profiler.datatypes.complexity.Complexity;
 import dna.profiler.datatypes.complexity.ComplexityType.Base;
+import dna.profiler.datatypes.complexity.ComplexityType.Type;
 import dna.util.Config;
 
 /**
@@ -46,13 +53,62 @@ public class GraphDataStructure implements Cloneable {
 	private Class<? extends Weight> edgeWeightType;
 	private WeightSelection nodeWeightSelection;
 	private WeightSelection edgeWeightSelection;
-	private Constructor<?> lastWeightedEdgeConstructor = null;
-	private Constructor<?> lastEdgeConstructor = null;
+	private EdgeConstructor lastWeightedEdgeConstructor = null;
+	private EdgeConstructor lastEdgeConstructor = null;
+
+	/**
+	 * constructors of all element types and lists, resolved once per class and
+	 * invoked as method handles (instead of looking them up and invoking them
+	 * via reflection for each new instance)
+	 */
+	private static final Constructors nodeConstructors = new Constructors(
+			Node.class, int.class, GraphDataStructure.class);
+	private static final Constructors nodeStringConstructors = new Constructors(
+			Node.class, String.class, GraphDataStructure.class);
+	private static final Constructors weightedNodeConstructors = new Constructors(
+			Node.class, int.class, Weight.class, GraphDataStructure.class);
+	private static final Constructors edgeStringConstructors = new Constructors(
+			Edge.class, String.class, Graph.class);
+	private static final Constructors edgeStringMapConstructors = new Constructors(
+			Edge.class, String.class, Graph.class, HashMap.class);
+	private static final Constructors weightConstructors = new Constructors(
+			Weight.class, WeightSelection.class);
+	private static final Constructors weightStringConstructors = new Constructors(
+			Weight.class, String.class);
+	private static final Constructors listConstructors = new Constructors(
+			IDataStructure.class, ListType.class, Class.class);
 
 	private IEdgeListDatastructure emptyList = new DEmpty(null);
-	private IEdgeDummy edgeDummy;
+	/**
+	 * dummy edge used for lookups, one per thread since a graph can be read
+	 * by several threads at the same time (e.g., by metrics applied
+	 * concurrently)
+	 */
+	private ThreadLocal<IEdgeDummy> edgeDummy = new ThreadLocal<IEdgeDummy>() {
+		@Override
+		protected IEdgeDummy initialValue() {
+			if (createsDirected()) {
+				DirectedNode node1 = new DirectedNode(1,
+						GraphDataStructure.this);
+				DirectedNode node2 = new DirectedNode(2,
+						GraphDataStructure.this);
+				return new DummyDirectedEdge(node1, node2);
+			} else {
+				UndirectedNode node1 = new UndirectedNode(1,
+						GraphDataStructure.this);
+				UndirectedNode node2 = new UndirectedNode(2,
+						GraphDataStructure.this);
+				return new DummyUndirectedEdge(node1, node2);
+			}
+		}
+	};
 
 	private EnumMap<ListType, Class<? extends IDataStructure>> listTypes;
+	/**
+	 * list types that passed canGDSCreateProperLists, so that they are not
+	 * checked again for each new list
+	 */
+	private EnumMap<ListType, Class<? extends IDataStructure>> checkedListTypes;
 	private EnumMap<ListType, Integer> defaultListSizes;
 	private EnumMap<ListType, Integer> overrideDefaultListSizes;
 
@@ -61,8 +117,24 @@ public class GraphDataStructure implements Cloneable {
 
 	private int defaultListSize = 10;
 
+	/**
+	 * memory of all DOffHeap lists created by this gds, created on demand
+	 */
+	private OffHeapStore offHeapStore;
+
+	/**
+	 * nodes of the lists that store node indices, created on demand
+	 */
+	private NodeTable nodeTable;
+
 	private static GraphDataStructure currentGDS;
 
+	/**
+	 * gds set by the current thread (takes precedence over the global one so
+	 * that concurrently generated runs do not use each other's gds)
+	 */
+	private static ThreadLocal<GraphDataStructure> currentThreadGDS = new ThreadLocal<GraphDataStructure>();
+
 	public GraphDataStructure(
 			EnumMap<ListType, Class<? extends IDataStructure>> listTypes,
 			Class<? extends Node> nodeType, Class<? extends Edge> edgeType) {
@@ -93,10 +165,20 @@ public class GraphDataStructure implements Cloneable {
 
 	public static void setCurrent(GraphDataStructure gds) {
 		currentGDS = gds;
+		currentThreadGDS.set(gds);
+	}
+
+	/**
+	 * sets the gds of the current thread only, e.g., for worker threads that
+	 * operate on the graph of another thread
+	 */
+	public static void setCurrentThread(GraphDataStructure gds) {
+		currentThreadGDS.set(gds);
 	}
 
 	public static GraphDataStructure getCurrent() {
-		return currentGDS;
+		GraphDataStructure gds = currentThreadGDS.get();
+		return gds != null ? gds : currentGDS;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -191,9 +273,60 @@ public class GraphDataStructure implements Cloneable {
 				&& getListClass(ListType.LocalOutEdgeList, list) == DEmpty.class)
 			return false;
 
+		if (storesLocalListsOnly(getListClass(ListType.GlobalNodeList, list))
+				|| storesLocalListsOnly(getListClass(ListType.GlobalEdgeList,
+						list)))
+			return false;
+
+		return true;
+	}
+
+	/**
+	 * 
+	 * @param list
+	 *            list types
+	 * @param edgeType
+	 *            type of the edges stored in the lists (null if not known)
+	 * @return true if the list types are valid and all edge lists can store
+	 *         edges of the given type
+	 */
+	public static boolean validListTypesSet(
+			EnumMap<ListType, Class<? extends IDataStructure>> list,
+			Class<? extends Edge> edgeType) {
+		if (!validListTypesSet(list))
+			return false;
+
+		if (edgeType != null && IWeighted.class.isAssignableFrom(edgeType)) {
+			for (ListType lt : ListType.values()) {
+				if (Edge.class.isAssignableFrom(lt.getStoredClass())
+						&& !canStoreWeightedEdges(getListClass(lt, list)))
+					return false;
+			}
+		}
+
 		return true;
 	}
 
+	/**
+	 * @return true if lists of the given class store their elements relative
+	 *         to the node they belong to, i.e., can only be used as local
+	 *         lists
+	 */
+	public static boolean storesLocalListsOnly(
+			Class<? extends IDataStructure> listClass) {
+		return listClass == DIntNeighborList.class;
+	}
+
+	/**
+	 * @return false if lists of the given class only keep the nodes of an
+	 *         edge, i.e., would lose the weights of weighted edges
+	 */
+	public static boolean canStoreWeightedEdges(
+			Class<? extends IDataStructure> listClass) {
+		return listClass != DIntNeighborList.class
+				&& listClass != DOffHeap.class;
+	}
+
 	private boolean canGDSCreateProperLists() {
 		if (getListClass(ListType.GlobalEdgeList) == null
 				&& getListClass(ListType.LocalEdgeList) == null) {
@@ -212,7 +345,7 @@ public class GraphDataStructure implements Cloneable {
 							.get(ListType.GlobalNodeList));
 		}
 
-		if (!validListTypesSet(listTypes)) {
+		if (!validListTypesSet(listTypes, this.edgeType)) {
 			throw new RuntimeException("Invalid set of list types");
 		}
 		return true;
@@ -341,29 +474,44 @@ public class GraphDataStructure implements Cloneable {
 	public static IDataStructure constructList(ListType lt,
 			Class<? extends IDataStructure> sourceClass,
 			Class<? extends IElement> storedDataType) {
-		IDataStructure res = null;
 		try {
-			res = sourceClass.getConstructor(ListType.class,
-					storedDataType.getClass()).newInstance(lt, storedDataType);
-		} catch (InstantiationException | IllegalAccessException
-				| IllegalArgumentException | InvocationTargetException
-				| NoSuchMethodException | SecurityException e) {
-			e.printStackTrace();
+			return (IDataStructure) listConstructors.get(sourceClass)
+					.invokeExact(lt, (Class<?>) storedDataType);
+		} catch (Throwable t) {
+			throw newInstanceException("list", t);
 		}
-		return res;
 	}
 
 	public IDataStructure newList(ListType listType) {
-		if (Config.getBoolean("GRAPHDATASTRUCTURE_OVERRIDE_CHECKS") != true)
+		return this.newList(listType, (NodeTable) null);
+	}
+
+	/**
+	 * 
+	 * @param nodeTable
+	 *            table in which DOffHeap and DIntNeighborList lists register
+	 *            their nodes (null: the current table of this gds, cf.
+	 *            getNodeTable)
+	 */
+	public IDataStructure newList(ListType listType, NodeTable nodeTable) {
+		if (!this.listTypes.equals(this.checkedListTypes)
+				&& Config.getBoolean("GRAPHDATASTRUCTURE_OVERRIDE_CHECKS") != true) {
 			this.canGDSCreateProperLists();
+			this.checkedListTypes = this.listTypes.clone();
+		}
 
 		Class<? extends IDataStructure> sourceClass = getListClass(listType,
 				listTypes);
-		return newList(listType, sourceClass);
+		return newList(listType, sourceClass, nodeTable);
 	}
 
 	public IDataStructure newList(ListType listType,
 			Class<? extends IDataStructure> sourceClass) {
+		return this.newList(listType, sourceClass, null);
+	}
+
+	public IDataStructure newList(ListType listType,
+			Class<? extends IDataStructure> sourceClass, NodeTable nodeTable) {
 		Class<? extends IElement> storedDataType = listType.getStoredClass();
 
 		if (sourceClass == DEmpty.class) {
@@ -371,6 +519,14 @@ public class GraphDataStructure implements Cloneable {
 		}
 		IDataStructure res = constructList(listType, sourceClass,
 				storedDataType);
+		if (res instanceof DOffHeap) {
+			((DOffHeap) res).setStore(this.getOffHeapStore());
+			((DOffHeap) res).setNodeTable(nodeTable != null ? nodeTable : this
+					.getNodeTable());
+		} else if (res instanceof DIntNeighborList) {
+			((DIntNeighborList) res).setNodeTable(nodeTable != null ? nodeTable
+					: this.getNodeTable());
+		}
 		res.reinitializeWithSize(this.getStartingSize(listType));
 		return res;
 	}
@@ -392,45 +548,24 @@ public class GraphDataStructure implements Cloneable {
 	}
 
 	public Node newNodeInstance(int index) {
-		Constructor<? extends Node> c;
-
 		if (this.createsWeightedNodes()) {
 			return newWeightedNode(index);
 		}
 
 		try {
-			c = nodeType.getConstructor(int.class, GraphDataStructure.class);
-			return c.newInstance(index, this);
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new node instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new node instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
+			return (Node) nodeConstructors.get(nodeType).invokeExact(index,
+					this);
+		} catch (Throwable t) {
+			throw newInstanceException("node", t);
 		}
 	}
 
 	public Node newNodeInstance(String str) {
-		Constructor<? extends Node> c;
 		try {
-			c = nodeType.getConstructor(String.class, GraphDataStructure.class);
-			return c.newInstance(str, this);
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new node instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new node instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
+			return (Node) nodeStringConstructors.get(nodeType).invokeExact(str,
+					this);
+		} catch (Throwable t) {
+			throw newInstanceException("node", t);
 		}
 	}
 
@@ -440,23 +575,11 @@ public class GraphDataStructure implements Cloneable {
 	}
 
 	public Node newWeightedNode(int index, Weight weight) {
-		Constructor<? extends Node> c;
 		try {
-			c = (Constructor<? extends Node>) nodeType.getConstructor(
-					int.class, Weight.class, GraphDataStructure.class);
-			return c.newInstance(index, weight, this);
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weighted node instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weighted node instance: "
-							+ e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
+			return (Node) weightedNodeConstructors.get(nodeType).invokeExact(
+					index, weight, this);
+		} catch (Throwable t) {
+			throw newInstanceException("weighted node", t);
 		}
 	}
 
@@ -470,100 +593,36 @@ public class GraphDataStructure implements Cloneable {
 			return this.newWeightedEdge(src, dst);
 		}
 
-		if (this.lastEdgeConstructor != null) {
-			// Try to use cached constructor, but throw it away if it is not the
-			// correct one
-			try {
-				return edgeType.cast(this.lastEdgeConstructor.newInstance(src,
-						dst));
-			} catch (InstantiationException | IllegalAccessException
-					| IllegalArgumentException | InvocationTargetException
-					| ClassCastException e) {
-				this.lastEdgeConstructor = null;
-			}
-		}
-
-		Constructor<?>[] cList = edgeType.getConstructors();
-		Constructor<?> cNeeded = null;
-
-		// First: search matching constructor for src.getClass and dst.getClass
-		Class<?>[] cRequired = new Class[] { src.getClass(), dst.getClass() };
-		cNeeded = getConstructor(cList, cRequired);
-
-		// Okay, check for super types if needed
-		if (cNeeded == null) {
-			Class<?> superType;
-			superType = src.getClass().getSuperclass();
-			while (cNeeded == null && Node.class.isAssignableFrom(superType)) {
-				cRequired = new Class[] { superType, superType };
-				for (Constructor<?> c : cList) {
-					if (Arrays.equals(c.getParameterTypes(), cRequired)) {
-						cNeeded = c;
-					}
-				}
-				superType = superType.getSuperclass();
-			}
-		}
-
-		if (cNeeded == null) {
-			throw new RuntimeException("No edge constructor for nodetype "
-					+ src.getClass() + " in edge type " + edgeType + " found");
+		// Use the cached constructor as long as edge and node types match
+		EdgeConstructor c = this.lastEdgeConstructor;
+		if (c == null || !c.matches(edgeType, src.getClass())) {
+			c = new EdgeConstructor(edgeType, src.getClass(), false);
+			this.lastEdgeConstructor = c;
 		}
 
 		try {
-			this.lastEdgeConstructor = cNeeded;
-			return edgeType.cast(cNeeded.newInstance(src, dst));
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
+			return (Edge) c.constructor.invokeExact(src, dst);
+		} catch (Throwable t) {
+			throw newInstanceException("edge", t);
 		}
 	}
 
 	public Edge newEdgeInstance(String str, Graph graph,
 			HashMap<Integer, Node> addedNodes) {
-		Constructor<? extends Edge> c;
 		try {
-			c = edgeType.getConstructor(String.class, Graph.class,
-					HashMap.class);
-			return c.newInstance(str, graph, addedNodes);
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
+			return (Edge) edgeStringMapConstructors.get(edgeType).invokeExact(
+					str, graph, (HashMap<?, ?>) addedNodes);
+		} catch (Throwable t) {
+			throw newInstanceException("edge", t);
 		}
 	}
 
 	public Edge newEdgeInstance(String str, Graph graph) {
-		Constructor<? extends Edge> c;
 		try {
-			c = edgeType.getConstructor(String.class, Graph.class);
-			return c.newInstance(str, graph);
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
+			return (Edge) edgeStringConstructors.get(edgeType).invokeExact(str,
+					graph);
+		} catch (Throwable t) {
+			throw newInstanceException("edge", t);
 		}
 	}
 
@@ -572,19 +631,9 @@ public class GraphDataStructure implements Cloneable {
 	}
 
 	public Edge getDummyEdge(int n1, int n2) {
-		if (edgeDummy == null) {
-			if (createsDirected()) {
-				DirectedNode node1 = new DirectedNode(1, this);
-				DirectedNode node2 = new DirectedNode(2, this);
-				edgeDummy = new DummyDirectedEdge(node1, node2);
-			} else {
-				UndirectedNode node1 = new UndirectedNode(1, this);
-				UndirectedNode node2 = new UndirectedNode(2, this);
-				edgeDummy = new DummyUndirectedEdge(node1, node2);
-			}
-		}
-		edgeDummy.setNodes(n1, n2);
-		return (Edge) edgeDummy;
+		IEdgeDummy dummy = edgeDummy.get();
+		dummy.setNodes(n1, n2);
+		return (Edge) dummy;
 	}
 
 	public Constructor<?> getConstructor(Constructor<?>[] list,
@@ -618,87 +667,35 @@ public class GraphDataStructure implements Cloneable {
 							+ src.getClass() + " and " + dst.getClass());
 		}
 
-		if (this.lastWeightedEdgeConstructor != null) {
-			// Try to use cached constructor, but throw it away if it is not the
-			// correct one
-			try {
-				return (Edge) edgeType.cast(this.lastWeightedEdgeConstructor
-						.newInstance(src, dst, weight));
-			} catch (InstantiationException | IllegalAccessException
-					| IllegalArgumentException | InvocationTargetException
-					| ClassCastException e) {
-				this.lastWeightedEdgeConstructor = null;
-			}
-		}
-
-		Constructor<?>[] cList = edgeType.getConstructors();
-		Constructor<?> cNeeded = null;
-
-		// First: search matching constructor for src.getClass and dst.getClass
-		Class<?>[] cRequired = new Class[] { src.getClass(), dst.getClass(),
-				Weight.class };
-		cNeeded = getConstructor(cList, cRequired);
-
-		// Okay, check for super types if needed
-		if (cNeeded == null) {
-			Class<?> superType;
-			superType = src.getClass().getSuperclass();
-			while (cNeeded == null && Node.class.isAssignableFrom(superType)) {
-				cRequired = new Class[] { superType, superType, Weight.class };
-				cNeeded = getConstructor(cList, cRequired);
-				superType = superType.getSuperclass();
-			}
-		}
-
-		if (cNeeded == null) {
-			throw new RuntimeException("No edge constructor for nodetype "
-					+ src.getClass() + " in edge type " + edgeType + " found");
+		// Use the cached constructor as long as edge and node types match
+		EdgeConstructor c = this.lastWeightedEdgeConstructor;
+		if (c == null || !c.matches(edgeType, src.getClass())) {
+			c = new EdgeConstructor(edgeType, src.getClass(), true);
+			this.lastWeightedEdgeConstructor = c;
 		}
 
 		try {
-			this.lastWeightedEdgeConstructor = cNeeded;
-			return (Edge) edgeType.cast(cNeeded.newInstance(src, dst, weight));
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weighted edge instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weighted edge instance: "
-							+ e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
+			return (Edge) c.constructor.invokeExact(src, dst, weight);
+		} catch (Throwable t) {
+			throw newInstanceException("weighted edge", t);
 		}
 	}
 
 	private Weight newWeight(Class<? extends Weight> weightClass,
 			WeightSelection ws) {
-		Constructor<?> c;
-		Weight w = null;
-
 		if (weightClass == null) {
 			throw new RuntimeException(
 					"Can not generate new weight instance as weightClass is NULL");
 		}
 
 		try {
-			c = weightClass.getConstructor(WeightSelection.class);
-			w = (Weight) c.newInstance(ws);
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weight instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
+			return (Weight) weightConstructors.get(weightClass).invokeExact(ws);
+		} catch (Throwable t) {
+			throw newInstanceException("weight", t);
 		}
-		return w;
 	}
 
 	private Weight newWeight(Class<? extends Weight> weightClass, String s) {
-		Constructor<?> c;
-		Weight w = null;
-
 		if (weightClass == null) {
 			throw new RuntimeException(
 					"Can not generate new weight instance as weightClass is NULL");
@@ -712,15 +709,96 @@ public class GraphDataStructure implements Cloneable {
 		}
 
 		try {
-			c = weightClass.getConstructor(String.class);
-			w = (Weight) c.newInstance(s);
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weight instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
+			return (Weight) weightStringConstructors.get(weightClass)
+					.invokeExact(s);
+		} catch (Throwable t) {
+			throw newInstanceException("weight", t);
+		}
+	}
+
+	private static RuntimeException newInstanceException(String type,
+			Throwable t) {
+		RuntimeException rt = new RuntimeException("Could not generate new "
+				+ type + " instance: " + t.getMessage());
+		rt.setStackTrace(t.getStackTrace());
+		return rt;
+	}
+
+	/**
+	 * Constructors with the given parameter types of all classes that are
+	 * requested, as method handles returning the given type
+	 */
+	private static class Constructors extends ClassValue<MethodHandle> {
+		private MethodType type;
+
+		public Constructors(Class<?> returnType, Class<?>... parameterTypes) {
+			this.type = MethodType.methodType(returnType, parameterTypes);
+		}
+
+		@Override
+		protected MethodHandle computeValue(Class<?> c) {
+			try {
+				return MethodHandles
+						.publicLookup()
+						.findConstructor(c,
+								this.type.changeReturnType(void.class))
+						.asType(this.type);
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				throw new RuntimeException("No constructor " + c.getName()
+						+ this.type.parameterList() + " found");
+			}
+		}
+	}
+
+	/**
+	 * Constructor of an edge type taking two nodes of the given node type (or
+	 * one of its super types) and, for weighted edges, their weight
+	 */
+	private class EdgeConstructor {
+		private final Class<?> edgeType;
+
+		private final Class<?> nodeType;
+
+		private final MethodHandle constructor;
+
+		public EdgeConstructor(Class<? extends Edge> edgeType,
+				Class<?> nodeType, boolean weighted) {
+			this.edgeType = edgeType;
+			this.nodeType = nodeType;
+
+			Constructor<?>[] cList = edgeType.getConstructors();
+			Constructor<?> cNeeded = null;
+
+			// First: search matching constructor for the node type, then check
+			// for super types if needed
+			Class<?> superType = nodeType;
+			while (cNeeded == null && Node.class.isAssignableFrom(superType)) {
+				Class<?>[] cRequired = weighted ? new Class[] { superType,
+						superType, Weight.class } : new Class[] { superType,
+						superType };
+				cNeeded = getConstructor(cList, cRequired);
+				superType = superType.getSuperclass();
+			}
+
+			if (cNeeded == null) {
+				throw new RuntimeException("No edge constructor for nodetype "
+						+ nodeType + " in edge type " + edgeType + " found");
+			}
+
+			MethodType type = weighted ? MethodType.methodType(Edge.class,
+					Node.class, Node.class, Weight.class) : MethodType
+					.methodType(Edge.class, Node.class, Node.class);
+			try {
+				this.constructor = MethodHandles.publicLookup()
+						.unreflectConstructor(cNeeded).asType(type);
+			} catch (IllegalAccessException e) {
+				throw newInstanceException("edge", e);
+			}
+		}
+
+		public boolean matches(Class<?> edgeType, Class<?> nodeType) {
+			return this.edgeType == edgeType && this.nodeType == nodeType;
 		}
-		return w;
 	}
 
 	public Weight newNodeWeight(WeightSelection ws) {
@@ -873,13 +951,72 @@ public class GraphDataStructure implements Cloneable {
 	private ComparableEntry getCostData(Class<? extends IDataStructure> ds,
 			Class<? extends IElement> dt, ProfilerDataType pdt, AccessType at,
 			Base b) {
+		if (ds == DBloomFilter.class) {
+			/**
+			 * Failing lookups are answered by the bloom filter in constant time
+			 * (benchmarked like the same access on DEmpty), all other accesses
+			 * are dominated by the wrapped list
+			 */
+			if (at == AccessType.ContainsFailure || at == AccessType.GetFailure
+					|| at == AccessType.RemoveFailure) {
+				if (pdt == ProfilerDataType.RuntimeBenchmark
+						|| pdt == ProfilerDataType.MemoryBenchmark)
+					ds = DEmpty.class;
+			} else if (at == AccessType.Init
+					&& (pdt == ProfilerDataType.MemoryComplexity
+							|| pdt == ProfilerDataType.MemoryBenchmark)) {
+				return getBloomFilterMemoryCost(dt, pdt, b);
+			} else {
+				ds = DBloomFilter.getWrappedClass();
+			}
+		} else if (ds == DOffHeap.class) {
+			/**
+			 * The off-heap index is a hash table of the same kind as a
+			 * DIntHashSet
+			 */
+			ds = DIntHashSet.class;
+		}
 		return ProfilerMeasurementData.get(pdt, ds.getSimpleName(), at,
 				dt.getSimpleName(), b);
 	}
 
+	/**
+	 * Memory of a bloom filter: the memory of the wrapped list plus
+	 * BLOOMFILTER_COUNTERS_PER_ELEMENT bytes per element for the counters
+	 */
+	private ComparableEntry getBloomFilterMemoryCost(
+			Class<? extends IElement> dt, ProfilerDataType pdt, Base b) {
+		ComparableEntry list = getCostData(DBloomFilter.getWrappedClass(), dt,
+				pdt, AccessType.Init, b);
+		int bytes = DBloomFilter.getCountersPerElement();
+		ComparableEntry counters;
+		if (pdt == ProfilerDataType.MemoryComplexity) {
+			counters = new Complexity(bytes,
+					Type.getBasicComplexity(Type.Linear));
+		} else {
+			TreeMap<Integer, ArrayList<Double>> map = new TreeMap<Integer, ArrayList<Double>>();
+			for (int size : ((BenchmarkingResult) list).getListSizes()) {
+				ArrayList<Double> values = new ArrayList<Double>(1);
+				values.add((double) size * bytes);
+				map.put(size, values);
+			}
+			counters = new BenchmarkingResult("MEMORYBENCHMARK_DBLOOMFILTER_"
+					+ dt.getSimpleName().toUpperCase(), map);
+		}
+		return new AddedComparableEntry(list, counters);
+	}
+
 	public ComparableEntry getCostData(ListType lt, AccessType at,
 			ProfilerDataType pdt) {
 		Class<? extends IDataStructure> listClass = getListClass(lt);
+		if (listClass == DAdaptiveList.class) {
+			/**
+			 * Cost of the representation a list of the current mean size is
+			 * stored in
+			 */
+			listClass = DAdaptiveList.getStorageClass(Profiler
+					.getMeanSize(lt));
+		}
 		Class<? extends IElement> storedElement = lt.getStoredClass();
 		Base baseType = lt.getBase();
 		return getCostData(listClass, storedElement, pdt, at, baseType);
@@ -938,26 +1075,54 @@ public class GraphDataStructure implements Cloneable {
 		if (simpleListCombinations == null)
 			simpleListCombinations = combineWith(
 					new EnumMap<ListType, Class<? extends IDataStructure>>(
-							ListType.class), 0, 4);
+							ListType.class), 0, 4, ClassPointers.dataStructures);
 		return simpleListCombinations;
 	}
 
+	/**
+	 * 
+	 * @return simple combinations of the common lists (cf.
+	 *         ClassPointers.commonDataStructures) and, for each specialized
+	 *         list, the simple combinations with DArrayList that contain it,
+	 *         i.e., specialized lists are not combined with each other or the
+	 *         common lists to keep the number of test parameters at the size
+	 *         of the common combinations
+	 */
+	@SuppressWarnings("unchecked")
+	public static ArrayList<EnumMap<ListType, Class<? extends IDataStructure>>> getTestDatastructureCombinations() {
+		ArrayList<EnumMap<ListType, Class<? extends IDataStructure>>> res = combineWith(
+				new EnumMap<ListType, Class<? extends IDataStructure>>(
+						ListType.class), 0, 4,
+				ClassPointers.commonDataStructures);
+		for (Class<? extends IDataStructure> clazz : ClassPointers.specializedDataStructures) {
+			for (EnumMap<ListType, Class<? extends IDataStructure>> combination : combineWith(
+					new EnumMap<ListType, Class<? extends IDataStructure>>(
+							ListType.class), 0, 4, new Class[] {
+							DArrayList.class, clazz })) {
+				if (combination.containsValue(clazz))
+					res.add(combination);
+			}
+		}
+		return res;
+	}
+
 	public static ArrayList<EnumMap<ListType, Class<? extends IDataStructure>>> getAllDatastructureCombinations() {
 		if (allListCombinations == null)
 			allListCombinations = combineWith(
 					new EnumMap<ListType, Class<? extends IDataStructure>>(
-							ListType.class), 0, ListType.values().length);
+							ListType.class), 0, ListType.values().length,
+					ClassPointers.dataStructures);
 		return allListCombinations;
 	}
 
 	@SuppressWarnings("unchecked")
 	private static ArrayList<EnumMap<ListType, Class<? extends IDataStructure>>> combineWith(
 			EnumMap<ListType, Class<? extends IDataStructure>> inList, int i,
-			int maxI) {
+			int maxI, Class[] dataStructures) {
 		ListType lt = ListType.values()[i];
 		ArrayList<EnumMap<ListType, Class<? extends IDataStructure>>> resAggregator = new ArrayList<EnumMap<ListType, Class<? extends IDataStructure>>>();
 		EnumMap<ListType, Class<? extends IDataStructure>> tempInList;
-		for (Class<? extends IDataStructure> clazz : ClassPointers.dataStructures) {
+		for (Class<? extends IDataStructure> clazz : dataStructures) {
 			if (lt.getRequiredType().isAssignableFrom(clazz)) {
 				tempInList = inList.clone();
 				tempInList.put(lt, clazz);
@@ -966,13 +1131,82 @@ public class GraphDataStructure implements Cloneable {
 						resAggregator.add(GraphDataStructure
 								.fillUpWithFallback(tempInList));
 				} else {
-					resAggregator.addAll(combineWith(tempInList, i + 1, maxI));
+					resAggregator.addAll(combineWith(tempInList, i + 1, maxI,
+							dataStructures));
 				}
 			}
 		}
 		return resAggregator;
 	}
 
+	/**
+	 * 
+	 * @return store in which the DOffHeap lists created by this gds are kept
+	 */
+	public synchronized OffHeapStore getOffHeapStore() {
+		if (this.offHeapStore == null) {
+			this.offHeapStore = new OffHeapStore();
+		}
+		return this.offHeapStore;
+	}
+
+	/**
+	 * DOffHeap lists created afterwards are kept in a new store, the memory of
+	 * the current one is released once none of its lists is referenced
+	 * anymore (e.g., when the graph of the previous run is discarded)
+	 */
+	public synchronized void releaseOffHeapStore() {
+		this.offHeapStore = null;
+	}
+
+	/**
+	 * 
+	 * @return table of the nodes stored in the DOffHeap and DIntNeighborList
+	 *         lists created by this gds
+	 */
+	public synchronized NodeTable getNodeTable() {
+		if (this.nodeTable == null) {
+			this.nodeTable = new NodeTable(this);
+		}
+		return this.nodeTable;
+	}
+
+	/**
+	 * 
+	 * @return true if lists of this gds register their nodes in a NodeTable
+	 */
+	public boolean usesNodeTable() {
+		for (Class<? extends IDataStructure> listClass : this.listTypes
+				.values()) {
+			if (listClass == DOffHeap.class
+					|| listClass == DIntNeighborList.class) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * assigns the given table to the list in case it stores node indices
+	 * (DOffHeap, DIntNeighborList), e.g., when its node is added to a graph
+	 */
+	public static void setNodeTable(IDataStructure list, NodeTable nodeTable) {
+		if (list instanceof DOffHeap) {
+			((DOffHeap) list).setNodeTable(nodeTable);
+		} else if (list instanceof DIntNeighborList) {
+			((DIntNeighborList) list).setNodeTable(nodeTable);
+		}
+	}
+
+	/**
+	 * lists created afterwards register their nodes in a new table, the nodes
+	 * of the current one are released once none of its lists is referenced
+	 * anymore
+	 */
+	public synchronized void releaseNodeTable() {
+		this.nodeTable = null;
+	}
+
 	public GraphDataStructure clone() {
 		String representation = this.getDataStructures();
 		GraphDataStructure cloned = new GraphDataStructure(representation);
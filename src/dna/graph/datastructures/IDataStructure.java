@@ -1,5 +1,7 @@
 package dna.graph.datastructures;
 
+import java.util.Collection;
+
 import dna.graph.IElement;
 
 /**
@@ -39,6 +41,16 @@ public interface IDataStructure extends Iterable<IElement> {
 	 */
 	public boolean add(IElement element);
 
+	/**
+	 * Add all given elements to this data structure, equivalent to calling
+	 * add for each of them but allowed to pre-size the data structure and to
+	 * perform the checks of all elements at once
+	 * 
+	 * @param elements
+	 * @return number of elements that were added
+	 */
+	public int addAll(Collection<? extends IElement> elements);
+
 	/**
 	 * Check whether an element is contained in this data structure
 	 * 
@@ -55,6 +67,15 @@ public interface IDataStructure extends Iterable<IElement> {
 	 */
 	public boolean remove(IElement element);
 
+	/**
+	 * Remove all given elements from this data structure, equivalent to
+	 * calling remove for each of them
+	 * 
+	 * @param elements
+	 * @return number of elements that were removed
+	 */
+	public int removeAll(Collection<? extends IElement> elements);
+
 	/**
 	 * Get the number of elements stored in this data structure
 	 * 
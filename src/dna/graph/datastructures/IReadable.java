@@ -1,6 +1,7 @@
 package dna.graph.datastructures;
 
 import java.util.Collection;
+import java.util.Random;
 
 import dna.graph.IElement;
 
@@ -14,12 +15,22 @@ public interface IReadable extends IDataStructure {
 	public boolean dataEquals(IReadable that);
 
 	/**
-	 * Retrieve a random element from this data structure
+	 * Retrieve a random element from this data structure, drawn from the
+	 * random source of the current thread (cf. Rand.get())
 	 * 
 	 * @return
 	 */
 	public IElement getRandom();
 
+	/**
+	 * Retrieve a random element from this data structure
+	 * 
+	 * @param rand
+	 *            random source used to select the element
+	 * @return
+	 */
+	public IElement getRandom(Random rand);
+
 	/**
 	 * Retrieve a collection of all elements within this data structure
 	 * 
@@ -0,0 +1,74 @@
+package dna.graph.datastructures;
+
+import java.util.Arrays;
+
+import dna.graph.IElement;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+
+/**
+ * Nodes stored in the lists of a GraphDataStructure by index (cf.
+ * GraphDataStructure.getNodeTable()). Lists that keep node indices instead of
+ * references (DOffHeap, DIntNeighborList) register each node they store and
+ * resolve nodes and materialize edges from the indices through this table.
+ *
+ * The table keeps the last node registered for each index, so it must only be
+ * used by the lists of a single graph: each graph whose gds creates such lists
+ * has its own table, which is assigned to the local lists of a node when the
+ * node is added to the graph (cf. Graph.addNode). Lists of nodes that are not
+ * added to a graph use the table of the gds.
+ *
+ * Registering is synchronized, reading is not: all lists of a table must be
+ * modified by a single thread while other threads may read them afterwards.
+ *
+ * @author benni
+ *
+ */
+public class NodeTable {
+	private GraphDataStructure gds;
+
+	private volatile Node[] nodes;
+
+	public NodeTable(GraphDataStructure gds) {
+		this.gds = gds;
+		this.nodes = new Node[16];
+	}
+
+	public synchronized void register(Node node) {
+		int index = node.getIndex();
+		Node[] nodes = this.nodes;
+		if (index >= nodes.length) {
+			nodes = Arrays.copyOf(nodes, Math.max(index + 1, 2 * nodes.length));
+		}
+		nodes[index] = node;
+		this.nodes = nodes;
+	}
+
+	/**
+	 * registers the nodes of the given nodes and edges, e.g., the ones a list
+	 * has registered in another table before
+	 */
+	public void registerAll(Iterable<IElement> elements) {
+		for (IElement element : elements) {
+			if (element instanceof Edge) {
+				this.register(((Edge) element).getN1());
+				this.register(((Edge) element).getN2());
+			} else {
+				this.register((Node) element);
+			}
+		}
+	}
+
+	public Node getNode(int index) {
+		return this.nodes[index];
+	}
+
+	/**
+	 * @return new edge instance between the (registered) nodes with the given
+	 *         indices
+	 */
+	public Edge newEdge(int n1, int n2) {
+		Node[] nodes = this.nodes;
+		return this.gds.newEdgeInstance(nodes[n1], nodes[n2]);
+	}
+}
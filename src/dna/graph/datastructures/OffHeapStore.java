@@ -0,0 +1,199 @@
+package dna.graph.datastructures;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+
+import dna.util.Config;
+import dna.util.Log;
+
+/**
+ * Memory outside of the Java heap shared by all DOffHeap lists created by a
+ * GraphDataStructure (cf. GraphDataStructure.getOffHeapStore()).
+ *
+ * The memory consists of chunks of OFFHEAP_CHUNK_SIZE MB (at most 1024 MB
+ * since buffers are indexed by int), either direct buffers or, in case
+ * OFFHEAP_DIRECTORY is set, buffers mapped from (deleted) temporary files in
+ * that directory so that the operating system can page them out. The first
+ * chunk starts small and is doubled until it reaches that size so that the
+ * stores of small graphs do not reserve a full chunk. All chunks form a
+ * single address space of longs in which regions of 2^bits longs are
+ * allocated. Freed regions are kept in a free list per size and re-used by the
+ * next allocation of the same size.
+ *
+ * Allocation is synchronized, reading and writing is not: all lists of a
+ * store must be modified by a single thread while other threads may read them
+ * afterwards.
+ *
+ * @author benni
+ *
+ */
+public class OffHeapStore {
+	private int chunkBits;
+
+	private long chunkMask;
+
+	private File directory;
+
+	private volatile LongBuffer[] chunks;
+
+	/**
+	 * first address that has never been allocated
+	 */
+	private long top;
+
+	private long[][] free;
+
+	private int[] freeCount;
+
+	/**
+	 * maximum number of bits of the longs in a chunk (2^27 longs = 1024 MB)
+	 */
+	private static final int maxChunkBits = 27;
+
+	/**
+	 * number of bits of the longs in the first chunk before it is doubled
+	 */
+	private static final int minChunkBits = 10;
+
+	public OffHeapStore() {
+		long chunkSize = (long) Config.getInt("OFFHEAP_CHUNK_SIZE") << 20;
+		this.chunkBits = 63 - Long.numberOfLeadingZeros(Math.max(
+				chunkSize >> 3, 1));
+		if (this.chunkBits > maxChunkBits) {
+			Log.warn("OFFHEAP_CHUNK_SIZE of " + (chunkSize >> 20)
+					+ " MB exceeds the maximum buffer size, using "
+					+ ((8L << maxChunkBits) >> 20) + " MB");
+			this.chunkBits = maxChunkBits;
+		}
+		this.chunkMask = (1L << this.chunkBits) - 1;
+		String dir = Config.get("OFFHEAP_DIRECTORY");
+		this.directory = dir == null || dir.trim().length() == 0 ? null
+				: new File(dir.trim());
+		this.chunks = new LongBuffer[0];
+		this.top = 0;
+		this.free = new long[64][];
+		this.freeCount = new int[64];
+	}
+
+	/**
+	 * allocates a region of 2^bits longs, all set to 0
+	 *
+	 * @return address of the region
+	 */
+	public synchronized long allocate(int bits) {
+		long address;
+		if (this.freeCount[bits] > 0) {
+			address = this.free[bits][--this.freeCount[bits]];
+		} else {
+			address = this.top;
+			this.top += 1L << bits;
+			while (this.getCapacity() < this.top) {
+				this.grow();
+			}
+		}
+		for (long i = 0; i < 1L << bits; i++) {
+			this.set(address + i, 0);
+		}
+		return address;
+	}
+
+	/**
+	 * returns the region at the given address to the store
+	 */
+	public synchronized void free(long address, int bits) {
+		if (this.free[bits] == null) {
+			this.free[bits] = new long[16];
+		} else if (this.freeCount[bits] == this.free[bits].length) {
+			this.free[bits] = Arrays.copyOf(this.free[bits],
+					2 * this.free[bits].length);
+		}
+		this.free[bits][this.freeCount[bits]++] = address;
+	}
+
+	/**
+	 * @return number of longs in all chunks (only the last chunk can be
+	 *         smaller than the chunk size, in case it is the first one)
+	 */
+	private long getCapacity() {
+		int n = this.chunks.length;
+		return n == 0 ? 0 : ((long) (n - 1) << this.chunkBits)
+				+ this.chunks[n - 1].capacity();
+	}
+
+	/**
+	 * doubles the first chunk (copying its content) until it reaches the
+	 * chunk size and adds a new chunk afterwards
+	 */
+	private void grow() {
+		LongBuffer[] chunks;
+		if (this.chunks.length == 0) {
+			chunks = new LongBuffer[] { this.newChunk(1 << Math.min(
+					minChunkBits, this.chunkBits)) };
+		} else if (this.chunks.length == 1
+				&& this.chunks[0].capacity() < 1 << this.chunkBits) {
+			LongBuffer old = this.chunks[0].duplicate();
+			old.clear();
+			LongBuffer chunk = this.newChunk(2 * old.capacity());
+			chunk.put(old);
+			chunk.clear();
+			chunks = new LongBuffer[] { chunk };
+		} else {
+			chunks = Arrays.copyOf(this.chunks, this.chunks.length + 1);
+			chunks[chunks.length - 1] = this.newChunk(1 << this.chunkBits);
+		}
+		this.chunks = chunks;
+	}
+
+	/**
+	 * @return new chunk of the given number of longs
+	 */
+	private LongBuffer newChunk(int longs) {
+		int size = longs * 8;
+		ByteBuffer buffer;
+		if (this.directory == null) {
+			buffer = ByteBuffer.allocateDirect(size);
+		} else {
+			try {
+				this.directory.mkdirs();
+				File file = File.createTempFile("dna", ".offheap",
+						this.directory);
+				file.deleteOnExit();
+				RandomAccessFile raf = new RandomAccessFile(file, "rw");
+				try {
+					raf.setLength(size);
+					buffer = raf.getChannel().map(MapMode.READ_WRITE, 0, size);
+				} finally {
+					raf.close();
+				}
+				file.delete();
+			} catch (IOException e) {
+				throw new RuntimeException("could not map off-heap chunk in "
+						+ this.directory, e);
+			}
+		}
+		return buffer.order(ByteOrder.nativeOrder()).asLongBuffer();
+	}
+
+	public long get(long address) {
+		return this.chunks[(int) (address >>> this.chunkBits)]
+				.get((int) (address & this.chunkMask));
+	}
+
+	public void set(long address, long value) {
+		this.chunks[(int) (address >>> this.chunkBits)].put(
+				(int) (address & this.chunkMask), value);
+	}
+
+	/**
+	 * @return number of bytes allocated outside of the heap
+	 */
+	public long getSize() {
+		return this.getCapacity() * 8;
+	}
+}
@@ -0,0 +1,154 @@
+package dna.graph.edges;
+
+import dna.util.OpenAddressingTable;
+
+/**
+ * Set of edges identified by the indices of their nodes, i.e., at most one
+ * edge is stored for each pair of nodes. The indices are packed into a single
+ * long key and stored in an open-addressing hash table with linear probing
+ * (cf. OpenAddressingTable, primitive keys, no boxing and no dummy edges
+ * required for a lookup).
+ *
+ * For an undirected index, the order of the node indices given for a lookup
+ * does not matter.
+ *
+ * @author benni
+ *
+ */
+public class EdgeIndex {
+	private static final int minBits = 4;
+
+	private boolean directed;
+
+	private Table table;
+
+	/**
+	 * keys and edges in two parallel arrays, null denotes an empty slot
+	 */
+	private static final class Table extends OpenAddressingTable<Table> {
+		private long[] keys;
+		private Edge[] edges;
+
+		private Table(int bits) {
+			super(bits);
+			this.keys = new long[1 << bits];
+			this.edges = new Edge[1 << bits];
+		}
+
+		@Override
+		public int home(long key) {
+			return this.hash(key);
+		}
+
+		@Override
+		public boolean isEmpty(int slot) {
+			return this.edges[slot] == null;
+		}
+
+		@Override
+		public long getKey(int slot) {
+			return this.keys[slot];
+		}
+
+		@Override
+		protected void copy(Table table, int from, int to) {
+			this.keys[to] = table.keys[from];
+			this.edges[to] = table.edges[from];
+		}
+
+		@Override
+		protected void clear(int slot) {
+			this.edges[slot] = null;
+		}
+
+		@Override
+		protected Table newTable(int bits) {
+			return new Table(bits);
+		}
+
+		/**
+		 * @return false if the key is already contained
+		 */
+		private boolean add(long key, Edge e) {
+			int i = this.findOrEmpty(key);
+			if (!this.isEmpty(i))
+				return false;
+			this.keys[i] = key;
+			this.edges[i] = e;
+			this.size++;
+			return true;
+		}
+	}
+
+	public EdgeIndex(boolean directed) {
+		this(directed, 0);
+	}
+
+	public EdgeIndex(boolean directed, int expectedSize) {
+		this.directed = directed;
+		this.table = new Table(OpenAddressingTable.getBits(minBits,
+				expectedSize));
+	}
+
+	/**
+	 * @return key of the edge between the nodes with the given indices
+	 */
+	public long getKey(int n1, int n2) {
+		if (!this.directed && n1 > n2) {
+			return ((long) n2 << 32) | (n1 & 0xFFFFFFFFL);
+		}
+		return ((long) n1 << 32) | (n2 & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * adds the given edge in case no edge between its nodes is contained yet
+	 *
+	 * @return true if the edge was added
+	 */
+	public boolean add(Edge e) {
+		if (this.table.isFull()) {
+			this.table = this.table.rehash(this.table.getBits() + 1);
+		}
+		return this.table.add(this.getKey(e.getN1Index(), e.getN2Index()), e);
+	}
+
+	public boolean contains(int n1, int n2) {
+		return this.table.find(this.getKey(n1, n2)) >= 0;
+	}
+
+	public boolean contains(Edge e) {
+		return this.contains(e.getN1Index(), e.getN2Index());
+	}
+
+	/**
+	 * @return edge between the nodes with the given indices, null if no such
+	 *         edge is contained
+	 */
+	public Edge get(int n1, int n2) {
+		int i = this.table.find(this.getKey(n1, n2));
+		return i < 0 ? null : this.table.edges[i];
+	}
+
+	/**
+	 * removes the edge between the nodes of the given edge (which is not
+	 * necessarily the same instance)
+	 *
+	 * @return true if an edge was removed
+	 */
+	public boolean remove(Edge e) {
+		return this.remove(e.getN1Index(), e.getN2Index());
+	}
+
+	public boolean remove(int n1, int n2) {
+		int i = this.table.find(this.getKey(n1, n2));
+		if (i < 0) {
+			return false;
+		}
+		this.table.removeAt(i);
+		return true;
+	}
+
+	public int size() {
+		return this.table.size();
+	}
+}
@@ -2,11 +2,13 @@ package dna.graph.generators;
 
 import dna.graph.Graph;
 import dna.graph.datastructures.GraphDataStructure;
+import dna.util.Rand;
+import dna.util.RandomSource;
 import dna.util.parameters.Parameter;
 import dna.util.parameters.ParameterList;
 
 public abstract class GraphGenerator extends ParameterList implements
-		IGraphGenerator {
+		IGraphGenerator, Cloneable {
 	protected long timestampInit;
 	protected int nodesInit;
 	protected int edgesInit;
@@ -33,6 +35,28 @@ public abstract class GraphGenerator extends ParameterList implements
 
 	protected GraphDataStructure gds;
 
+	private RandomSource rand;
+
+	/**
+	 * 
+	 * @return random source of this generator (the one of the current thread
+	 *         in case none has been set)
+	 */
+	public RandomSource getRandom() {
+		return this.rand != null ? this.rand : Rand.get();
+	}
+
+	/**
+	 * sets the random source used by this generator, e.g., a stream split off
+	 * the random source of a series.
+	 * 
+	 * @param rand
+	 *            random source to use
+	 */
+	public void setRandom(RandomSource rand) {
+		this.rand = rand;
+	}
+
 	public GraphGenerator(String name, Parameter[] params,
 			GraphDataStructure gds, long timestampInit, int nodesInit,
 			int edgesInit) {
@@ -61,6 +85,39 @@ public abstract class GraphGenerator extends ParameterList implements
 		return this.gds;
 	}
 
+	/**
+	 * generators that keep references to other generators (or state that is
+	 * not re-created by generate) must override this method to copy them as
+	 * well.
+	 * 
+	 * @return copy of this generator with its own gds and without a random
+	 *         source, e.g., to generate a run concurrently to others (cf.
+	 *         Series.copy)
+	 */
+	public GraphGenerator copy() {
+		try {
+			GraphGenerator copy = (GraphGenerator) this.clone();
+			copy.gds = this.gds == null ? null : this.gds.clone();
+			copy.rand = null;
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * advances this generator as if the given number of graphs had been
+	 * generated. generators whose output depends on the graphs generated
+	 * before (and not only on their random source) must override this method,
+	 * e.g., to let the copy used for a concurrent run generate the same graph
+	 * as a sequential run (cf. SeriesGeneration).
+	 * 
+	 * @param graphs
+	 *            number of graphs to skip
+	 */
+	public void skip(int graphs) {
+	}
+
 	public static String buildName(String name, GraphDataStructure gds) {
 		if (gds.createsDirected()) {
 			return "Directed" + name;
@@ -35,6 +35,8 @@ public class BarabasiAlbertGraph extends GraphGenerator {
 				this.startEdges);
 		BatchGenerator bg = new BarabasiAlbertBatch(this.nodesToAdd,
 				this.edgesPerNode);
+		gg.setRandom(this.getRandom());
+		bg.setRandom(this.getRandom());
 		Graph g = gg.generate();
 		Batch b = bg.generate(g);
 		b.apply(g);
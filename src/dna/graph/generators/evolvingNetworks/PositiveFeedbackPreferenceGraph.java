@@ -38,12 +38,14 @@ public class PositiveFeedbackPreferenceGraph extends GraphGenerator {
 	public Graph generate() {
 		GraphGenerator gg = new RandomGraph(this.gds, this.startNodes,
 				this.startEdges);
+		gg.setRandom(this.getRandom());
 		
 		Graph g = gg.generate();
 		
 		
 		if(this.nodesToAdd>0){
 			BatchGenerator bg = new PositiveFeedbackPreferenceBatch(this.nodesToAdd);
+			bg.setRandom(this.getRandom());
 			Batch b = bg.generate(g);
 			b.apply(g);
 		}
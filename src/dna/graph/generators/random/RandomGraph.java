@@ -6,7 +6,6 @@ import dna.graph.edges.Edge;
 import dna.graph.generators.GraphGenerator;
 import dna.graph.nodes.Node;
 import dna.util.ArrayUtils;
-import dna.util.Rand;
 import dna.util.parameters.IntParameter;
 import dna.util.parameters.Parameter;
 
@@ -32,8 +31,8 @@ public class RandomGraph extends GraphGenerator implements IRandomGenerator {
 		}
 
 		while (graph.getEdgeCount() < this.edgesInit) {
-			int src = Rand.rand.nextInt(graph.getNodeCount());
-			int dst = Rand.rand.nextInt(graph.getNodeCount());
+			int src = this.getRandom().nextInt(graph.getNodeCount());
+			int dst = this.getRandom().nextInt(graph.getNodeCount());
 			if (src != dst) {
 				Edge edge = this.gds.newEdgeInstance(graph.getNode(src),
 						graph.getNode(dst));
@@ -5,6 +5,7 @@ import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.generators.GraphGenerator;
 import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
+import dna.util.RandomSource;
 import dna.util.parameters.Parameter;
 
 public class BatchBasedGraph extends GraphGenerator {
@@ -36,4 +37,24 @@ public class BatchBasedGraph extends GraphGenerator {
 		return g;
 	}
 
+	@Override
+	public void setRandom(RandomSource rand) {
+		super.setRandom(rand);
+		this.gg.setRandom(rand);
+		this.bg.setRandom(rand);
+	}
+
+	@Override
+	public GraphGenerator copy() {
+		BatchBasedGraph copy = (BatchBasedGraph) super.copy();
+		copy.gg = this.gg.copy();
+		copy.bg = this.bg.copy();
+		return copy;
+	}
+
+	@Override
+	public void skip(int graphs) {
+		this.gg.skip(graphs);
+	}
+
 }
@@ -96,4 +96,9 @@ public class ReadableDirGraph extends GraphGenerator {
 		}
 	}
 
+	@Override
+	public void skip(int graphs) {
+		this.index = (this.index + graphs) % this.filenames.length;
+	}
+
 }
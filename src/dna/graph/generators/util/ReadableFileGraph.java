@@ -51,6 +51,10 @@ public class ReadableFileGraph extends GraphGenerator {
 		super(GraphReader.readName(dir, filename), null, gds, -1, -1, -1);
 		this.dir = dir;
 		this.filename = filename;
+		this.read();
+	}
+
+	private void read() {
 		try {
 			if (this.gds == null) {
 				this.g = GraphReader.read(this.dir, this.filename);
@@ -61,7 +65,6 @@ public class ReadableFileGraph extends GraphGenerator {
 		} catch (IOException | ClassNotFoundException e) {
 			e.printStackTrace();
 		}
-
 	}
 
 	@Override
@@ -69,4 +72,15 @@ public class ReadableFileGraph extends GraphGenerator {
 		return g;
 	}
 
+	/**
+	 * the copy reads its own instance of the graph since batches are applied
+	 * to the generated graph
+	 */
+	@Override
+	public GraphGenerator copy() {
+		ReadableFileGraph copy = (ReadableFileGraph) super.copy();
+		copy.read();
+		return copy;
+	}
+
 }
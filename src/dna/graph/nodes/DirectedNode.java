@@ -1,5 +1,7 @@
 package dna.graph.nodes;
 
+import java.util.Collection;
+
 import com.google.common.collect.Iterables;
 
 import dna.graph.IElement;
@@ -10,6 +12,7 @@ import dna.graph.datastructures.IEdgeListDatastructure;
 import dna.graph.datastructures.IEdgeListDatastructureReadable;
 import dna.graph.datastructures.INodeListDatastructure;
 import dna.graph.datastructures.INodeListDatastructureReadable;
+import dna.graph.datastructures.NodeTable;
 import dna.graph.edges.DirectedEdge;
 import dna.graph.edges.Edge;
 
@@ -67,6 +70,37 @@ public class DirectedNode extends Node {
 		return false;
 	}
 
+	/**
+	 * Adds all given edges using bulk operations, empty lists are allocated at
+	 * their final size before (e.g., when building all nodes of a graph in
+	 * bulk). In contrast to addEdge, the neighbors (nodes connected to this
+	 * node in both directions) are not determined from the edges but must be
+	 * given.
+	 * 
+	 * @param in
+	 *            incoming edges
+	 * @param out
+	 *            outgoing edges
+	 * @param neighbors
+	 *            nodes that have an incoming and an outgoing edge to this node
+	 * @return number of edges that were added
+	 */
+	public int addEdges(Collection<? extends IElement> in,
+			Collection<? extends IElement> out,
+			Collection<? extends IElement> neighbors) {
+		if (this.in.size() == 0) {
+			this.in.reinitializeWithSize(in.size());
+		}
+		if (this.out.size() == 0) {
+			this.out.reinitializeWithSize(out.size());
+		}
+		if (this.neighbors.size() == 0) {
+			this.neighbors.reinitializeWithSize(neighbors.size());
+		}
+		this.neighbors.addAll(neighbors);
+		return this.in.addAll(in) + this.out.addAll(out);
+	}
+
 	@Override
 	public boolean removeEdge(Edge eIn) {
 		if (!(eIn instanceof DirectedEdge))
@@ -157,4 +191,11 @@ public class DirectedNode extends Node {
 			break;		
 		}
 	}
+
+	@Override
+	public void setNodeTable(NodeTable nodeTable) {
+		GraphDataStructure.setNodeTable(this.in, nodeTable);
+		GraphDataStructure.setNodeTable(this.out, nodeTable);
+		GraphDataStructure.setNodeTable(this.neighbors, nodeTable);
+	}
 }
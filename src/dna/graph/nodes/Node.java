@@ -4,6 +4,7 @@ import dna.graph.Element;
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.datastructures.IDataStructure;
 import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.NodeTable;
 import dna.util.MathHelper;
 
 public abstract class Node extends Element implements INode {
@@ -61,4 +62,10 @@ public abstract class Node extends Element implements INode {
 
 	public abstract void switchDataStructure(ListType type,
 			IDataStructure newDatastructure);
+
+	/**
+	 * assigns the table in which the local lists of this node register their
+	 * nodes in case they store node indices (cf. NodeTable)
+	 */
+	public abstract void setNodeTable(NodeTable nodeTable);
 }
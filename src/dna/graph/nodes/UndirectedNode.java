@@ -1,11 +1,14 @@
 package dna.graph.nodes;
 
+import java.util.Collection;
+
 import dna.graph.IElement;
 import dna.graph.datastructures.DataStructure.ListType;
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.datastructures.IDataStructure;
 import dna.graph.datastructures.IEdgeListDatastructure;
 import dna.graph.datastructures.IEdgeListDatastructureReadable;
+import dna.graph.datastructures.NodeTable;
 import dna.graph.edges.Edge;
 
 public class UndirectedNode extends Node {
@@ -44,6 +47,21 @@ public class UndirectedNode extends Node {
 		return !this.edges.contains(e) && this.edges.add(e);
 	}
 
+	/**
+	 * Adds all given edges (which must be connected to this node) using a
+	 * single bulk operation, an empty edge list is allocated at its final size
+	 * before (e.g., when building all nodes of a graph in bulk)
+	 * 
+	 * @param edges
+	 * @return number of edges that were added
+	 */
+	public int addEdges(Collection<? extends IElement> edges) {
+		if (this.edges.size() == 0) {
+			this.edges.reinitializeWithSize(edges.size());
+		}
+		return this.edges.addAll(edges);
+	}
+
 	@Override
 	public boolean removeEdge(Edge e) {
 		return this.edges.remove(e);
@@ -81,4 +99,9 @@ public class UndirectedNode extends Node {
 		}
 	}	
 
+	@Override
+	public void setNodeTable(NodeTable nodeTable) {
+		GraphDataStructure.setNodeTable(this.edges, nodeTable);
+	}
+
 }
@@ -0,0 +1,299 @@
+package dna.graph.snapshots;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the structure of a graph at a timestamp, created by
+ * GraphVersions. All nodes are identified by their index, the neighbors of a
+ * node are stored as a sorted array of node indices.
+ *
+ * Adjacency arrays are grouped in pages of 2^pageBits nodes. A new snapshot
+ * only creates new arrays for nodes that were changed since the previous one
+ * and new pages for the pages containing them, all other pages (and the
+ * arrays they contain) are shared with the previous snapshot. Hence, two
+ * snapshots can be compared by reference for all unchanged parts (cf.
+ * getChangedNodes).
+ *
+ * Weights are not part of a snapshot. Arrays returned by a snapshot must not
+ * be modified. Since a snapshot is never changed after its creation, it can be
+ * read by any number of threads without synchronization, also while the graph
+ * itself is being modified (cf. GraphVersions.getLatest).
+ *
+ * @author benni
+ *
+ */
+public class GraphSnapshot {
+	static final int pageBits = 10;
+
+	static final int pageSize = 1 << pageBits;
+
+	static final int[] empty = new int[0];
+
+	private final long timestamp;
+
+	private final boolean directed;
+
+	/**
+	 * indices of all nodes, in ascending order
+	 */
+	private final int[] nodes;
+
+	private final int edgeCount;
+
+	private final int maxNodeIndex;
+
+	/**
+	 * out[p][i] holds the out-neighbors of node p * pageSize + i, null in
+	 * case the node is not contained
+	 */
+	private final int[][][] out;
+
+	/**
+	 * in-neighbors (organized as out), the same pages as out for undirected
+	 * graphs
+	 */
+	private final int[][][] in;
+
+	/**
+	 * estimated number of bytes of all arrays referenced by this snapshot
+	 */
+	private final long size;
+
+	/**
+	 * estimated number of bytes of the arrays created for this snapshot (i.e.,
+	 * not shared with the previous one)
+	 */
+	private final long ownSize;
+
+	GraphSnapshot(long timestamp, boolean directed, int[] nodes,
+			int edgeCount, int maxNodeIndex, int[][][] out, int[][][] in,
+			long size, long ownSize) {
+		this.timestamp = timestamp;
+		this.directed = directed;
+		this.nodes = nodes;
+		this.edgeCount = edgeCount;
+		this.maxNodeIndex = maxNodeIndex;
+		this.out = out;
+		this.in = in;
+		this.size = size;
+		this.ownSize = ownSize;
+	}
+
+	public long getTimestamp() {
+		return this.timestamp;
+	}
+
+	public boolean isDirected() {
+		return this.directed;
+	}
+
+	public int getNodeCount() {
+		return this.nodes.length;
+	}
+
+	/**
+	 * @return number of edges (undirected edges are counted once)
+	 */
+	public int getEdgeCount() {
+		return this.edgeCount;
+	}
+
+	public int getMaxNodeIndex() {
+		return this.maxNodeIndex;
+	}
+
+	/**
+	 * @param position
+	 *            position in [0, getNodeCount())
+	 * @return index of the node at the given position (nodes are sorted by
+	 *         index)
+	 */
+	public int getNodeIndex(int position) {
+		return this.nodes[position];
+	}
+
+	public boolean containsNode(int index) {
+		return get(this.out, index) != null;
+	}
+
+	/**
+	 * @return sorted indices of all nodes the given node has an edge to (all
+	 *         neighbors for undirected graphs), null in case the node is not
+	 *         contained
+	 */
+	public int[] getOutNeighbors(int index) {
+		return get(this.out, index);
+	}
+
+	/**
+	 * @return sorted indices of all nodes that have an edge to the given node
+	 *         (all neighbors for undirected graphs), null in case the node is
+	 *         not contained
+	 */
+	public int[] getInNeighbors(int index) {
+		return get(this.in, index);
+	}
+
+	public int getOutDegree(int index) {
+		int[] neighbors = get(this.out, index);
+		return neighbors == null ? 0 : neighbors.length;
+	}
+
+	public int getInDegree(int index) {
+		int[] neighbors = get(this.in, index);
+		return neighbors == null ? 0 : neighbors.length;
+	}
+
+	/**
+	 * @return true, in case the edge src -> dst (or src <-> dst in case of an
+	 *         undirected graph) exists
+	 */
+	public boolean containsEdge(int src, int dst) {
+		int[] neighbors = get(this.out, src);
+		return neighbors != null && Arrays.binarySearch(neighbors, dst) >= 0;
+	}
+
+	private static int[] get(int[][][] pages, int index) {
+		if (index < 0 || (index >>> pageBits) >= pages.length) {
+			return null;
+		}
+		int[][] page = pages[index >>> pageBits];
+		return page == null ? null : page[index & (pageSize - 1)];
+	}
+
+	/**
+	 * Compares the adjacency of all nodes with the one in the given snapshot
+	 * of the same graph. Parts shared by both snapshots are skipped without
+	 * comparing their contents.
+	 *
+	 * @param other
+	 *            other snapshot of the same graph
+	 * @return sorted indices of all nodes that are only contained in one of
+	 *         the snapshots or whose neighbors differ
+	 */
+	public int[] getChangedNodes(GraphSnapshot other) {
+		int[] changed = new int[16];
+		int count = 0;
+		int pages = Math.max(this.out.length, other.out.length);
+		for (int p = 0; p < pages; p++) {
+			int[][] out1 = p < this.out.length ? this.out[p] : null;
+			int[][] out2 = p < other.out.length ? other.out[p] : null;
+			int[][] in1 = p < this.in.length ? this.in[p] : null;
+			int[][] in2 = p < other.in.length ? other.in[p] : null;
+			if (out1 == out2 && in1 == in2) {
+				continue;
+			}
+			for (int i = 0; i < pageSize; i++) {
+				if (equals(out1, out2, i) && equals(in1, in2, i)) {
+					continue;
+				}
+				if (count == changed.length) {
+					changed = Arrays.copyOf(changed, 2 * count);
+				}
+				changed[count++] = p * pageSize + i;
+			}
+		}
+		return Arrays.copyOf(changed, count);
+	}
+
+	private static boolean equals(int[][] page1, int[][] page2, int i) {
+		int[] a1 = page1 == null ? null : page1[i];
+		int[] a2 = page2 == null ? null : page2[i];
+		return a1 == a2 || Arrays.equals(a1, a2);
+	}
+
+	/**
+	 * @return estimated number of bytes of all arrays referenced by this
+	 *         snapshot
+	 */
+	public long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * @return estimated number of bytes of the arrays that are not shared with
+	 *         the previous snapshot
+	 */
+	public long getOwnSize() {
+		return this.ownSize;
+	}
+
+	/**
+	 * Iterates over all edges of this snapshot (each undirected edge once,
+	 * from the node with the lower index to the one with the higher index):
+	 * 
+	 * <pre>
+	 * EdgeCursor c = snapshot.edges();
+	 * while (c.next()) {
+	 * 	... c.getSrc() ... c.getDst() ...
+	 * }
+	 * </pre>
+	 */
+	public EdgeCursor edges() {
+		return new EdgeCursor();
+	}
+
+	public class EdgeCursor {
+		private int position = -1;
+
+		private int[] neighbors = empty;
+
+		private int pos = 0;
+
+		private int src = -1;
+
+		private int dst = -1;
+
+		private EdgeCursor() {
+		}
+
+		/**
+		 * moves to the next edge
+		 * 
+		 * @return false if there are no more edges
+		 */
+		public boolean next() {
+			while (true) {
+				while (this.pos < this.neighbors.length) {
+					int dst = this.neighbors[this.pos++];
+					if (directed || dst >= this.src) {
+						this.dst = dst;
+						return true;
+					}
+				}
+				if (++this.position >= nodes.length) {
+					this.position = nodes.length;
+					return false;
+				}
+				this.src = nodes[this.position];
+				this.neighbors = get(out, this.src);
+				this.pos = 0;
+			}
+		}
+
+		public int getSrc() {
+			return this.src;
+		}
+
+		public int getDst() {
+			return this.dst;
+		}
+	}
+
+	int[][][] getOut() {
+		return this.out;
+	}
+
+	int[][][] getIn() {
+		return this.in;
+	}
+
+	int[] getNodes() {
+		return this.nodes;
+	}
+
+	public String toString() {
+		return "snapshot @ " + this.timestamp + " (" + this.getNodeCount()
+				+ "/" + this.getEdgeCount() + ")";
+	}
+}
@@ -0,0 +1,309 @@
+package dna.graph.snapshots;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+
+/**
+ * Snapshots of the structure of a graph taken over time (cf. GraphSnapshot).
+ * The graph reports all nodes whose adjacency changes (Graph.addEdge, ...)
+ * so that a new snapshot only rebuilds these nodes and shares everything else
+ * with the previous one.
+ *
+ * A snapshot is taken before a batch is applied to the graph (i.e., the
+ * snapshot of timestamp t is the graph before applying the batch from t to
+ * t+1) or on request (Graph.getSnapshot()). The oldest snapshots are dropped
+ * as soon as more than maxSnapshots are retained or the retained snapshots
+ * require more than maxSize bytes.
+ *
+ * Snapshots must be taken by the thread modifying the graph, retained
+ * snapshots can be read by any thread. In addition, the graph publishes a
+ * snapshot whenever it reaches a new timestamp (Graph.setTimestamp). Readers in
+ * other threads obtain it via getLatest without any locking and can iterate
+ * its nodes, edges, and neighborhoods while the writer applies the next batch
+ * to the graph. Snapshots that are no longer retained or referenced by a
+ * reader are reclaimed by the garbage collector.
+ *
+ * @author benni
+ *
+ */
+public class GraphVersions {
+	private Graph g;
+
+	private int maxSnapshots;
+
+	private long maxSize;
+
+	private ArrayDeque<GraphSnapshot> snapshots;
+
+	/**
+	 * latest snapshot, published for concurrent readers
+	 */
+	private volatile GraphSnapshot latest;
+
+	/**
+	 * nodes whose adjacency changed since the last snapshot
+	 */
+	private BitSet changed;
+
+	/**
+	 * true if nodes were added or removed since the last snapshot
+	 */
+	private boolean nodesChanged;
+
+	/**
+	 *
+	 * @param g
+	 *            graph to take snapshots of
+	 * @param maxSnapshots
+	 *            maximum number of snapshots to retain
+	 * @param maxSize
+	 *            maximum number of bytes of all retained snapshots (the latest
+	 *            snapshot is always retained)
+	 */
+	public GraphVersions(Graph g, int maxSnapshots, long maxSize) {
+		this.g = g;
+		this.maxSnapshots = Math.max(maxSnapshots, 1);
+		this.maxSize = maxSize;
+		this.snapshots = new ArrayDeque<GraphSnapshot>();
+		this.changed = new BitSet();
+		this.nodesChanged = false;
+	}
+
+	/**
+	 * reports that the given node was added or removed
+	 */
+	public void nodeChanged(Node n) {
+		this.changed.set(n.getIndex());
+		this.nodesChanged = true;
+	}
+
+	/**
+	 * reports that the given edge was added or removed
+	 */
+	public void edgeChanged(Edge e) {
+		this.changed.set(e.getN1Index());
+		this.changed.set(e.getN2Index());
+	}
+
+	/**
+	 *
+	 * @return snapshot of the current state of the graph (the latest snapshot
+	 *         in case the graph has not changed since)
+	 */
+	public synchronized GraphSnapshot snapshot() {
+		GraphSnapshot last = this.snapshots.peekLast();
+		if (last != null && this.changed.isEmpty() && !this.nodesChanged
+				&& last.getTimestamp() == this.g.getTimestamp()) {
+			return last;
+		}
+
+		boolean directed = this.g.isDirected();
+		int maxIndex = this.g.getMaxNodeIndex();
+		int pages = Math.max((maxIndex >> GraphSnapshot.pageBits) + 1,
+				last == null ? 0 : last.getOut().length);
+
+		int[][][] out = last == null ? new int[pages][][] : Arrays.copyOf(
+				last.getOut(), pages);
+		int[][][] in = !directed ? out : last == null ? new int[pages][][]
+				: Arrays.copyOf(last.getIn(), pages);
+		long ownSize = (directed ? 2 : 1) * arraySize(pages);
+		long size = last == null ? ownSize : last.getSize() - (directed ? 2 : 1)
+				* arraySize(last.getOut().length) + ownSize;
+
+		// copy the pages of all changed nodes and rebuild their adjacency
+		boolean[] copied = new boolean[pages];
+		Iterator<Integer> iter = last == null ? this.allNodes() : null;
+		int index = last == null ? nextNode(iter) : this.changed.nextSetBit(0);
+		while (index >= 0) {
+			int p = index >>> GraphSnapshot.pageBits;
+			int i = index & (GraphSnapshot.pageSize - 1);
+			if (p >= pages) {
+				// added and removed again since the last snapshot
+				break;
+			}
+			if (!copied[p]) {
+				copied[p] = true;
+				long pageSize = (directed ? 2 : 1)
+						* arraySize(GraphSnapshot.pageSize);
+				if (out[p] != null) {
+					size -= pageSize;
+				}
+				out[p] = copyPage(out[p]);
+				if (directed)
+					in[p] = copyPage(in[p]);
+				size += pageSize;
+				ownSize += pageSize;
+			}
+
+			Node n = this.g.getNode(index);
+			int[] outNew = null;
+			int[] inNew = null;
+			if (n instanceof DirectedNode) {
+				outNew = neighbors(((DirectedNode) n).getOutgoingEdges(), n);
+				inNew = neighbors(((DirectedNode) n).getIncomingEdges(), n);
+			} else if (n instanceof UndirectedNode) {
+				outNew = neighbors(((UndirectedNode) n).getEdges(), n);
+			}
+			size -= arraySize(out[p][i]) + (directed ? arraySize(in[p][i]) : 0);
+			out[p][i] = outNew;
+			if (directed)
+				in[p][i] = inNew;
+			long nodeSize = arraySize(outNew)
+					+ (directed ? arraySize(inNew) : 0);
+			size += nodeSize;
+			ownSize += nodeSize;
+
+			index = last == null ? nextNode(iter) : this.changed
+					.nextSetBit(index + 1);
+		}
+
+		int[] nodes;
+		if (last == null || this.nodesChanged) {
+			nodes = new int[this.g.getNodeCount()];
+			int pos = 0;
+			for (IElement n : this.g.getNodes()) {
+				nodes[pos++] = ((Node) n).getIndex();
+			}
+			Arrays.sort(nodes, 0, pos);
+			if (pos != nodes.length) {
+				nodes = Arrays.copyOf(nodes, pos);
+			}
+			size += arraySize(nodes) - (last == null ? 0 : arraySize(last
+					.getNodes()));
+			ownSize += arraySize(nodes);
+		} else {
+			nodes = last.getNodes();
+		}
+
+		GraphSnapshot snapshot = new GraphSnapshot(this.g.getTimestamp(),
+				directed, nodes, this.g.getEdgeCount(), maxIndex, out, in,
+				size, ownSize);
+		this.changed.clear();
+		this.nodesChanged = false;
+
+		this.snapshots.addLast(snapshot);
+		this.latest = snapshot;
+		while (this.snapshots.size() > this.maxSnapshots
+				|| (this.snapshots.size() > 1 && this.getSize() > this.maxSize)) {
+			this.snapshots.removeFirst();
+		}
+		return snapshot;
+	}
+
+	private Iterator<Integer> allNodes() {
+		ArrayList<Integer> nodes = new ArrayList<Integer>(
+				this.g.getNodeCount());
+		for (IElement n : this.g.getNodes()) {
+			nodes.add(((Node) n).getIndex());
+		}
+		return nodes.iterator();
+	}
+
+	private static int nextNode(Iterator<Integer> iter) {
+		return iter.hasNext() ? iter.next() : -1;
+	}
+
+	private static int[][] copyPage(int[][] page) {
+		return page == null ? new int[GraphSnapshot.pageSize][] : page.clone();
+	}
+
+	/**
+	 * @return sorted indices of the nodes connected to n by the given edges
+	 */
+	private static int[] neighbors(Iterable<IElement> edges, Node n) {
+		int[] neighbors = new int[8];
+		int count = 0;
+		for (IElement e_ : edges) {
+			Edge e = (Edge) e_;
+			int neighbor;
+			if (e instanceof DirectedEdge) {
+				neighbor = e.getN1Index() == n.getIndex() ? e.getN2Index() : e
+						.getN1Index();
+			} else {
+				neighbor = e.getDifferingNode(n).getIndex();
+			}
+			if (count == neighbors.length) {
+				neighbors = Arrays.copyOf(neighbors, 2 * count);
+			}
+			neighbors[count++] = neighbor;
+		}
+		if (count == 0) {
+			return GraphSnapshot.empty;
+		}
+		Arrays.sort(neighbors, 0, count);
+		return Arrays.copyOf(neighbors, count);
+	}
+
+	/**
+	 * @return estimated number of bytes of an array of the given length (of
+	 *         ints or references)
+	 */
+	private static long arraySize(int length) {
+		return 16 + 4L * length;
+	}
+
+	private static long arraySize(int[] array) {
+		return array == null || array == GraphSnapshot.empty ? 0
+				: arraySize(array.length);
+	}
+
+	/**
+	 * Lock-free read path for threads other than the one modifying the graph.
+	 * 
+	 * @return latest snapshot taken (a consistent state of the graph, not
+	 *         affected by any update applied since), null if none was taken yet
+	 */
+	public GraphSnapshot getLatest() {
+		return this.latest;
+	}
+
+	/**
+	 *
+	 * @return retained snapshot of the given timestamp (the latest one in case
+	 *         several were taken at this timestamp), null if there is none
+	 */
+	public synchronized GraphSnapshot getSnapshot(long timestamp) {
+		Iterator<GraphSnapshot> iter = this.snapshots.descendingIterator();
+		while (iter.hasNext()) {
+			GraphSnapshot snapshot = iter.next();
+			if (snapshot.getTimestamp() == timestamp) {
+				return snapshot;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return all retained snapshots, from oldest to latest
+	 */
+	public synchronized GraphSnapshot[] getSnapshots() {
+		return this.snapshots.toArray(new GraphSnapshot[this.snapshots.size()]);
+	}
+
+	/**
+	 *
+	 * @return estimated number of bytes required by all retained snapshots,
+	 *         i.e., all arrays referenced by the oldest one and the arrays
+	 *         created for each later one
+	 */
+	public synchronized long getSize() {
+		long size = 0;
+		boolean first = true;
+		for (GraphSnapshot snapshot : this.snapshots) {
+			size += first ? snapshot.getSize() : snapshot.getOwnSize();
+			first = false;
+		}
+		return size;
+	}
+}
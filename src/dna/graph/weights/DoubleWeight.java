@@ -61,13 +61,13 @@ public class DoubleWeight extends Weight {
 		case Zero:
 			return 0.0;
 		case Rand:
-			return Rand.rand.nextDouble();
+			return Rand.get().nextDouble();
 		case RandTrim1:
-			return (double) Math.round(Rand.rand.nextDouble() * 10) / 10.0;
+			return (double) Math.round(Rand.get().nextDouble() * 10) / 10.0;
 		case RandTrim2:
-			return (double) Math.round(Rand.rand.nextDouble() * 100.0) / 100.0;
+			return (double) Math.round(Rand.get().nextDouble() * 100.0) / 100.0;
 		case RandTrim3:
-			return (double) Math.round(Rand.rand.nextDouble() * 1000.0) / 1000.0;
+			return (double) Math.round(Rand.get().nextDouble() * 1000.0) / 1000.0;
 		default:
 			Log.warn("using non-double weight selection '" + selection + "'");
 			return Double.NaN;
@@ -61,17 +61,17 @@ public class IntWeight extends Weight {
 		case One:
 			return 1;
 		case Rand:
-			return Rand.rand.nextInt();
+			return Rand.get().nextInt();
 		case RandPos:
-			return Math.abs(Rand.rand.nextInt());
+			return Math.abs(Rand.get().nextInt());
 		case RandNeg:
-			return Math.abs(Rand.rand.nextInt()) * -1;
+			return Math.abs(Rand.get().nextInt()) * -1;
 		case Zero:
 			return 0;
 		case RandPos100:
-			return Rand.rand.nextInt(100) + 1;
+			return Rand.get().nextInt(100) + 1;
 		case RandPos10:
-			return Rand.rand.nextInt(10) + 1;
+			return Rand.get().nextInt(10) + 1;
 		default:
 			Log.warn("using non-int weight selection '" + selection + "'");
 			return Integer.MIN_VALUE;
@@ -62,11 +62,11 @@ public class LongWeight extends Weight {
 		case One:
 			return 1;
 		case Rand:
-			return Rand.rand.nextLong();
+			return Rand.get().nextLong();
 		case RandNeg:
-			return Math.abs(Rand.rand.nextLong()) * -1;
+			return Math.abs(Rand.get().nextLong()) * -1;
 		case RandPos:
-			return Math.abs(Rand.rand.nextLong());
+			return Math.abs(Rand.get().nextLong());
 		case Zero:
 			return 0;
 		default:
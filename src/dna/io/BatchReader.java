@@ -13,7 +13,8 @@ import dna.updates.update.NodeAddition;
 import dna.updates.update.Update;
 
 /**
- * A batch reader to read in a written batch
+ * A batch reader to read in a written batch. Batches written in binary format
+ * (cf. BinaryBatchWriter) are read using BinaryBatchReader.
  * 
  * @author benni
  * 
@@ -24,6 +25,10 @@ public class BatchReader {
 		Reader reader = null;
 
 		try {
+			if (BinaryBatchReader.isBinary(dir, filename)) {
+				return BinaryBatchReader.read(dir, filename, g);
+			}
+
 			reader = new Reader(dir, filename);
 
 			reader.readKeyword(BatchWriter.fromKeyword);
@@ -59,7 +64,8 @@ public class BatchReader {
 			return null;
 		} finally {
 			try {
-				reader.close();
+				if (reader != null)
+					reader.close();
 			} catch (IOException e) {
 				e.printStackTrace();
 				return null;
@@ -75,6 +81,10 @@ public class BatchReader {
 
 	public static long[] readTimestamps(String dir, String filename)
 			throws IOException {
+		if (BinaryBatchReader.isBinary(dir, filename)) {
+			return BinaryBatchReader.readTimestamps(dir, filename);
+		}
+
 		Reader reader = new Reader(dir, filename);
 
 		reader.readKeyword(BatchWriter.fromKeyword);
@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import dna.updates.batch.Batch;
 import dna.updates.update.Update;
+import dna.util.Config;
 
 public class BatchWriter {
 
@@ -11,7 +12,21 @@ public class BatchWriter {
 	public static final String toKeyword = "To";
 	public static final String updatesKeyword = "List of Updates";
 
+	/**
+	 * writes the batch as text or, in case BATCH_WRITER_BINARY is set, in
+	 * binary format (cf. BinaryBatchWriter)
+	 */
 	public static boolean write(Batch b, String dir, String filename) {
+		return write(b, dir, filename,
+				Config.getBoolean("BATCH_WRITER_BINARY"));
+	}
+
+	public static boolean write(Batch b, String dir, String filename,
+			boolean binary) {
+		if (binary) {
+			return BinaryBatchWriter.write(b, dir, filename);
+		}
+
 		Writer writer = null;
 		try {
 			writer = new Writer(dir, filename);
@@ -0,0 +1,566 @@
+package dna.io;
+
+import java.io.IOException;
+
+import dna.io.filesystem.Files;
+import dna.metrics.Metric.MetricType;
+import dna.series.aggdata.AggregatedBatch;
+import dna.series.aggdata.AggregatedBatch.BatchReadMode;
+import dna.series.aggdata.AggregatedBinnedDistribution;
+import dna.series.aggdata.AggregatedDistribution;
+import dna.series.aggdata.AggregatedDistributionList;
+import dna.series.aggdata.AggregatedMetric;
+import dna.series.aggdata.AggregatedMetricList;
+import dna.series.aggdata.AggregatedNodeValueList;
+import dna.series.aggdata.AggregatedNodeValueListList;
+import dna.series.aggdata.AggregatedRunTimeList;
+import dna.series.aggdata.AggregatedValue;
+import dna.series.aggdata.AggregatedValueList;
+import dna.series.data.BatchData;
+import dna.series.data.BinnedDistributionDouble;
+import dna.series.data.BinnedDistributionInt;
+import dna.series.data.BinnedDistributionLong;
+import dna.series.data.Distribution;
+import dna.series.data.DistributionDouble;
+import dna.series.data.DistributionInt;
+import dna.series.data.DistributionLong;
+import dna.series.data.MetricData;
+import dna.series.data.NodeNodeValueList;
+import dna.series.data.NodeValueList;
+import dna.series.data.RunTime;
+import dna.series.data.Value;
+import dna.series.lists.DistributionList;
+import dna.series.lists.MetricDataList;
+import dna.series.lists.NodeNodeValueListList;
+import dna.series.lists.NodeValueListList;
+import dna.series.lists.RunTimeList;
+import dna.series.lists.ValueList;
+import dna.util.Config;
+
+/**
+ * Binary, columnar format for BatchData and AggregatedBatch objects
+ * (GENERATION_BATCHES_AS_BINARY). Instead of one text file per value list,
+ * distribution and node value list, a batch is written into a single file
+ * inside of its batch directory. Lists of single values are stored as a list
+ * of names followed by one array of all values, distributions and node value
+ * lists as a length-prefixed primitive array of their own type. Hence, reading
+ * a batch requires a single file access and no parsing, data that is not
+ * requested (readValues, BatchReadMode) is skipped.
+ *
+ * The file starts with MAGIC, VERSION and the timestamp of the batch. The rows
+ * of aggregated distributions and node value lists are returned in the same
+ * form as by their text readers, e.g., the bins of aggregated binned
+ * distributions are scaled by their bin size.
+ *
+ * @author benni
+ *
+ */
+public class BinaryBatchData {
+
+	public static final int MAGIC = 0x444e4142;
+
+	public static final int VERSION = 1;
+
+	private static final byte DIST = 0;
+	private static final byte DIST_INT = 1;
+	private static final byte DIST_LONG = 2;
+	private static final byte DIST_DOUBLE = 3;
+	private static final byte DIST_BINNED_INT = 4;
+	private static final byte DIST_BINNED_LONG = 5;
+	private static final byte DIST_BINNED_DOUBLE = 6;
+
+	public static String getFilename() {
+		return Files.getBinaryFilename(Config.get("BATCH_DATA_BINARY"));
+	}
+
+	private static void writeHeader(BinaryWriter w, long timestamp)
+			throws IOException {
+		w.writeInt(MAGIC);
+		w.writeInt(VERSION);
+		w.writeLong(timestamp);
+	}
+
+	private static long readHeader(BinaryReader r, String dir)
+			throws IOException {
+		int magic = r.readInt();
+		int version = r.readInt();
+		if (magic != MAGIC || version != VERSION) {
+			throw new IOException("invalid binary batch file in " + dir
+					+ " (magic " + Integer.toHexString(magic) + ", version "
+					+ version + ")");
+		}
+		return r.readLong();
+	}
+
+	/*
+	 * BATCH DATA
+	 */
+	public static void write(BatchData batch, String dir) throws IOException {
+		BinaryWriter w = BinaryWriter.getWriter(dir, getFilename());
+		try {
+			writeHeader(w, batch.getTimestamp());
+			writeValues(w, batch.getValues());
+			writeRuntimes(w, batch.getGeneralRuntimes());
+			writeRuntimes(w, batch.getMetricRuntimes());
+			MetricDataList metrics = batch.getMetrics();
+			w.writeInt(metrics.size());
+			for (MetricData m : metrics.getList()) {
+				w.writeString(m.getName());
+				w.writeString(m.getType().name());
+				writeValues(w, m.getValues());
+				w.writeInt(m.getDistributions().size());
+				for (Distribution d : m.getDistributions().getList()) {
+					writeDistribution(w, d);
+				}
+				w.writeInt(m.getNodeValues().size());
+				for (NodeValueList nvl : m.getNodeValues().getList()) {
+					w.writeString(nvl.getName());
+					w.writeDoubles(nvl.getValues());
+				}
+				w.writeInt(m.getNodeNodeValues().size());
+				for (NodeNodeValueList nnvl : m.getNodeNodeValues().getList()) {
+					w.writeString(nnvl.getName());
+					double[][] values = nnvl.getValues();
+					w.writeInt(values == null ? -1 : values.length);
+					if (values != null) {
+						for (double[] row : values) {
+							w.writeDoubles(row);
+						}
+					}
+				}
+			}
+		} finally {
+			w.close();
+		}
+	}
+
+	public static BatchData readBatchData(String dir, long timestamp,
+			boolean readValues) throws IOException {
+		BinaryReader r = BinaryReader.getReader(dir, getFilename());
+		try {
+			readHeader(r, dir);
+			ValueList values = readValues(r);
+			RunTimeList generalRuntimes = readRuntimes(r);
+			RunTimeList metricRuntimes = readRuntimes(r);
+			int metricCount = r.readInt();
+			MetricDataList metrics = new MetricDataList(metricCount);
+			for (int i = 0; i < metricCount; i++) {
+				String name = r.readString();
+				MetricType type = MetricType.valueOf(r.readString());
+				ValueList mValues = readValues(r);
+				int distributionCount = r.readInt();
+				DistributionList distributions = new DistributionList(
+						distributionCount);
+				for (int j = 0; j < distributionCount; j++) {
+					distributions.add(readDistribution(r, readValues));
+				}
+				int nvlCount = r.readInt();
+				NodeValueListList nodevalues = new NodeValueListList(nvlCount);
+				for (int j = 0; j < nvlCount; j++) {
+					String nvlName = r.readString();
+					double[] nvlValues = null;
+					if (readValues)
+						nvlValues = r.readDoubles();
+					else
+						r.skipDoubles();
+					nodevalues.add(new NodeValueList(nvlName, nvlValues));
+				}
+				int nnvlCount = r.readInt();
+				NodeNodeValueListList nodenodevalues = new NodeNodeValueListList(
+						nnvlCount);
+				for (int j = 0; j < nnvlCount; j++) {
+					String nnvlName = r.readString();
+					int rows = r.readInt();
+					double[][] nnvlValues = rows < 0 ? null
+							: new double[rows][];
+					for (int k = 0; k < rows; k++) {
+						if (readValues)
+							nnvlValues[k] = r.readDoubles();
+						else
+							r.skipDoubles();
+					}
+					nodenodevalues.add(new NodeNodeValueList(nnvlName,
+							readValues ? nnvlValues : null));
+				}
+				metrics.add(new MetricData(name, type, mValues, distributions,
+						nodevalues, nodenodevalues));
+			}
+			return new BatchData(timestamp, values, generalRuntimes,
+					metricRuntimes, metrics);
+		} finally {
+			r.close();
+		}
+	}
+
+	private static void writeValues(BinaryWriter w, ValueList list)
+			throws IOException {
+		double[] values = new double[list.size()];
+		w.writeInt(values.length);
+		int i = 0;
+		for (Value v : list.getList()) {
+			w.writeString(v.getName());
+			values[i++] = v.getValue();
+		}
+		w.writeDoubles(values);
+	}
+
+	private static ValueList readValues(BinaryReader r) {
+		String[] names = new String[r.readInt()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = r.readString();
+		}
+		double[] values = r.readDoubles();
+		ValueList list = new ValueList(names.length);
+		for (int i = 0; i < names.length; i++) {
+			list.add(new Value(names[i], values[i]));
+		}
+		return list;
+	}
+
+	private static void writeRuntimes(BinaryWriter w, RunTimeList list)
+			throws IOException {
+		double[] values = new double[list.size()];
+		w.writeInt(values.length);
+		int i = 0;
+		for (RunTime rt : list.getList()) {
+			w.writeString(rt.getName());
+			values[i++] = rt.getRuntime();
+		}
+		w.writeDoubles(values);
+	}
+
+	private static RunTimeList readRuntimes(BinaryReader r) {
+		String[] names = new String[r.readInt()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = r.readString();
+		}
+		double[] values = r.readDoubles();
+		RunTimeList list = new RunTimeList(names.length);
+		for (int i = 0; i < names.length; i++) {
+			list.add(new RunTime(names[i], values[i]));
+		}
+		return list;
+	}
+
+	private static void writeDistribution(BinaryWriter w, Distribution d)
+			throws IOException {
+		if (d instanceof BinnedDistributionInt) {
+			BinnedDistributionInt b = (BinnedDistributionInt) d;
+			w.writeByte(DIST_BINNED_INT);
+			w.writeString(b.getName());
+			w.writeDouble(b.getBinSize());
+			w.writeInt(b.getDenominator());
+			w.writeInts(b.getIntValues());
+		} else if (d instanceof BinnedDistributionLong) {
+			BinnedDistributionLong b = (BinnedDistributionLong) d;
+			w.writeByte(DIST_BINNED_LONG);
+			w.writeString(b.getName());
+			w.writeDouble(b.getBinSize());
+			w.writeLong(b.getDenominator());
+			w.writeLongs(b.getLongValues());
+		} else if (d instanceof BinnedDistributionDouble) {
+			BinnedDistributionDouble b = (BinnedDistributionDouble) d;
+			w.writeByte(DIST_BINNED_DOUBLE);
+			w.writeString(b.getName());
+			w.writeDouble(b.getBinSize());
+			w.writeDoubles(b.getDoubleValues());
+		} else if (d instanceof DistributionInt) {
+			DistributionInt di = (DistributionInt) d;
+			w.writeByte(DIST_INT);
+			w.writeString(di.getName());
+			w.writeInt(di.getDenominator());
+			w.writeInts(di.getIntValues());
+		} else if (d instanceof DistributionLong) {
+			DistributionLong dl = (DistributionLong) d;
+			w.writeByte(DIST_LONG);
+			w.writeString(dl.getName());
+			w.writeLong(dl.getDenominator());
+			w.writeLongs(dl.getLongValues());
+		} else if (d instanceof DistributionDouble) {
+			DistributionDouble dd = (DistributionDouble) d;
+			w.writeByte(DIST_DOUBLE);
+			w.writeString(dd.getName());
+			w.writeDoubles(dd.getDoubleValues());
+		} else {
+			w.writeByte(DIST);
+			w.writeString(d.getName());
+			w.writeDoubles(d.getValues());
+		}
+	}
+
+	private static Distribution readDistribution(BinaryReader r,
+			boolean readValues) throws IOException {
+		byte type = r.readByte();
+		String name = r.readString();
+		switch (type) {
+		case DIST_BINNED_INT: {
+			double binsize = r.readDouble();
+			int denominator = r.readInt();
+			if (!readValues) {
+				r.skipInts();
+				return new BinnedDistributionInt(name, 1, null, 0);
+			}
+			return new BinnedDistributionInt(name, binsize, r.readInts(),
+					denominator);
+		}
+		case DIST_BINNED_LONG: {
+			double binsize = r.readDouble();
+			long denominator = r.readLong();
+			if (!readValues) {
+				r.skipLongs();
+				return new BinnedDistributionLong(name, 1, null, 0);
+			}
+			return new BinnedDistributionLong(name, binsize, r.readLongs(),
+					denominator);
+		}
+		case DIST_BINNED_DOUBLE: {
+			double binsize = r.readDouble();
+			if (!readValues) {
+				r.skipDoubles();
+				return new BinnedDistributionDouble(name, 1, null);
+			}
+			return new BinnedDistributionDouble(name, binsize,
+					r.readDoubles());
+		}
+		case DIST_INT: {
+			int denominator = r.readInt();
+			if (!readValues) {
+				r.skipInts();
+				return new DistributionInt(name, null, 0);
+			}
+			return new DistributionInt(name, r.readInts(), denominator);
+		}
+		case DIST_LONG: {
+			long denominator = r.readLong();
+			if (!readValues) {
+				r.skipLongs();
+				return new DistributionLong(name, null, 0);
+			}
+			return new DistributionLong(name, r.readLongs(), denominator);
+		}
+		case DIST_DOUBLE:
+			if (!readValues) {
+				r.skipDoubles();
+				return new DistributionDouble(name, null);
+			}
+			return new DistributionDouble(name, r.readDoubles());
+		case DIST:
+			if (!readValues) {
+				r.skipDoubles();
+				return new Distribution(name, null);
+			}
+			return new Distribution(name, r.readDoubles());
+		default:
+			throw new IOException("unknown distribution type " + type
+					+ " of distribution " + name);
+		}
+	}
+
+	/*
+	 * AGGREGATED BATCH
+	 */
+	public static void write(AggregatedBatch batch, String dir)
+			throws IOException {
+		BinaryWriter w = BinaryWriter.getWriter(dir, getFilename());
+		try {
+			writeHeader(w, batch.getTimestamp());
+			writeAggregatedValues(w, batch.getValues().getList().toArray(
+					new AggregatedValue[0]));
+			writeAggregatedValues(w, batch.getGeneralRuntimes().getList()
+					.toArray(new AggregatedValue[0]));
+			writeAggregatedValues(w, batch.getMetricRuntimes().getList()
+					.toArray(new AggregatedValue[0]));
+			AggregatedMetricList metrics = batch.getMetrics();
+			w.writeInt(metrics.size());
+			for (AggregatedMetric m : metrics.getList()) {
+				w.writeString(m.getName());
+				writeAggregatedValues(w, m.getValues().getList()
+						.toArray(new AggregatedValue[0]));
+				w.writeInt(m.getDistributions().size());
+				for (AggregatedDistribution d : m.getDistributions()
+						.getList()) {
+					w.writeString(d.getName());
+					if (d instanceof AggregatedBinnedDistribution) {
+						w.writeBoolean(true);
+						w.writeDouble(((AggregatedBinnedDistribution) d)
+								.getBinSize());
+					} else {
+						w.writeBoolean(false);
+					}
+					writeRows(w, d.getValues());
+				}
+				w.writeInt(m.getNodeValues().size());
+				for (AggregatedNodeValueList nvl : m.getNodeValues()
+						.getList()) {
+					w.writeString(nvl.getName());
+					writeRows(w, nvl.getValues());
+				}
+			}
+		} finally {
+			w.close();
+		}
+	}
+
+	public static AggregatedBatch readAggregatedBatch(String dir,
+			long timestamp, BatchReadMode batchReadMode) throws IOException {
+		boolean readValues = batchReadMode == BatchReadMode.readAllValues
+				|| batchReadMode == BatchReadMode.readOnlySingleValues;
+		boolean readDistAndNvl = batchReadMode == BatchReadMode.readAllValues
+				|| batchReadMode == BatchReadMode.readOnlyDistAndNvl;
+
+		BinaryReader r = BinaryReader.getReader(dir, getFilename());
+		try {
+			readHeader(r, dir);
+			AggregatedValueList values = new AggregatedValueList();
+			readAggregatedValues(r, values, readValues);
+			AggregatedRunTimeList generalRuntimes = readAggregatedRuntimes(r,
+					Files.getRuntimesFilename(Config.get("BATCH_GENERAL_RUNTIMES")),
+					readValues);
+			AggregatedRunTimeList metricRuntimes = readAggregatedRuntimes(r,
+					Files.getRuntimesFilename(Config.get("BATCH_METRIC_RUNTIMES")),
+					readValues);
+			int metricCount = r.readInt();
+			AggregatedMetricList metrics = new AggregatedMetricList(
+					metricCount);
+			for (int i = 0; i < metricCount; i++) {
+				String name = r.readString();
+				AggregatedValueList mValues = new AggregatedValueList();
+				readAggregatedValues(r, mValues, readValues);
+				int distributionCount = r.readInt();
+				AggregatedDistributionList distributions = new AggregatedDistributionList(
+						distributionCount);
+				for (int j = 0; j < distributionCount; j++) {
+					distributions.add(readAggregatedDistribution(r,
+							readDistAndNvl));
+				}
+				int nvlCount = r.readInt();
+				AggregatedNodeValueListList nodevalues = new AggregatedNodeValueListList(
+						nvlCount);
+				for (int j = 0; j < nvlCount; j++) {
+					nodevalues.add(readAggregatedNodeValueList(r,
+							readDistAndNvl));
+				}
+				metrics.add(new AggregatedMetric(name, mValues, distributions,
+						nodevalues));
+			}
+			return new AggregatedBatch(timestamp, values, generalRuntimes,
+					metricRuntimes, metrics);
+		} finally {
+			r.close();
+		}
+	}
+
+	private static void writeAggregatedValues(BinaryWriter w,
+			AggregatedValue[] values) throws IOException {
+		w.writeInt(values.length);
+		for (AggregatedValue v : values) {
+			w.writeString(v.getName());
+			w.writeDoubles(v.getValues());
+		}
+	}
+
+	private static void readAggregatedValues(BinaryReader r,
+			AggregatedValueList list, boolean readValues) {
+		int count = r.readInt();
+		for (int i = 0; i < count; i++) {
+			if (readValues) {
+				list.add(new AggregatedValue(r.readString(), r.readDoubles()));
+			} else {
+				r.skipString();
+				r.skipDoubles();
+			}
+		}
+	}
+
+	private static AggregatedRunTimeList readAggregatedRuntimes(
+			BinaryReader r, String filename, boolean readValues) {
+		if (!readValues) {
+			readAggregatedValues(r, null, false);
+			return new AggregatedRunTimeList(filename);
+		}
+		int count = r.readInt();
+		AggregatedRunTimeList list = new AggregatedRunTimeList(count);
+		for (int i = 0; i < count; i++) {
+			list.add(new AggregatedValue(r.readString(), r.readDoubles()));
+		}
+		return list;
+	}
+
+	private static void writeRows(BinaryWriter w, AggregatedValue[] rows)
+			throws IOException {
+		w.writeInt(rows == null ? -1 : rows.length);
+		if (rows != null) {
+			for (AggregatedValue row : rows) {
+				w.writeDoubles(row.getValues());
+			}
+		}
+	}
+
+	private static void skipRows(BinaryReader r) {
+		int count = r.readInt();
+		for (int i = 0; i < count; i++) {
+			r.skipDoubles();
+		}
+	}
+
+	/**
+	 * the first column of each row is the index (multiplied by the bin size
+	 * in case of binned distributions) which is also appended to the name of
+	 * the value, cf. AggregatedDistribution.read and
+	 * AggregatedBinnedDistribution.read. binned distributions are named after
+	 * their file, as by AggregatedDistributionList.read.
+	 */
+	private static AggregatedDistribution readAggregatedDistribution(
+			BinaryReader r, boolean readValues) {
+		String name = r.readString();
+		boolean binned = r.readBoolean();
+		if (binned)
+			name = Files.getDistributionName(Files
+					.getDistributionBinnedFilename(name));
+		double binsize = binned ? r.readDouble() : 1;
+		if (!readValues) {
+			skipRows(r);
+			return binned ? new AggregatedBinnedDistribution(name, null)
+					: new AggregatedDistribution(name);
+		}
+		int count = r.readInt();
+		AggregatedValue[] values = new AggregatedValue[Math.max(count, 0)];
+		for (int i = 0; i < values.length; i++) {
+			double[] row = r.readDoubles();
+			String index;
+			if (binned) {
+				row[0] *= binsize;
+				index = Double.toString(row[0]);
+			} else {
+				row[0] = (int) row[0];
+				index = Integer.toString((int) row[0]);
+			}
+			values[i] = new AggregatedValue(name + index, row);
+		}
+		return binned ? new AggregatedBinnedDistribution(name, values)
+				: new AggregatedDistribution(name, values);
+	}
+
+	/**
+	 * the index in the first column of each row is appended to the name of
+	 * the value and dropped from its values, cf. AggregatedNodeValueList.read
+	 */
+	private static AggregatedNodeValueList readAggregatedNodeValueList(
+			BinaryReader r, boolean readValues) {
+		String name = r.readString();
+		if (!readValues) {
+			skipRows(r);
+			return new AggregatedNodeValueList(name);
+		}
+		int count = r.readInt();
+		AggregatedValue[] values = new AggregatedValue[Math.max(count, 0)];
+		for (int i = 0; i < values.length; i++) {
+			double[] row = r.readDoubles();
+			double[] temp = new double[row.length - 1];
+			System.arraycopy(row, 1, temp, 0, temp.length);
+			values[i] = new AggregatedValue(name + (int) row[0], temp);
+		}
+		return new AggregatedNodeValueList(name, values);
+	}
+
+}
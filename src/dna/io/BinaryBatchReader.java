@@ -0,0 +1,328 @@
+package dna.io;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import dna.graph.Graph;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.graph.weights.IWeightedEdge;
+import dna.graph.weights.IWeightedNode;
+import dna.graph.weights.Weight;
+import dna.updates.batch.Batch;
+import dna.updates.update.EdgeAddition;
+import dna.updates.update.EdgeRemoval;
+import dna.updates.update.EdgeWeight;
+import dna.updates.update.NodeAddition;
+import dna.updates.update.NodeRemoval;
+import dna.updates.update.NodeWeight;
+import dna.updates.update.Update;
+import dna.updates.update.Update.UpdateType;
+import dna.util.Log;
+
+/**
+ * Streaming reader for batches written by BinaryBatchWriter. Updates are
+ * decoded one at a time (next) directly from the bytes of the file, nodes and
+ * edges are resolved via their indices in the graph (or among the nodes added
+ * by this batch), i.e., no string is created or parsed for an update.
+ *
+ * Since updates are stored in the order in which they are applied, they can
+ * be applied to the graph while they are decoded (apply) without creating a
+ * Batch. BatchReader (and hence ReadableDirBatchGenerator and
+ * ReadableFilesBatchGenerator) reads binary batches into a Batch (read).
+ *
+ * <pre>
+ * BinaryBatchReader reader = new BinaryBatchReader(dir, filename, g);
+ * Update u;
+ * while ((u = reader.next()) != null) {
+ * 	...
+ * }
+ * reader.close();
+ * </pre>
+ *
+ * @author benni
+ *
+ */
+public class BinaryBatchReader {
+
+	/**
+	 * number of bytes of the header up to the counts of updates
+	 */
+	private static final int headerSize = 4 + 4 + 8 + 8 + 6 * 4;
+
+	private String file;
+
+	private BinaryReader r;
+
+	private Graph g;
+
+	private GraphDataStructure gds;
+
+	private long from;
+
+	private long to;
+
+	/**
+	 * number of updates of each type (in the order of UPDATE_TYPES)
+	 */
+	private int[] counts;
+
+	private int size;
+
+	private int read;
+
+	private BinaryWeights nodeWeights;
+
+	private BinaryWeights edgeWeights;
+
+	private HashMap<Integer, Node> addedNodes;
+
+	/**
+	 * @param g
+	 *            graph the batch is applied to
+	 */
+	public BinaryBatchReader(String dir, String filename, Graph g)
+			throws IOException {
+		this.file = dir + filename;
+		this.r = new BinaryReader(dir, filename);
+		this.g = g;
+		this.gds = g.getGraphDatastructures();
+		this.readHeader();
+		this.nodeWeights = BinaryWeights.readHeader(this.r, this.gds, true);
+		this.edgeWeights = BinaryWeights.readHeader(this.r, this.gds, false);
+		this.read = 0;
+		this.addedNodes = new HashMap<Integer, Node>();
+	}
+
+	private BinaryBatchReader(String dir, String filename) throws IOException {
+		this.file = dir + filename;
+		this.r = new BinaryReader(dir, filename, headerSize);
+		this.readHeader();
+	}
+
+	private void readHeader() throws IOException {
+		if (this.r.readInt() != BinaryBatchWriter.MAGIC) {
+			throw new InvalidFormatException(this.file
+					+ " is not a binary batch file");
+		}
+		int version = this.r.readInt();
+		if (version != BinaryBatchWriter.VERSION) {
+			throw new InvalidFormatException("unsupported version " + version
+					+ " of binary batch file " + this.file);
+		}
+		this.from = this.r.readLong();
+		this.to = this.r.readLong();
+		this.counts = new int[BinaryBatchWriter.UPDATE_TYPES.length];
+		this.size = 0;
+		for (int i = 0; i < this.counts.length; i++) {
+			this.counts[i] = this.r.readInt();
+			this.size += this.counts[i];
+		}
+	}
+
+	public long getFrom() {
+		return this.from;
+	}
+
+	public long getTo() {
+		return this.to;
+	}
+
+	/**
+	 * @return number of updates of the batch
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	public int getCount(UpdateType type) {
+		for (int i = 0; i < BinaryBatchWriter.UPDATE_TYPES.length; i++) {
+			if (BinaryBatchWriter.UPDATE_TYPES[i] == type)
+				return this.counts[i];
+		}
+		return 0;
+	}
+
+	/**
+	 * Decodes the next update. Nodes and edges are resolved in the current
+	 * state of the graph, updates referring to nodes or edges that do not
+	 * exist are skipped (with an error message).
+	 *
+	 * @return next update of the batch, null in case all have been read
+	 */
+	public Update next() throws IOException {
+		while (this.read < this.size) {
+			this.read++;
+			int ordinal = this.r.readByte();
+			if (ordinal < 0 || ordinal >= UpdateType.values().length) {
+				throw new InvalidFormatException("invalid update type "
+						+ ordinal + " in " + this.file);
+			}
+			Update u = this.decode(UpdateType.values()[ordinal]);
+			if (u != null) {
+				return u;
+			}
+		}
+		return null;
+	}
+
+	private Update decode(UpdateType type) throws IOException {
+		Node n;
+		Edge e;
+		switch (type) {
+		case NA:
+			int index = this.r.readVarInt();
+			Weight nw = this.nodeWeights.isNone() ? null : this.nodeWeights
+					.read(this.r);
+			n = nw != null && this.gds.createsWeightedNodes() ? this.gds
+					.newWeightedNode(index, nw) : this.gds
+					.newNodeInstance(index);
+			this.addedNodes.put(index, n);
+			return new NodeAddition(n);
+		case NR:
+			n = this.getNode(this.r.readVarInt(), type);
+			return n == null ? null : new NodeRemoval(n);
+		case NW:
+			n = this.getNode(this.r.readVarInt(), type);
+			Weight w = this.nodeWeights.read(this.r);
+			return n == null || !this.nodeWeights.isUsed() ? null
+					: new NodeWeight((IWeightedNode) n, w);
+		case EA:
+			Node n1 = this.getNode(this.r.readVarInt(), type);
+			Node n2 = this.getNode(this.r.readVarInt(), type);
+			Weight ew = this.edgeWeights.isNone() ? null : this.edgeWeights
+					.read(this.r);
+			if (n1 == null || n2 == null) {
+				return null;
+			}
+			return new EdgeAddition(ew != null
+					&& this.gds.createsWeightedEdges() ? this.gds
+					.newWeightedEdge(n1, n2, ew) : this.gds.newEdgeInstance(
+					n1, n2));
+		case ER:
+			e = this.getEdge(this.r.readVarInt(), this.r.readVarInt(), type);
+			return e == null ? null : new EdgeRemoval(e);
+		case EW:
+			e = this.getEdge(this.r.readVarInt(), this.r.readVarInt(), type);
+			Weight weight = this.edgeWeights.read(this.r);
+			return e == null || !this.edgeWeights.isUsed() ? null
+					: new EdgeWeight((IWeightedEdge) e, weight);
+		default:
+			return null;
+		}
+	}
+
+	private Node getNode(int index, UpdateType type) {
+		Node n = this.addedNodes.isEmpty() ? null : this.addedNodes.get(index);
+		if (n == null) {
+			n = this.g.getNode(index);
+		}
+		if (n == null) {
+			Log.error("skipping " + type + " in " + this.file + ": node "
+					+ index + " is not contained");
+		}
+		return n;
+	}
+
+	private Edge getEdge(int index1, int index2, UpdateType type) {
+		Node n1 = this.getNode(index1, type);
+		Node n2 = this.getNode(index2, type);
+		Edge e = n1 == null || n2 == null ? null : this.g.getEdge(n1, n2);
+		if (e == null && n1 != null && n2 != null) {
+			Log.error("skipping " + type + " in " + this.file + ": edge "
+					+ index1 + " / " + index2 + " is not contained");
+		}
+		return e;
+	}
+
+	public void close() {
+		this.r.close();
+	}
+
+	/*
+	 * STATIC ACCESS
+	 */
+
+	/**
+	 * @return true if the given file is a batch written by BinaryBatchWriter
+	 */
+	public static boolean isBinary(String dir, String filename)
+			throws IOException {
+		return BinaryReader.startsWith(dir, filename, BinaryBatchWriter.MAGIC);
+	}
+
+	/**
+	 * reads the given batch which is to be applied to g
+	 */
+	public static Batch read(String dir, String filename, Graph g)
+			throws IOException {
+		BinaryBatchReader reader = new BinaryBatchReader(dir, filename, g);
+		try {
+			Batch b = new Batch(g.getGraphDatastructures(), reader.from,
+					reader.to, reader.getCount(UpdateType.NA),
+					reader.getCount(UpdateType.NR),
+					reader.getCount(UpdateType.NW),
+					reader.getCount(UpdateType.EA),
+					reader.getCount(UpdateType.ER),
+					reader.getCount(UpdateType.EW));
+			Update u;
+			while ((u = reader.next()) != null) {
+				b.add(u);
+			}
+			return b;
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Applies the given batch to g while decoding it, i.e., without creating
+	 * a Batch (e.g., to replay a trace up to some timestamp). Each update is
+	 * applied individually.
+	 *
+	 * @return true if all updates could be applied
+	 */
+	public static boolean apply(String dir, String filename, Graph g)
+			throws IOException {
+		BinaryBatchReader reader = new BinaryBatchReader(dir, filename, g);
+		try {
+			if (reader.from != g.getTimestamp()) {
+				throw new IllegalStateException("cannot apply batch "
+						+ reader.file + " (" + reader.from + " => "
+						+ reader.to + ") to graph " + g.toString());
+			}
+
+			// keep the graph before this batch in case versioning is enabled
+			g.getSnapshot();
+
+			boolean success = true;
+			int applied = 0;
+			Update u;
+			while ((u = reader.next()) != null) {
+				if (!u.apply(g)) {
+					Log.error("cannot apply '" + u + "' to '" + g + "'");
+					success = false;
+				}
+				applied++;
+			}
+			success &= applied == reader.size;
+
+			g.setTimestamp(reader.to);
+			return success;
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * @return from and to timestamp of the given batch (only its header is
+	 *         read)
+	 */
+	public static long[] readTimestamps(String dir, String filename)
+			throws IOException {
+		BinaryBatchReader reader = new BinaryBatchReader(dir, filename);
+		reader.close();
+		return new long[] { reader.from, reader.to };
+	}
+}
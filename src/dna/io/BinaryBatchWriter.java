@@ -0,0 +1,130 @@
+package dna.io;
+
+import java.io.IOException;
+
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.Edge;
+import dna.graph.weights.IWeighted;
+import dna.updates.batch.Batch;
+import dna.updates.update.EdgeAddition;
+import dna.updates.update.EdgeRemoval;
+import dna.updates.update.EdgeWeight;
+import dna.updates.update.NodeAddition;
+import dna.updates.update.NodeRemoval;
+import dna.updates.update.NodeWeight;
+import dna.updates.update.Update;
+import dna.updates.update.Update.UpdateType;
+
+/**
+ * Writes a batch in a compact binary format (cf. BinaryBatchReader), e.g., to
+ * replay large traces without parsing a line for each update. BatchWriter
+ * uses this format in case BATCH_WRITER_BINARY is set.
+ *
+ * The file starts with MAGIC, VERSION, the from and to timestamps of the
+ * batch, the number of updates of each type (in the order of UPDATE_TYPES),
+ * and the types of node and edge weights (cf. BinaryWeights). It is followed
+ * by all updates in the order in which they are applied (node removals, edge
+ * removals, node additions, edge additions, node weights, edge weights). Each
+ * update is stored as its type (the ordinal of its UpdateType) followed by
+ * the indices of its nodes (as varints) and, for additions of weighted nodes
+ * or edges and weight updates, the raw values of the weight.
+ *
+ * @author benni
+ *
+ */
+public class BinaryBatchWriter {
+
+	public static final int MAGIC = 0x444e4155;
+
+	public static final int VERSION = 1;
+
+	/**
+	 * types of updates in the order they are stored (and applied)
+	 */
+	static final UpdateType[] UPDATE_TYPES = new UpdateType[] {
+			UpdateType.NR, UpdateType.ER, UpdateType.NA, UpdateType.EA,
+			UpdateType.NW, UpdateType.EW };
+
+	public static boolean write(Batch b, String dir, String filename) {
+		BinaryWriter w = null;
+		try {
+			w = new BinaryWriter(dir, filename);
+			write(b, w);
+			return true;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
+		} finally {
+			try {
+				if (w != null)
+					w.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static void write(Batch b, BinaryWriter w) throws IOException {
+		GraphDataStructure gds = b.getGraphDatastructures();
+		BinaryWeights nodeWeights = BinaryWeights.forType(gds
+				.createsWeightedNodes() ? gds.getNodeWeightType() : null);
+		BinaryWeights edgeWeights = BinaryWeights.forType(gds
+				.createsWeightedEdges() ? gds.getEdgeWeightType() : null);
+
+		w.writeInt(MAGIC);
+		w.writeInt(VERSION);
+		w.writeLong(b.getFrom());
+		w.writeLong(b.getTo());
+		w.writeInt(b.getNodeRemovalsCount());
+		w.writeInt(b.getEdgeRemovalsCount());
+		w.writeInt(b.getNodeAdditionsCount());
+		w.writeInt(b.getEdgeAdditionsCount());
+		w.writeInt(b.getNodeWeightsCount());
+		w.writeInt(b.getEdgeWeightsCount());
+		nodeWeights.writeHeader(w);
+		edgeWeights.writeHeader(w);
+
+		for (NodeRemoval u : b.getNodeRemovals()) {
+			writeType(w, u);
+			w.writeVarInt(u.getNode().getIndex());
+		}
+		for (EdgeRemoval u : b.getEdgeRemovals()) {
+			writeType(w, u);
+			writeEdge(w, (Edge) u.getEdge());
+		}
+		for (NodeAddition u : b.getNodeAdditions()) {
+			writeType(w, u);
+			w.writeVarInt(u.getNode().getIndex());
+			if (!nodeWeights.isNone()) {
+				nodeWeights.write(w, ((IWeighted) u.getNode()).getWeight());
+			}
+		}
+		for (EdgeAddition u : b.getEdgeAdditions()) {
+			writeType(w, u);
+			writeEdge(w, (Edge) u.getEdge());
+			if (!edgeWeights.isNone()) {
+				edgeWeights.write(w, ((IWeighted) u.getEdge()).getWeight());
+			}
+		}
+		for (NodeWeight u : b.getNodeWeights()) {
+			writeType(w, u);
+			w.writeVarInt(u.getNode().getIndex());
+			nodeWeights.write(w, u.getWeight());
+		}
+		for (EdgeWeight u : b.getEdgeWeights()) {
+			writeType(w, u);
+			writeEdge(w, (Edge) u.getEdge());
+			edgeWeights.write(w, u.getWeight());
+		}
+	}
+
+	private static void writeType(BinaryWriter w, Update u)
+			throws IOException {
+		w.writeByte((byte) u.getType().ordinal());
+	}
+
+	private static void writeEdge(BinaryWriter w, Edge e) throws IOException {
+		w.writeVarInt(e.getN1Index());
+		w.writeVarInt(e.getN2Index());
+	}
+}
@@ -0,0 +1,141 @@
+package dna.io;
+
+import java.io.IOException;
+
+import dna.graph.Graph;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.graph.weights.Weight;
+
+/**
+ * Reads graphs written by BinaryGraphWriter. The adjacency is decoded into
+ * sorted arrays of node indices from which the adjacency lists of all nodes
+ * are built in bulk (cf. ParallelGraphLoader), i.e., without parsing any
+ * string and without looking up nodes or edges in the graph.
+ *
+ * In case a GraphDataStructure with a different weight type is given, the
+ * stored weights are converted via their string representation.
+ *
+ * @author benni
+ *
+ */
+public class BinaryGraphReader {
+
+	/**
+	 * @return true if the given file is a graph written by BinaryGraphWriter
+	 */
+	public static boolean isBinary(String dir, String filename)
+			throws IOException {
+		return BinaryReader.startsWith(dir, filename, BinaryGraphWriter.MAGIC);
+	}
+
+	public static Graph read(String dir, String filename) throws IOException {
+		return read(dir, filename, null);
+	}
+
+	public static Graph read(String dir, String filename, GraphDataStructure ds)
+			throws IOException {
+		BinaryReader r = new BinaryReader(dir, filename);
+		try {
+			readHeader(r, dir, filename);
+			String name = r.readString();
+			String gdsString = r.readString();
+			if (ds == null) {
+				ds = new GraphDataStructure(gdsString);
+			}
+			long timestamp = r.readLong();
+			int n = r.readInt();
+			int m = r.readInt();
+
+			int[] indices = new int[n];
+			int index = 0;
+			for (int i = 0; i < n; i++) {
+				index += r.readVarInt();
+				indices[i] = index;
+			}
+			int maxIndex = n == 0 ? -1 : indices[n - 1];
+
+			int[] offsets = new int[maxIndex + 2];
+			int[] adj = new int[m];
+			int k = 0;
+			for (int i = 0; i < n; i++) {
+				int v = indices[i];
+				int degree = r.readVarInt();
+				if (k + degree > m) {
+					throw new InvalidFormatException("more than " + m
+							+ " edges in " + dir + filename);
+				}
+				int other = v;
+				for (int j = 0; j < degree; j++) {
+					other = j == 0 ? v + r.readSignedVarInt() : other
+							+ r.readVarInt();
+					adj[k++] = other;
+				}
+				offsets[v + 1] = degree;
+			}
+			if (k != m) {
+				throw new InvalidFormatException("expected " + m
+						+ " edges but found " + k + " in " + dir + filename);
+			}
+			for (int v = 0; v <= maxIndex; v++) {
+				offsets[v + 1] += offsets[v];
+			}
+
+			Weight[] nodeWeights = BinaryWeights.readColumn(r, ds, true);
+			Weight[] edgeWeights = BinaryWeights.readColumn(r, ds, false);
+
+			Graph g = ds.newGraphInstance(name, timestamp, n, m);
+			Node[] nodes = new Node[maxIndex + 1];
+			for (int i = 0; i < n; i++) {
+				nodes[indices[i]] = nodeWeights != null ? ds.newWeightedNode(
+						indices[i], nodeWeights[i]) : ds
+						.newNodeInstance(indices[i]);
+				g.addNode(nodes[indices[i]]);
+			}
+
+			Edge[] edges = new Edge[m];
+			for (int v = 0; v <= maxIndex; v++) {
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					if (adj[i] < 0 || adj[i] > maxIndex || nodes[adj[i]] == null) {
+						throw new InvalidFormatException("edge " + v + " / "
+								+ adj[i] + " connects a node not contained in "
+								+ dir + filename);
+					}
+					edges[i] = edgeWeights != null ? ds.newWeightedEdge(
+							nodes[v], nodes[adj[i]], edgeWeights[i]) : ds
+							.newEdgeInstance(nodes[v], nodes[adj[i]]);
+				}
+			}
+			ParallelGraphLoader.build(g, nodes, offsets, adj, edges);
+
+			return g;
+		} finally {
+			r.close();
+		}
+	}
+
+	public static String readName(String dir, String filename)
+			throws IOException {
+		BinaryReader r = new BinaryReader(dir, filename);
+		try {
+			readHeader(r, dir, filename);
+			return r.readString();
+		} finally {
+			r.close();
+		}
+	}
+
+	private static void readHeader(BinaryReader r, String dir, String filename)
+			throws IOException {
+		if (r.readInt() != BinaryGraphWriter.MAGIC) {
+			throw new InvalidFormatException(dir + filename
+					+ " is not a binary graph file");
+		}
+		int version = r.readInt();
+		if (version != BinaryGraphWriter.VERSION) {
+			throw new InvalidFormatException("unsupported version " + version
+					+ " of binary graph file " + dir + filename);
+		}
+	}
+}
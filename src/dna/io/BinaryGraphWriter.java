@@ -0,0 +1,193 @@
+package dna.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.graph.weights.IWeighted;
+import dna.graph.weights.Weight;
+
+/**
+ * Writes a graph in a compact binary format that can be read much faster than
+ * the text format of GraphWriter (cf. BinaryGraphReader). It can be used to
+ * store the starting graph of a series or as a checkpoint of a graph at any
+ * point of a long series. GraphReader (and hence ReadableFileGraph) detects
+ * binary graph files and reads them using BinaryGraphReader.
+ *
+ * The file starts with MAGIC, VERSION, the name of the graph, its
+ * GraphDataStructure (as string), timestamp, node count, and edge count. It
+ * is followed by the node indices (ascending, as varint gaps) and the
+ * adjacency of each node: its number of (outgoing) edges and the sorted
+ * indices of the other nodes, the first one relative to the node index and
+ * all others as gaps to the previous one (all as varints). An undirected edge
+ * is only stored for the node with the lower index.
+ *
+ * Weights of nodes and edges (in the order of nodes and adjacency) are stored
+ * as a single primitive array of all their values in case of the weight types
+ * provided by DNA (IntWeight, Double3dWeight, ...) and as strings otherwise
+ * (cf. BinaryWeights).
+ *
+ * @author benni
+ *
+ */
+public class BinaryGraphWriter {
+
+	public static final int MAGIC = 0x444e4147;
+
+	public static final int VERSION = 1;
+
+	public static boolean write(Graph g, String dir, String filename) {
+		BinaryWriter w = null;
+		try {
+			w = new BinaryWriter(dir, filename);
+			write(g, w);
+			return true;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
+		} finally {
+			try {
+				if (w != null)
+					w.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static void write(Graph g, BinaryWriter w) throws IOException {
+		boolean directed = g.getGraphDatastructures().createsDirected();
+
+		// nodes, sorted by index
+		Node[] nodes = new Node[g.getNodeCount()];
+		int n = 0;
+		for (IElement e : g.getNodes()) {
+			if (e != null)
+				nodes[n++] = (Node) e;
+		}
+		int[] indices = new int[n];
+		for (int i = 0; i < n; i++) {
+			indices[i] = nodes[i].getIndex();
+		}
+		Arrays.sort(indices);
+		Node[] byIndex = new Node[n == 0 ? 0 : indices[n - 1] + 1];
+		for (int i = 0; i < n; i++) {
+			byIndex[nodes[i].getIndex()] = nodes[i];
+		}
+
+		// edges, sorted by the node storing them (counting sort), then by the
+		// other node
+		Edge[] edges = new Edge[g.getEdgeCount()];
+		int m = 0;
+		for (IElement e : g.getEdges()) {
+			if (e != null)
+				edges[m++] = (Edge) e;
+		}
+		int[] offsets = new int[byIndex.length + 1];
+		for (int i = 0; i < m; i++) {
+			offsets[first(edges[i], directed) + 1]++;
+		}
+		for (int v = 0; v < byIndex.length; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		long[] adj = new long[m];
+		int[] next = Arrays.copyOf(offsets, byIndex.length);
+		for (int i = 0; i < m; i++) {
+			// other node and position of the edge
+			adj[next[first(edges[i], directed)]++] = ((long) second(edges[i],
+					directed) << 32) | i;
+		}
+		next = null;
+
+		int edgeCount = 0;
+		for (int v = 0; v < byIndex.length; v++) {
+			Arrays.sort(adj, offsets[v], offsets[v + 1]);
+			edgeCount += degree(adj, offsets[v], offsets[v + 1]);
+		}
+
+		w.writeInt(MAGIC);
+		w.writeInt(VERSION);
+		w.writeString(g.getName());
+		w.writeString(g.getGraphDatastructures().getDataStructures());
+		w.writeLong(g.getTimestamp());
+		w.writeInt(n);
+		w.writeInt(edgeCount);
+
+		int previous = 0;
+		for (int i = 0; i < n; i++) {
+			w.writeVarInt(indices[i] - previous);
+			previous = indices[i];
+		}
+
+		Weight[] edgeWeights = g.getGraphDatastructures()
+				.createsWeightedEdges() ? new Weight[edgeCount] : null;
+		int k = 0;
+		for (int i = 0; i < n; i++) {
+			int v = indices[i];
+			int from = offsets[v];
+			int to = offsets[v + 1];
+			w.writeVarInt(degree(adj, from, to));
+			int last = v;
+			for (int j = from; j < to; j++) {
+				int other = (int) (adj[j] >>> 32);
+				if (j > from && other == last) {
+					// duplicate edge
+					continue;
+				}
+				if (j == from) {
+					w.writeSignedVarInt(other - v);
+				} else {
+					w.writeVarInt(other - last);
+				}
+				last = other;
+				if (edgeWeights != null) {
+					edgeWeights[k++] = ((IWeighted) edges[(int) adj[j]])
+							.getWeight();
+				}
+			}
+		}
+
+		Weight[] nodeWeights = null;
+		if (g.getGraphDatastructures().createsWeightedNodes()) {
+			nodeWeights = new Weight[n];
+			for (int i = 0; i < n; i++) {
+				nodeWeights[i] = ((IWeighted) byIndex[indices[i]]).getWeight();
+			}
+		}
+		BinaryWeights.forType(
+				nodeWeights == null ? null : g.getGraphDatastructures()
+						.getNodeWeightType()).writeColumn(w, nodeWeights);
+		BinaryWeights.forType(
+				edgeWeights == null ? null : g.getGraphDatastructures()
+						.getEdgeWeightType()).writeColumn(w, edgeWeights);
+	}
+
+	/**
+	 * @return index of the node storing the edge (the lower index in case of
+	 *         an undirected edge)
+	 */
+	private static int first(Edge e, boolean directed) {
+		return directed ? e.getN1Index() : Math.min(e.getN1Index(),
+				e.getN2Index());
+	}
+
+	private static int second(Edge e, boolean directed) {
+		return directed ? e.getN2Index() : Math.max(e.getN1Index(),
+				e.getN2Index());
+	}
+
+	/**
+	 * @return number of distinct other nodes in the sorted range of adj
+	 */
+	private static int degree(long[] adj, int from, int to) {
+		int degree = 0;
+		for (int j = from; j < to; j++) {
+			if (j == from || (adj[j] >>> 32) != (adj[j - 1] >>> 32))
+				degree++;
+		}
+		return degree;
+	}
+}
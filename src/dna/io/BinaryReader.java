@@ -0,0 +1,221 @@
+package dna.io;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import dna.series.SeriesGeneration;
+
+/**
+ * Reads files written by a BinaryWriter. The whole file is read into a single
+ * buffer using one bulk transfer from its channel, arrays are copied out of it
+ * in bulk. Arrays and strings that are not required can be skipped without
+ * being copied.
+ *
+ * @author benni
+ *
+ */
+public class BinaryReader {
+
+	private ByteBuffer buffer;
+
+	public BinaryReader(Path path) throws IOException {
+		this(path, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * reads only the first bytes of the given file, e.g., to read its header
+	 *
+	 * @param maxSize
+	 *            maximum number of bytes to read
+	 */
+	public BinaryReader(Path path, int maxSize) throws IOException {
+		if (!Files.exists(path))
+			throw new FileNotFoundException(path.toString());
+		try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE && maxSize == Integer.MAX_VALUE)
+				throw new IOException("file " + path + " is too large ("
+						+ size + " bytes)");
+			this.buffer = ByteBuffer.allocate((int) Math.min(size, maxSize));
+			while (this.buffer.hasRemaining()) {
+				if (channel.read(this.buffer) < 0)
+					throw new IOException("unexpected end of file " + path);
+			}
+		}
+		this.buffer.flip();
+		this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	public BinaryReader(String dir, String filename) throws IOException {
+		this(BinaryReader.getPath(dir, filename));
+	}
+
+	public BinaryReader(String dir, String filename, int maxSize)
+			throws IOException {
+		this(BinaryReader.getPath(dir, filename), maxSize);
+	}
+
+	private static Path getPath(String dir, String filename) {
+		FileSystem fs = SeriesGeneration.getReadFileSystem();
+		if (fs == null)
+			return Paths.get(dir + filename);
+		return fs.getPath(dir + filename);
+	}
+
+	public byte readByte() {
+		return this.buffer.get();
+	}
+
+	public boolean readBoolean() {
+		return this.buffer.get() != 0;
+	}
+
+	public int readInt() {
+		return this.buffer.getInt();
+	}
+
+	public long readLong() {
+		return this.buffer.getLong();
+	}
+
+	public double readDouble() {
+		return this.buffer.getDouble();
+	}
+
+	/**
+	 * reads a value written by BinaryWriter.writeVarInt
+	 */
+	public int readVarInt() {
+		int value = 0;
+		for (int shift = 0;; shift += 7) {
+			byte b = this.buffer.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0)
+				return value;
+		}
+	}
+
+	/**
+	 * reads a value written by BinaryWriter.writeSignedVarInt
+	 */
+	public int readSignedVarInt() {
+		int value = this.readVarInt();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public String readString() {
+		int length = this.buffer.getInt();
+		if (length < 0)
+			return null;
+		String value = new String(this.buffer.array(),
+				this.buffer.arrayOffset() + this.buffer.position(), length,
+				StandardCharsets.UTF_8);
+		this.buffer.position(this.buffer.position() + length);
+		return value;
+	}
+
+	public byte[] readBytes() {
+		int length = this.buffer.getInt();
+		if (length < 0)
+			return null;
+		byte[] values = new byte[length];
+		this.buffer.get(values);
+		return values;
+	}
+
+	public int[] readInts() {
+		int length = this.buffer.getInt();
+		if (length < 0)
+			return null;
+		int[] values = new int[length];
+		this.buffer.asIntBuffer().get(values);
+		this.buffer.position(this.buffer.position() + length * 4);
+		return values;
+	}
+
+	public long[] readLongs() {
+		int length = this.buffer.getInt();
+		if (length < 0)
+			return null;
+		long[] values = new long[length];
+		this.buffer.asLongBuffer().get(values);
+		this.buffer.position(this.buffer.position() + length * 8);
+		return values;
+	}
+
+	public double[] readDoubles() {
+		int length = this.buffer.getInt();
+		if (length < 0)
+			return null;
+		double[] values = new double[length];
+		this.buffer.asDoubleBuffer().get(values);
+		this.buffer.position(this.buffer.position() + length * 8);
+		return values;
+	}
+
+	private void skip(int elementSize) {
+		int length = this.buffer.getInt();
+		if (length > 0)
+			this.buffer.position(this.buffer.position() + length
+					* elementSize);
+	}
+
+	public void skipString() {
+		this.skip(1);
+	}
+
+	public void skipBytes() {
+		this.skip(1);
+	}
+
+	public void skipInts() {
+		this.skip(4);
+	}
+
+	public void skipLongs() {
+		this.skip(8);
+	}
+
+	public void skipDoubles() {
+		this.skip(8);
+	}
+
+	public boolean hasRemaining() {
+		return this.buffer.hasRemaining();
+	}
+
+	public void close() {
+		this.buffer = null;
+	}
+
+	/**
+	 * @return true if the given file exists and starts with the given int (as
+	 *         written by BinaryWriter.writeInt), e.g., the magic number of a
+	 *         binary format
+	 */
+	public static boolean startsWith(String dir, String filename, int value)
+			throws IOException {
+		Path path = BinaryReader.getPath(dir, filename);
+		if (!Files.exists(path) || Files.isDirectory(path))
+			return false;
+		BinaryReader r = new BinaryReader(path, 4);
+		return r.buffer.remaining() == 4 && r.readInt() == value;
+	}
+
+	/**
+	 * Returns a BinaryReader for the given file. In case the static read
+	 * FileSystem of SeriesGeneration is set, the file is read from it.
+	 */
+	public static BinaryReader getReader(String dir, String filename)
+			throws IOException {
+		return new BinaryReader(dir, filename);
+	}
+}
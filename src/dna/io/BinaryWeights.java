@@ -0,0 +1,393 @@
+package dna.io;
+
+import java.io.IOException;
+
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.weights.Double2dWeight;
+import dna.graph.weights.Double3dWeight;
+import dna.graph.weights.DoubleWeight;
+import dna.graph.weights.Int2dWeight;
+import dna.graph.weights.Int3dWeight;
+import dna.graph.weights.IntWeight;
+import dna.graph.weights.Long2dWeight;
+import dna.graph.weights.Long3dWeight;
+import dna.graph.weights.LongWeight;
+import dna.graph.weights.Weight;
+
+/**
+ * Binary encoding of the node or edge weights of a graph or batch (cf.
+ * BinaryGraphWriter, BinaryBatchWriter). The weights provided by DNA
+ * (IntWeight ... Double3dWeight) are stored as their raw int, long, or double
+ * values, all other weights as strings (Weight.asString).
+ *
+ * The type of the weights is stored once (writeHeader). When reading weights
+ * for a GraphDataStructure with a different weight type, they are converted
+ * via their string representation.
+ *
+ * @author benni
+ *
+ */
+class BinaryWeights {
+
+	static final byte NONE = 0;
+	static final byte INT = 1;
+	static final byte LONG = 2;
+	static final byte DOUBLE = 3;
+	static final byte STRING = 4;
+
+	private byte kind;
+
+	private int dim;
+
+	private String type;
+
+	private GraphDataStructure gds;
+
+	private boolean node;
+
+	/**
+	 * true if read weights are converted to the weight type of gds
+	 */
+	private boolean convert;
+
+	private BinaryWeights(byte kind, int dim, String type) {
+		this.kind = kind;
+		this.dim = dim;
+		this.type = type;
+	}
+
+	/**
+	 * @param type
+	 *            type of the weights to write, null in case there are none
+	 */
+	static BinaryWeights forType(Class<? extends Weight> type) {
+		if (type == null) {
+			return new BinaryWeights(NONE, 0, null);
+		}
+		return new BinaryWeights(getKind(type), getDimension(type),
+				type.getName());
+	}
+
+	private static byte getKind(Class<? extends Weight> type) {
+		if (type == IntWeight.class || type == Int2dWeight.class
+				|| type == Int3dWeight.class) {
+			return INT;
+		} else if (type == LongWeight.class || type == Long2dWeight.class
+				|| type == Long3dWeight.class) {
+			return LONG;
+		} else if (type == DoubleWeight.class || type == Double2dWeight.class
+				|| type == Double3dWeight.class) {
+			return DOUBLE;
+		}
+		return STRING;
+	}
+
+	private static int getDimension(Class<? extends Weight> type) {
+		if (type == Int2dWeight.class || type == Long2dWeight.class
+				|| type == Double2dWeight.class) {
+			return 2;
+		} else if (type == Int3dWeight.class || type == Long3dWeight.class
+				|| type == Double3dWeight.class) {
+			return 3;
+		}
+		return 1;
+	}
+
+	void writeHeader(BinaryWriter w) throws IOException {
+		w.writeByte(this.kind);
+		if (this.kind != NONE) {
+			w.writeByte((byte) this.dim);
+			w.writeString(this.type);
+		}
+	}
+
+	/**
+	 * reads the type of weights written by writeHeader
+	 *
+	 * @param node
+	 *            true for node weights, false for edge weights
+	 */
+	static BinaryWeights readHeader(BinaryReader r, GraphDataStructure gds,
+			boolean node) {
+		byte kind = r.readByte();
+		BinaryWeights weights = kind == NONE ? new BinaryWeights(NONE, 0, null)
+				: new BinaryWeights(kind, r.readByte(), r.readString());
+		weights.gds = gds;
+		weights.node = node;
+		Class<? extends Weight> type = node ? gds.getNodeWeightType() : gds
+				.getEdgeWeightType();
+		weights.convert = type != null && kind != NONE
+				&& !type.getName().equals(weights.type);
+		return weights;
+	}
+
+	/**
+	 * @return true if weights are stored and the GraphDataStructure given to
+	 *         readHeader creates weighted nodes / edges
+	 */
+	boolean isUsed() {
+		return this.kind != NONE
+				&& (this.node ? this.gds.createsWeightedNodes() : this.gds
+						.createsWeightedEdges());
+	}
+
+	boolean isNone() {
+		return this.kind == NONE;
+	}
+
+	/*
+	 * SINGLE WEIGHTS
+	 */
+
+	void write(BinaryWriter w, Weight x) throws IOException {
+		switch (this.kind) {
+		case INT:
+			if (this.dim == 1) {
+				w.writeInt(((IntWeight) x).getWeight());
+			} else if (this.dim == 2) {
+				w.writeInt(((Int2dWeight) x).getX());
+				w.writeInt(((Int2dWeight) x).getY());
+			} else {
+				w.writeInt(((Int3dWeight) x).getX());
+				w.writeInt(((Int3dWeight) x).getY());
+				w.writeInt(((Int3dWeight) x).getZ());
+			}
+			break;
+		case LONG:
+			if (this.dim == 1) {
+				w.writeLong(((LongWeight) x).getWeight());
+			} else if (this.dim == 2) {
+				w.writeLong(((Long2dWeight) x).getX());
+				w.writeLong(((Long2dWeight) x).getY());
+			} else {
+				w.writeLong(((Long3dWeight) x).getX());
+				w.writeLong(((Long3dWeight) x).getY());
+				w.writeLong(((Long3dWeight) x).getZ());
+			}
+			break;
+		case DOUBLE:
+			if (this.dim == 1) {
+				w.writeDouble(((DoubleWeight) x).getWeight());
+			} else if (this.dim == 2) {
+				w.writeDouble(((Double2dWeight) x).getX());
+				w.writeDouble(((Double2dWeight) x).getY());
+			} else {
+				w.writeDouble(((Double3dWeight) x).getX());
+				w.writeDouble(((Double3dWeight) x).getY());
+				w.writeDouble(((Double3dWeight) x).getZ());
+			}
+			break;
+		case STRING:
+			w.writeString(x.asString());
+			break;
+		}
+	}
+
+	/**
+	 * @return next weight (of the type of the GraphDataStructure)
+	 */
+	Weight read(BinaryReader r) {
+		Weight x;
+		switch (this.kind) {
+		case INT:
+			if (this.dim == 1) {
+				x = new IntWeight(r.readInt());
+			} else if (this.dim == 2) {
+				x = new Int2dWeight(r.readInt(), r.readInt());
+			} else {
+				x = new Int3dWeight(r.readInt(), r.readInt(), r.readInt());
+			}
+			break;
+		case LONG:
+			if (this.dim == 1) {
+				x = new LongWeight(r.readLong());
+			} else if (this.dim == 2) {
+				x = new Long2dWeight(r.readLong(), r.readLong());
+			} else {
+				x = new Long3dWeight(r.readLong(), r.readLong(), r.readLong());
+			}
+			break;
+		case DOUBLE:
+			if (this.dim == 1) {
+				x = new DoubleWeight(r.readDouble());
+			} else if (this.dim == 2) {
+				x = new Double2dWeight(r.readDouble(), r.readDouble());
+			} else {
+				x = new Double3dWeight(r.readDouble(), r.readDouble(),
+						r.readDouble());
+			}
+			break;
+		case STRING:
+			return this.parse(r.readString());
+		default:
+			return null;
+		}
+		return this.convert ? this.parse(x.asString()) : x;
+	}
+
+	private Weight parse(String s) {
+		return this.node ? this.gds.newNodeWeight(s) : this.gds
+				.newEdgeWeight(s);
+	}
+
+	/*
+	 * COLUMNS
+	 */
+
+	/**
+	 * writes all given weights (of one type), numeric weights as a single
+	 * primitive array
+	 */
+	void writeColumn(BinaryWriter w, Weight[] weights) throws IOException {
+		this.writeHeader(w);
+		if (this.kind == NONE) {
+			return;
+		}
+		w.writeInt(weights.length);
+		int dim = this.dim;
+		switch (this.kind) {
+		case INT:
+			int[] ints = new int[weights.length * dim];
+			for (int i = 0; i < weights.length; i++) {
+				Weight x = weights[i];
+				if (dim == 1) {
+					ints[i] = ((IntWeight) x).getWeight();
+				} else if (dim == 2) {
+					ints[2 * i] = ((Int2dWeight) x).getX();
+					ints[2 * i + 1] = ((Int2dWeight) x).getY();
+				} else {
+					ints[3 * i] = ((Int3dWeight) x).getX();
+					ints[3 * i + 1] = ((Int3dWeight) x).getY();
+					ints[3 * i + 2] = ((Int3dWeight) x).getZ();
+				}
+			}
+			w.writeInts(ints);
+			break;
+		case LONG:
+			long[] longs = new long[weights.length * dim];
+			for (int i = 0; i < weights.length; i++) {
+				Weight x = weights[i];
+				if (dim == 1) {
+					longs[i] = ((LongWeight) x).getWeight();
+				} else if (dim == 2) {
+					longs[2 * i] = ((Long2dWeight) x).getX();
+					longs[2 * i + 1] = ((Long2dWeight) x).getY();
+				} else {
+					longs[3 * i] = ((Long3dWeight) x).getX();
+					longs[3 * i + 1] = ((Long3dWeight) x).getY();
+					longs[3 * i + 2] = ((Long3dWeight) x).getZ();
+				}
+			}
+			w.writeLongs(longs);
+			break;
+		case DOUBLE:
+			double[] doubles = new double[weights.length * dim];
+			for (int i = 0; i < weights.length; i++) {
+				Weight x = weights[i];
+				if (dim == 1) {
+					doubles[i] = ((DoubleWeight) x).getWeight();
+				} else if (dim == 2) {
+					doubles[2 * i] = ((Double2dWeight) x).getX();
+					doubles[2 * i + 1] = ((Double2dWeight) x).getY();
+				} else {
+					doubles[3 * i] = ((Double3dWeight) x).getX();
+					doubles[3 * i + 1] = ((Double3dWeight) x).getY();
+					doubles[3 * i + 2] = ((Double3dWeight) x).getZ();
+				}
+			}
+			w.writeDoubles(doubles);
+			break;
+		default:
+			for (Weight x : weights) {
+				w.writeString(x.asString());
+			}
+		}
+	}
+
+	/**
+	 * reads weights written by writeColumn
+	 *
+	 * @return weights, null in case none are stored or the GraphDataStructure
+	 *         does not create weighted nodes / edges
+	 */
+	static Weight[] readColumn(BinaryReader r, GraphDataStructure gds,
+			boolean node) {
+		BinaryWeights format = readHeader(r, gds, node);
+		if (format.kind == NONE) {
+			return null;
+		}
+		int count = r.readInt();
+		if (!format.isUsed()) {
+			if (format.kind == INT) {
+				r.skipInts();
+			} else if (format.kind == LONG) {
+				r.skipLongs();
+			} else if (format.kind == DOUBLE) {
+				r.skipDoubles();
+			} else {
+				for (int i = 0; i < count; i++) {
+					r.skipString();
+				}
+			}
+			return null;
+		}
+
+		Weight[] weights = new Weight[count];
+		int dim = format.dim;
+		switch (format.kind) {
+		case INT:
+			int[] ints = r.readInts();
+			for (int i = 0; i < count; i++) {
+				if (dim == 1) {
+					weights[i] = new IntWeight(ints[i]);
+				} else if (dim == 2) {
+					weights[i] = new Int2dWeight(ints[2 * i], ints[2 * i + 1]);
+				} else {
+					weights[i] = new Int3dWeight(ints[3 * i], ints[3 * i + 1],
+							ints[3 * i + 2]);
+				}
+			}
+			break;
+		case LONG:
+			long[] longs = r.readLongs();
+			for (int i = 0; i < count; i++) {
+				if (dim == 1) {
+					weights[i] = new LongWeight(longs[i]);
+				} else if (dim == 2) {
+					weights[i] = new Long2dWeight(longs[2 * i],
+							longs[2 * i + 1]);
+				} else {
+					weights[i] = new Long3dWeight(longs[3 * i],
+							longs[3 * i + 1], longs[3 * i + 2]);
+				}
+			}
+			break;
+		case DOUBLE:
+			double[] doubles = r.readDoubles();
+			for (int i = 0; i < count; i++) {
+				if (dim == 1) {
+					weights[i] = new DoubleWeight(doubles[i]);
+				} else if (dim == 2) {
+					weights[i] = new Double2dWeight(doubles[2 * i],
+							doubles[2 * i + 1]);
+				} else {
+					weights[i] = new Double3dWeight(doubles[3 * i],
+							doubles[3 * i + 1], doubles[3 * i + 2]);
+				}
+			}
+			break;
+		default:
+			for (int i = 0; i < count; i++) {
+				weights[i] = format.parse(r.readString());
+			}
+			return weights;
+		}
+
+		if (format.convert) {
+			for (int i = 0; i < count; i++) {
+				weights[i] = format.parse(weights[i].asString());
+			}
+		}
+		return weights;
+	}
+}
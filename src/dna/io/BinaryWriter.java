@@ -0,0 +1,219 @@
+package dna.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import dna.series.SeriesGeneration;
+
+/**
+ * Writes primitive values and length-prefixed primitive arrays to a file via a
+ * byte channel (a FileChannel in case of the default file system). Values are
+ * collected in a direct buffer that is flushed to the channel whenever it is
+ * full, arrays are copied in bulk. All values are written in little endian
+ * order, arrays and strings are prefixed by their length (-1 for null).
+ *
+ * @author benni
+ *
+ */
+public class BinaryWriter {
+
+	public static final int BUFFER_SIZE = 1 << 16;
+
+	private WritableByteChannel channel;
+
+	private ByteBuffer buffer;
+
+	public BinaryWriter(Path path) throws IOException {
+		this.channel = Files.newByteChannel(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(
+				ByteOrder.LITTLE_ENDIAN);
+	}
+
+	public BinaryWriter(String dir, String filename) throws IOException {
+		this(BinaryWriter.getPath(dir, filename));
+	}
+
+	private static Path getPath(String dir, String filename) throws IOException {
+		FileSystem fs = SeriesGeneration.getWriteFileSystem();
+		if (fs == null) {
+			(new File(dir)).mkdirs();
+			return Paths.get(dir + filename);
+		}
+		Path innerDir = fs.getPath(dir);
+		if (!Files.exists(innerDir))
+			Files.createDirectories(innerDir);
+		return fs.getPath(dir + filename);
+	}
+
+	private void flush() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining()) {
+			this.channel.write(this.buffer);
+		}
+		this.buffer.clear();
+	}
+
+	private void ensure(int bytes) throws IOException {
+		if (this.buffer.remaining() < bytes) {
+			this.flush();
+		}
+	}
+
+	public void writeByte(byte value) throws IOException {
+		this.ensure(1);
+		this.buffer.put(value);
+	}
+
+	public void writeBoolean(boolean value) throws IOException {
+		this.writeByte((byte) (value ? 1 : 0));
+	}
+
+	public void writeInt(int value) throws IOException {
+		this.ensure(4);
+		this.buffer.putInt(value);
+	}
+
+	public void writeLong(long value) throws IOException {
+		this.ensure(8);
+		this.buffer.putLong(value);
+	}
+
+	public void writeDouble(double value) throws IOException {
+		this.ensure(8);
+		this.buffer.putDouble(value);
+	}
+
+	/**
+	 * writes a non-negative value using 1 to 5 bytes (7 bits per byte, the
+	 * highest bit is set for all but the last byte)
+	 */
+	public void writeVarInt(int value) throws IOException {
+		this.ensure(5);
+		while ((value & ~0x7F) != 0) {
+			this.buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		this.buffer.put((byte) value);
+	}
+
+	/**
+	 * writes a (possibly negative) value as a varint, values close to 0 use
+	 * few bytes (zig-zag encoding)
+	 */
+	public void writeSignedVarInt(int value) throws IOException {
+		this.writeVarInt((value << 1) ^ (value >> 31));
+	}
+
+	public void writeString(String value) throws IOException {
+		if (value == null) {
+			this.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		this.writeInt(bytes.length);
+		int offset = 0;
+		while (offset < bytes.length) {
+			this.ensure(1);
+			int n = Math.min(bytes.length - offset, this.buffer.remaining());
+			this.buffer.put(bytes, offset, n);
+			offset += n;
+		}
+	}
+
+	public void writeBytes(byte[] values) throws IOException {
+		this.writeBytes(values, values == null ? 0 : values.length);
+	}
+
+	/**
+	 * writes the first length values of the given array
+	 */
+	public void writeBytes(byte[] values, int length) throws IOException {
+		if (values == null) {
+			this.writeInt(-1);
+			return;
+		}
+		this.writeInt(length);
+		int offset = 0;
+		while (offset < length) {
+			this.ensure(1);
+			int n = Math.min(length - offset, this.buffer.remaining());
+			this.buffer.put(values, offset, n);
+			offset += n;
+		}
+	}
+
+	public void writeInts(int[] values) throws IOException {
+		if (values == null) {
+			this.writeInt(-1);
+			return;
+		}
+		this.writeInt(values.length);
+		int offset = 0;
+		while (offset < values.length) {
+			this.ensure(4);
+			int n = Math.min(values.length - offset,
+					this.buffer.remaining() / 4);
+			this.buffer.asIntBuffer().put(values, offset, n);
+			this.buffer.position(this.buffer.position() + n * 4);
+			offset += n;
+		}
+	}
+
+	public void writeLongs(long[] values) throws IOException {
+		if (values == null) {
+			this.writeInt(-1);
+			return;
+		}
+		this.writeInt(values.length);
+		int offset = 0;
+		while (offset < values.length) {
+			this.ensure(8);
+			int n = Math.min(values.length - offset,
+					this.buffer.remaining() / 8);
+			this.buffer.asLongBuffer().put(values, offset, n);
+			this.buffer.position(this.buffer.position() + n * 8);
+			offset += n;
+		}
+	}
+
+	public void writeDoubles(double[] values) throws IOException {
+		if (values == null) {
+			this.writeInt(-1);
+			return;
+		}
+		this.writeInt(values.length);
+		int offset = 0;
+		while (offset < values.length) {
+			this.ensure(8);
+			int n = Math.min(values.length - offset,
+					this.buffer.remaining() / 8);
+			this.buffer.asDoubleBuffer().put(values, offset, n);
+			this.buffer.position(this.buffer.position() + n * 8);
+			offset += n;
+		}
+	}
+
+	public void close() throws IOException {
+		this.flush();
+		this.channel.close();
+	}
+
+	/**
+	 * Returns a BinaryWriter for the given file. In case the static write
+	 * FileSystem of SeriesGeneration is set, the file is created inside of it.
+	 */
+	public static BinaryWriter getWriter(String dir, String filename)
+			throws IOException {
+		return new BinaryWriter(dir, filename);
+	}
+}
@@ -7,11 +7,76 @@ import dna.graph.Graph;
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
+import dna.util.Log;
+import dna.util.LongIntMap;
 
 public class EdgeListGraphReader {
 
+	/**
+	 * Reads a graph from a file listing one edge per line. Numeric node ids
+	 * are parsed from the memory-mapped file (cf. EdgeListParser) and mapped
+	 * to consecutive node indices in one pass. In case the ids are not
+	 * numeric, the file is read again line by line, splitting each line using
+	 * the given separator.
+	 */
 	public static Graph read(String dir, String filename, String separator,
 			GraphDataStructure gds) throws IOException {
+		try {
+			return readNumeric(dir, filename, separator, gds);
+		} catch (InvalidFormatException e) {
+			Log.debug("reading " + filename + " as strings: " + e.getMessage());
+			return readStrings(dir, filename, separator, gds);
+		}
+	}
+
+	private static Graph readNumeric(String dir, String filename,
+			String separator, GraphDataStructure gds) throws IOException {
+		EdgeListParser parser = new EdgeListParser(dir, filename, separator);
+		try {
+			// estimate the size of the graph from the size of the file
+			int edges = (int) Math.min(parser.getFileSize() / 16,
+					Integer.MAX_VALUE);
+			int nodes = edges / 8;
+			Graph g = gds.newGraphInstance(filename, 0, nodes, edges);
+			if (ParallelGraphLoader.isEnabled(dir, filename)) {
+				ParallelGraphLoader.addEdges(g, dir, filename, separator, 0,
+						false);
+				return g;
+			}
+			LongIntMap mapping = new LongIntMap(nodes);
+			while (parser.next()) {
+				Node src = getNode(g, gds, mapping, parser.getSrc());
+				Node dst = getNode(g, gds, mapping, parser.getDst());
+				Edge e = gds.newEdgeInstance(src, dst);
+				g.addEdge(e);
+				src.addEdge(e);
+				dst.addEdge(e);
+			}
+			return g;
+		} finally {
+			parser.close();
+		}
+	}
+
+	/**
+	 * @return node mapped to the given id, a new node with the next index in
+	 *         case the id is not mapped yet
+	 */
+	static Node getNode(Graph g, GraphDataStructure gds, LongIntMap mapping,
+			long id) {
+		int index = mapping.get(id);
+		if (index >= 0) {
+			return g.getNode(index);
+		}
+		index = mapping.size();
+		mapping.put(id, index);
+		Node n = gds.newNodeInstance(index);
+		g.addNode(n);
+		return n;
+	}
+
+	private static Graph readStrings(String dir, String filename,
+			String separator, GraphDataStructure gds) throws IOException {
 
 		HashMap<String, Integer> mapping = new HashMap<String, Integer>();
 		int nodes = 0;
@@ -0,0 +1,331 @@
+package dna.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import dna.util.Config;
+
+/**
+ * Parser for files that list one edge per line as a pair of numeric node ids,
+ * e.g., "12\t345" (additional columns are ignored). The file is memory-mapped
+ * (in windows of up to 1GB) and the ids are parsed directly from its bytes, so
+ * no String is created for an edge line and no line is copied.
+ *
+ * Lines starting with the comment prefix (COMMENT_PREFIX) and empty lines are
+ * skipped. Ids can be separated by whitespace and by all non-alphanumeric
+ * characters of the given separator (ids are non-negative in case it contains
+ * '-', e.g., "->" for directed edges).
+ *
+ * A parser can be restricted to a range of the file, it then parses all lines
+ * that start within this range. Hence, a file can be parsed by several parsers
+ * concurrently, each one reading a range of it (cf. ParallelGraphLoader).
+ *
+ * <pre>
+ * EdgeListParser parser = new EdgeListParser(dir, filename, &quot;\t&quot;);
+ * while (parser.next()) {
+ * 	... parser.getSrc() ... parser.getDst() ...
+ * }
+ * parser.close();
+ * </pre>
+ *
+ * @author benni
+ *
+ */
+public class EdgeListParser {
+	private static final long windowSize = 1L << 30;
+
+	private FileChannel channel;
+
+	private long fileSize;
+
+	/**
+	 * end of the range of the file to parse, lines starting before are parsed
+	 */
+	private long end;
+
+	private MappedByteBuffer buffer;
+
+	/**
+	 * position of the current window in the file
+	 */
+	private long offset;
+
+	private int pos;
+
+	private int limit;
+
+	private byte[] comment;
+
+	private boolean[] delimiters;
+
+	private long line;
+
+	private long src;
+
+	private long dst;
+
+	/**
+	 * value parsed by the last call of parse
+	 */
+	private long value;
+
+	public EdgeListParser(String dir, String filename) throws IOException {
+		this(dir, filename, "\t");
+	}
+
+	public EdgeListParser(String dir, String filename, String separator)
+			throws IOException {
+		this(dir, filename, separator, 0, Long.MAX_VALUE);
+	}
+
+	/**
+	 * 
+	 * @param start
+	 *            position in the file, parsing starts with the first line
+	 *            starting at or after it
+	 * @param end
+	 *            position in the file, parsing ends with the last line starting
+	 *            before it
+	 */
+	public EdgeListParser(String dir, String filename, String separator,
+			long start, long end) throws IOException {
+		this.channel = FileChannel.open(Paths.get(dir + filename),
+				StandardOpenOption.READ);
+		this.fileSize = this.channel.size();
+		this.end = Math.min(end, this.fileSize);
+		this.comment = Config.get("COMMENT_PREFIX").getBytes(
+				StandardCharsets.UTF_8);
+		this.delimiters = new boolean[128];
+		this.delimiters[' '] = true;
+		this.delimiters['\t'] = true;
+		this.delimiters['\r'] = true;
+		for (char c : separator.toCharArray()) {
+			if (c < 128 && !Character.isLetterOrDigit(c) && c != '\\') {
+				this.delimiters[c] = true;
+			}
+		}
+		this.line = 0;
+		if (start <= 0) {
+			this.map(0);
+		} else {
+			// skip the rest of the line containing the byte before start, i.e.,
+			// only its '\n' if a line starts at start
+			this.map(Math.min(start - 1, this.fileSize));
+			int e = this.lineEnd();
+			if (e >= 0) {
+				this.pos = e + 1;
+			}
+		}
+	}
+
+	private void map(long offset) throws IOException {
+		this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, offset,
+				Math.min(windowSize, this.fileSize - offset));
+		this.offset = offset;
+		this.pos = 0;
+		this.limit = this.buffer.limit();
+	}
+
+	/**
+	 * @return size of the file in bytes
+	 */
+	public long getFileSize() {
+		return this.fileSize;
+	}
+
+	/**
+	 * @return position of the next line in the file
+	 */
+	public long getPosition() {
+		return this.offset + this.pos;
+	}
+
+	/**
+	 * @return number of lines read by this parser so far
+	 */
+	public long getLine() {
+		return this.line;
+	}
+
+	/**
+	 * @return position of the end of the current line (of its '\n' or the end
+	 *         of the file), -1 if the end of the file has been reached
+	 */
+	private int lineEnd() throws IOException {
+		if (this.offset + this.pos >= this.end) {
+			return -1;
+		}
+		while (true) {
+			for (int i = this.pos; i < this.limit; i++) {
+				if (this.buffer.get(i) == '\n')
+					return i;
+			}
+			if (this.offset + this.limit >= this.fileSize) {
+				return this.limit;
+			}
+			if (this.pos == 0) {
+				throw new InvalidFormatException("line " + (this.line + 1)
+						+ " is longer than " + windowSize + " bytes");
+			}
+			// line crosses the end of the window
+			this.map(this.offset + this.pos);
+		}
+	}
+
+	/**
+	 * Reads the next line as a string, without skipping comments (e.g., to read
+	 * the header of a file).
+	 *
+	 * @return next line, null if the end of the file has been reached
+	 */
+	public String readLine() throws IOException {
+		int end = this.lineEnd();
+		if (end < 0) {
+			return null;
+		}
+		int length = end - this.pos;
+		if (length > 0 && this.buffer.get(end - 1) == '\r') {
+			length--;
+		}
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = this.buffer.get(this.pos + i);
+		}
+		this.pos = end + 1;
+		this.line++;
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return Reader returning the following lines of this parser as strings
+	 *         (skipping comments like Reader), e.g., to read the header of a
+	 *         file before parsing its edges
+	 */
+	public Reader asReader() {
+		return new Reader() {
+			public String readString() throws IOException {
+				String line = readLine();
+				while (line != null && skipComments
+						&& line.startsWith(Config.get("COMMENT_PREFIX"))) {
+					line = readLine();
+				}
+				return line;
+			}
+
+			public void close() throws IOException {
+				EdgeListParser.this.close();
+			}
+		};
+	}
+
+	/**
+	 * Parses the next edge, skipping comments and empty lines.
+	 *
+	 * @return false if the end of the file has been reached
+	 * @throws InvalidFormatException
+	 *             in case the next line does not start with two numeric ids
+	 */
+	public boolean next() throws IOException {
+		int end;
+		while ((end = this.lineEnd()) >= 0) {
+			int start = this.pos;
+			this.pos = end + 1;
+			this.line++;
+			int i = this.skipDelimiters(start, end);
+			if (i == end || this.isComment(start, end)) {
+				continue;
+			}
+			i = this.parse(i, end);
+			this.src = this.value;
+			i = this.skipDelimiters(i, end);
+			i = this.parse(i, end);
+			this.dst = this.value;
+			if (i < end && !this.isDelimiter(this.buffer.get(i))) {
+				throw this.invalid(i);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private boolean isComment(int start, int end) {
+		if (end - start < this.comment.length) {
+			return false;
+		}
+		for (int i = 0; i < this.comment.length; i++) {
+			if (this.buffer.get(start + i) != this.comment[i])
+				return false;
+		}
+		return true;
+	}
+
+	private boolean isDelimiter(byte b) {
+		return b >= 0 && this.delimiters[b];
+	}
+
+	private int skipDelimiters(int i, int end) {
+		while (i < end && this.isDelimiter(this.buffer.get(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * parses the number starting at position i into value
+	 *
+	 * @return position after the number
+	 */
+	private int parse(int i, int end) throws InvalidFormatException {
+		boolean negative = i < end && this.buffer.get(i) == '-'
+				&& !this.delimiters['-'];
+		if (negative) {
+			i++;
+		}
+		int start = i;
+		long value = 0;
+		for (; i < end; i++) {
+			int digit = this.buffer.get(i) - '0';
+			if (digit < 0 || digit > 9)
+				break;
+			if (value > (Long.MAX_VALUE - digit) / 10)
+				throw this.invalid(start);
+			value = value * 10 + digit;
+		}
+		if (i == start) {
+			throw this.invalid(i);
+		}
+		this.value = negative ? -value : value;
+		return i;
+	}
+
+	private InvalidFormatException invalid(int i) {
+		return new InvalidFormatException("invalid edge in line " + this.line
+				+ " at byte " + (this.offset + i) + ", expected two numeric ids");
+	}
+
+	/**
+	 * @return id of the source node of the last parsed edge
+	 */
+	public long getSrc() {
+		return this.src;
+	}
+
+	/**
+	 * @return id of the destination node of the last parsed edge
+	 */
+	public long getDst() {
+		return this.dst;
+	}
+
+	/**
+	 * closes the file, the mapped window is released by the garbage collector
+	 */
+	public void close() throws IOException {
+		this.buffer = null;
+		this.channel.close();
+	}
+}
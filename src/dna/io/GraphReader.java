@@ -4,7 +4,9 @@ import java.io.IOException;
 
 import dna.graph.Graph;
 import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.DirectedEdge;
 import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
 import dna.util.Config;
 
 public class GraphReader {
@@ -14,9 +16,27 @@ public class GraphReader {
 		return read(dir, filename, null);
 	}
 
+	/**
+	 * Reads a graph written by GraphWriter. The edges of large files are
+	 * loaded in parallel (cf. ParallelGraphLoader) unless they are weighted.
+	 * Graphs written by BinaryGraphWriter are read using BinaryGraphReader.
+	 */
 	public static Graph read(String dir, String filename, GraphDataStructure ds)
 			throws IOException {
-		Reader reader = new Reader(dir, filename);
+		if (BinaryGraphReader.isBinary(dir, filename)) {
+			return BinaryGraphReader.read(dir, filename, ds);
+		}
+
+		EdgeListParser parser = null;
+		Reader reader;
+		if (ParallelGraphLoader.isEnabled(dir, filename)) {
+			// read the header from the mapped file to know where the list of
+			// edges starts
+			parser = new EdgeListParser(dir, filename);
+			reader = parser.asReader();
+		} else {
+			reader = new Reader(dir, filename);
+		}
 
 		reader.readKeyword(GraphWriter.nameKeyword);
 		String name = reader.readString();
@@ -46,10 +66,16 @@ public class GraphReader {
 			g.addNode(ds.newNodeInstance(line));
 		}
 
-		while ((line = reader.readString()) != null) {
-			Edge e = ds.newEdgeInstance(line, g);
-			g.addEdge(e);
-			e.connectToNodes();
+		if (parser != null && !ds.createsWeightedEdges()) {
+			ParallelGraphLoader.addIndexedEdges(g, dir, filename,
+					ds.createsDirected() ? DirectedEdge.separator
+							: UndirectedEdge.separator, parser.getPosition());
+		} else {
+			while ((line = reader.readString()) != null) {
+				Edge e = ds.newEdgeInstance(line, g);
+				g.addEdge(e);
+				e.connectToNodes();
+			}
 		}
 
 		reader.close();
@@ -58,6 +84,10 @@ public class GraphReader {
 
 	public static String readName(String dir, String filename)
 			throws IOException {
+		if (BinaryGraphReader.isBinary(dir, filename)) {
+			return BinaryGraphReader.readName(dir, filename);
+		}
+
 		Reader reader = new Reader(dir, filename);
 
 		reader.readKeyword(GraphWriter.nameKeyword);
@@ -0,0 +1,21 @@
+package dna.io;
+
+import java.io.IOException;
+
+/**
+ * 
+ * Exception used to indicate that a file read by one of the readers does not
+ * have the expected format (invalid lines, unknown versions, etc.)
+ * 
+ * @author benni
+ * 
+ */
+public class InvalidFormatException extends IOException {
+
+	private static final long serialVersionUID = 3702158865912443701L;
+
+	public InvalidFormatException(String msg) {
+		super(msg);
+	}
+
+}
@@ -0,0 +1,496 @@
+package dna.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.profiler.Profiler;
+import dna.util.Config;
+import dna.util.Log;
+import dna.util.LongIntMap;
+import dna.util.Parallel;
+
+/**
+ * Loads the edges of large graph files in parallel. The list of edges in a
+ * file is split into byte ranges on line boundaries which are parsed
+ * concurrently (cf. EdgeListParser) into primitive buffers of node ids. The
+ * edges are then sorted by their nodes using a counting sort (dropping
+ * duplicates) and the adjacency lists of all nodes are built in bulk, each one
+ * allocated once at its final size (computed from the degrees of the nodes).
+ * Finally, all edges are added to the graph using a single bulk operation.
+ *
+ * Used by GraphReader (and hence ReadableFileGraph), SNAPGraphReader, and
+ * EdgeListGraphReader for files of at least GRAPH_READER_PARALLEL_SIZE MB.
+ * The tasks are executed by the shared fork-join pool (cf. Parallel). The
+ * resulting graph does not depend on the number of threads: nodes are created
+ * in the order of the first occurrence of their ids and the edges are added
+ * ordered by their nodes.
+ *
+ * @author benni
+ *
+ */
+public class ParallelGraphLoader {
+
+	/**
+	 * minimum number of bytes parsed by a single task
+	 */
+	private static final long minRangeSize = 1 << 20;
+
+	/**
+	 *
+	 * @return true, in case the given file should be read using the parallel
+	 *         loader (GRAPH_READER_PARALLEL_SIZE, negative to disable it)
+	 */
+	public static boolean isEnabled(String dir, String filename) {
+		int size = Config.getInt("GRAPH_READER_PARALLEL_SIZE");
+		return size >= 0
+				&& new File(dir + filename).length() >= ((long) size << 20);
+	}
+
+	/**
+	 * Adds the edges listed in the given file to the graph. Nodes are
+	 * identified by arbitrary (numeric) ids which are mapped to consecutive
+	 * indices in the order of their first occurrence. For each new id, a node
+	 * is added to the graph.
+	 *
+	 * @param start
+	 *            position in the file where the list of edges starts
+	 * @param skipSelfLoops
+	 *            if true, edges from a node to itself are not added
+	 * @return number of edges that were added
+	 */
+	public static int addEdges(Graph g, String dir, String filename,
+			String separator, long start, boolean skipSelfLoops)
+			throws IOException {
+		Range[] ranges = parse(dir, filename, separator, start);
+		GraphDataStructure gds = g.getGraphDatastructures();
+		LongIntMap mapping = new LongIntMap();
+		int count = count(ranges);
+		int[] src = new int[count];
+		int[] dst = new int[count];
+		int m = 0;
+		for (Range r : ranges) {
+			for (int i = 0; i < 2 * r.count; i += 2) {
+				src[m] = getIndex(g, gds, mapping, r.ids[i]);
+				dst[m] = getIndex(g, gds, mapping, r.ids[i + 1]);
+				m++;
+			}
+			r.ids = null;
+		}
+		return build(g, src, dst, m, skipSelfLoops);
+	}
+
+	/**
+	 * Adds the edges listed in the given file to the graph. Nodes are
+	 * identified by their index, edges between nodes that are not contained
+	 * in the graph are not added.
+	 *
+	 * @param start
+	 *            position in the file where the list of edges starts
+	 * @return number of edges that were added
+	 */
+	public static int addIndexedEdges(Graph g, String dir, String filename,
+			String separator, long start) throws IOException {
+		Range[] ranges = parse(dir, filename, separator, start);
+		int count = count(ranges);
+		int[] src = new int[count];
+		int[] dst = new int[count];
+		int m = 0;
+		for (Range r : ranges) {
+			for (int i = 0; i < 2 * r.count; i += 2) {
+				src[m] = (int) Math.min(r.ids[i], Integer.MAX_VALUE);
+				dst[m] = (int) Math.min(r.ids[i + 1], Integer.MAX_VALUE);
+				m++;
+			}
+			r.ids = null;
+		}
+		return build(g, src, dst, m, false);
+	}
+
+	private static int getIndex(Graph g, GraphDataStructure gds,
+			LongIntMap mapping, long id) {
+		int index = mapping.get(id);
+		if (index < 0) {
+			index = mapping.size();
+			mapping.put(id, index);
+			g.addNode(gds.newNodeInstance(index));
+		}
+		return index;
+	}
+
+	/*
+	 * PARSING
+	 */
+
+	/**
+	 * ids of the edges parsed from a range of a file (src1, dst1, src2, ...)
+	 */
+	private static class Range {
+		private long[] ids;
+
+		private int count;
+	}
+
+	private static int count(Range[] ranges) {
+		long count = 0;
+		for (Range r : ranges) {
+			count += r.count;
+		}
+		if (count > Integer.MAX_VALUE) {
+			throw new IllegalStateException("cannot load " + count + " edges");
+		}
+		return (int) count;
+	}
+
+	private static Range[] parse(final String dir, final String filename,
+			final String separator, long start) throws IOException {
+		long length = Math.max(new File(dir + filename).length() - start, 0);
+		int ranges = (int) Math.max(1, Math.min(4L * Parallel.getParallelism(),
+				length / minRangeSize));
+		List<Callable<Range>> tasks = new ArrayList<Callable<Range>>(ranges);
+		for (int i = 0; i < ranges; i++) {
+			final long from = start + length * i / ranges;
+			final long to = start + length * (i + 1) / ranges;
+			tasks.add(new Callable<Range>() {
+				@Override
+				public Range call() throws IOException {
+					return parse(dir, filename, separator, from, to);
+				}
+			});
+		}
+		return invoke(tasks).toArray(new Range[ranges]);
+	}
+
+	private static Range parse(String dir, String filename, String separator,
+			long from, long to) throws IOException {
+		EdgeListParser parser = new EdgeListParser(dir, filename, separator,
+				from, to);
+		try {
+			Range r = new Range();
+			r.ids = new long[(int) Math.max(16,
+					Math.min((to - from) / 8, Integer.MAX_VALUE / 2))];
+			while (parser.next()) {
+				if (2 * r.count + 2 > r.ids.length) {
+					r.ids = Arrays.copyOf(r.ids, 2 * r.ids.length);
+				}
+				r.ids[2 * r.count] = parser.getSrc();
+				r.ids[2 * r.count + 1] = parser.getDst();
+				r.count++;
+			}
+			return r;
+		} finally {
+			parser.close();
+		}
+	}
+
+	/*
+	 * BUILDING
+	 */
+
+	/**
+	 * adds the edges src[i] -> dst[i] (0 <= i < m) between the nodes with the
+	 * given indices to the graph (the given arrays are modified)
+	 */
+	private static int build(Graph g, int[] src, int[] dst, int m,
+			boolean skipSelfLoops) throws IOException {
+		GraphDataStructure gds = g.getGraphDatastructures();
+		boolean directed = gds.createsDirected();
+		final Node[] nodes = new Node[g.getMaxNodeIndex() + 1];
+		for (IElement n : g.getNodes()) {
+			nodes[((Node) n).getIndex()] = (Node) n;
+		}
+
+		// drop invalid edges (and self loops), order the nodes of undirected
+		// edges by index
+		int k = 0;
+		for (int i = 0; i < m; i++) {
+			int s = src[i];
+			int d = dst[i];
+			if (s < 0 || d < 0 || s >= nodes.length || d >= nodes.length
+					|| nodes[s] == null || nodes[d] == null) {
+				Log.error("could not add edge " + s + " / " + d
+						+ " (nodes not contained)");
+				continue;
+			}
+			if (s == d && skipSelfLoops) {
+				continue;
+			}
+			if (!directed && s > d) {
+				src[k] = d;
+				dst[k] = s;
+			} else {
+				src[k] = s;
+				dst[k] = d;
+			}
+			k++;
+		}
+		m = k;
+
+		// sort the edges by their first node (counting sort), then sort the
+		// edges of each node by their second node and drop duplicates
+		int n = nodes.length;
+		final int[] offsets = new int[n + 1];
+		for (int i = 0; i < m; i++) {
+			offsets[src[i] + 1]++;
+		}
+		for (int v = 0; v < n; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		final int[] adj = new int[m];
+		final int[] sizes = Arrays.copyOf(offsets, n);
+		for (int i = 0; i < m; i++) {
+			adj[sizes[src[i]]++] = dst[i];
+		}
+		src = null;
+		dst = null;
+		forEachNode(offsets, new NodeTask() {
+			@Override
+			void run(int v) {
+				int from = offsets[v];
+				int to = offsets[v + 1];
+				Arrays.sort(adj, from, to);
+				int size = 0;
+				for (int i = from; i < to; i++) {
+					if (size == 0 || adj[from + size - 1] != adj[i]) {
+						adj[from + size++] = adj[i];
+					}
+				}
+				sizes[v] = size;
+			}
+		});
+		m = 0;
+		for (int v = 0; v < n; v++) {
+			System.arraycopy(adj, offsets[v], adj, m, sizes[v]);
+			offsets[v] = m;
+			m += sizes[v];
+		}
+		offsets[n] = m;
+
+		// create the edges
+		final Edge[] edges = new Edge[m];
+		for (int v = 0; v < n; v++) {
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				edges[i] = gds.newEdgeInstance(nodes[v], nodes[adj[i]]);
+			}
+		}
+
+		return build(g, nodes, offsets, adj, edges);
+	}
+
+	/**
+	 * Builds the adjacency lists of all nodes in bulk and adds the given edges
+	 * to the graph. The edges of node v are edges[offsets[v]] to
+	 * edges[offsets[v + 1] - 1], adj holds the index of the other node of each
+	 * edge. The edges of each node must be sorted by the other node and must
+	 * not contain duplicates. Undirected edges must be given for the node with
+	 * the lower index only.
+	 *
+	 * @param nodes
+	 *            all nodes of the graph (by index)
+	 * @return number of edges that were added
+	 */
+	static int build(Graph g, Node[] nodes, int[] offsets, int[] adj,
+			Edge[] edges) throws IOException {
+		if (g.getGraphDatastructures().createsDirected()) {
+			buildDirected(nodes, offsets, adj, edges);
+		} else {
+			buildUndirected(nodes, offsets, adj, edges);
+		}
+		return g.addConnectedEdges(Arrays.asList(edges));
+	}
+
+	/**
+	 * builds the adjacency lists of all directed nodes from the given edges,
+	 * sorted by source (offsets) and destination (adj)
+	 */
+	private static void buildDirected(final Node[] nodes, final int[] offsets,
+			final int[] adj, final Edge[] edges) throws IOException {
+		int n = nodes.length;
+		int m = edges.length;
+
+		// sort the incoming edges by destination, self loops are only
+		// contained in the list of outgoing edges (cf. DirectedNode.addEdge)
+		final int[] inOffsets = new int[n + 1];
+		for (int v = 0; v < n; v++) {
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				if (adj[i] != v)
+					inOffsets[adj[i] + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			inOffsets[v + 1] += inOffsets[v];
+		}
+		final int[] inAdj = new int[inOffsets[n]];
+		final Edge[] inEdges = new Edge[inOffsets[n]];
+		int[] next = Arrays.copyOf(inOffsets, n);
+		for (int v = 0; v < n; v++) {
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				if (adj[i] != v) {
+					inAdj[next[adj[i]]] = v;
+					inEdges[next[adj[i]]++] = edges[i];
+				}
+			}
+		}
+		next = null;
+
+		final List<Edge> all = Arrays.asList(edges);
+		final List<Edge> allIn = Arrays.asList(inEdges);
+		forEachNode(offsets, new NodeTask() {
+			@Override
+			void run(int v) {
+				if (nodes[v] == null) {
+					return;
+				}
+				// neighbors: nodes connected in both directions
+				List<Node> neighbors = null;
+				int i = offsets[v];
+				int j = inOffsets[v];
+				while (i < offsets[v + 1] && j < inOffsets[v + 1]) {
+					if (adj[i] < inAdj[j]) {
+						i++;
+					} else if (adj[i] > inAdj[j]) {
+						j++;
+					} else {
+						if (neighbors == null) {
+							neighbors = new ArrayList<Node>();
+						}
+						neighbors.add(nodes[adj[i]]);
+						i++;
+						j++;
+					}
+				}
+				((DirectedNode) nodes[v]).addEdges(
+						allIn.subList(inOffsets[v], inOffsets[v + 1]),
+						all.subList(offsets[v], offsets[v + 1]),
+						neighbors == null ? Collections.<Node> emptyList()
+								: neighbors);
+			}
+		});
+	}
+
+	/**
+	 * builds the adjacency lists of all undirected nodes from the given edges,
+	 * sorted by their first (offsets) and second node (adj)
+	 */
+	private static void buildUndirected(final Node[] nodes, int[] offsets,
+			int[] adj, Edge[] edges) throws IOException {
+		int n = nodes.length;
+		final int[] localOffsets = new int[n + 1];
+		for (int v = 0; v < n; v++) {
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				localOffsets[v + 1]++;
+				if (adj[i] != v)
+					localOffsets[adj[i] + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			localOffsets[v + 1] += localOffsets[v];
+		}
+		Edge[] local = new Edge[localOffsets[n]];
+		int[] next = Arrays.copyOf(localOffsets, n);
+		for (int v = 0; v < n; v++) {
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				local[next[v]++] = edges[i];
+				if (adj[i] != v)
+					local[next[adj[i]]++] = edges[i];
+			}
+		}
+		next = null;
+
+		final List<Edge> all = Arrays.asList(local);
+		forEachNode(localOffsets, new NodeTask() {
+			@Override
+			void run(int v) {
+				if (nodes[v] != null) {
+					((UndirectedNode) nodes[v]).addEdges(all.subList(
+							localOffsets[v], localOffsets[v + 1]));
+				}
+			}
+		});
+	}
+
+	/*
+	 * PARALLELIZATION
+	 */
+
+	private abstract static class NodeTask {
+		abstract void run(int v);
+	}
+
+	/**
+	 * executes the given task for all nodes, split into ranges of nodes with
+	 * about the same number of edges (given by offsets), in the current thread
+	 * in case the profiler is active (its counters are not thread-safe)
+	 */
+	private static void forEachNode(int[] offsets, final NodeTask task)
+			throws IOException {
+		int n = offsets.length - 1;
+		if (Profiler.isActive()) {
+			for (int v = 0; v < n; v++) {
+				task.run(v);
+			}
+			return;
+		}
+		long m = offsets[n];
+		int ranges = (int) Math.max(1,
+				Math.min(4L * Parallel.getParallelism(), m / 4096));
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(ranges);
+		int from = 0;
+		for (int r = 1; r <= ranges; r++) {
+			int to = from;
+			while (to < n && (r == ranges || offsets[to] < m * r / ranges)) {
+				to++;
+			}
+			final int first = from;
+			final int last = to;
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() {
+					for (int v = first; v < last; v++) {
+						task.run(v);
+					}
+					return null;
+				}
+			});
+			from = to;
+		}
+		invoke(tasks);
+	}
+
+	private static <T> List<T> invoke(List<Callable<T>> tasks)
+			throws IOException {
+		List<Future<T>> futures = Parallel.getPool().invokeAll(tasks);
+		List<T> results = new ArrayList<T>(futures.size());
+		try {
+			for (Future<T> f : futures) {
+				results.add(f.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("interrupted while loading graph", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new RuntimeException(cause);
+			}
+		}
+		return results;
+	}
+}
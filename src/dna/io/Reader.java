@@ -72,9 +72,9 @@ public class Reader {
 	 */
 	public static Reader getReader(String dir, String filename)
 			throws IOException {
-		if (SeriesGeneration.readFileSystem == null)
+		if (SeriesGeneration.getReadFileSystem() == null)
 			return new Reader(dir, filename);
 		else
-			return new ZipReader(SeriesGeneration.readFileSystem, dir, filename);
+			return new ZipReader(SeriesGeneration.getReadFileSystem(), dir, filename);
 	}
 }
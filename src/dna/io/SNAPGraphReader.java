@@ -1,9 +1,6 @@
 package dna.io;
 
 import java.io.IOException;
-import java.util.HashMap;
-
-import com.sun.media.sound.InvalidFormatException;
 
 import dna.graph.Graph;
 import dna.graph.datastructures.DArray;
@@ -18,6 +15,7 @@ import dna.graph.edges.Edge;
 import dna.graph.edges.DirectedEdge;
 import dna.graph.edges.UndirectedEdge;
 import dna.util.Config;
+import dna.util.LongIntMap;
 
 /**
  * A reader for graphs in the SNAP format
@@ -89,18 +87,13 @@ public class SNAPGraphReader {
 	public static Graph read(String dir, String filename, GraphDataStructure ds)
 			throws IOException {
 
-		HashMap<Integer, Integer> map = new HashMap<Integer, Integer>();
-		// For the case that the IDs are higher than 2.147.483.648, use long
-		// instead
-		// HashMap<Long, Integer> map = new HashMap<Long, Integer>();
-
-		// Creates the reader
-		Reader reader = new Reader(dir, filename);
-		Reader.skipComments = false;
+		// Creates the parser, the header is read line by line and the edges
+		// are parsed from the memory-mapped file
+		EdgeListParser parser = new EdgeListParser(dir, filename);
 
 		// Check if the SNAP graph is directed or undirected and creates a GDS
 		// if necessary
-		String structure = reader.readString();
+		String structure = parser.readLine();
 		if (ds == null) {
 			if (structure.contains(Config.get("SNAP_GRAPH_KEYWORD_DIRECTED"))) {
 
@@ -118,11 +111,11 @@ public class SNAPGraphReader {
 		}
 
 		// Gets the name of the SNAP graph
-		String name = reader.readString();
+		String name = parser.readLine();
 		name = name.substring(name.indexOf(" ") + 1);
 
 		// Gets the node count
-		String nodeAndEdgeCount = reader.readString();
+		String nodeAndEdgeCount = parser.readLine();
 		int offset = nodeAndEdgeCount.indexOf(Config
 				.get("SNAP_GRAPH_KEYWORD_NODE_COUNT"))
 				+ Config.get("SNAP_GRAPH_KEYWORD_NODE_COUNT").length();
@@ -143,9 +136,11 @@ public class SNAPGraphReader {
 		// Creates the graph
 		Graph g = ds.newGraphInstance(name, 0, nodeCount, edgeCount);
 
+		// Maps the IDs of the SNAP graph (up to 2^63) to consecutive indices
+		LongIntMap map = new LongIntMap(nodeCount);
+
 		// Reads and adds the edges
-		String line = reader.readString();
-		int nodeID = 0;
+		String line = parser.readLine();
 
 		// ############ Notification system ############
 		double percentage = 0.00;
@@ -157,49 +152,25 @@ public class SNAPGraphReader {
 		}
 		// ############ End of Notification ############
 
-		if (line.contains(Config.get("SNAP_GRAPH_KEYWORD_EDGES_LIST"))) {
-			while ((line = reader.readString()) != null) {
+		if (line.contains(Config.get("SNAP_GRAPH_KEYWORD_EDGES_LIST"))
+				&& ParallelGraphLoader.isEnabled(dir, filename)) {
+			ParallelGraphLoader.addEdges(g, dir, filename, "\t",
+					parser.getPosition(), true);
+		} else if (line.contains(Config.get("SNAP_GRAPH_KEYWORD_EDGES_LIST"))) {
+			while (parser.next()) {
 
 				// ############ Notification system ############
-				if (((double) nodeID / (double) nodeCount) >= percentage) {
+				if (((double) map.size() / (double) nodeCount) >= percentage) {
 					System.out.println("Reading: "
 							+ Math.round(percentage * 100) + "% finished.");
 					percentage += stepSize;
 				}
 				// ############ End of Notification ############
 
-				int tabIndex = line.indexOf('\t');
-				int srcIndex = Integer.parseInt(line.substring(0, tabIndex));
-				int destIndex = Integer.parseInt(line.substring(tabIndex + 1,
-						line.length()));
-
-				// For the case the IDs are too long to be seperated through a
-				// tab use this instead
-				// int tabIndex = line.indexOf(' ');
-
-				// For the case you use the <long, int> HashMap
-				// long srcIndex = Long.parseLong(line.substring(0, tabIndex));
-				// long destIndex = Long.parseLong(line.substring(tabIndex + 1,
-				// line.length()));
-
-				Node src;
-				Node dest;
-				if (map.containsKey(srcIndex)) {
-					src = g.getNode(map.get(srcIndex));
-				} else {
-					map.put(srcIndex, nodeID);
-					src = ds.newNodeInstance(nodeID);
-					g.addNode(src);
-					nodeID++;
-				}
-				if (map.containsKey(destIndex)) {
-					dest = g.getNode(map.get(destIndex));
-				} else {
-					map.put(destIndex, nodeID);
-					dest = ds.newNodeInstance(nodeID);
-					g.addNode(dest);
-					nodeID++;
-				}
+				Node src = EdgeListGraphReader.getNode(g, ds, map,
+						parser.getSrc());
+				Node dest = EdgeListGraphReader.getNode(g, ds, map,
+						parser.getDst());
 
 				// We don't want self loops so source and destination of an
 				// edge have to be different
@@ -211,9 +182,8 @@ public class SNAPGraphReader {
 			}
 		}
 
-		// Closes the reader, returns the graph
-		reader.close();
-		Reader.skipComments = true;
+		// Closes the parser, returns the graph
+		parser.close();
 		return g;
 	}
 
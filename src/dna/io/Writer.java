@@ -92,10 +92,10 @@ public class Writer {
 	 */
 	public static Writer getWriter(String dir, String filename)
 			throws IOException {
-		if (SeriesGeneration.writeFileSystem == null)
+		if (SeriesGeneration.getWriteFileSystem() == null)
 			return new Writer(dir, filename);
 		else
-			return new ZipWriter(SeriesGeneration.writeFileSystem, dir,
+			return new ZipWriter(SeriesGeneration.getWriteFileSystem(), dir,
 					filename);
 	}
 }
@@ -195,8 +195,8 @@ public class Dir {
 	}
 
 	public static String[] getMetrics(String dir) throws IOException {
-		if (SeriesGeneration.readFileSystem != null) {
-			Path p = SeriesGeneration.readFileSystem.getPath(dir);
+		if (SeriesGeneration.getReadFileSystem() != null) {
+			Path p = SeriesGeneration.getReadFileSystem().getPath(dir);
 			ArrayList<String> fileList = new ArrayList<String>();
 			try (DirectoryStream<Path> directoryStream = java.nio.file.Files
 					.newDirectoryStream(p)) {
@@ -63,8 +63,8 @@ public class Files {
 	}
 
 	public static String[] getDistributions(String dir) throws IOException {
-		if (SeriesGeneration.readFileSystem != null) {
-			Path p = SeriesGeneration.readFileSystem.getPath(dir);
+		if (SeriesGeneration.getReadFileSystem() != null) {
+			Path p = SeriesGeneration.getReadFileSystem().getPath(dir);
 			ArrayList<String> fileList = new ArrayList<String>();
 			try (DirectoryStream<Path> directoryStream = java.nio.file.Files
 					.newDirectoryStream(p)) {
@@ -102,6 +102,13 @@ public class Files {
 		return filename.replace(Config.get("SUFFIX_RUNTIME"), "");
 	}
 
+	/*
+	 * BINARY
+	 */
+	public static String getBinaryFilename(String name) {
+		return name + Config.get("SUFFIX_BINARY");
+	}
+
 	/*
 	 * VALUES
 	 */
@@ -126,8 +133,8 @@ public class Files {
 	}
 
 	public static String[] getNodeValueLists(String dir) throws IOException {
-		if (SeriesGeneration.readFileSystem != null) {
-			Path p = SeriesGeneration.readFileSystem.getPath(dir);
+		if (SeriesGeneration.getReadFileSystem() != null) {
+			Path p = SeriesGeneration.getReadFileSystem().getPath(dir);
 			ArrayList<String> fileList = new ArrayList<String>();
 			try (DirectoryStream<Path> directoryStream = java.nio.file.Files
 					.newDirectoryStream(p)) {
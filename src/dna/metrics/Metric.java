@@ -11,7 +11,7 @@ import dna.updates.update.Update;
 import dna.util.parameters.Parameter;
 import dna.util.parameters.ParameterList;
 
-public abstract class Metric extends ParameterList {
+public abstract class Metric extends ParameterList implements Cloneable {
 
 	public static enum ApplicationType {
 		BeforeBatch, AfterBatch, BeforeAndAfterBatch, BeforeUpdate, AfterUpdate, BeforeAndAfterUpdate, BatchAndUpdates, Recomputation
@@ -189,6 +189,24 @@ public abstract class Metric extends ParameterList {
 	 */
 	public abstract void reset_();
 
+	/**
+	 * the copy shares its data structures with this metric until reset is
+	 * called (which is done before each run). metrics that keep references to
+	 * other metrics must override this method to copy them as well.
+	 * 
+	 * @return copy of this metric without a graph, e.g., to generate a run
+	 *         concurrently to others (cf. Series.copy)
+	 */
+	public Metric copy() {
+		try {
+			Metric copy = (Metric) this.clone();
+			copy.g = null;
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	/*
 	 * DATA
 	 */
@@ -0,0 +1,166 @@
+package dna.metrics.apsp;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import dna.graph.csr.IGraphTraversal;
+import dna.series.data.DistributionLong;
+import dna.util.Parallel;
+
+/**
+ *
+ * bit-parallel multi-source BFS (MS-BFS). the sources are processed in batches
+ * of 64, each source is represented by one bit of a long so that a single
+ * traversal of the graph advances the BFS of all 64 sources by one level.
+ * batches are distributed as fork-join tasks among the threads of the shared
+ * pool (cf. Parallel), each task computes a separate distribution of the
+ * shortest path lengths which are merged when joining.
+ *
+ * the resulting distribution is identical to performing one BFS per source
+ * and counting the distance of each reached node (except the source itself).
+ *
+ * @author benni
+ *
+ */
+public class MultiSourceBFS {
+
+	private IGraphTraversal g;
+
+	private int[] sources;
+
+	public MultiSourceBFS(IGraphTraversal g, int[] sources) {
+		this.g = g;
+		this.sources = sources;
+	}
+
+	/**
+	 *
+	 * @param name
+	 *            name of the resulting distribution
+	 * @return distribution of the lengths of all shortest paths starting at one
+	 *         of the sources
+	 */
+	public DistributionLong compute(String name) {
+		return this.compute(name, Parallel.getPool());
+	}
+
+	/**
+	 *
+	 * @param name
+	 *            name of the resulting distribution
+	 * @param pool
+	 *            pool to execute the tasks in
+	 * @return distribution of the lengths of all shortest paths starting at one
+	 *         of the sources
+	 */
+	public DistributionLong compute(String name, ForkJoinPool pool) {
+		int batches = (this.sources.length + 63) / 64;
+		if (batches == 0) {
+			return new DistributionLong(name);
+		}
+		int leaf = Math.max(1, batches / (pool.getParallelism() * 4));
+		return pool.invoke(new BatchTask(name, 0, batches, leaf));
+	}
+
+	private class BatchTask extends RecursiveTask<DistributionLong> {
+
+		private static final long serialVersionUID = 1L;
+
+		private String name;
+
+		private int from;
+
+		private int to;
+
+		private int leaf;
+
+		public BatchTask(String name, int from, int to, int leaf) {
+			this.name = name;
+			this.from = from;
+			this.to = to;
+			this.leaf = leaf;
+		}
+
+		@Override
+		protected DistributionLong compute() {
+			if (this.to - this.from <= this.leaf) {
+				return MultiSourceBFS.this.compute(this.name, this.from,
+						this.to);
+			}
+			int middle = (this.from + this.to) / 2;
+			BatchTask left = new BatchTask(this.name, this.from, middle,
+					this.leaf);
+			BatchTask right = new BatchTask(this.name, middle, this.to,
+					this.leaf);
+			left.fork();
+			DistributionLong d = right.compute();
+			d.add(left.join());
+			return d;
+		}
+	}
+
+	private DistributionLong compute(String name, int fromBatch, int toBatch) {
+		int size = this.g.getMaxNodeIndex() + 1;
+		long[] seen = new long[size];
+		long[] visit = new long[size];
+		long[] next = new long[size];
+		DistributionLong d = new DistributionLong(name);
+		for (int batch = fromBatch; batch < toBatch; batch++) {
+			this.compute(d, batch, seen, visit, next);
+		}
+		return d;
+	}
+
+	private void compute(DistributionLong d, int batch, long[] seen,
+			long[] visit, long[] next) {
+		Arrays.fill(seen, 0);
+		Arrays.fill(visit, 0);
+
+		int offset = batch * 64;
+		int end = Math.min(offset + 64, this.sources.length);
+		for (int i = offset; i < end; i++) {
+			int source = this.sources[i];
+			seen[source] |= 1L << (i - offset);
+			visit[source] |= 1L << (i - offset);
+		}
+
+		int nodes = this.g.getNodeCount();
+		int level = 0;
+		boolean active = true;
+		while (active) {
+			level++;
+			active = false;
+
+			for (int p = 0; p < nodes; p++) {
+				int v = this.g.getNodeIndex(p);
+				long bits = visit[v];
+				if (bits == 0) {
+					continue;
+				}
+				int outEnd = this.g.outEnd(v);
+				for (int i = this.g.outStart(v); i < outEnd; i++) {
+					next[this.g.outTarget(i)] |= bits;
+				}
+			}
+
+			long count = 0;
+			for (int p = 0; p < nodes; p++) {
+				int v = this.g.getNodeIndex(p);
+				long bits = next[v] & ~seen[v];
+				next[v] = 0;
+				visit[v] = bits;
+				if (bits != 0) {
+					seen[v] |= bits;
+					count += Long.bitCount(bits);
+					active = true;
+				}
+			}
+
+			if (count > 0) {
+				d.incr(level, count);
+			}
+		}
+	}
+
+}
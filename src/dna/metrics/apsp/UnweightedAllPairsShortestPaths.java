@@ -1,14 +1,11 @@
 package dna.metrics.apsp;
 
-import java.util.LinkedList;
+import java.util.Arrays;
 
 import dna.graph.Graph;
-import dna.graph.IElement;
-import dna.graph.edges.DirectedEdge;
-import dna.graph.edges.UndirectedEdge;
-import dna.graph.nodes.DirectedNode;
+import dna.graph.csr.CSRGraph;
+import dna.graph.csr.IGraphTraversal;
 import dna.graph.nodes.Node;
-import dna.graph.nodes.UndirectedNode;
 import dna.updates.batch.Batch;
 import dna.util.parameters.Parameter;
 
@@ -35,42 +32,63 @@ public abstract class UnweightedAllPairsShortestPaths extends
 		return true;
 	}
 
+	/**
+	 * computes the shortest paths from all given sources in parallel using
+	 * the multi-source BFS and adds them to the apsp distribution.
+	 * 
+	 * @param sources
+	 *            indexes of the source nodes
+	 */
+	protected void compute(int[] sources) {
+		this.apsp.add(new MultiSourceBFS(this.g.getCSR(), sources)
+				.compute(this.apsp.getName()));
+	}
+
 	protected void compute(Node n) {
-		boolean[] seen = new boolean[this.g.getMaxNodeIndex() + 1];
-		int[] dist = new int[this.g.getMaxNodeIndex() + 1];
-		LinkedList<Node> queue = new LinkedList<Node>();
-		queue.add(n);
-		seen[n.getIndex()] = true;
-		dist[n.getIndex()] = 0;
+		CSRGraph csr = this.g.getCSR();
+		int[] dist = new int[csr.getMaxNodeIndex() + 1];
+		Arrays.fill(dist, -1);
+		this.compute(csr, n.getIndex(), dist, new int[csr.getNodeCount()]);
+	}
 
-		while (!queue.isEmpty()) {
-			Node current = queue.pop();
+	/**
+	 * BFS from the given source on a traversal of the graph. all reached nodes
+	 * (except the source itself) are added to the apsp distribution.
+	 * 
+	 * @param csr
+	 *            traversal of the current graph
+	 * @param source
+	 *            index of the source node
+	 * @param dist
+	 *            array of size maxNodeIndex + 1, all entries -1; all entries
+	 *            are reset to -1 before returning so the array can be re-used
+	 *            for the next source
+	 * @param queue
+	 *            array of size nodeCount
+	 */
+	protected void compute(IGraphTraversal csr, int source, int[] dist,
+			int[] queue) {
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = source;
+		dist[source] = 0;
 
-			if (current instanceof DirectedNode) {
-				DirectedNode curr = (DirectedNode) current;
-				for (IElement out_ : curr.getOutgoingEdges()) {
-					DirectedNode out = ((DirectedEdge) out_).getDst();
-					if (!seen[out.getIndex()]) {
-						queue.addLast(out);
-						seen[out.getIndex()] = true;
-						dist[out.getIndex()] = dist[curr.getIndex()] + 1;
-						this.apsp.incr(dist[out.getIndex()]);
-					}
-				}
-			} else if (current instanceof UndirectedNode) {
-				UndirectedNode curr = (UndirectedNode) current;
-				for (IElement out_ : curr.getEdges()) {
-					UndirectedNode out = (UndirectedNode) ((UndirectedEdge) out_)
-							.getDifferingNode(curr);
-					if (!seen[out.getIndex()]) {
-						queue.addLast(out);
-						seen[out.getIndex()] = true;
-						dist[out.getIndex()] = dist[curr.getIndex()] + 1;
-						this.apsp.incr(dist[out.getIndex()]);
-					}
+		while (head < tail) {
+			int current = queue[head++];
+			int d = dist[current] + 1;
+			int end = csr.outEnd(current);
+			for (int i = csr.outStart(current); i < end; i++) {
+				int out = csr.outTarget(i);
+				if (dist[out] == -1) {
+					queue[tail++] = out;
+					dist[out] = d;
+					this.apsp.incr(d);
 				}
 			}
+		}
 
+		for (int i = 0; i < tail; i++) {
+			dist[queue[i]] = -1;
 		}
 	}
 
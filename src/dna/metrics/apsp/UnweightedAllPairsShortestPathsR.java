@@ -1,7 +1,6 @@
 package dna.metrics.apsp;
 
-import dna.graph.IElement;
-import dna.graph.nodes.Node;
+import dna.graph.csr.CSRGraph;
 import dna.updates.batch.Batch;
 import dna.updates.update.Update;
 
@@ -34,9 +33,12 @@ public class UnweightedAllPairsShortestPathsR extends
 
 	@Override
 	public boolean compute() {
-		for (IElement n_ : this.g.getNodes()) {
-			this.compute((Node) n_);
+		CSRGraph csr = this.g.getCSR();
+		int[] sources = new int[csr.getNodeCount()];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = csr.getNodeIndex(i);
 		}
+		this.compute(sources);
 		return true;
 	}
 }
@@ -48,8 +48,13 @@ public class UnweightedKSingleSourceShortestPathsRH extends
 				continue;
 			}
 			nodes.add(n);
-			this.compute(n);
 		}
+		int[] sources = new int[nodes.size()];
+		int i = 0;
+		for (Node n : nodes) {
+			sources[i++] = n.getIndex();
+		}
+		this.compute(sources);
 		return true;
 	}
 
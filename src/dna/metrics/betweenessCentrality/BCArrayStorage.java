@@ -0,0 +1,810 @@
+package dna.metrics.betweenessCentrality;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import dna.graph.IElement;
+import dna.graph.nodes.Node;
+
+/**
+ *
+ * stores the shortest path trees in dense primitive arrays indexed by node
+ * index. the parents of all nodes of a tree are stored in a pool of ints per
+ * tree (one region of 2^bits ints per node) so that no object is allocated per
+ * parent. compared to BCHashMapStorage, this requires about 30 bytes per (root,
+ * node) pair instead of several boxed map entries and a HashSet.
+ *
+ * BetweenessCentralityU sums up floating point values in the order in which it
+ * iterates over the parents of a node and over the nodes of a tree. to obtain
+ * results that are bit-identical to BCHashMapStorage, the parents of each node
+ * are kept in the order in which a java.util.HashSet with the same history of
+ * additions and removals iterates over them (Node.hashCode is the node index,
+ * cf. HashMap: buckets by (hash ^ hash >>> 16) & (capacity - 1), insertion
+ * order within a bucket, capacity doubled when the size exceeds 3/4 of it).
+ * before a bucket exceeds 8 parents, which a HashSet handles by resizing its
+ * table or converting the bucket into a tree, the parents of the node are
+ * moved into an actual HashSet of the same capacity and order. the nodes of a
+ * tree are iterated in the order of a HashMap with the same insertions (cf.
+ * Tree.getNodes).
+ *
+ * @author benni
+ *
+ */
+public class BCArrayStorage extends BCStorage {
+
+
+	/**
+	 * node index -> node (the last one added with this index), used to
+	 * iterate over parents and over the nodes of a tree
+	 */
+	private Node[] nodes;
+
+	/**
+	 * root index -> tree
+	 */
+	private Tree[] trees;
+
+	/**
+	 * indices of all nodes added via addNode (in this order)
+	 */
+	private int[] added;
+
+	private int addedCount;
+
+	/**
+	 * nodes of the tree created last (shared by all trees created from the
+	 * same sequence of nodes)
+	 */
+	private int[] lastKeys;
+
+	/**
+	 * parents of all sets obtained from newParentSet since the last call of
+	 * ParentTable.putAll (one slot per set)
+	 */
+	private ParentSets scratch;
+
+	private int scratchCount;
+
+	public BCArrayStorage() {
+		this.nodes = new Node[0];
+		this.trees = new Tree[0];
+		this.added = new int[16];
+		this.addedCount = 0;
+		this.lastKeys = new int[0];
+		this.scratch = new ParentSets(16);
+		this.scratchCount = 0;
+	}
+
+	private void register(Node n) {
+		if (n.getIndex() >= this.nodes.length) {
+			this.nodes = Arrays.copyOf(this.nodes,
+					Math.max(n.getIndex() + 1, this.nodes.length * 2));
+		}
+		this.nodes[n.getIndex()] = n;
+	}
+
+	@Override
+	public void addTree(Node root, Iterable<IElement> nodes) {
+		int size = root.getIndex() + 1;
+		int[] keys = new int[Math.max(this.lastKeys.length, 16)];
+		int count = 0;
+		for (IElement ie : nodes) {
+			Node n = (Node) ie;
+			this.register(n);
+			size = Math.max(size, n.getIndex() + 1);
+			if (count == keys.length) {
+				keys = Arrays.copyOf(keys, 2 * keys.length);
+			}
+			keys[count++] = n.getIndex();
+		}
+		if (count == this.lastKeys.length
+				&& Arrays.equals(this.lastKeys, Arrays.copyOf(keys, count))) {
+			keys = this.lastKeys;
+		} else {
+			keys = Arrays.copyOf(keys, count);
+			this.lastKeys = keys;
+		}
+		this.register(root);
+		if (root.getIndex() >= this.trees.length) {
+			this.trees = Arrays.copyOf(this.trees,
+					Math.max(root.getIndex() + 1, this.trees.length * 2));
+		}
+		Tree t = new Tree(size, keys, this.addedCount);
+		t.distances.values[root.getIndex()] = 0;
+		t.spcs.values[root.getIndex()] = 1;
+		this.trees[root.getIndex()] = t;
+	}
+
+	@Override
+	public void addNode(Node n) {
+		/*
+		 * tables return the default values (MAX_VALUE, 0, 0, no parents) for
+		 * nodes beyond their size so the new node is only registered (and
+		 * recorded as a node of all existing trees). the values of a removed
+		 * node with the same index are reset.
+		 */
+		this.register(n);
+		if (this.addedCount == this.added.length) {
+			this.added = Arrays.copyOf(this.added, 2 * this.added.length);
+		}
+		this.added[this.addedCount++] = n.getIndex();
+		for (Tree t : this.trees) {
+			if (t != null) {
+				t.reset(n.getIndex());
+			}
+		}
+	}
+
+	@Override
+	public void removeTree(Node root) {
+		/*
+		 * the node is kept as a node of all other trees (as the keys of the
+		 * maps of BCHashMapStorage)
+		 */
+		this.trees[root.getIndex()] = null;
+	}
+
+	@Override
+	public IntTable getDistances(Node root) {
+		return this.trees[root.getIndex()].distances;
+	}
+
+	@Override
+	public IntTable getSpcs(Node root) {
+		return this.trees[root.getIndex()].spcs;
+	}
+
+	@Override
+	public void setSpcs(Node root, IntTable spcs) {
+		this.trees[root.getIndex()].spcs = (IntArray) spcs;
+	}
+
+	@Override
+	public DoubleTable getAccSums(Node root) {
+		return this.trees[root.getIndex()].accSums;
+	}
+
+	@Override
+	public ParentTable getParents(Node root) {
+		return this.trees[root.getIndex()].parents;
+	}
+
+	@Override
+	public Set<Node> newParentSet() {
+		int slot = this.scratchCount++;
+		this.scratch.ensure(slot);
+		return new ParentSet(this.scratch, slot);
+	}
+
+	@Override
+	public int getSumShortestPaths() {
+		int sum = 0;
+		for (int r = 0; r < this.trees.length; r++) {
+			if (this.trees[r] == null) {
+				continue;
+			}
+			int[] spcs = this.trees[r].spcs.values;
+			for (int i = 0; i < spcs.length; i++) {
+				if (i != r) {
+					sum += spcs[i];
+				}
+			}
+		}
+		return sum;
+	}
+
+	private class Tree {
+		private IntArray distances;
+		private IntArray spcs;
+		private DoubleArray accSums;
+		private ParentSets parents;
+
+		/**
+		 * indices of the nodes the tree was created with (in this order)
+		 */
+		private int[] keys;
+
+		/**
+		 * position of the first node in 'added' that was added to this tree
+		 */
+		private int addedFrom;
+
+		private Tree(int size, int[] keys, int addedFrom) {
+			this.distances = new IntArray(size, Integer.MAX_VALUE);
+			this.spcs = new IntArray(size, 0);
+			this.accSums = new DoubleArray(size, this);
+			this.parents = new ParentSets(size);
+			this.keys = keys;
+			this.addedFrom = addedFrom;
+		}
+
+		/**
+		 * resets the values of the given node to the default values
+		 */
+		private void reset(int index) {
+			if (index < this.distances.values.length) {
+				this.distances.values[index] = Integer.MAX_VALUE;
+			}
+			if (index < this.spcs.values.length) {
+				this.spcs.values[index] = 0;
+			}
+			if (index < this.accSums.values.length) {
+				this.accSums.values[index] = 0;
+			}
+			this.parents.renew(index);
+		}
+
+		/**
+		 * @return all nodes of the tree (including removed ones) in the order
+		 *         in which the keys of a HashMap with the same insertions are
+		 *         iterated
+		 */
+		private Iterable<Node> getNodes() {
+			HashSet<Integer> order = new HashSet<Integer>();
+			for (int index : this.keys) {
+				order.add(index);
+			}
+			for (int i = this.addedFrom; i < addedCount; i++) {
+				order.add(added[i]);
+			}
+			ArrayList<Node> list = new ArrayList<Node>(order.size());
+			for (int index : order) {
+				list.add(nodes[index]);
+			}
+			return list;
+		}
+	}
+
+	private static class IntArray implements IntTable {
+		private int[] values;
+		private int defaultValue;
+
+		private IntArray(int size, int defaultValue) {
+			this.values = new int[size];
+			this.defaultValue = defaultValue;
+			if (defaultValue != 0) {
+				Arrays.fill(this.values, defaultValue);
+			}
+		}
+
+		private IntArray(int[] values, int defaultValue) {
+			this.values = values;
+			this.defaultValue = defaultValue;
+		}
+
+		@Override
+		public int get(Node n) {
+			int index = n.getIndex();
+			return index < this.values.length ? this.values[index]
+					: this.defaultValue;
+		}
+
+		@Override
+		public void put(Node n, int value) {
+			int index = n.getIndex();
+			if (index >= this.values.length) {
+				int old = this.values.length;
+				this.values = Arrays.copyOf(this.values,
+						Math.max(index + 1, old * 2));
+				if (this.defaultValue != 0) {
+					Arrays.fill(this.values, old, this.values.length,
+							this.defaultValue);
+				}
+			}
+			this.values[index] = value;
+		}
+
+		@Override
+		public IntTable copy() {
+			return new IntArray(Arrays.copyOf(this.values, this.values.length),
+					this.defaultValue);
+		}
+	}
+
+	private static class DoubleArray implements DoubleTable {
+		private double[] values;
+		private Tree tree;
+
+		private DoubleArray(int size, Tree tree) {
+			this.values = new double[size];
+			this.tree = tree;
+		}
+
+		@Override
+		public double get(Node n) {
+			int index = n.getIndex();
+			return index < this.values.length ? this.values[index] : 0;
+		}
+
+		@Override
+		public void put(Node n, double value) {
+			int index = n.getIndex();
+			if (index >= this.values.length) {
+				this.values = Arrays.copyOf(this.values,
+						Math.max(index + 1, this.values.length * 2));
+			}
+			this.values[index] = value;
+		}
+
+		@Override
+		public void putAll(Map<Node, Double> values) {
+			for (Entry<Node, Double> e : values.entrySet()) {
+				this.put(e.getKey(), e.getValue());
+			}
+		}
+
+		@Override
+		public Iterable<Node> getNodes() {
+			return this.tree.getNodes();
+		}
+	}
+
+	/*
+	 * PARENTS
+	 */
+
+	/**
+	 * initial capacity of a HashSet (2^4)
+	 */
+	private static final byte DEFAULT_CAPACITY_BITS = 4;
+
+	/**
+	 * number of elements of a bucket above which a HashSet resizes its table
+	 * or converts the bucket into a tree
+	 */
+	private static final int TREEIFY_THRESHOLD = 8;
+
+	private static int bucket(int index, int capacityBits) {
+		return (index ^ (index >>> 16)) & ((1 << capacityBits) - 1);
+	}
+
+	/**
+	 * parents of all nodes of a single tree. the parents of node n are stored
+	 * in the region of 2^regionBits[n] ints at offsets[n] of the pool (sizes[n]
+	 * of them, in the iteration order of a HashSet with a capacity of
+	 * 2^capacityBits[n]) or, in case a bucket would exceed TREEIFY_THRESHOLD
+	 * parents, in hashSets. regions that are no longer used are kept in a free
+	 * list per size.
+	 */
+	private class ParentSets implements ParentTable {
+		private int[] pool;
+		private int top;
+		private int[][] free;
+		private int[] freeCount;
+
+		private int[] offsets;
+		private int[] sizes;
+		private byte[] regionBits;
+		private byte[] capacityBits;
+
+		/**
+		 * node index -> parents that are not stored in the pool (null if there
+		 * are none)
+		 */
+		private HashMap<Integer, Set<Node>> hashSets;
+
+		private ParentSets(int size) {
+			this.pool = new int[Math.max(size, 4)];
+			this.top = 0;
+			this.free = new int[32][];
+			this.freeCount = new int[32];
+			this.offsets = new int[size];
+			this.sizes = new int[size];
+			this.regionBits = new byte[size];
+			this.capacityBits = new byte[size];
+			Arrays.fill(this.offsets, -1);
+			Arrays.fill(this.capacityBits, DEFAULT_CAPACITY_BITS);
+		}
+
+		private void ensure(int n) {
+			if (n >= this.offsets.length) {
+				int old = this.offsets.length;
+				int size = Math.max(n + 1, old * 2);
+				this.offsets = Arrays.copyOf(this.offsets, size);
+				this.sizes = Arrays.copyOf(this.sizes, size);
+				this.regionBits = Arrays.copyOf(this.regionBits, size);
+				this.capacityBits = Arrays.copyOf(this.capacityBits, size);
+				Arrays.fill(this.offsets, old, size, -1);
+				Arrays.fill(this.capacityBits, old, size,
+						DEFAULT_CAPACITY_BITS);
+			}
+		}
+
+		/*
+		 * POOL
+		 */
+
+		private int allocate(int bits) {
+			if (this.freeCount[bits] > 0) {
+				return this.free[bits][--this.freeCount[bits]];
+			}
+			int offset = this.top;
+			this.top += 1 << bits;
+			if (this.top > this.pool.length) {
+				this.pool = Arrays.copyOf(this.pool,
+						Math.max(this.top, 2 * this.pool.length));
+			}
+			return offset;
+		}
+
+		private void release(int offset, int bits) {
+			if (this.free[bits] == null) {
+				this.free[bits] = new int[4];
+			} else if (this.freeCount[bits] == this.free[bits].length) {
+				this.free[bits] = Arrays.copyOf(this.free[bits],
+						2 * this.free[bits].length);
+			}
+			this.free[bits][this.freeCount[bits]++] = offset;
+		}
+
+		/**
+		 * makes sure that the region of n can hold one more parent
+		 */
+		private void grow(int n) {
+			int size = this.sizes[n];
+			if (this.offsets[n] == -1) {
+				this.offsets[n] = this.allocate(0);
+				this.regionBits[n] = 0;
+			} else if (size == 1 << this.regionBits[n]) {
+				int bits = this.regionBits[n] + 1;
+				int offset = this.allocate(bits);
+				System.arraycopy(this.pool, this.offsets[n], this.pool, offset,
+						size);
+				this.release(this.offsets[n], this.regionBits[n]);
+				this.offsets[n] = offset;
+				this.regionBits[n] = (byte) bits;
+			}
+		}
+
+		/**
+		 * releases all regions and HashSets, i.e., all slots are empty
+		 * afterwards
+		 *
+		 * @param count
+		 *            number of slots that have been used
+		 */
+		private void reset(int count) {
+			this.top = 0;
+			Arrays.fill(this.freeCount, 0);
+			Arrays.fill(this.offsets, 0, count, -1);
+			Arrays.fill(this.sizes, 0, count, 0);
+			Arrays.fill(this.capacityBits, 0, count, DEFAULT_CAPACITY_BITS);
+			this.hashSets = null;
+		}
+
+		/*
+		 * HASHSET ORDER
+		 */
+
+		/**
+		 * @return parents of n that are stored in a HashSet, null if they are
+		 *         stored in the pool
+		 */
+		private Set<Node> getHashSet(int n) {
+			return this.hashSets == null ? null : this.hashSets.get(n);
+		}
+
+		private void setHashSet(int n, Set<Node> set) {
+			if (this.hashSets == null) {
+				this.hashSets = new HashMap<Integer, Set<Node>>();
+			}
+			this.hashSets.put(n, set);
+		}
+
+		/**
+		 * @return position of the first parent of n in bucket b (or of the
+		 *         first parent in a later bucket)
+		 */
+		private int bucketStart(int n, int b) {
+			int offset = this.offsets[n];
+			int bits = this.capacityBits[n];
+			int lo = 0;
+			int hi = this.sizes[n];
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (bucket(this.pool[offset + mid], bits) < b) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+
+		/**
+		 * @return position of the given parent of n, -1 if not contained
+		 */
+		private int indexOf(int n, int parent) {
+			if (n >= this.offsets.length || this.sizes[n] == 0) {
+				return -1;
+			}
+			int offset = this.offsets[n];
+			int bits = this.capacityBits[n];
+			int b = bucket(parent, bits);
+			for (int i = this.bucketStart(n, b); i < this.sizes[n]; i++) {
+				int p = this.pool[offset + i];
+				if (p == parent) {
+					return i;
+				} else if (bucket(p, bits) != b) {
+					break;
+				}
+			}
+			return -1;
+		}
+
+		private boolean contains(int n, int parent) {
+			return this.indexOf(n, parent) >= 0;
+		}
+
+		private boolean add(int n, int index) {
+			this.ensure(n);
+			int bits = this.capacityBits[n];
+			int b = bucket(index, bits);
+			int size = this.sizes[n];
+			int start = size == 0 ? 0 : this.bucketStart(n, b);
+			int end = start;
+			while (end < size) {
+				int p = this.pool[this.offsets[n] + end];
+				if (p == index) {
+					return false;
+				} else if (bucket(p, bits) != b) {
+					break;
+				}
+				end++;
+			}
+
+			if (end - start >= TREEIFY_THRESHOLD) {
+				return this.toHashSet(n).add(nodes[index]);
+			}
+
+			// append to the bucket
+			this.grow(n);
+			int offset = this.offsets[n];
+			System.arraycopy(this.pool, offset + end, this.pool,
+					offset + end + 1, size - end);
+			this.pool[offset + end] = index;
+			this.sizes[n] = ++size;
+
+			if (size > 3 << (bits - 2)) {
+				this.resize(n);
+			}
+			return true;
+		}
+
+		/**
+		 * doubles the capacity of the HashSet of n. each bucket j is split into
+		 * j and j + oldCapacity, keeping the order of its elements.
+		 */
+		private void resize(int n) {
+			int oldBit = 1 << this.capacityBits[n];
+			int offset = this.offsets[n];
+			int size = this.sizes[n];
+			int[] hi = new int[size];
+			int loCount = 0;
+			int hiCount = 0;
+			for (int i = 0; i < size; i++) {
+				int p = this.pool[offset + i];
+				if (((p ^ (p >>> 16)) & oldBit) == 0) {
+					this.pool[offset + loCount++] = p;
+				} else {
+					hi[hiCount++] = p;
+				}
+			}
+			System.arraycopy(hi, 0, this.pool, offset + loCount, hiCount);
+			this.capacityBits[n]++;
+		}
+
+		/**
+		 * moves the parents of n into a HashSet with the same capacity. since
+		 * no bucket holds more than TREEIFY_THRESHOLD parents, adding them in
+		 * their current order results in the same table.
+		 */
+		private Set<Node> toHashSet(int n) {
+			HashSet<Node> set = new HashSet<Node>(1 << this.capacityBits[n]);
+			int offset = this.offsets[n];
+			for (int i = 0; i < this.sizes[n]; i++) {
+				set.add(nodes[this.pool[offset + i]]);
+			}
+			this.clearRegion(n);
+			this.setHashSet(n, set);
+			return set;
+		}
+
+		private void clearRegion(int n) {
+			if (this.offsets[n] != -1) {
+				this.release(this.offsets[n], this.regionBits[n]);
+				this.offsets[n] = -1;
+			}
+			this.sizes[n] = 0;
+		}
+
+		private boolean remove(int n, int parent) {
+			int i = this.indexOf(n, parent);
+			if (i < 0) {
+				return false;
+			}
+			int offset = this.offsets[n];
+			System.arraycopy(this.pool, offset + i + 1, this.pool, offset + i,
+					this.sizes[n] - i - 1);
+			this.sizes[n]--;
+			return true;
+		}
+
+		/**
+		 * removes all parents of n (the capacity of a HashSet is kept)
+		 */
+		private void clear(int n) {
+			if (n < this.offsets.length) {
+				this.clearRegion(n);
+			}
+		}
+
+		/**
+		 * removes all parents of n and resets the capacity (as a new HashSet)
+		 */
+		private void renew(int n) {
+			if (n < this.offsets.length) {
+				this.clearRegion(n);
+				this.capacityBits[n] = DEFAULT_CAPACITY_BITS;
+			}
+			if (this.hashSets != null) {
+				this.hashSets.remove(n);
+			}
+		}
+
+		private int size(int n) {
+			return n < this.sizes.length ? this.sizes[n] : 0;
+		}
+
+		/**
+		 * replaces the parents of n by the parents of m in the given sets (a
+		 * HashSet is shared, as the sets stored by BCHashMapStorage)
+		 */
+		private void adopt(int n, ParentSets sets, int m) {
+			this.renew(n);
+			Set<Node> set = sets.getHashSet(m);
+			if (set != null) {
+				this.setHashSet(n, set);
+				return;
+			}
+			this.ensure(n);
+			if (m < sets.sizes.length && sets.sizes[m] > 0) {
+				int size = sets.sizes[m];
+				int bits = 32 - Integer.numberOfLeadingZeros(size - 1);
+				this.offsets[n] = this.allocate(bits);
+				this.regionBits[n] = (byte) bits;
+				System.arraycopy(sets.pool, sets.offsets[m], this.pool,
+						this.offsets[n], size);
+				this.sizes[n] = size;
+			}
+			this.capacityBits[n] = m < sets.capacityBits.length ? sets.capacityBits[m]
+					: DEFAULT_CAPACITY_BITS;
+		}
+
+		@Override
+		public Set<Node> get(Node n) {
+			return new ParentSet(this, n.getIndex());
+		}
+
+		/**
+		 * the parents of each node are replaced by the given set. sets
+		 * obtained from newParentSet can not be used afterwards, other sets
+		 * are stored as they are.
+		 */
+		@Override
+		public void putAll(Map<Node, Set<Node>> parents) {
+			for (Entry<Node, Set<Node>> e : parents.entrySet()) {
+				int n = e.getKey().getIndex();
+				Set<Node> set = e.getValue();
+				if (set instanceof ParentSet) {
+					ParentSet ps = (ParentSet) set;
+					if (ps.sets != this || ps.n != n) {
+						this.adopt(n, ps.sets, ps.n);
+					}
+					continue;
+				}
+				this.renew(n);
+				this.setHashSet(n, set);
+			}
+			scratch.reset(scratchCount);
+			scratchCount = 0;
+		}
+	}
+
+	/**
+	 * view on the parents of a single node.
+	 */
+	private class ParentSet extends AbstractSet<Node> {
+		private ParentSets sets;
+		private int n;
+
+		private ParentSet(ParentSets sets, int n) {
+			this.sets = sets;
+			this.n = n;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			Set<Node> set = this.sets.getHashSet(this.n);
+			if (set != null) {
+				return set.contains(o);
+			}
+			return o instanceof Node
+					&& this.sets.contains(this.n, ((Node) o).getIndex());
+		}
+
+		@Override
+		public boolean add(Node parent) {
+			Set<Node> set = this.sets.getHashSet(this.n);
+			if (set != null) {
+				return set.add(parent);
+			}
+			return this.sets.add(this.n, parent.getIndex());
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			Set<Node> set = this.sets.getHashSet(this.n);
+			if (set != null) {
+				return set.remove(o);
+			}
+			return o instanceof Node
+					&& this.sets.remove(this.n, ((Node) o).getIndex());
+		}
+
+		@Override
+		public void clear() {
+			Set<Node> set = this.sets.getHashSet(this.n);
+			if (set != null) {
+				set.clear();
+			} else {
+				this.sets.clear(this.n);
+			}
+		}
+
+		@Override
+		public int size() {
+			Set<Node> set = this.sets.getHashSet(this.n);
+			return set != null ? set.size() : this.sets.size(this.n);
+		}
+
+		@Override
+		public Iterator<Node> iterator() {
+			Set<Node> set = this.sets.getHashSet(this.n);
+			if (set != null) {
+				return set.iterator();
+			}
+			return new Iterator<Node>() {
+				private int i = 0;
+				private int size = sets.size(n);
+
+				@Override
+				public boolean hasNext() {
+					return this.i < this.size;
+				}
+
+				@Override
+				public Node next() {
+					if (this.i >= this.size) {
+						throw new NoSuchElementException();
+					}
+					return nodes[sets.pool[sets.offsets[n] + this.i++]];
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+package dna.metrics.betweenessCentrality;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import dna.graph.IElement;
+import dna.graph.nodes.Node;
+
+/**
+ *
+ * stores the shortest path trees in nested HashMaps, i.e., one map from node to
+ * (boxed) value per root and value type.
+ *
+ * @author benni
+ *
+ */
+public class BCHashMapStorage extends BCStorage {
+
+	private HashMap<Node, ParentMap> parents;
+	private HashMap<Node, IntMap> distances;
+	private HashMap<Node, IntMap> spcs;
+	private HashMap<Node, DoubleMap> accSums;
+
+	public BCHashMapStorage() {
+		this.parents = new HashMap<Node, ParentMap>();
+		this.distances = new HashMap<Node, IntMap>();
+		this.spcs = new HashMap<Node, IntMap>();
+		this.accSums = new HashMap<Node, DoubleMap>();
+	}
+
+	@Override
+	public void addTree(Node root, Iterable<IElement> nodes) {
+		HashMap<Node, Set<Node>> p = new HashMap<Node, Set<Node>>();
+		HashMap<Node, Integer> d = new HashMap<Node, Integer>();
+		HashMap<Node, Integer> spc = new HashMap<Node, Integer>();
+		HashMap<Node, Double> sums = new HashMap<Node, Double>();
+
+		for (IElement ieE : nodes) {
+			Node t = (Node) ieE;
+			if (t == root) {
+				d.put(t, 0);
+				spc.put(t, 1);
+			} else {
+				spc.put(t, 0);
+				d.put(t, Integer.MAX_VALUE);
+			}
+			sums.put(t, 0d);
+			p.put(t, new HashSet<Node>());
+		}
+
+		this.parents.put(root, new ParentMap(p));
+		this.distances.put(root, new IntMap(d));
+		this.spcs.put(root, new IntMap(spc));
+		this.accSums.put(root, new DoubleMap(sums));
+	}
+
+	@Override
+	public void addNode(Node n) {
+		for (Entry<Node, IntMap> e : this.spcs.entrySet()) {
+			Node t = e.getKey();
+			e.getValue().map.put(n, 0);
+			this.distances.get(t).map.put(n, Integer.MAX_VALUE);
+			this.accSums.get(t).map.put(n, 0d);
+			this.parents.get(t).map.put(n, new HashSet<Node>());
+		}
+	}
+
+	@Override
+	public void removeTree(Node root) {
+		this.spcs.remove(root);
+		this.distances.remove(root);
+		this.accSums.remove(root);
+		this.parents.remove(root);
+	}
+
+	@Override
+	public IntTable getDistances(Node root) {
+		return this.distances.get(root);
+	}
+
+	@Override
+	public IntTable getSpcs(Node root) {
+		return this.spcs.get(root);
+	}
+
+	@Override
+	public void setSpcs(Node root, IntTable spcs) {
+		this.spcs.put(root, (IntMap) spcs);
+	}
+
+	@Override
+	public DoubleTable getAccSums(Node root) {
+		return this.accSums.get(root);
+	}
+
+	@Override
+	public ParentTable getParents(Node root) {
+		return this.parents.get(root);
+	}
+
+	@Override
+	public Set<Node> newParentSet() {
+		return new HashSet<Node>();
+	}
+
+	@Override
+	public int getSumShortestPaths() {
+		int sum = 0;
+		for (Entry<Node, IntMap> e : this.spcs.entrySet()) {
+			for (Entry<Node, Integer> e2 : e.getValue().map.entrySet()) {
+				if (!e2.getKey().equals(e.getKey())) {
+					sum += e2.getValue();
+				}
+			}
+		}
+		return sum;
+	}
+
+	private static class IntMap implements IntTable {
+		private HashMap<Node, Integer> map;
+
+		private IntMap(HashMap<Node, Integer> map) {
+			this.map = map;
+		}
+
+		@Override
+		public int get(Node n) {
+			return this.map.get(n);
+		}
+
+		@Override
+		public void put(Node n, int value) {
+			this.map.put(n, value);
+		}
+
+		@Override
+		public IntTable copy() {
+			return new IntMap(new HashMap<Node, Integer>(this.map));
+		}
+	}
+
+	private static class DoubleMap implements DoubleTable {
+		private HashMap<Node, Double> map;
+
+		private DoubleMap(HashMap<Node, Double> map) {
+			this.map = map;
+		}
+
+		@Override
+		public double get(Node n) {
+			return this.map.get(n);
+		}
+
+		@Override
+		public void put(Node n, double value) {
+			this.map.put(n, value);
+		}
+
+		@Override
+		public void putAll(Map<Node, Double> values) {
+			this.map.putAll(values);
+		}
+
+		@Override
+		public Iterable<Node> getNodes() {
+			return this.map.keySet();
+		}
+	}
+
+	private static class ParentMap implements ParentTable {
+		private HashMap<Node, Set<Node>> map;
+
+		private ParentMap(HashMap<Node, Set<Node>> map) {
+			this.map = map;
+		}
+
+		@Override
+		public Set<Node> get(Node n) {
+			return this.map.get(n);
+		}
+
+		@Override
+		public void putAll(Map<Node, Set<Node>> parents) {
+			this.map.putAll(parents);
+		}
+	}
+
+}
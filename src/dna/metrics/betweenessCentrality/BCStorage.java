@@ -0,0 +1,119 @@
+package dna.metrics.betweenessCentrality;
+
+import java.util.Map;
+import java.util.Set;
+
+import dna.graph.IElement;
+import dna.graph.nodes.Node;
+
+/**
+ *
+ * storage of the shortest path trees maintained by BetweenessCentralityU. for
+ * each root node, the distance, the number of shortest paths (spc), the
+ * accumulated sum and the set of parents of all nodes are stored.
+ *
+ * @author benni
+ *
+ */
+public abstract class BCStorage {
+
+	public static enum BCStorageType {
+		/**
+		 * nested HashMaps of boxed values (one map per root)
+		 */
+		HashMaps,
+		/**
+		 * dense arrays indexed by node index and primitive parent lists
+		 */
+		PrimitiveArrays
+	}
+
+	public static BCStorage newInstance(BCStorageType type) {
+		switch (type) {
+		case HashMaps:
+			return new BCHashMapStorage();
+		case PrimitiveArrays:
+			return new BCArrayStorage();
+		default:
+			throw new IllegalArgumentException("unknown storage type " + type);
+		}
+	}
+
+	/**
+	 * node -> int value of a single shortest path tree
+	 */
+	public static interface IntTable {
+		public int get(Node n);
+
+		public void put(Node n, int value);
+
+		public IntTable copy();
+	}
+
+	/**
+	 * node -> double value of a single shortest path tree
+	 */
+	public static interface DoubleTable {
+		public double get(Node n);
+
+		public void put(Node n, double value);
+
+		public void putAll(Map<Node, Double> values);
+
+		public Iterable<Node> getNodes();
+	}
+
+	/**
+	 * node -> parents of a single shortest path tree
+	 */
+	public static interface ParentTable {
+		public Set<Node> get(Node n);
+
+		public void putAll(Map<Node, Set<Node>> parents);
+	}
+
+	/**
+	 * creates the tree for the given root containing all given nodes with
+	 * distance Integer.MAX_VALUE, spc 0, sum 0 and no parents (except the root
+	 * itself with distance 0 and spc 1).
+	 *
+	 * @param root
+	 *            root of the new tree
+	 * @param nodes
+	 *            all nodes of the graph
+	 */
+	public abstract void addTree(Node root, Iterable<IElement> nodes);
+
+	/**
+	 * adds the given (new) node to the trees of all other roots.
+	 *
+	 * @param n
+	 *            new node
+	 */
+	public abstract void addNode(Node n);
+
+	public abstract void removeTree(Node root);
+
+	public abstract IntTable getDistances(Node root);
+
+	public abstract IntTable getSpcs(Node root);
+
+	public abstract void setSpcs(Node root, IntTable spcs);
+
+	public abstract DoubleTable getAccSums(Node root);
+
+	public abstract ParentTable getParents(Node root);
+
+	/**
+	 * @return new (empty) set of parents, to be stored in a ParentTable via
+	 *         putAll (the set must not be used after the next call of putAll
+	 *         of any ParentTable of this storage)
+	 */
+	public abstract Set<Node> newParentSet();
+
+	/**
+	 * @return sum of the spcs of all trees excluding the root itself
+	 */
+	public abstract int getSumShortestPaths();
+
+}
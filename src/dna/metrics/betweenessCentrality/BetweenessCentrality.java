@@ -16,6 +16,7 @@ import dna.series.data.NodeNodeValueList;
 import dna.series.data.NodeValueList;
 import dna.series.data.Value;
 import dna.updates.batch.Batch;
+import dna.util.parameters.Parameter;
 
 public abstract class BetweenessCentrality extends Metric {
 
@@ -27,8 +28,14 @@ public abstract class BetweenessCentrality extends Metric {
 	protected BinnedDistributionDouble binnedBC;
 	protected int sumShortestPaths;
 
-	public BetweenessCentrality(String name, ApplicationType type) {
-		super(name, type, MetricType.exact);
+	public BetweenessCentrality(String name, ApplicationType type,
+			Parameter... p) {
+		this(name, type, MetricType.exact, p);
+	}
+
+	public BetweenessCentrality(String name, ApplicationType type,
+			MetricType metricType, Parameter... p) {
+		super(name, type, metricType, p);
 	}
 
 	@Override
@@ -0,0 +1,79 @@
+package dna.metrics.betweenessCentrality;
+
+import java.util.HashSet;
+
+import dna.graph.csr.CSRGraph;
+import dna.graph.nodes.Node;
+import dna.series.data.Value;
+import dna.util.parameters.IntParameter;
+
+/**
+ *
+ * approximation of the betweenness centrality by sampling k sources uniformly
+ * at random (without replacement) and extrapolating their dependencies by n /
+ * k. the estimate of each node's score is unbiased.
+ *
+ * since the dependency of a node on a single source is in [0, n - 2], the
+ * deviation of a node's estimate from its exact score is below
+ *
+ * n * (n - 2) * sqrt( ln(2 / DELTA) / (2 * k) )
+ *
+ * with probability at least 1 - DELTA (Hoeffding's inequality). this bound is
+ * provided as the value "bc_error_bound".
+ *
+ * @author benni
+ *
+ */
+public class BetweenessCentralityRH extends BetweenessCentralityR {
+
+	public static final double DELTA = 0.05;
+
+	protected int k;
+
+	protected double errorBound;
+
+	public BetweenessCentralityRH(int k) {
+		super("BetweenessCentralityRH", MetricType.heuristic,
+				new IntParameter("k", k));
+		this.k = k;
+	}
+
+	@Override
+	public void init_() {
+		super.init_();
+		this.errorBound = 0;
+	}
+
+	@Override
+	public boolean compute() {
+		CSRGraph csr = this.g.getCSR();
+		HashSet<Node> nodes = new HashSet<Node>();
+		while (nodes.size() < this.k && nodes.size() < g.getNodeCount()) {
+			nodes.add(this.g.getRandomNode());
+		}
+		int[] sources = new int[nodes.size()];
+		int i = 0;
+		for (Node n : nodes) {
+			sources[i++] = n.getIndex();
+		}
+		if (sources.length == 0) {
+			return true;
+		}
+
+		double n = csr.getNodeCount();
+		this.compute(csr, sources, n / sources.length);
+		this.errorBound = sources.length == n ? 0 : n * Math.max(n - 2, 0)
+				* Math.sqrt(Math.log(2 / DELTA) / (2 * sources.length));
+		return true;
+	}
+
+	@Override
+	public Value[] getValues() {
+		Value[] v = super.getValues();
+		Value[] values = new Value[v.length + 1];
+		System.arraycopy(v, 0, values, 0, v.length);
+		values[v.length] = new Value("bc_error_bound", this.errorBound);
+		return values;
+	}
+
+}
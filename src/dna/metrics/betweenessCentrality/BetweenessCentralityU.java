@@ -4,8 +4,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
-import java.util.Map.Entry;
 import java.util.Queue;
+import java.util.Set;
 import java.util.Stack;
 
 import dna.graph.IElement;
@@ -16,12 +16,17 @@ import dna.graph.nodes.DirectedNode;
 import dna.graph.nodes.Node;
 import dna.graph.nodes.UndirectedNode;
 import dna.metrics.Metric;
+import dna.metrics.betweenessCentrality.BCStorage.BCStorageType;
+import dna.metrics.betweenessCentrality.BCStorage.DoubleTable;
+import dna.metrics.betweenessCentrality.BCStorage.IntTable;
+import dna.metrics.betweenessCentrality.BCStorage.ParentTable;
 import dna.updates.batch.Batch;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.EdgeRemoval;
 import dna.updates.update.NodeAddition;
 import dna.updates.update.NodeRemoval;
 import dna.updates.update.Update;
+import dna.util.parameters.StringParameter;
 
 public class BetweenessCentralityU extends BetweenessCentrality {
 
@@ -30,23 +35,36 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 	HashMap<Node, Long> visited;
 	long counter;
 
-	protected HashMap<Node, HashMap<Node, HashSet<Node>>> parents;
-	protected HashMap<Node, HashMap<Node, Integer>> distances;
-	protected HashMap<Node, HashMap<Node, Integer>> spcs;
-	protected HashMap<Node, HashMap<Node, Double>> accSums;
+	protected BCStorageType storageType;
+
+	/**
+	 * parents, distances, spcs and accumulated sums of all shortest path trees
+	 */
+	protected BCStorage storage;
 
 	public BetweenessCentralityU() {
 		super("BetweenessCentralityU", ApplicationType.AfterUpdate);
+		this.storageType = BCStorageType.HashMaps;
+	}
+
+	/**
+	 * 
+	 * @param storageType
+	 *            storage used for the shortest path trees, PrimitiveArrays
+	 *            requires about an order of magnitude less memory than
+	 *            HashMaps, its results are identical to the ones of HashMaps
+	 */
+	public BetweenessCentralityU(BCStorageType storageType) {
+		super("BetweenessCentralityU", ApplicationType.AfterUpdate,
+				new StringParameter("storage", storageType.toString()));
+		this.storageType = storageType;
 	}
 
 	@Override
 	public void init_() {
 		super.init_();
 		// this.bC = new HashMap<Node, Double>();
-		this.parents = new HashMap<>();
-		this.distances = new HashMap<>();
-		this.spcs = new HashMap<>();
-		this.accSums = new HashMap<>();
+		this.storage = BCStorage.newInstance(this.storageType);
 
 		int length = 1000;
 		qALevel = new LinkedList[length];
@@ -90,10 +108,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			applied = applyAfterEdgeRemoval(u);
 		}
 
-		sumShortestPaths = 0; // reinit necessary!
-		for (Entry<Node, HashMap<Node, Integer>> e : spcs.entrySet()) {
-			sumShortestPaths += sumSPFromHM(e.getValue(), e.getKey());
-		}
+		sumShortestPaths = storage.getSumShortestPaths(); // reinit necessary!
 
 		return applied;
 	}
@@ -108,12 +123,12 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			for (IElement iE : g.getNodes()) {
 				DirectedNode root = (DirectedNode) iE;
 
-				HashMap<Node, Integer> d = distances.get(root);
-				HashMap<Node, HashSet<Node>> p = parents.get(root);
+				IntTable d = storage.getDistances(root);
+				ParentTable p = storage.getParents(root);
 
 				if (!p.get(dst).contains(src)
-						|| d.get(src).equals(Integer.MAX_VALUE)
-						|| d.get(dst).equals(Integer.MAX_VALUE)) {
+						|| d.get(src) == Integer.MAX_VALUE
+						|| d.get(dst) == Integer.MAX_VALUE) {
 					continue;
 				}
 
@@ -135,8 +150,8 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			for (IElement iE : g.getNodes()) {
 				UndirectedNode root = (UndirectedNode) iE;
 
-				HashMap<Node, Integer> d = distances.get(root);
-				HashMap<Node, HashSet<Node>> p = parents.get(root);
+				IntTable d = storage.getDistances(root);
+				ParentTable p = storage.getParents(root);
 
 				// Find the above Tree Element
 				if (d.get(n1) > d.get(n2)) {
@@ -145,8 +160,8 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 				}
 
 				if (!p.get(n2).contains(n1)
-						|| d.get(n1).equals(Integer.MAX_VALUE)
-						|| d.get(n2).equals(Integer.MAX_VALUE)) {
+						|| d.get(n1) == Integer.MAX_VALUE
+						|| d.get(n2) == Integer.MAX_VALUE) {
 					continue;
 				}
 
@@ -170,24 +185,24 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 
 		counter++;
 
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		IntTable d = storage.getDistances(root);
+		ParentTable p = storage.getParents(root);
+		DoubleTable oldSums = storage.getAccSums(root);
+		IntTable oldSpc = storage.getSpcs(root);
 
 		// Queues and data structure for tree change
 		HashSet<Node> uncertain = new HashSet<Node>();
 
 		// data structure for Updates
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		IntTable newSpc = oldSpc.copy();
 		HashMap<Node, Double> newASums = new HashMap<Node, Double>();
-		HashMap<Node, HashSet<Node>> newParents = new HashMap<Node, HashSet<Node>>();
+		HashMap<Node, Set<Node>> newParents = new HashMap<Node, Set<Node>>();
 
 		// set data structure for dst Node
 		qLevel[d.get(dst)].add(dst);
 		uncertain.add(dst);
 		newASums.put(dst, 0d);
-		newParents.put(dst, new HashSet<Node>());
+		newParents.put(dst, storage.newParentSet());
 		visited.put(dst, counter);
 		int max = d.get(dst);
 		if (DirectedNode.class.isAssignableFrom(this.g.getGraphDatastructures()
@@ -210,7 +225,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 							dist = d.get(z);
 							continue;
 						}
-						if (d.get(z).equals(dist)) {
+						if (d.get(z) == dist) {
 							min.add(z);
 							continue;
 						}
@@ -219,11 +234,11 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 					for (IElement iEdges : w.getOutgoingEdges()) {
 						DirectedEdge ed = (DirectedEdge) iEdges;
 						Node z = ed.getDifferingNode(w);
-						if (d.get(z).equals(d.get(w) + 1)
+						if (d.get(z) == d.get(w) + 1
 								&& Math.abs(visited.get(z)) < counter) {
 							qLevel[i + 1].add(z);
 							newASums.put(z, 0d);
-							newParents.put(z, new HashSet<Node>());
+							newParents.put(z, storage.newParentSet());
 							max = Math.max(max, i + 1);
 							uncertain.add(z);
 							visited.put(z, counter);
@@ -248,13 +263,13 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 					for (Node mNode : min) {
 
 						if ((!uncertain.contains(mNode))
-								&& d.get(mNode).intValue() + 1 == i) {
+								&& d.get(mNode) + 1 == i) {
 							uncertain.remove(w);
 							newSpc.put(w, newSpc.get(w) + newSpc.get(mNode));
 							found = true;
 							newParents.get(w).add(mNode);
 						}
-						d.put(w, d.get(mNode).intValue() + 1);
+						d.put(w, d.get(mNode) + 1);
 
 					}
 					// else connect to another node
@@ -280,11 +295,11 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 						UndirectedEdge ed = (UndirectedEdge) iEdges;
 						Node z = ed.getDifferingNode(w);
 
-						if (d.get(z).equals(d.get(w) + 1)
+						if (d.get(z) == d.get(w) + 1
 								&& Math.abs(visited.get(z)) < counter) {
 							qLevel[i + 1].add(z);
 							newASums.put(z, 0d);
-							newParents.put(z, new HashSet<Node>());
+							newParents.put(z, storage.newParentSet());
 							uncertain.add(z);
 							visited.put(z, counter);
 							max = Math.max(max, i + 1);
@@ -295,7 +310,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 							dist = d.get(z);
 							continue;
 						}
-						if (d.get(z).equals(dist)) {
+						if (d.get(z) == dist) {
 							min.add(z);
 							continue;
 						}
@@ -318,13 +333,13 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 					newParents.get(w).clear();
 					for (Node mNode : min) {
 						if ((!uncertain.contains(mNode))
-								&& d.get(mNode).intValue() + 1 == i) {
+								&& d.get(mNode) + 1 == i) {
 							uncertain.remove(w);
 							newSpc.put(w, newSpc.get(w) + newSpc.get(mNode));
 							found = true;
 							newParents.get(w).add(mNode);
 						}
-						d.put(w, d.get(mNode).intValue() + 1);
+						d.put(w, d.get(mNode) + 1);
 
 					}
 					// else connect to another node
@@ -360,7 +375,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 				}
 
 				for (Node v : newParents.get(w)) {
-					if (d.get(v).equals(d.get(w) - 1)) {
+					if (d.get(v) == d.get(w) - 1) {
 						if (Math.abs(visited.get(v)) < counter) {
 							qALevel[i - 1].add(v);
 							visited.put(v, -counter);
@@ -394,7 +409,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			}
 		}
 
-		spcs.put(root, newSpc);
+		storage.setSpcs(root, newSpc);
 		oldSums.putAll(newASums);
 		p.putAll(newParents);
 
@@ -404,17 +419,17 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 	private boolean removeEdgeManyToMany(Node root, Node src, Node dst) {
 		counter++;
 
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		IntTable d = storage.getDistances(root);
+		ParentTable p = storage.getParents(root);
+		DoubleTable oldSums = storage.getAccSums(root);
+		IntTable oldSpc = storage.getSpcs(root);
 
 		// Queue for BFS Search
 		Queue<Node> qBFS = new LinkedList<Node>();
 
 		// data structure for Updates
 		HashMap<Node, Integer> dP = new HashMap<Node, Integer>();
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		IntTable newSpc = oldSpc.copy();
 		HashMap<Node, Double> newASums = new HashMap<Node, Double>();
 
 		// setup changes for dst node
@@ -436,7 +451,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 					DirectedEdge edge = (DirectedEdge) iEdge;
 					Node w = edge.getDifferingNode(v);
 
-					if (d.get(w).equals(d.get(v) + 1)) {
+					if (d.get(w) == d.get(v) + 1) {
 						if (Math.abs(visited.get(w)) < counter) {
 							qBFS.add(w);
 							newASums.put(w, 0d);
@@ -461,7 +476,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 					UndirectedEdge edge = (UndirectedEdge) iEdge;
 					Node w = edge.getDifferingNode(v);
 
-					if (d.get(w).equals(d.get(v) + 1)) {
+					if (d.get(w) == d.get(v) + 1) {
 						if (Math.abs(visited.get(w)) < counter) {
 							qBFS.add(w);
 							newASums.put(w, 0d);
@@ -516,7 +531,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 		}
 
 		p.get(dst).remove(src);
-		spcs.put(root, newSpc);
+		storage.setSpcs(root, newSpc);
 		oldSums.putAll(newASums);
 		return true;
 
@@ -532,22 +547,22 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 
 			for (IElement iE : g.getNodes()) {
 				DirectedNode root = (DirectedNode) iE;
-				HashMap<Node, Integer> d = this.distances.get(root);
+				IntTable d = storage.getDistances(root);
 
-				if (d.get(src).equals(Integer.MAX_VALUE)
-						|| d.get(src).equals(d.get(dst))
-						|| d.get(src).intValue() > d.get(dst).intValue()) {
+				if (d.get(src) == Integer.MAX_VALUE
+						|| d.get(src) == d.get(dst)
+						|| d.get(src) > d.get(dst)) {
 					// no change to shortes path tree
 					continue;
 				}
-				if (d.get(dst).equals(Integer.MAX_VALUE)) {
+				if (d.get(dst) == Integer.MAX_VALUE) {
 					// to components merge therefore new Nodes add to shortest
 					// path
 					// tree
 					nonAdjacentLevelInsertion(root, src, dst);
 					continue;
 				}
-				if (d.get(src).intValue() + 1 == d.get(dst).intValue()) {
+				if (d.get(src) + 1 == d.get(dst)) {
 					// the added edge connects nodes in adjacent Levels
 					// therefore
 					// only the new tree edge is added
@@ -555,7 +570,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 					adjacentLevelInsertion(root, src, dst);
 					continue;
 				}
-				if (d.get(src).intValue() + 1 < d.get(dst).intValue()) {
+				if (d.get(src) + 1 < d.get(dst)) {
 					// the added edge connects nodes in non adjacent Levels
 					// therefore all nodes in the subtree need to be checked if
 					// they
@@ -576,34 +591,33 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			for (IElement iE : g.getNodes()) {
 				UndirectedNode root = (UndirectedNode) iE;
 
-				HashMap<Node, Integer> d = distances.get(root);
+				IntTable d = storage.getDistances(root);
 
 				if (d.get(n1) > d.get(n2)) {
 					n2 = n1;
 					n1 = e.getDifferingNode(n2);
 				}
 
-				if ((d.get(n1).equals(Integer.MAX_VALUE) && d.get(n2).equals(
-						Integer.MAX_VALUE))
-						|| d.get(n1).equals(d.get(n2))) {
+				if ((d.get(n1) == Integer.MAX_VALUE && d.get(n2) == Integer.MAX_VALUE)
+						|| d.get(n1) == d.get(n2)) {
 					// no change to shortes path tree
 					continue;
 				}
-				if (d.get(n2).equals(Integer.MAX_VALUE)) {
+				if (d.get(n2) == Integer.MAX_VALUE) {
 					// to components merge therefore new Nodes add to shortest
 					// path
 					// tree
 					mergeOfComponentsInsertion(root, n1, n2);
 					continue;
 				}
-				if (d.get(n1).intValue() + 1 == d.get(n2).intValue()) {
+				if (d.get(n1) + 1 == d.get(n2)) {
 					// the added edge connects nodes in adjacent Levels
 					// therefore
 					// only the new tree edge is added
 					adjacentLevelInsertion(root, n1, n2);
 					continue;
 				}
-				if (d.get(n1).intValue() + 1 < d.get(n2).intValue()) {
+				if (d.get(n1) + 1 < d.get(n2)) {
 					// the added edge connects nodes in non adjacent Levels
 					// therefore all nodes in the subtree need to be checked if
 					// they
@@ -625,18 +639,18 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			DirectedNode dst) {
 		counter++;
 
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		IntTable d = storage.getDistances(root);
+		ParentTable p = storage.getParents(root);
+		DoubleTable oldSums = storage.getAccSums(root);
+		IntTable oldSpc = storage.getSpcs(root);
 
 		// Data Structure for BFS Search
 		Queue<Node> qBFS = new LinkedList<Node>();
 
 		// data structure for Updates
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		IntTable newSpc = oldSpc.copy();
 		HashMap<Node, Double> newASums = new HashMap<Node, Double>();
-		HashMap<Node, HashSet<Node>> newParents = new HashMap<Node, HashSet<Node>>();
+		HashMap<Node, Set<Node>> newParents = new HashMap<Node, Set<Node>>();
 
 		// set Up data Structure for the lower node
 
@@ -646,7 +660,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 		d.put(dst, d.get(src) + 1);
 		qALevel[d.get(dst)].add(dst);
 		newASums.put(dst, 0d);
-		newParents.put(dst, new HashSet<Node>());
+		newParents.put(dst, storage.newParentSet());
 
 		int maxHeight = d.get(dst);
 		HashSet<DirectedNode> bal = new HashSet<>();
@@ -662,12 +676,12 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 				DirectedNode n = ed.getDst();
 
 				// Lower Node moves up
-				if (d.get(n).intValue() > d.get(v).intValue() + 1) {
-					d.put(n, d.get(v).intValue() + 1);
+				if (d.get(n) > d.get(v) + 1) {
+					d.put(n, d.get(v) + 1);
 					qBFS.add(n);
 					qALevel[d.get(n)].add(n);
 					newASums.put(n, 0d);
-					newParents.put(n, new HashSet<Node>());
+					newParents.put(n, storage.newParentSet());
 					bal.remove(n);
 					visited.put(n, counter);
 					maxHeight = Math.max(maxHeight, d.get(n));
@@ -675,11 +689,11 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 				}
 
 				// lower Node get a new Parent
-				if (d.get(n).intValue() == d.get(v).intValue() + 1) {
+				if (d.get(n) == d.get(v) + 1) {
 					if (!visited.get(n).equals(counter)) {
 						visited.put(n, counter);
 						qALevel[d.get(n)].add(n);
-						newParents.put(n, new HashSet<Node>());
+						newParents.put(n, storage.newParentSet());
 						qBFS.add(n);
 						newASums.put(n, 0d);
 						bal.remove(n);
@@ -695,15 +709,14 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 
 				boolean b1 = p.get(v).contains(n);
 				boolean b2 = Math.abs(visited.get(n)) < counter;
-				boolean b3 = d.get(n).intValue() >= d.get(v).intValue();
+				boolean b3 = d.get(n) >= d.get(v);
 				if (b1 && b2 && b3) {
 					visited.put(n, -counter);
 					bal.add(n);
 				}
 
-				if (d.get(n).intValue() + 1 == d.get(v).intValue()) {
-					newSpc.put(v, newSpc.get(v).intValue()
-							+ newSpc.get(n).intValue());
+				if (d.get(n) + 1 == d.get(v)) {
+					newSpc.put(v, newSpc.get(v) + newSpc.get(n));
 					newParents.get(v).add(n);
 
 				}
@@ -737,7 +750,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 				}
 				for (Node v : newParents.get(w)) {
 
-					if (d.get(v).intValue() == d.get(w).intValue() - 1) {
+					if (d.get(v) == d.get(w) - 1) {
 
 						if (Math.abs(visited.get(v)) < counter) {
 							newASums.put(v, oldSums.get(v));
@@ -761,7 +774,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			}
 		}
 
-		spcs.put(root, newSpc);
+		storage.setSpcs(root, newSpc);
 		oldSums.putAll(newASums);
 		p.putAll(newParents);
 
@@ -771,16 +784,16 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 
 		counter++;
 
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		IntTable d = storage.getDistances(root);
+		ParentTable p = storage.getParents(root);
+		DoubleTable oldSums = storage.getAccSums(root);
+		IntTable oldSpc = storage.getSpcs(root);
 
 		// Queue for the BFS search down the shortes Path tree
 		Queue<Node> qBFS = new LinkedList<Node>();
 
 		// data structure for Updates
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		IntTable newSpc = oldSpc.copy();
 		HashMap<Node, Double> newASums = new HashMap<Node, Double>();
 
 		// new TreeElement and the current Values for the Tree Position
@@ -801,13 +814,13 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 				UndirectedEdge ed = (UndirectedEdge) iEdge;
 				Node n = ed.getDifferingNode(v);
 				if (Math.abs(visited.get(n)) < counter && n != src
-						&& d.get(n).equals(Integer.MAX_VALUE)) {
+						&& d.get(n) == Integer.MAX_VALUE) {
 					qBFS.add(n);
 					visited.put(n, counter);
 					newASums.put(n, 0d);
 					d.put(n, d.get(v) + 1);
 				}
-				if (d.get(n).intValue() == d.get(v).intValue() + 1) {
+				if (d.get(n) == d.get(v) + 1) {
 					newSpc.put(n, newSpc.get(n) + newSpc.get(v));
 					p.get(n).add(v);
 				}
@@ -849,7 +862,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 
 			}
 		}
-		spcs.put(root, newSpc);
+		storage.setSpcs(root, newSpc);
 		oldSums.putAll(newASums);
 	}
 
@@ -857,18 +870,18 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 
 		counter++;
 		// old values
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		IntTable d = storage.getDistances(root);
+		ParentTable p = storage.getParents(root);
+		DoubleTable oldSums = storage.getAccSums(root);
+		IntTable oldSpc = storage.getSpcs(root);
 
 		// Data Structure for BFS Search
 		Queue<Node> qBFS = new LinkedList<Node>();
 
 		// data structure for Updates
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		IntTable newSpc = oldSpc.copy();
 		HashMap<Node, Double> newASums = new HashMap<Node, Double>();
-		HashMap<Node, HashSet<Node>> newParents = new HashMap<Node, HashSet<Node>>();
+		HashMap<Node, Set<Node>> newParents = new HashMap<Node, Set<Node>>();
 
 		// set Up data Structure for the lower node
 
@@ -878,7 +891,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 		d.put(dst, d.get(src) + 1);
 		qALevel[d.get(dst)].add(dst);
 		newASums.put(dst, 0d);
-		newParents.put(dst, new HashSet<Node>());
+		newParents.put(dst, storage.newParentSet());
 
 		int maxHeight = d.get(dst);
 
@@ -893,23 +906,23 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 				Node n = ed.getDifferingNode(v);
 
 				// Lower Node moves up
-				if (d.get(n).intValue() > d.get(v).intValue() + 1) {
-					d.put(n, d.get(v).intValue() + 1);
+				if (d.get(n) > d.get(v) + 1) {
+					d.put(n, d.get(v) + 1);
 					qBFS.add(n);
 					qALevel[d.get(n)].add(n);
 					newASums.put(n, 0d);
-					newParents.put(n, new HashSet<Node>());
+					newParents.put(n, storage.newParentSet());
 					visited.put(n, counter);
 					maxHeight = Math.max(maxHeight, d.get(n));
 					continue;
 				}
 
 				// lower Node get a new Parent
-				if (d.get(n).intValue() == d.get(v).intValue() + 1) {
+				if (d.get(n) == d.get(v) + 1) {
 					if (Math.abs(visited.get(n)) < counter) {
 						visited.put(n, counter);
 						qALevel[d.get(n)].add(n);
-						newParents.put(n, new HashSet<Node>());
+						newParents.put(n, storage.newParentSet());
 						qBFS.add(n);
 						newASums.put(n, 0d);
 						maxHeight = Math.max(maxHeight, d.get(n));
@@ -917,7 +930,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 					continue;
 				}
 
-				if (d.get(n).intValue() < d.get(v).intValue()) {
+				if (d.get(n) < d.get(v)) {
 					newSpc.put(v, newSpc.get(v) + newSpc.get(n));
 					if (!newParents.get(v).contains(n)) {
 						newParents.get(v).add(n);
@@ -975,7 +988,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			}
 		}
 
-		spcs.put(root, newSpc);
+		storage.setSpcs(root, newSpc);
 		oldSums.putAll(newASums);
 		p.putAll(newParents);
 	}
@@ -986,14 +999,14 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 		counter++;
 
 		// old values
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		IntTable d = storage.getDistances(root);
+		ParentTable p = storage.getParents(root);
+		DoubleTable oldSums = storage.getAccSums(root);
+		IntTable oldSpc = storage.getSpcs(root);
 
 		// data structure for Updates
 		HashMap<Node, Integer> dP = new HashMap<Node, Integer>();
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		IntTable newSpc = oldSpc.copy();
 		HashMap<Node, Double> newSums = new HashMap<Node, Double>();
 
 		// setup changes for dst node
@@ -1017,7 +1030,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 					DirectedEdge edge = (DirectedEdge) iEdges;
 					DirectedNode w = edge.getDst();
 
-					if (d.get(w).equals(d.get(v).intValue() + 1)) {
+					if (d.get(w) == d.get(v) + 1) {
 						if (Math.abs(visited.get(w)) < counter) {
 							qBFS.add(w);
 							qALevel[d.get(w)].add(w);
@@ -1043,7 +1056,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 					UndirectedEdge edge = (UndirectedEdge) iEdges;
 					Node w = edge.getDifferingNode(v);
 
-					if (d.get(w).equals(d.get(v).intValue() + 1)) {
+					if (d.get(w) == d.get(v) + 1) {
 						if (Math.abs(visited.get(w)) < counter) {
 							qBFS.add(w);
 							qALevel[d.get(w)].add(w);
@@ -1094,7 +1107,7 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			}
 		}
 
-		spcs.put(root, newSpc);
+		storage.setSpcs(root, newSpc);
 		oldSums.putAll(newSums);
 		return true;
 	}
@@ -1114,48 +1127,23 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			applyAfterEdgeRemoval(new EdgeRemoval(e));
 		}
 
-		for (Node n : this.accSums.get(node).keySet()) {
+		DoubleTable sums = this.storage.getAccSums(node);
+		for (Node n : sums.getNodes()) {
 			// this.bC.put(n, this.bC.get(n) - this.accSums.get(node).get(n));
 			this.bCC.setValue(n.getIndex(), this.bCC.getValue(n.getIndex())
-					- this.accSums.get(node).get(n));
-			this.bCSum = this.bCSum - this.accSums.get(node).get(n);
+					- sums.get(n));
+			this.bCSum = this.bCSum - sums.get(n);
 		}
 
-		this.spcs.remove(node);
-		this.distances.remove(node);
-		this.accSums.remove(node);
-		this.parents.remove(node);
+		this.storage.removeTree(node);
 		g.removeNode(node);
 		return true;
 	}
 
 	private boolean applyAfterNodeAddition(Update u) {
 		Node node = (Node) ((NodeAddition) u).getNode();
-		HashMap<Node, HashSet<Node>> p = new HashMap<Node, HashSet<Node>>();
-		HashMap<Node, Integer> spc = new HashMap<Node, Integer>();
-		HashMap<Node, Integer> d = new HashMap<Node, Integer>();
-		HashMap<Node, Double> sums = new HashMap<Node, Double>();
-
-		for (IElement ieE : g.getNodes()) {
-			Node t = (Node) ieE;
-			if (t == node) {
-				d.put(t, 0);
-				spc.put(t, 1);
-			} else {
-				spc.put(t, 0);
-				d.put(t, Integer.MAX_VALUE);
-				this.spcs.get(t).put(node, 0);
-				this.distances.get(t).put(node, Integer.MAX_VALUE);
-				this.accSums.get(t).put(node, 0d);
-				this.parents.get(t).put(node, new HashSet<Node>());
-			}
-			sums.put(t, 0d);
-			p.put(t, new HashSet<Node>());
-		}
-		this.spcs.put(node, spc);
-		this.distances.put(node, d);
-		this.accSums.put(node, sums);
-		this.parents.put(node, p);
+		this.storage.addNode(node);
+		this.storage.addTree(node, g.getNodes());
 		bCC.setValue(node.getIndex(), 0d);
 		visited.put(node, 0L);
 		return true;
@@ -1171,23 +1159,11 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 			// stage ONE
 			s.clear();
 			q.clear();
-			HashMap<Node, HashSet<Node>> p = new HashMap<Node, HashSet<Node>>();
-			HashMap<Node, Integer> d = new HashMap<Node, Integer>();
-			HashMap<Node, Integer> spc = new HashMap<Node, Integer>();
-			HashMap<Node, Double> sums = new HashMap<Node, Double>();
-
-			for (IElement ieE : g.getNodes()) {
-				Node t = (Node) ieE;
-				if (t == n) {
-					d.put(t, 0);
-					spc.put(t, 1);
-				} else {
-					spc.put(t, 0);
-					d.put(t, Integer.MAX_VALUE);
-				}
-				sums.put(t, 0d);
-				p.put(t, new HashSet<Node>());
-			}
+			this.storage.addTree(n, g.getNodes());
+			ParentTable p = this.storage.getParents(n);
+			IntTable d = this.storage.getDistances(n);
+			IntTable spc = this.storage.getSpcs(n);
+			DoubleTable sums = this.storage.getAccSums(n);
 
 			q.add(n);
 
@@ -1202,11 +1178,11 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 						DirectedNode w = (DirectedNode) edge
 								.getDifferingNode(v);
 
-						if (d.get(w).equals(Integer.MAX_VALUE)) {
+						if (d.get(w) == Integer.MAX_VALUE) {
 							q.add(w);
 							d.put(w, d.get(v) + 1);
 						}
-						if (d.get(w).equals(d.get(v) + 1)) {
+						if (d.get(w) == d.get(v) + 1) {
 							spc.put(w, spc.get(w) + spc.get(v));
 							p.get(w).add(v);
 
@@ -1225,11 +1201,11 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 						UndirectedNode w = (UndirectedNode) edge
 								.getDifferingNode(v);
 
-						if (d.get(w).equals(Integer.MAX_VALUE)) {
+						if (d.get(w) == Integer.MAX_VALUE) {
 							q.add(w);
 							d.put(w, d.get(v) + 1);
 						}
-						if (d.get(w).equals(d.get(v) + 1)) {
+						if (d.get(w) == d.get(v) + 1) {
 							spc.put(w, spc.get(w) + spc.get(v));
 							p.get(w).add(v);
 
@@ -1256,15 +1232,9 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 					this.bCSum += sums.get(w);
 				}
 			}
-			parents.put(n, p);
-			distances.put(n, d);
-			spcs.put(n, spc);
-			accSums.put(n, sums);
 		}
 
-		for (Entry<Node, HashMap<Node, Integer>> e : spcs.entrySet()) {
-			sumShortestPaths += sumSPFromHM(e.getValue(), e.getKey());
-		}
+		sumShortestPaths += storage.getSumShortestPaths();
 		return true;
 	}
 
@@ -1279,42 +1249,37 @@ public class BetweenessCentralityU extends BetweenessCentrality {
 				for (IElement ie2 : g.getNodes()) {
 					Node n2 = (Node) ie2;
 
-					if (!this.spcs.get(n1).get(n2)
-							.equals(bc.spcs.get(n1).get(n2))) {
+					int spc1 = this.storage.getSpcs(n1).get(n2);
+					int spc2 = bc.storage.getSpcs(n1).get(n2);
+					if (spc1 != spc2) {
 						System.out.println("diff at Tree " + n1 + "in Node n "
-								+ n2 + " expected SPC "
-								+ this.spcs.get(n1).get(n2).intValue() + " is "
-								+ bc.spcs.get(n1).get(n2).intValue());
+								+ n2 + " expected SPC " + spc1 + " is " + spc2);
 						success = false;
 					}
 
-					if (!this.parents.get(n1).get(n2)
-							.containsAll(bc.parents.get(n1).get(n2))
-							|| this.parents.get(n1).get(n2).size() != bc.parents
-									.get(n1).get(n2).size()) {
+					Set<Node> p1 = this.storage.getParents(n1).get(n2);
+					Set<Node> p2 = bc.storage.getParents(n1).get(n2);
+					if (!p1.containsAll(p2) || p1.size() != p2.size()) {
 						System.out.println("diff at Tree " + n1 + "in Node n "
-								+ n2 + " expected parents "
-								+ this.parents.get(n1).get(n2) + " is "
-								+ bc.parents.get(n1).get(n2));
+								+ n2 + " expected parents " + p1 + " is " + p2);
 						success = false;
 					}
 
-					if (Math.abs(this.accSums.get(n1).get(n2).doubleValue()
-							- bc.accSums.get(n1).get(n2).doubleValue()) > 0.000001) {
+					double sum1 = this.storage.getAccSums(n1).get(n2);
+					double sum2 = bc.storage.getAccSums(n1).get(n2);
+					if (Math.abs(sum1 - sum2) > 0.000001) {
 						System.out.println("diff at Tree " + n1 + "in Node n "
-								+ n2 + " expected Sum "
-								+ this.accSums.get(n1).get(n2) + " is "
-								+ bc.accSums.get(n1).get(n2) + " height == "
-								+ bc.distances.get(n1).get(n2));
+								+ n2 + " expected Sum " + sum1 + " is " + sum2
+								+ " height == "
+								+ bc.storage.getDistances(n1).get(n2));
 						success = false;
 					}
 
-					if (!this.distances.get(n1).get(n2)
-							.equals(bc.distances.get(n1).get(n2))) {
+					int d1 = this.storage.getDistances(n1).get(n2);
+					int d2 = bc.storage.getDistances(n1).get(n2);
+					if (d1 != d2) {
 						System.out.println("diff at Tree " + n1 + "in Node n "
-								+ n2 + " expected dist "
-								+ this.distances.get(n1).get(n2) + " is "
-								+ bc.distances.get(n1).get(n2));
+								+ n2 + " expected dist " + d1 + " is " + d2);
 						success = false;
 					}
 
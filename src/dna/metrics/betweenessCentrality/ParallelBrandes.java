@@ -0,0 +1,199 @@
+package dna.metrics.betweenessCentrality;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import dna.graph.csr.IGraphTraversal;
+import dna.util.Parallel;
+
+/**
+ *
+ * Brandes' algorithm for a given set of sources, executed in parallel. the
+ * sources are partitioned into fork-join tasks among the threads of the shared
+ * pool (cf. Parallel). each task accumulates the dependencies of its sources
+ * in a separate double[] indexed by node index, these accumulators are summed
+ * up when joining so that no synchronization is required during the
+ * computation.
+ *
+ * the partitioning only depends on the number of sources and the parallelism
+ * so that the (floating point) result is deterministic for a given
+ * configuration.
+ *
+ * @author benni
+ *
+ */
+public class ParallelBrandes {
+
+	private IGraphTraversal g;
+
+	private int[] sources;
+
+	public ParallelBrandes(IGraphTraversal g, int[] sources) {
+		this.g = g;
+		this.sources = sources;
+	}
+
+	/**
+	 * result of the accumulation over (a subset of) the sources
+	 */
+	public static class Accumulator {
+		/**
+		 * sum of the dependencies of all sources on each node (by index)
+		 */
+		public double[] bc;
+
+		/**
+		 * sum of (dependency - 3) over all reached nodes, cf. bCSum in
+		 * BetweenessCentrality
+		 */
+		public double bCSum;
+
+		/**
+		 * number of shortest paths starting at the sources (excluding the
+		 * sources themselves)
+		 */
+		public long sumShortestPaths;
+
+		private Accumulator(int size) {
+			this.bc = new double[size];
+		}
+
+		private void add(Accumulator a) {
+			for (int i = 0; i < this.bc.length; i++) {
+				this.bc[i] += a.bc[i];
+			}
+			this.bCSum += a.bCSum;
+			this.sumShortestPaths += a.sumShortestPaths;
+		}
+	}
+
+	public Accumulator compute() {
+		return this.compute(Parallel.getPool());
+	}
+
+	/**
+	 *
+	 * @param pool
+	 *            pool to execute the tasks in
+	 * @return accumulated dependencies of all sources
+	 */
+	public Accumulator compute(ForkJoinPool pool) {
+		if (this.sources.length == 0) {
+			return new Accumulator(this.g.getMaxNodeIndex() + 1);
+		}
+		if (pool.getParallelism() == 1) {
+			// single accumulator, i.e., same result as a sequential execution
+			return this.compute(0, this.sources.length);
+		}
+		int leaf = Math.max(1,
+				this.sources.length / (pool.getParallelism() * 4));
+		return pool.invoke(new SourceTask(0, this.sources.length, leaf));
+	}
+
+	private class SourceTask extends RecursiveTask<Accumulator> {
+
+		private static final long serialVersionUID = 1L;
+
+		private int from;
+
+		private int to;
+
+		private int leaf;
+
+		public SourceTask(int from, int to, int leaf) {
+			this.from = from;
+			this.to = to;
+			this.leaf = leaf;
+		}
+
+		@Override
+		protected Accumulator compute() {
+			if (this.to - this.from <= this.leaf) {
+				return ParallelBrandes.this.compute(this.from, this.to);
+			}
+			int middle = (this.from + this.to) / 2;
+			SourceTask left = new SourceTask(this.from, middle, this.leaf);
+			SourceTask right = new SourceTask(middle, this.to, this.leaf);
+			right.fork();
+			Accumulator acc = left.compute();
+			acc.add(right.join());
+			return acc;
+		}
+	}
+
+	private Accumulator compute(int from, int to) {
+		int size = this.g.getMaxNodeIndex() + 1;
+		int[] d = new int[size];
+		Arrays.fill(d, -1);
+		int[] spc = new int[size];
+		double[] sums = new double[size];
+		int[] queue = new int[this.g.getNodeCount()];
+		Accumulator acc = new Accumulator(size);
+		for (int i = from; i < to; i++) {
+			this.compute(this.sources[i], acc, d, spc, sums, queue);
+		}
+		return acc;
+	}
+
+	/**
+	 * single-source dependency accumulation. the parents of a node w are all
+	 * predecessors v with d[v] = d[w] - 1, i.e., they are determined from the
+	 * in-adjacency instead of being stored explicitly. d, spc and sums must be
+	 * initialized with -1, 0 and 0 and are reset before returning.
+	 */
+	private void compute(int n, Accumulator acc, int[] d, int[] spc,
+			double[] sums, int[] queue) {
+		IGraphTraversal csr = this.g;
+
+		// stage ONE
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = n;
+		d[n] = 0;
+		spc[n] = 1;
+
+		// stage 2
+		while (head < tail) {
+			int v = queue[head++];
+			int end = csr.outEnd(v);
+			for (int i = csr.outStart(v); i < end; i++) {
+				int w = csr.outTarget(i);
+				if (d[w] == -1) {
+					queue[tail++] = w;
+					d[w] = d[v] + 1;
+				}
+				if (d[w] == d[v] + 1) {
+					spc[w] += spc[v];
+				}
+			}
+		}
+
+		// stage 3, the queue is processed in reverse order of visits
+		for (int j = tail - 1; j >= 0; j--) {
+			int w = queue[j];
+			int end = csr.inEnd(w);
+			for (int i = csr.inStart(w); i < end; i++) {
+				int parent = csr.inTarget(i);
+				if (d[parent] != -1 && d[parent] == d[w] - 1) {
+					double sumForCurretConnection = spc[parent]
+							* (1 + sums[w]) / spc[w];
+					sums[parent] += sumForCurretConnection;
+				}
+			}
+			if (w != n) {
+				acc.bc[w] += sums[w];
+				acc.bCSum += sums[w] - 3;
+				acc.sumShortestPaths += spc[w];
+			}
+		}
+
+		for (int j = 0; j < tail; j++) {
+			int w = queue[j];
+			d[w] = -1;
+			spc[w] = 0;
+			sums[w] = 0;
+		}
+	}
+
+}
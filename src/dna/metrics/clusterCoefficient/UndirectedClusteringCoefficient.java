@@ -1,9 +1,8 @@
 package dna.metrics.clusterCoefficient;
 
 import dna.graph.Graph;
-import dna.graph.IElement;
+import dna.graph.csr.CSRGraph;
 import dna.graph.datastructures.GraphDataStructure;
-import dna.graph.edges.UndirectedEdge;
 import dna.graph.nodes.DirectedNode;
 import dna.graph.nodes.UndirectedNode;
 import dna.metrics.Metric;
@@ -45,32 +44,34 @@ public abstract class UndirectedClusteringCoefficient extends
 		return false;
 	}
 
+	/**
+	 * computation on the CSR snapshot of the graph. each pair of adjacent
+	 * nodes (b,c) of a node a is considered once, i.e., the resulting counts
+	 * equal half of the ordered pairs.
+	 * 
+	 * @return true
+	 */
 	public boolean computeUndirected() {
-
-		for (IElement aUncasted : g.getNodes()) {
-			UndirectedNode a = (UndirectedNode) aUncasted;
-			this.nodeTriangleCount[a.getIndex()] = 0;
-			this.nodePotentialCount[a.getIndex()] = 0;
-
-			for (IElement e1Uncasted : a.getEdges()) {
-				UndirectedEdge e1 = (UndirectedEdge) e1Uncasted;
-				UndirectedNode b = (UndirectedNode) e1.getDifferingNode(a);
-				for (IElement e2Uncasted : a.getEdges()) {
-					UndirectedEdge e2 = (UndirectedEdge) e2Uncasted;
-					UndirectedNode c = (UndirectedNode) e2.getDifferingNode(a);
-					if (b.equals(c)) {
-						continue;
-					}
-					this.nodePotentialCount[a.getIndex()]++;
-					if (b.hasEdge(b, c)) {
-						this.nodeTriangleCount[a.getIndex()]++;
+		CSRGraph csr = this.g.getCSR();
+
+		for (int pos = 0; pos < csr.getNodeCount(); pos++) {
+			int a = csr.getNodeIndex(pos);
+			this.nodeTriangleCount[a] = 0;
+			this.nodePotentialCount[a] = 0;
+
+			int end = csr.outEnd(a);
+			for (int i = csr.outStart(a); i < end; i++) {
+				int b = csr.outTarget(i);
+				for (int j = i + 1; j < end; j++) {
+					int c = csr.outTarget(j);
+					this.nodePotentialCount[a]++;
+					if (csr.containsEdge(b, c)) {
+						this.nodeTriangleCount[a]++;
 					}
 				}
 			}
-			this.nodeTriangleCount[a.getIndex()] /= 2;
-			this.nodePotentialCount[a.getIndex()] /= 2;
 
-			this.update(a.getIndex());
+			this.update(a);
 		}
 
 		this.update();
@@ -79,30 +80,39 @@ public abstract class UndirectedClusteringCoefficient extends
 		return true;
 	}
 
+	/**
+	 * computation on the CSR snapshot of the graph. neighbors of a node a are
+	 * all nodes b with a -> b and b -> a.
+	 * 
+	 * @return true
+	 */
 	public boolean computeDirected() {
-
-		for (IElement aUncasted : g.getNodes()) {
-			DirectedNode a = (DirectedNode) aUncasted;
-			this.nodeTriangleCount[a.getIndex()] = 0;
-			this.nodePotentialCount[a.getIndex()] = 0;
-
-			for (IElement bUncasted : a.getNeighbors()) {
-				DirectedNode b = (DirectedNode) bUncasted;
-				for (IElement cUncasted : a.getNeighbors()) {
-					DirectedNode c = (DirectedNode) cUncasted;
-					if (b.equals(c)) {
+		CSRGraph csr = this.g.getCSR();
+
+		for (int pos = 0; pos < csr.getNodeCount(); pos++) {
+			int a = csr.getNodeIndex(pos);
+			this.nodeTriangleCount[a] = 0;
+			this.nodePotentialCount[a] = 0;
+
+			int end = csr.outEnd(a);
+			for (int i = csr.outStart(a); i < end; i++) {
+				int b = csr.outTarget(i);
+				if (b == a || !csr.containsEdge(b, a)) {
+					continue;
+				}
+				for (int j = i + 1; j < end; j++) {
+					int c = csr.outTarget(j);
+					if (c == a || !csr.containsEdge(c, a)) {
 						continue;
 					}
-					this.nodePotentialCount[a.getIndex()]++;
-					if (b.hasNeighbor(c)) {
-						this.nodeTriangleCount[a.getIndex()]++;
+					this.nodePotentialCount[a]++;
+					if (csr.containsEdge(b, c) && csr.containsEdge(c, b)) {
+						this.nodeTriangleCount[a]++;
 					}
 				}
 			}
-			this.nodeTriangleCount[a.getIndex()] /= 2;
-			this.nodePotentialCount[a.getIndex()] /= 2;
 
-			this.update(a.getIndex());
+			this.update(a);
 		}
 
 		this.update();
@@ -40,6 +40,24 @@ public abstract class Extent extends Metric {
 		this.algorithm = algorithm;
 	}
 
+	/**
+	 * 
+	 * @return the sampling algorithm observed by this metric
+	 */
+	public SamplingAlgorithm getAlgorithm() {
+		return this.algorithm;
+	}
+
+	/**
+	 * 
+	 * @param algorithm
+	 *            the sampling algorithm to observe, e.g., the copy of the
+	 *            batch generator of a series (cf. Series.copy)
+	 */
+	public void setAlgorithm(SamplingAlgorithm algorithm) {
+		this.algorithm = algorithm;
+	}
+
 	@Override
 	public boolean compute() {
 		visitedAndSeenNodes = algorithm.getSeenAndVisitedCount();
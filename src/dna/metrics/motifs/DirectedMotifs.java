@@ -49,14 +49,14 @@ public abstract class DirectedMotifs extends Metric {
 			DirectedNode a = (DirectedNode) element;
 			HashSet<DirectedNode> a_ = this.getConnectedNodes(a);
 			for (DirectedNode b : a_) {
-				boolean ab = a.hasEdge(a, b);
-				boolean ba = a.hasEdge(b, a);
+				boolean ab = this.hasEdge(a, b);
+				boolean ba = this.hasEdge(b, a);
 
 				for (DirectedNode c : a_) {
-					boolean ac = a.hasEdge(a, c);
-					boolean ca = a.hasEdge(c, a);
-					boolean bc = b.hasEdge(b, c);
-					boolean cb = b.hasEdge(c, b);
+					boolean ac = this.hasEdge(a, c);
+					boolean ca = this.hasEdge(c, a);
+					boolean bc = this.hasEdge(b, c);
+					boolean cb = this.hasEdge(c, b);
 
 					if (!bc && !cb) {
 						if (b.getIndex() < c.getIndex()) {
@@ -376,6 +376,18 @@ public abstract class DirectedMotifs extends Metric {
 		return success;
 	}
 
+	/**
+	 * 
+	 * @return true if the graph contains the edge from src to dst (looked up in
+	 *         the edge index of the graph if available)
+	 */
+	protected boolean hasEdge(DirectedNode src, DirectedNode dst) {
+		if (this.g.hasEdgeIndex()) {
+			return this.g.containsEdge(src.getIndex(), dst.getIndex());
+		}
+		return src.hasEdge(src, dst);
+	}
+
 	@Override
 	public boolean isApplicable(Graph g) {
 		return DirectedNode.class.isAssignableFrom(g.getGraphDatastructures()
@@ -52,7 +52,7 @@ public class DirectedMotifsU extends DirectedMotifs {
 
 			HashSet<DirectedNode> ab = this.getUnion(a, b);
 
-			if (a.hasEdge(b, a)) {
+			if (this.hasEdge(b, a)) {
 				this.processBothDirections(a, b, ab, add);
 			} else {
 				this.processSingleDirection(a, b, ab, add);
@@ -62,17 +62,17 @@ public class DirectedMotifsU extends DirectedMotifs {
 			DirectedNode a = (DirectedNode) ((NodeRemoval) u).getNode();
 			HashSet<DirectedNode> a_ = this.getConnectedNodes(a);
 			for (DirectedNode b : a_) {
-				boolean ab = a.hasEdge(a, b);
-				boolean ba = a.hasEdge(b, a);
+				boolean ab = this.hasEdge(a, b);
+				boolean ba = this.hasEdge(b, a);
 
 				for (DirectedNode c : a_) {
 					if (b.getIndex() <= c.getIndex()) {
 						continue;
 					}
-					boolean ac = a.hasEdge(a, c);
-					boolean ca = a.hasEdge(c, a);
-					boolean bc = b.hasEdge(b, c);
-					boolean cb = b.hasEdge(c, b);
+					boolean ac = this.hasEdge(a, c);
+					boolean ca = this.hasEdge(c, a);
+					boolean bc = this.hasEdge(b, c);
+					boolean cb = this.hasEdge(c, b);
 					this.decr(this.getType(ab, ba, ac, ca, bc, cb));
 				}
 
@@ -81,10 +81,10 @@ public class DirectedMotifsU extends DirectedMotifs {
 					if (a_.contains(c) || c.getIndex() == a.getIndex()) {
 						continue;
 					}
-					boolean ac = a.hasEdge(a, c);
-					boolean ca = a.hasEdge(c, a);
-					boolean bc = b.hasEdge(b, c);
-					boolean cb = b.hasEdge(c, b);
+					boolean ac = this.hasEdge(a, c);
+					boolean ca = this.hasEdge(c, a);
+					boolean bc = this.hasEdge(b, c);
+					boolean cb = this.hasEdge(c, b);
 					this.decr(this.getType(ab, ba, ac, ca, bc, cb));
 				}
 			}
@@ -95,10 +95,10 @@ public class DirectedMotifsU extends DirectedMotifs {
 	private void processSingleDirection(DirectedNode a, DirectedNode b,
 			HashSet<DirectedNode> ab, boolean add) {
 		for (DirectedNode c : ab) {
-			boolean ca = c.hasEdge(c, a);
-			boolean ac = c.hasEdge(a, c);
-			boolean cb = c.hasEdge(c, b);
-			boolean bc = c.hasEdge(b, c);
+			boolean ca = this.hasEdge(c, a);
+			boolean ac = this.hasEdge(a, c);
+			boolean cb = this.hasEdge(c, b);
+			boolean bc = this.hasEdge(b, c);
 
 			if (ca && !ac && !cb && !bc) {
 				this.changeMotif(DirectedMotifType.DM03, add);
@@ -149,10 +149,10 @@ public class DirectedMotifsU extends DirectedMotifs {
 	private void processBothDirections(DirectedNode a, DirectedNode b,
 			HashSet<DirectedNode> ab, boolean add) {
 		for (DirectedNode c : ab) {
-			boolean ca = c.hasEdge(c, a);
-			boolean ac = c.hasEdge(a, c);
-			boolean cb = c.hasEdge(c, b);
-			boolean bc = c.hasEdge(b, c);
+			boolean ca = this.hasEdge(c, a);
+			boolean ac = this.hasEdge(a, c);
+			boolean cb = this.hasEdge(c, b);
+			boolean bc = this.hasEdge(b, c);
 
 			if (ca && !ac && !cb && !bc) {
 				this.changeMotif(DirectedMotifType.DM02,
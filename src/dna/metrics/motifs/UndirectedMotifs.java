@@ -49,16 +49,16 @@ public abstract class UndirectedMotifs extends Metric {
 					if (b.getIndex() == c.getIndex()) {
 						continue;
 					}
-					if (b.hasEdge(b, c)) {
+					if (this.hasEdge(b, c)) {
 						continue;
 					}
 					for (IElement d_ : b.getEdges()) {
 						UndirectedNode d = (UndirectedNode) ((UndirectedEdge) d_)
 								.getDifferingNode(b);
-						if (d.hasEdge(a, d)) {
+						if (this.hasEdge(a, d)) {
 							continue;
 						}
-						if (!d.hasEdge(c, d)) {
+						if (!this.hasEdge(c, d)) {
 							if (a.getIndex() < b.getIndex()) {
 								this.incr(UndirectedMotifType.UM1);
 							}
@@ -80,11 +80,11 @@ public abstract class UndirectedMotifs extends Metric {
 				UndirectedNode b = neighbors[i];
 				for (int j = i + 1; j < neighbors.length; j++) {
 					UndirectedNode c = neighbors[j];
-					boolean bc = c.hasEdge(b, c);
+					boolean bc = this.hasEdge(b, c);
 					for (int k = j + 1; k < neighbors.length; k++) {
 						UndirectedNode d = neighbors[k];
-						boolean bd = d.hasEdge(b, d);
-						boolean cd = d.hasEdge(c, d);
+						boolean bd = this.hasEdge(b, d);
+						boolean cd = this.hasEdge(c, d);
 
 						int sum = (bc ? 1 : 0) + (bd ? 1 : 0) + (cd ? 1 : 0);
 
@@ -213,6 +213,18 @@ public abstract class UndirectedMotifs extends Metric {
 		return success;
 	}
 
+	/**
+	 * 
+	 * @return true if the graph contains the edge between n1 and n2 (looked up
+	 *         in the edge index of the graph if available)
+	 */
+	protected boolean hasEdge(UndirectedNode n1, UndirectedNode n2) {
+		if (this.g.hasEdgeIndex()) {
+			return this.g.containsEdge(n1.getIndex(), n2.getIndex());
+		}
+		return n1.hasEdge(n1, n2);
+	}
+
 	@Override
 	public boolean isApplicable(Graph g) {
 		return UndirectedNode.class.isAssignableFrom(g.getGraphDatastructures()
@@ -27,7 +27,7 @@ public class MissingBatches extends Metric {
 
 	@Override
 	public boolean applyBeforeBatch(Batch b) {
-		if (Rand.rand.nextDouble() < this.missProb) {
+		if (Rand.get().nextDouble() < this.missProb) {
 			return true;
 		}
 		return this.m.applyBeforeBatch(b);
@@ -35,7 +35,7 @@ public class MissingBatches extends Metric {
 
 	@Override
 	public boolean applyAfterBatch(Batch b) {
-		if (Rand.rand.nextDouble() < this.missProb) {
+		if (Rand.get().nextDouble() < this.missProb) {
 			return true;
 		}
 		return this.m.applyAfterBatch(b);
@@ -66,6 +66,13 @@ public class MissingBatches extends Metric {
 		this.m.reset_();
 	}
 
+	@Override
+	public Metric copy() {
+		MissingBatches copy = (MissingBatches) super.copy();
+		copy.m = this.m.copy();
+		return copy;
+	}
+
 	@Override
 	public Value[] getValues() {
 		return this.m.getValues();
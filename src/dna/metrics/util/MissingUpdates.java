@@ -37,7 +37,7 @@ public class MissingUpdates extends Metric {
 
 	@Override
 	public boolean applyBeforeUpdate(Update u) {
-		if (Rand.rand.nextDouble() < this.missProb) {
+		if (Rand.get().nextDouble() < this.missProb) {
 			return true;
 		}
 		return this.m.applyBeforeUpdate(u);
@@ -45,7 +45,7 @@ public class MissingUpdates extends Metric {
 
 	@Override
 	public boolean applyAfterUpdate(Update u) {
-		if (Rand.rand.nextDouble() < this.missProb) {
+		if (Rand.get().nextDouble() < this.missProb) {
 			return true;
 		}
 		return this.m.applyAfterUpdate(u);
@@ -67,6 +67,13 @@ public class MissingUpdates extends Metric {
 
 	}
 
+	@Override
+	public Metric copy() {
+		MissingUpdates copy = (MissingUpdates) super.copy();
+		copy.m = this.m.copy();
+		return copy;
+	}
+
 	@Override
 	public Value[] getValues() {
 		return this.m.getValues();
@@ -91,6 +91,13 @@ public class Recompute extends Metric {
 		this.m.reset_();
 	}
 
+	@Override
+	public Metric copy() {
+		Recompute copy = (Recompute) super.copy();
+		copy.m = this.m.copy();
+		return copy;
+	}
+
 	@Override
 	public Value[] getValues() {
 		return this.m.getValues();
@@ -27,6 +27,7 @@ import dna.graph.datastructures.DataStructure.AccessType;
 import dna.graph.datastructures.DataStructure.ListType;
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.datastructures.IDataStructure;
+import dna.graph.edges.Edge;
 import dna.io.Writer;
 import dna.io.ZipWriter;
 import dna.io.filesystem.Dir;
@@ -501,6 +502,8 @@ public class Profiler {
 			ProfileEntry entry, boolean isCombinedOutputForAllAccessTypes) {
 
 		int maxCurrentNodeIndex = graph.getMaxNodeIndex();
+		Class<? extends Edge> edgeType = graph.getGraphDatastructures()
+				.getEdgeType();
 		boolean forceHashbasedEdgeList = Config
 				.getBoolean("RECOMMENDER_FORCE_USAGE_OF_HASHBASED_FOR_GLOBALEDGELIST");
 
@@ -515,7 +518,11 @@ public class Profiler {
 
 		boolean skipThisEntry;
 		for (EnumMap<ListType, Class<? extends IDataStructure>> el : oldList) {
-			skipThisEntry = false;
+			/**
+			 * Lists that only keep the nodes of an edge (e.g.,
+			 * DIntNeighborList) cannot be used for weighted edges
+			 */
+			skipThisEntry = !GraphDataStructure.validListTypesSet(el, edgeType);
 
 			for (ListType lt : el.keySet()) {
 				if (!skipThisEntry) {
@@ -1158,6 +1165,8 @@ public class Profiler {
 	}
 
 	public static double getMeanSize(ListType lt) {
+		if (generatedListsCounter == null)
+			return 0;
 		double numberOfLists = getNumberOfGeneratedLists(lt);
 		if (numberOfLists == 0)
 			return 0;
@@ -34,6 +34,8 @@ import dna.util.Rand;
 @BenchClass(runs = -1)
 public class BenchmarkingExperiments {
 	private static Class<? extends IDataStructure> classToBenchmark;
+	private static ListType nodeListType;
+	private static ListType edgeListType;
 	private BenchmarkingConf config;
 
 	private GraphDataStructure gds;
@@ -70,6 +72,19 @@ public class BenchmarkingExperiments {
 			BenchmarkingExperiments.classToBenchmark = (Class<? extends IDataStructure>) Class
 					.forName(dsClass);
 			BenchmarkingExperiments.inputSizes = config.getInputSizes();
+
+			/**
+			 * Lists that can only be used as local lists are benchmarked as
+			 * the lists of node 0, i.e., all edges are outgoing edges of node
+			 * 0
+			 */
+			if (GraphDataStructure.storesLocalListsOnly(classToBenchmark)) {
+				nodeListType = ListType.LocalNodeList;
+				edgeListType = ListType.LocalOutEdgeList;
+			} else {
+				nodeListType = ListType.GlobalNodeList;
+				edgeListType = ListType.GlobalEdgeList;
+			}
 			int operationSizeForList = config.getMaxOperationSize();
 			this.maxListSize = (int) (getMax(inputSizes)
 					+ Math.ceil(operationSizeForList / 2) + operationSizeForList);
@@ -111,7 +126,11 @@ public class BenchmarkingExperiments {
 			node = gds.newNodeInstance(i + 1);
 			nodeList[i + 1] = node;
 
-			edge = gds.newEdgeInstance(formerNode, node);
+			if (edgeListType == ListType.GlobalEdgeList) {
+				edge = gds.newEdgeInstance(formerNode, node);
+			} else {
+				edge = gds.newEdgeInstance((Node) nodeList[0], node);
+			}
 			edgeList[i] = edge;
 		}
 
@@ -144,7 +163,7 @@ public class BenchmarkingExperiments {
 		if (nodeListToBenchmark == null
 				|| nodeListToBenchmark.size() != initialSize) {
 			nodeListToBenchmark = (INodeListDatastructure) gds
-					.newList(ListType.GlobalNodeList);
+					.newList(nodeListType);
 			for (int i = 0; i < initialSize; i++) {
 				nodeListToBenchmark.add(nodeList[i]);
 			}
@@ -162,12 +181,12 @@ public class BenchmarkingExperiments {
 
 		for (int i = 0; i < operationSize; i++) {
 			do {
-				rand = Rand.rand.nextInt(initialSize);
+				rand = Rand.get().nextInt(initialSize);
 			} while (tempNodesInList.contains(rand));
 			tempNodesInList.add(rand);
 
 			do {
-				rand = Rand.rand.nextInt(Integer.MAX_VALUE);
+				rand = Rand.get().nextInt(Integer.MAX_VALUE);
 			} while (rand < initialSize || tempNodesNotInList.contains(rand));
 			tempNodesNotInList.add(rand);
 			n = gds.newNodeInstance(rand);
@@ -189,7 +208,7 @@ public class BenchmarkingExperiments {
 		if (edgeListToBenchmark == null
 				|| edgeListToBenchmark.size() != initialSize) {
 			edgeListToBenchmark = (IEdgeListDatastructure) gds
-					.newList(ListType.GlobalEdgeList);
+					.newList(edgeListType);
 			for (int i = 0; i < initialSize; i++) {
 				edgeListToBenchmark.add(edgeList[i]);
 			}
@@ -205,7 +224,7 @@ public class BenchmarkingExperiments {
 
 		for (int i = 0; i < operationSize; i++) {
 			do {
-				rand = Rand.rand.nextInt(initialSize);
+				rand = Rand.get().nextInt(initialSize);
 				e = edgeList[rand];
 			} while (tempEdgesInList.contains(e));
 			tempEdgesInList.add((Edge) e);
@@ -213,7 +232,13 @@ public class BenchmarkingExperiments {
 
 		int listCounter = 0;
 		for (int i = 0; listCounter < operationSize; i++) {
-			e = gds.newEdgeInstance((Node) nodeList[i], (Node) nodeList[i]);
+			if (edgeListType == ListType.GlobalEdgeList) {
+				e = gds.newEdgeInstance((Node) nodeList[i], (Node) nodeList[i]);
+			} else {
+				// edges of node 0 to nodes that are not its neighbors
+				e = gds.newEdgeInstance((Node) nodeList[0],
+						(Node) nodeList[initialSize + 1 + i]);
+			}
 			if (!edgeListToBenchmark.contains(e)) {
 				randomEdgesNotInList[listCounter] = (Edge) e;
 				listCounter++;
@@ -245,7 +270,7 @@ public class BenchmarkingExperiments {
 	@Bench(dataProvider = "testInput", beforeEachRun = "setUpGds")
 	public void Init(Class<? extends IDataStructure> dsClass, Integer setupSize) {
 		edgeListToBenchmark = (IEdgeListDatastructure) gds
-				.newList(ListType.GlobalEdgeList);
+				.newList(edgeListType);
 	}
 
 	@Bench(dataProvider = "testInput", beforeEachRun = "setUp")
@@ -3,6 +3,7 @@ package dna.profiler.datatypes.benchmarkresults;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
 
 import com.google.common.base.Joiner;
@@ -85,6 +86,13 @@ public class BenchmarkingResult extends ComparableEntry {
 		return sb.toString();
 	}
 
+	/**
+	 * @return list sizes the results have been measured for
+	 */
+	public Set<Integer> getListSizes() {
+		return datamap.keySet();
+	}
+
 	public ArrayList<Double> addToMap(Integer key, Collection<Double> value) {
 		ArrayList<Double> values = new ArrayList<Double>();
 		values.addAll(value);
@@ -1,7 +1,13 @@
 package dna.series;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import dna.io.filesystem.Dir;
 import dna.series.aggdata.AggregatedBatch;
@@ -115,6 +121,7 @@ public class Aggregation {
 		Log.info("aggregating data for " + runInfo);
 
 		boolean singleFile = Config.getBoolean("GENERATION_BATCHES_AS_ZIP");
+		boolean streaming = Config.getBoolean("AGGREGATION_STREAMING");
 
 		// treat single run as special case
 		if (runs.size() == 1)
@@ -140,15 +147,19 @@ public class Aggregation {
 		else
 			Log.info("aggregation mode: /n+1, treating missing values as 0");
 
+		RunData maxRun = runs.get(runId);
+		int parallelism = getParallelism(maxRun.getBatches().size());
+		if (parallelism > 1)
+			return aggregateRunsConcurrently(dir, runs, maxRun, streaming,
+					nmode, singleFile, parallelism);
+
 		int gcCounter = 1;
 
-		RunData maxRun = runs.get(runId);
 		AggregatedBatch[] aBatches = new AggregatedBatch[maxAmountBatches];
 		AggregatedBatch tempBatch;
 
 		// iterate over batches
-		for (int batchId = 0; batchId < runs.get(runId).getBatches().size(); batchId++) {
-			ArrayList<BatchData> batches = new ArrayList<BatchData>(runs.size());
+		for (int batchId = 0; batchId < maxRun.getBatches().size(); batchId++) {
 			BatchData structure = maxRun.getBatches().get(batchId);
 			long timestamp = structure.getTimestamp();
 
@@ -156,59 +167,238 @@ public class Aggregation {
 			double mem = (new Memory()).getUsed();
 			Log.info("\tBatch: " + timestamp + " (memory: " + mem + ")");
 
-			// iterate over runs and read batches
-			for (int i = 0; i < runs.size(); i++) {
-				try {
-					if (singleFile) {
-						batches.add(BatchData.readBatchValuesFromSingleFile(
-								Dir.getRunDataDir(dir, i), timestamp,
-								Dir.delimiter, structure));
-					} else {
-						batches.add(BatchData.readBatchValues(
-								Dir.getBatchDataDir(dir, i, timestamp),
-								timestamp, structure));
-					}
-				} catch (Exception e) {
-					if (nmode)
-						batches.add(new BatchData(-1));
-				}
-			}
-
-			// aggregate
-			AggregatedValueList aStats = aggregateBatchStatistics(batches);
-			AggregatedRunTimeList aGeneralRuntimes = aggregateGeneralRuntimes(batches);
-			AggregatedRunTimeList aMetricRuntimes = aggregateMetricRuntimes(batches);
-			AggregatedMetricList aMetrics = aggregateMetrics(batches);
-
-			// craft aggregated batch
-			String aggdir = Dir.getAggregationDataDir(dir);
-
-			tempBatch = new AggregatedBatch(timestamp, aStats,
-					aGeneralRuntimes, aMetricRuntimes, aMetrics);
+			// read and aggregate
+			tempBatch = aggregateBatch(dir, runs, structure, streaming, nmode);
 
 			// write batch
-			if (singleFile)
-				tempBatch.writeSingleFile(aggdir, timestamp, Dir.delimiter);
-			else
-				tempBatch.write(Dir.getBatchDataDir(aggdir, timestamp));
+			writeAggregatedBatch(dir, tempBatch, singleFile);
 
 			// overwrite tempbatch
 			tempBatch = null;
 			aBatches[batchId] = new AggregatedBatch(timestamp);
 
 			// call garbage collection
-			if (Config.getBoolean("AGGREGATION_CALL_GC")
-					&& batchId == Config.getInt("AGGREGATION_GC_OCCURENCE")
-							* gcCounter) {
-				System.gc();
+			if (callGC(batchId, gcCounter))
 				gcCounter++;
-			}
 		}
 
 		// return
 		return aBatches;
 	}
 
+	/**
+	 * Calls the garbage collection after every AGGREGATION_GC_OCCURENCE
+	 * batches in case AGGREGATION_CALL_GC is set.
+	 * 
+	 * @param batchId
+	 *            index of the batch that has just been written
+	 * @param gcCounter
+	 *            number of the next garbage collection (starting at 1)
+	 * @return true if the garbage collection has been called
+	 */
+	private static boolean callGC(int batchId, int gcCounter) {
+		if (Config.getBoolean("AGGREGATION_CALL_GC")
+				&& batchId == Config.getInt("AGGREGATION_GC_OCCURENCE")
+						* gcCounter) {
+			System.gc();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Reads a single batch of all runs and aggregates it.
+	 * 
+	 * @param dir
+	 *            Directory in which the runs are located.
+	 * @param runs
+	 *            ArrayList containing the runs.
+	 * @param structure
+	 *            BatchData object containing the structure of the batch.
+	 * @param streaming
+	 *            Flag that decides whether the batches are aggregated one
+	 *            after the other (AGGREGATION_STREAMING) or all at once.
+	 * @param nmode
+	 *            Flag that decides whether missing batches are ignored
+	 *            (AGGREGATION_IGNORE_MISSING_VALUES).
+	 * @return aggregated batch
+	 */
+	private static AggregatedBatch aggregateBatch(String dir,
+			ArrayList<RunData> runs, BatchData structure, boolean streaming,
+			boolean nmode) {
+		// read and aggregate batches one after the other
+		if (streaming)
+			return StreamingAggregation.aggregateBatch(dir, runs, structure);
+
+		// iterate over runs and read batches
+		ArrayList<BatchData> batches = new ArrayList<BatchData>(runs.size());
+		for (int i = 0; i < runs.size(); i++) {
+			try {
+				batches.add(readBatch(dir, i, structure));
+			} catch (Exception e) {
+				if (nmode)
+					batches.add(new BatchData(-1));
+			}
+		}
+
+		// aggregate
+		AggregatedValueList aStats = aggregateBatchStatistics(batches);
+		AggregatedRunTimeList aGeneralRuntimes = aggregateGeneralRuntimes(batches);
+		AggregatedRunTimeList aMetricRuntimes = aggregateMetricRuntimes(batches);
+		AggregatedMetricList aMetrics = aggregateMetrics(batches);
+
+		// craft aggregated batch
+		return new AggregatedBatch(structure.getTimestamp(), aStats,
+				aGeneralRuntimes, aMetricRuntimes, aMetrics);
+	}
+
+	/**
+	 * Writes an aggregated batch to the aggregation directory of the series.
+	 */
+	private static void writeAggregatedBatch(String dir, AggregatedBatch batch,
+			boolean singleFile) throws IOException {
+		String aggdir = Dir.getAggregationDataDir(dir);
+		if (singleFile)
+			batch.writeSingleFile(aggdir, batch.getTimestamp(), Dir.delimiter);
+		else
+			batch.write(Dir.getBatchDataDir(aggdir, batch.getTimestamp()));
+	}
+
+	/**
+	 * @param batches
+	 *            number of batches to aggregate
+	 * @return number of batches that are aggregated concurrently (as specified
+	 *         by AGGREGATION_PARALLELISM, values < 1 select the number of
+	 *         available processors)
+	 */
+	private static int getParallelism(int batches) {
+		int parallelism = Config.getInt("AGGREGATION_PARALLELISM");
+		if (parallelism < 1)
+			parallelism = Runtime.getRuntime().availableProcessors();
+		return Math.max(1, Math.min(parallelism, batches));
+	}
+
+	/**
+	 * Aggregates the batches of several runs concurrently. Each batch (i.e.,
+	 * timestamp) is read and aggregated by one of 'parallelism' worker
+	 * threads. At most AGGREGATION_WINDOW batches (2 * parallelism in case it
+	 * is < 1) are read or waiting to be written at the same time, so the
+	 * memory required is bounded independent of the number of batches. The
+	 * aggregated batches are written by the calling thread in the order of
+	 * their timestamps, the first exception thrown by a worker is re-thrown.
+	 * 
+	 * @param dir
+	 *            Directory in which the runs are located.
+	 * @param runs
+	 *            ArrayList containing the runs.
+	 * @param maxRun
+	 *            run with the most batches, its batches define the structure.
+	 * @return Array of AggregatedBatch-objects.
+	 * @throws IOException
+	 */
+	private static AggregatedBatch[] aggregateRunsConcurrently(
+			final String dir, final ArrayList<RunData> runs, RunData maxRun,
+			final boolean streaming, final boolean nmode, boolean singleFile,
+			int parallelism) throws IOException {
+		int window = Config.getInt("AGGREGATION_WINDOW");
+		if (window < parallelism)
+			window = window < 1 ? 2 * parallelism : parallelism;
+		int amount = maxRun.getBatches().size();
+		Log.info("aggregating " + amount + " batches concurrently ("
+				+ parallelism + " threads, window: " + window + ")");
+
+		AggregatedBatch[] aBatches = new AggregatedBatch[amount];
+		ArrayDeque<Future<AggregatedBatch>> pending = new ArrayDeque<Future<AggregatedBatch>>(
+				window);
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		int written = 0;
+		int gcCounter = 1;
+		try {
+			for (int batchId = 0; batchId < amount; batchId++) {
+				// wait for the oldest batch before exceeding the window
+				if (pending.size() == window) {
+					aBatches[written] = writeNext(dir, pending, singleFile);
+					if (callGC(written, gcCounter))
+						gcCounter++;
+					written++;
+				}
+				final BatchData structure = maxRun.getBatches().get(batchId);
+				pending.add(executor.submit(new Callable<AggregatedBatch>() {
+					@Override
+					public AggregatedBatch call() throws Exception {
+						return aggregateBatch(dir, runs, structure, streaming,
+								nmode);
+					}
+				}));
+			}
+			while (!pending.isEmpty()) {
+				aBatches[written] = writeNext(dir, pending, singleFile);
+				if (callGC(written, gcCounter))
+					gcCounter++;
+				written++;
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return aBatches;
+	}
+
+	/**
+	 * Waits for the oldest pending batch and writes it.
+	 * 
+	 * @return empty AggregatedBatch with the timestamp of the written batch
+	 * @throws IOException
+	 */
+	private static AggregatedBatch writeNext(String dir,
+			ArrayDeque<Future<AggregatedBatch>> pending, boolean singleFile)
+			throws IOException {
+		AggregatedBatch batch;
+		try {
+			batch = pending.poll().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("interrupted while aggregating", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			else if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			else if (cause instanceof Error)
+				throw (Error) cause;
+			throw new RuntimeException(cause);
+		}
+		Log.info("\tBatch: " + batch.getTimestamp() + " (memory: "
+				+ (new Memory()).getUsed() + ")");
+		writeAggregatedBatch(dir, batch, singleFile);
+		return new AggregatedBatch(batch.getTimestamp());
+	}
+
+	/**
+	 * Reads the values of a batch of a single run.
+	 * 
+	 * @param dir
+	 *            Directory in which the runs are located.
+	 * @param run
+	 *            Index of the run.
+	 * @param structure
+	 *            BatchData object containing the structure of the batch.
+	 * @return BatchData object read from the run.
+	 * @throws IOException
+	 */
+	static BatchData readBatch(String dir, int run, BatchData structure)
+			throws IOException {
+		long timestamp = structure.getTimestamp();
+		if (Config.getBoolean("GENERATION_BATCHES_AS_ZIP"))
+			return BatchData.readBatchValuesFromSingleFile(
+					Dir.getRunDataDir(dir, run), timestamp, Dir.delimiter,
+					structure);
+		else
+			return BatchData.readBatchValues(
+					Dir.getBatchDataDir(dir, run, timestamp), timestamp,
+					structure);
+	}
+
 	/**
 	 * Aggregates the statistics of several batches.
 	 * 
@@ -874,12 +1064,8 @@ public class Aggregation {
 			aBatches[batchId] = new AggregatedBatch(timestamp);
 
 			// call garbage collection
-			if (Config.getBoolean("AGGREGATION_CALL_GC")
-					&& batchId == Config.getInt("AGGREGATION_GC_OCCURENCE")
-							* gcCounter) {
-				System.gc();
+			if (callGC(batchId, gcCounter))
 				gcCounter++;
-			}
 		}
 
 		// return
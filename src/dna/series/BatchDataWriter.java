@@ -0,0 +1,256 @@
+package dna.series;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import dna.io.filesystem.Dir;
+import dna.io.filesystem.Files;
+import dna.profiler.Profiler;
+import dna.series.data.BatchData;
+import dna.util.Config;
+import dna.util.Log;
+
+/**
+ * Writes the BatchData of a run (as a batch dir or a single zip file per
+ * batch) in a background thread so that the next batch can be generated while
+ * the previous ones are written (cf. SeriesGeneration.generateRun).
+ *
+ * At most 'capacity' BatchData are pending at a time, write blocks until the
+ * oldest one has been written in case this limit is reached. Since metrics
+ * update their data in place, a copy of each BatchData is handed to the
+ * background thread (cf. BatchData.copy). An exception thrown while writing is
+ * re-thrown by the next call of write or close.
+ *
+ * In case of a live simulation (deadline > 0), the BatchData is written to a
+ * temporary dir / file that is renamed when the deadline is reached. Only the
+ * thread writing the BatchData waits for the deadline, i.e., the caller can
+ * generate the next batches meanwhile (at most 'capacity' ahead).
+ *
+ * With a capacity of 0 or while the profiler is active, all BatchData are
+ * written synchronously.
+ *
+ * @author benni
+ *
+ */
+public class BatchDataWriter {
+
+	private String seriesDir;
+
+	private int run;
+
+	private boolean singleFile;
+
+	private int capacity;
+
+	private ExecutorService executor;
+
+	private ArrayDeque<Future<Void>> pending;
+
+	/**
+	 *
+	 * @param seriesDir
+	 *            dir of the series
+	 * @param run
+	 *            index of the run
+	 * @param singleFile
+	 *            true to write each BatchData as a single zip file
+	 * @param capacity
+	 *            maximum number of BatchData pending at a time (0: synchronous
+	 *            writing)
+	 */
+	public BatchDataWriter(String seriesDir, int run, boolean singleFile,
+			int capacity) {
+		this.seriesDir = seriesDir;
+		this.run = run;
+		this.singleFile = singleFile;
+		this.capacity = capacity;
+		if (this.capacity > 0 && Profiler.isActive()) {
+			Log.warn("profiler is active, writing batch data synchronously");
+			this.capacity = 0;
+		}
+		if (this.capacity > 0) {
+			this.executor = Executors.newSingleThreadExecutor();
+			this.pending = new ArrayDeque<Future<Void>>(this.capacity);
+		}
+	}
+
+	/**
+	 * writes the initial data of the run (errors of writing it as a single
+	 * file are only printed)
+	 */
+	public void writeInitialData(BatchData initialData) throws IOException {
+		this.write(initialData, true, 0);
+	}
+
+	/**
+	 *
+	 * @param batchData
+	 *            BatchData to write
+	 * @param deadline
+	 *            time (in ms) at which the BatchData is renamed from its
+	 *            temporary dir / file (0 in case no live system is simulated)
+	 * @throws IOException
+	 *             in case writing this or a previous BatchData failed
+	 */
+	public void write(BatchData batchData, long deadline) throws IOException {
+		this.write(batchData, false, deadline);
+	}
+
+	private void write(BatchData batchData, final boolean initial,
+			final long deadline) throws IOException {
+		if (this.executor == null) {
+			this.writeNow(batchData, initial, deadline);
+			return;
+		}
+
+		final BatchData copy = batchData.copy();
+		while (this.pending.size() >= this.capacity) {
+			this.await(this.pending.poll());
+		}
+		this.pending.add(this.executor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				BatchDataWriter.this.writeNow(copy, initial, deadline);
+				return null;
+			}
+		}));
+	}
+
+	private void writeNow(BatchData batchData, boolean initial, long deadline)
+			throws IOException {
+		if (initial) {
+			if (!this.singleFile) {
+				batchData.write(Dir.getBatchDataDir(this.seriesDir, this.run,
+						batchData.getTimestamp()));
+			} else {
+				try {
+					batchData.writeSingleFile(
+							Dir.getRunDataDir(this.seriesDir, this.run),
+							batchData.getTimestamp(),
+							Config.get("SUFFIX_ZIP_FILE"), Dir.delimiter);
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		} else if (deadline > 0) {
+			this.writeLive(batchData, deadline);
+		} else {
+			if (this.singleFile)
+				batchData.writeSingleFile(
+						Dir.getRunDataDir(this.seriesDir, this.run),
+						batchData.getTimestamp(),
+						Config.get("SUFFIX_ZIP_FILE"), Dir.delimiter);
+			else
+				batchData.write(Dir.getBatchDataDir(this.seriesDir, this.run,
+						batchData.getTimestamp()));
+		}
+	}
+
+	/**
+	 * writes the BatchData to a temporary dir / file which is renamed at the
+	 * given deadline (live display simulation)
+	 */
+	private void writeLive(BatchData batchData, long deadline)
+			throws IOException {
+		String actualDir;
+		String dirTemp;
+
+		if (this.singleFile) {
+			String nonZipDir = Dir.getBatchDataDir(this.seriesDir, this.run,
+					batchData.getTimestamp());
+			actualDir = nonZipDir.substring(0, nonZipDir.length() - 1)
+					+ Config.get("SUFFIX_ZIP_FILE");
+			dirTemp = actualDir + Dir.tempSuffix;
+		} else {
+			actualDir = Dir.getBatchDataDir(this.seriesDir, this.run,
+					batchData.getTimestamp());
+			dirTemp = actualDir.substring(0, actualDir.length() - 1)
+					+ Dir.tempSuffix + Dir.delimiter;
+		}
+
+		// rename directory
+		File srcDir = new File(dirTemp);
+		File dstDir = new File(actualDir);
+
+		Files.delete(srcDir);
+		Files.delete(dstDir);
+
+		// write
+		if (this.singleFile)
+			batchData.writeSingleFile(
+					Dir.getRunDataDir(this.seriesDir, this.run),
+					batchData.getTimestamp(), Config.get("SUFFIX_ZIP_FILE")
+							+ Dir.tempSuffix, Dir.delimiter);
+		else
+			batchData.write(dirTemp);
+
+		// live display simulation
+		long waitTime = deadline - System.currentTimeMillis();
+		if (waitTime > 0) {
+			try {
+				Thread.sleep(waitTime);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		// rename
+		if (srcDir.exists())
+			srcDir.renameTo(dstDir);
+	}
+
+	private void await(Future<Void> f) throws IOException {
+		try {
+			f.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this.shutdown();
+			throw new RuntimeException("interrupted while writing batch data",
+					e);
+		} catch (ExecutionException e) {
+			this.shutdown();
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * waits until all pending BatchData have been written and stops the
+	 * background thread
+	 *
+	 * @throws IOException
+	 *             in case writing a BatchData failed
+	 */
+	public void close() throws IOException {
+		if (this.executor == null) {
+			return;
+		}
+		while (!this.pending.isEmpty()) {
+			this.await(this.pending.poll());
+		}
+		this.shutdown();
+	}
+
+	/**
+	 * stops the background thread without waiting for pending BatchData (in
+	 * case the generation of the run failed)
+	 */
+	public void shutdown() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+		}
+	}
+}
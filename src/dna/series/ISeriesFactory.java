@@ -0,0 +1,16 @@
+package dna.series;
+
+/**
+ * 
+ * creates new, independent instances of a series, i.e., each call must return
+ * a series with new instances of the graph generator, batch generator, metrics
+ * and graph data structure (with the same configuration, dir and name). it is
+ * used to generate the runs of a series concurrently instead of copies of the
+ * series (cf. Series.setFactory(ISeriesFactory) and Series.copy()).
+ * 
+ * @author benni
+ * 
+ */
+public interface ISeriesFactory {
+	public Series newSeries();
+}
@@ -0,0 +1,82 @@
+package dna.series;
+
+import java.util.concurrent.Callable;
+
+import dna.graph.datastructures.GraphDataStructure;
+import dna.metrics.Metric;
+import dna.updates.batch.Batch;
+import dna.util.Rand;
+import dna.util.RandomSource;
+import dna.util.Timer;
+
+/**
+ *
+ * application of a single metric after a batch (applyAfterBatch and / or
+ * recomputation) that is executed by a worker thread. the task carries the
+ * gds of the generating thread and the random source of the metric (cf.
+ * SeriesGeneration.getMetricRandomSources) so that the metric is executed in
+ * the same environment as in a sequential application. its
+ * runtime is recorded by the TimerAspects (cf. getTimer()) and added to the
+ * runtimes of the generating thread once all tasks have been executed.
+ *
+ * @author benni
+ *
+ */
+public class MetricTask implements Callable<Void> {
+
+	private Metric metric;
+
+	private Batch batch;
+
+	private GraphDataStructure gds;
+
+	private RandomSource rand;
+
+	private Timer timer;
+
+	/**
+	 *
+	 * @param metric
+	 *            metric to apply
+	 * @param batch
+	 *            batch that has been applied to the graph
+	 * @param gds
+	 *            gds of the generating thread
+	 * @param rand
+	 *            random source used by the metric
+	 */
+	public MetricTask(Metric metric, Batch batch, GraphDataStructure gds,
+			RandomSource rand) {
+		this.metric = metric;
+		this.batch = batch;
+		this.gds = gds;
+		this.rand = rand;
+	}
+
+	public Metric getMetric() {
+		return this.metric;
+	}
+
+	public Timer getTimer() {
+		return this.timer;
+	}
+
+	public void setTimer(Timer timer) {
+		this.timer = timer;
+	}
+
+	@Override
+	public Void call() {
+		GraphDataStructure.setCurrentThread(this.gds);
+		Rand.init(this.rand);
+		if (this.metric.isAppliedAfterBatch()) {
+			this.metric.applyAfterBatch(this.batch);
+		}
+		if (this.metric.isRecomputed()) {
+			this.metric.init();
+			this.metric.compute();
+		}
+		return null;
+	}
+
+}
@@ -6,13 +6,16 @@ import dna.graph.Graph;
 import dna.graph.generators.GraphGenerator;
 import dna.metrics.Metric;
 import dna.metrics.MetricNotApplicableException;
+import dna.metrics.extent.Extent;
 import dna.series.aggdata.AggregatedBatch.BatchReadMode;
 import dna.series.aggdata.AggregatedSeries;
 import dna.series.data.SeriesData;
 import dna.updates.generators.BatchGenerator;
+import dna.updates.samplingAlgorithms.SamplingAlgorithm;
 import dna.util.Config;
 import dna.util.Log;
 import dna.util.Rand;
+import dna.util.RandomSource;
 
 public class Series {
 
@@ -104,6 +107,23 @@ public class Series {
 
 	private String name;
 
+	/**
+	 * added to timestamp-based seeds, used to avoid identical seeds for runs
+	 * that are generated at the same time
+	 */
+	private long seedOffset = 0;
+
+	private boolean parallelMetrics = Config
+			.getBoolean("GENERATION_PARALLEL_METRICS");
+
+	private ISeriesFactory factory = null;
+
+	/**
+	 * stream the random sources of the metrics are split off (cf.
+	 * getMetricRandom()), separate from the random source of the run
+	 */
+	private RandomSource metricRandom = null;
+
 	public GraphGenerator getGraphGenerator() {
 		return this.graphGenerator;
 	}
@@ -168,15 +188,46 @@ public class Series {
 		this.seed = seed;
 	}
 
+	public void setSeedOffset(long seedOffset) {
+		this.seedOffset = seedOffset;
+	}
+
+	/**
+	 * re-initializes the random source of the current thread with the seed of
+	 * this series. the graph and batch generator each obtain a separate stream
+	 * split off this source so that their output does not depend on the random
+	 * numbers consumed by other components (e.g., metrics or data structures).
+	 * the metrics obtain a third stream (cf. getMetricRandom()).
+	 */
 	public void resetRand() {
 		if (this.randomSeedType == RandomSeedType.timestamp) {
-			this.seed = System.currentTimeMillis();
+			this.seed = System.currentTimeMillis() + this.seedOffset;
 		}
 		Rand.init(this.seed);
+		RandomSource rand = Rand.get();
+		this.graphGenerator.setRandom(rand.split());
+		this.batchGenerator.setRandom(rand.split());
+		this.metricRandom = rand.split();
 		Log.debug("resetting random seed to " + this.seed + " ("
 				+ this.randomSeedReset + "/" + this.randomSeedType + ")");
 	}
 
+	/**
+	 * the random sources used by the metrics after each batch are split off
+	 * this stream (cf. SeriesGeneration.computeNextBatch) so that applying the
+	 * metrics never advances the random source of the run, which is used to
+	 * generate the graph and its updates (e.g., the weights of new edges).
+	 * 
+	 * @return stream of the metrics, split off the random source of the
+	 *         current thread once in case the random seed has not been reset
+	 */
+	public RandomSource getMetricRandom() {
+		if (this.metricRandom == null) {
+			this.metricRandom = Rand.get().split();
+		}
+		return this.metricRandom;
+	}
+
 	private boolean callGC = Config.getBoolean("GENERATION_CALL_GC");
 	private int gcOccurence = Config.getInt("GENERATION_GC_OCCURENCE");
 
@@ -191,4 +242,73 @@ public class Series {
 	public int getGcOccurence() {
 		return this.gcOccurence;
 	}
+
+	/**
+	 * 
+	 * @return true if the metrics are applied after a batch / recomputed
+	 *         concurrently (cf. MetricTask)
+	 */
+	public boolean isParallelMetrics() {
+		return this.parallelMetrics;
+	}
+
+	public void setParallelMetrics(boolean parallelMetrics) {
+		this.parallelMetrics = parallelMetrics;
+	}
+
+	/**
+	 * 
+	 * @return factory to create independent instances of this series (null
+	 *         in case copies of this series are used, cf. copy())
+	 */
+	public ISeriesFactory getFactory() {
+		return this.factory;
+	}
+
+	/**
+	 * sets the factory used to create a separate instance of this series for
+	 * each run in case runs are generated concurrently (cf.
+	 * GENERATION_RUNS_PARALLELISM).
+	 * 
+	 * @param factory
+	 *            factory to create independent instances of this series
+	 */
+	public void setFactory(ISeriesFactory factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * creates an independent instance of this series from copies of its graph
+	 * generator, batch generator and metrics (cf. GraphGenerator.copy,
+	 * BatchGenerator.copy and Metric.copy). it is used to generate runs
+	 * concurrently in case no factory is set. Extent metrics that observe the
+	 * batch generator of this series observe the copy of it.
+	 * 
+	 * graph generators whose output depends on the previous runs (e.g.,
+	 * ReadableDirGraph which reads the next file for each run) are copied in
+	 * their current state, SeriesGeneration skips the graphs of the preceding
+	 * runs using GraphGenerator.skip.
+	 * 
+	 * @return copy of this series with the same dir, name and settings
+	 */
+	public Series copy() {
+		BatchGenerator bg = this.batchGenerator.copy();
+		Metric[] metrics = new Metric[this.metrics.length];
+		for (int i = 0; i < metrics.length; i++) {
+			metrics[i] = this.metrics[i].copy();
+			if (metrics[i] instanceof Extent
+					&& ((Extent) metrics[i]).getAlgorithm() == this.batchGenerator) {
+				((Extent) metrics[i]).setAlgorithm((SamplingAlgorithm) bg);
+			}
+		}
+		Series s = new Series(this.graphGenerator.copy(), bg, metrics,
+				this.dir, this.name);
+		s.randomSeedType = this.randomSeedType;
+		s.randomSeedReset = this.randomSeedReset;
+		s.seed = this.seed;
+		s.callGC = this.callGC;
+		s.gcOccurence = this.gcOccurence;
+		s.parallelMetrics = this.parallelMetrics;
+		return s;
+	}
 }
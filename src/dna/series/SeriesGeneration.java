@@ -1,14 +1,23 @@
 package dna.series;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileSystem;
-
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import dna.graph.Graph;
+import dna.graph.datastructures.GraphDataStructure;
 import dna.io.filesystem.Dir;
-import dna.io.filesystem.Files;
 import dna.metrics.Metric;
 import dna.metrics.Metric.MetricType;
 import dna.metrics.MetricNotApplicableException;
+import dna.profiler.Profiler;
 import dna.series.Series.RandomSeedReset;
 import dna.series.aggdata.AggregatedSeries;
 import dna.series.data.BatchData;
@@ -21,11 +30,35 @@ import dna.updates.update.Update;
 import dna.util.Config;
 import dna.util.Log;
 import dna.util.Memory;
+import dna.util.Parallel;
+import dna.util.Rand;
+import dna.util.RandomSource;
 
 public class SeriesGeneration {
 
-	public static FileSystem writeFileSystem;
-	public static FileSystem readFileSystem;
+	/**
+	 * zip file systems used for writing / reading batches as single files.
+	 * they are stored per thread so that runs can be generated (and written)
+	 * concurrently.
+	 */
+	private static ThreadLocal<FileSystem> writeFileSystem = new ThreadLocal<FileSystem>();
+	private static ThreadLocal<FileSystem> readFileSystem = new ThreadLocal<FileSystem>();
+
+	public static FileSystem getWriteFileSystem() {
+		return writeFileSystem.get();
+	}
+
+	public static void setWriteFileSystem(FileSystem fs) {
+		writeFileSystem.set(fs);
+	}
+
+	public static FileSystem getReadFileSystem() {
+		return readFileSystem.get();
+	}
+
+	public static void setReadFileSystem(FileSystem fs) {
+		readFileSystem.set(fs);
+	}
 
 	public static SeriesData generate(Series series, int runs, int batches)
 			throws AggregationException, IOException,
@@ -97,15 +130,21 @@ public class SeriesGeneration {
 		}
 
 		// generate all runs
-		for (int r = 0; r < runs; r++) {
-			// reset rand per batch / run
-			if (series.getRandomSeedReset() == RandomSeedReset.eachRun) {
-				series.resetRand();
-			}
+		int parallelism = SeriesGeneration.getRunParallelism(series, runs);
+		if (parallelism > 1) {
+			SeriesGeneration.generateRunsConcurrently(series, 0, runs - 1,
+					batches, compare, write, batchGenerationTime, parallelism);
+		} else {
+			for (int r = 0; r < runs; r++) {
+				// reset rand per batch / run
+				if (series.getRandomSeedReset() == RandomSeedReset.eachRun) {
+					series.resetRand();
+				}
 
-			// generate runW
-			SeriesGeneration.generateRun(series, r, batches, compare, write,
-					batchGenerationTime);
+				// generate runW
+				SeriesGeneration.generateRun(series, r, batches, compare,
+						write, batchGenerationTime);
+			}
 		}
 
 		// read series data structure for aggregation
@@ -164,12 +203,183 @@ public class SeriesGeneration {
 			MetricNotApplicableException {
 		int runs = to - from;
 
+		int parallelism = SeriesGeneration.getRunParallelism(series, runs + 1);
+		if (parallelism > 1) {
+			SeriesGeneration.generateRunsConcurrently(series, from, to,
+					batches, compare, write, batchGenerationTime, parallelism);
+			return;
+		}
+
 		for (int i = 0; i <= runs; i++) {
 			SeriesGeneration.generateRun(series, from + i, batches, compare,
 					write, batchGenerationTime);
 		}
 	}
 
+	/**
+	 * 
+	 * @param series
+	 *            series to generate
+	 * @param runs
+	 *            number of runs to generate
+	 * @return number of runs that can be generated concurrently (as specified
+	 *         by GENERATION_RUNS_PARALLELISM), 1 in case the random seed is
+	 *         reset eachSeries / never (runs share a single random sequence)
+	 *         or the profiler is active
+	 */
+	private static int getRunParallelism(Series series, int runs) {
+		int parallelism = Config.getInt("GENERATION_RUNS_PARALLELISM");
+		if (parallelism < 1) {
+			parallelism = Runtime.getRuntime().availableProcessors();
+		}
+		parallelism = Math.min(parallelism, runs);
+		if (parallelism <= 1) {
+			return 1;
+		}
+		if (series.getRandomSeedReset() == RandomSeedReset.eachSeries
+				|| series.getRandomSeedReset() == RandomSeedReset.never) {
+			Log.warn("random seed is reset " + series.getRandomSeedReset()
+					+ ", generating runs sequentially");
+			return 1;
+		}
+		if (Profiler.isActive()) {
+			Log.warn("profiler is active, generating runs sequentially");
+			return 1;
+		}
+		return parallelism;
+	}
+
+	/**
+	 * Generates the runs from 'from' to 'to' (inclusive) concurrently. each
+	 * run is generated in a separate thread using a new instance of the series
+	 * obtained from its factory or a copy of it (with the same random seed
+	 * settings, cf. Series.copy). the copy of the graph generator used for run
+	 * r skips the graphs of the runs 'from' to r-1 (cf. GraphGenerator.skip)
+	 * so that each run generates the same graph as in a sequential
+	 * generation. at most
+	 * 'parallelism' runs are generated at the same time. this method returns
+	 * after all runs have been generated, the first exception thrown by a run
+	 * is re-thrown.
+	 * 
+	 * note that the memory usage recorded for each batch refers to the whole
+	 * JVM, i.e., includes all runs generated at the same time.
+	 * 
+	 * @param series
+	 *            Series for which the runs will be generated
+	 * @param from
+	 *            Index of the first run
+	 * @param to
+	 *            Index of the last run
+	 * @param batches
+	 *            Amount of batches that will be generated
+	 * @param compare
+	 *            Flag that decides whether metrics will be automatically
+	 *            compared or not
+	 * @param write
+	 *            Flag that decides whether data will be written on the
+	 *            filesystem or not
+	 * @param batchGenerationTime
+	 *            Long variable representing the artificial generation-time for
+	 *            each batch. Used to simulate a live system.
+	 * @param parallelism
+	 *            maximum number of runs generated at the same time
+	 * @throws IOException
+	 * @throws MetricNotApplicableException
+	 */
+	private static void generateRunsConcurrently(final Series series,
+			final int from, int to, final int batches, final boolean compare,
+			final boolean write, final long batchGenerationTime,
+			int parallelism) throws IOException, MetricNotApplicableException {
+		Log.info("generating runs " + from + " - " + to + " concurrently ("
+				+ parallelism + " threads)");
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		ArrayList<Future<Void>> futures = new ArrayList<Future<Void>>();
+		for (int r = from; r <= to; r++) {
+			final int run = r;
+			futures.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					Series s = SeriesGeneration.newRunSeries(series, run,
+							run - from);
+					SeriesGeneration.generateRun(s, run, batches, compare,
+							write, batchGenerationTime);
+					return null;
+				}
+			}));
+		}
+		executor.shutdown();
+
+		try {
+			for (Future<Void> f : futures) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			executor.shutdownNow();
+			throw new RuntimeException("interrupted while generating runs", e);
+		} catch (ExecutionException e) {
+			executor.shutdownNow();
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof MetricNotApplicableException) {
+				throw (MetricNotApplicableException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+
+		if (series.getFactory() == null) {
+			series.getGraphGenerator().skip(to - from + 1);
+		}
+	}
+
+	/**
+	 * creates the instance of the given series used to generate a single run
+	 * concurrently to other runs.
+	 * 
+	 * @param series
+	 *            series the runs are generated for
+	 * @param run
+	 *            index of the run
+	 * @param skip
+	 *            number of graphs the copy of the graph generator skips (runs
+	 *            generated before this one in a sequential generation)
+	 * @return new instance of the series (obtained from its factory or a copy
+	 *         of it) with the same random seed settings, the random source of
+	 *         the current thread is initialized if the series is reset each
+	 *         run
+	 */
+	private static Series newRunSeries(Series series, int run, int skip) {
+		Series s;
+		if (series.getFactory() != null) {
+			s = series.getFactory().newSeries();
+			if (s == series || !s.getDir().equals(series.getDir())) {
+				throw new IllegalArgumentException(
+						"factory must create a new series with dir "
+								+ series.getDir());
+			}
+		} else {
+			s = series.copy();
+			s.getGraphGenerator().skip(skip);
+		}
+		s.setRandomSeedType(series.getRandomSeedType());
+		s.setRandomSeedReset(series.getRandomSeedReset());
+		s.setSeed(series.getSeed());
+		s.setSeedOffset(run);
+		s.setCallGC(series.isCallGC());
+		s.setParallelMetrics(series.isParallelMetrics());
+
+		if (series.getRandomSeedReset() == RandomSeedReset.eachRun) {
+			s.resetRand();
+		}
+		return s;
+	}
+
 	/**
 	 * Generates one run of a given series
 	 * 
@@ -184,7 +394,8 @@ public class SeriesGeneration {
 	 *            compared or not
 	 * @param write
 	 *            Flag that decides whether data will be written on the
-	 *            filesystem or not
+	 *            filesystem or not (in the background, cf.
+	 *            BatchDataWriter)
 	 * @param batchGenerationTime
 	 *            Long variable representing the artificial generation-time for
 	 *            each batch. Used to simulate a live system.
@@ -214,116 +425,74 @@ public class SeriesGeneration {
 		if (compare) {
 			SeriesGeneration.compareMetrics(series);
 		}
-		if (write) {
-			if (!singleFile) {
-				initialData.write(Dir.getBatchDataDir(series.getDir(), run,
-						initialData.getTimestamp()));
-			} else {
-				try {
-					initialData.writeSingleFile(
-							Dir.getRunDataDir(series.getDir(), run),
-							initialData.getTimestamp(),
-							Config.get("SUFFIX_ZIP_FILE"), Dir.delimiter);
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
+		BatchDataWriter writer = write ? new BatchDataWriter(series.getDir(),
+				run, singleFile, Config.getInt("GENERATION_WRITER_QUEUE_SIZE"))
+				: null;
+		try {
+			if (write) {
+				writer.writeInitialData(initialData);
 			}
-		}
 
-		// garbage collection counter
-		int gcCounter = 1;
+			// garbage collection counter
+			int gcCounter = 1;
 
-		// generate batch data
-		for (int i = 0; i < batches; i++) {
-			if (!series.getBatchGenerator().isFurtherBatchPossible(
-					series.getGraph())) {
-				Log.info("    no further batch possible (generated " + i
-						+ " of " + batches + ")");
-				break;
-			}
 			// * live display simulation
-			long batchGenerationStart = System.currentTimeMillis();
+			long deadline = 0;
 			// *
 
-			// reset rand per batch
-			if (series.getRandomSeedReset() == RandomSeedReset.eachBatch) {
-				series.resetRand();
-			}
+			// generate batch data
+			for (int i = 0; i < batches; i++) {
+				if (!series.getBatchGenerator().isFurtherBatchPossible(
+						series.getGraph())) {
+					Log.info("    no further batch possible (generated " + i
+							+ " of " + batches + ")");
+					break;
+				}
+				// * live display simulation
+				long batchGenerationStart = System.currentTimeMillis();
+				// *
 
-			BatchData batchData = SeriesGeneration.generateNextBatch(series);
+				// reset rand per batch
+				if (series.getRandomSeedReset() == RandomSeedReset.eachBatch) {
+					series.resetRand();
+				}
 
-			if (compare) {
-				SeriesGeneration.compareMetrics(series);
-			}
-			if (write) {
-				if (batchGenerationTime > 0) {
-					// generation simulation
-					String actualDir;
-					String dirTemp;
-
-					if (singleFile) {
-						String nonZipDir = Dir.getBatchDataDir(series.getDir(),
-								run, batchData.getTimestamp());
-						actualDir = nonZipDir.substring(0,
-								nonZipDir.length() - 1)
-								+ Config.get("SUFFIX_ZIP_FILE");
-						dirTemp = actualDir + Dir.tempSuffix;
-					} else {
-						actualDir = Dir.getBatchDataDir(series.getDir(), run,
-								batchData.getTimestamp());
-						dirTemp = actualDir
-								.substring(0, actualDir.length() - 1)
-								+ Dir.tempSuffix + Dir.delimiter;
-					}
+				BatchData batchData = SeriesGeneration
+						.generateNextBatch(series);
 
-					// rename directory
-					File srcDir = new File(dirTemp);
-					File dstDir = new File(actualDir);
-
-					Files.delete(srcDir);
-					Files.delete(dstDir);
-
-					// write
-					if (singleFile)
-						batchData.writeSingleFile(
-								Dir.getRunDataDir(series.getDir(), run),
-								batchData.getTimestamp(),
-								Config.get("SUFFIX_ZIP_FILE") + Dir.tempSuffix,
-								Dir.delimiter);
-					else
-						batchData.write(dirTemp);
-
-					// live display simulation
-					long waitTime = batchGenerationTime
-							- (System.currentTimeMillis() - batchGenerationStart);
-					if (waitTime > 0) {
-						try {
-							Thread.sleep(waitTime);
-						} catch (InterruptedException e) {
-							e.printStackTrace();
-						}
+				if (compare) {
+					SeriesGeneration.compareMetrics(series);
+				}
+				if (write) {
+					if (batchGenerationTime > 0) {
+						// generation simulation: the batch data is renamed
+						// from its temporary dir by the writer at the deadline
+						// (not before the one of the previous batch) while the
+						// next batches are generated
+						deadline = Math.max(deadline, batchGenerationStart)
+								+ batchGenerationTime;
+						writer.write(batchData, deadline);
+					} else {
+						// no generation simulation
+						writer.write(batchData, 0);
 					}
+				}
 
-					// rename
-					if (srcDir.exists())
-						srcDir.renameTo(dstDir);
-				} else {
-					// no generation simulation
-					if (singleFile)
-						batchData.writeSingleFile(
-								Dir.getRunDataDir(series.getDir(), run),
-								batchData.getTimestamp(),
-								Config.get("SUFFIX_ZIP_FILE"), Dir.delimiter);
-					else
-						batchData.write(Dir.getBatchDataDir(series.getDir(),
-								run, batchData.getTimestamp()));
+				// call garbage collection
+				if (series.isCallGC()
+						&& i == series.getGcOccurence() * gcCounter) {
+					System.gc();
+					gcCounter++;
 				}
 			}
 
-			// call garbage collection
-			if (series.isCallGC() && i == series.getGcOccurence() * gcCounter) {
-				System.gc();
-				gcCounter++;
+			// wait for all batch data to be written
+			if (write) {
+				writer.close();
+			}
+		} finally {
+			if (write) {
+				writer.shutdown();
 			}
 		}
 	}
@@ -357,6 +526,14 @@ public class SeriesGeneration {
 			throws MetricNotApplicableException {
 		Log.info("    initial data");
 
+		// off-heap lists and nodes of the previous graph are not re-used
+		if (series.getGraphGenerator().getGraphDataStructure() != null) {
+			series.getGraphGenerator().getGraphDataStructure()
+					.releaseOffHeapStore();
+			series.getGraphGenerator().getGraphDataStructure()
+					.releaseNodeTable();
+		}
+
 		// generate graph
 		series.setGraph(series.getGraphGenerator().generate());
 
@@ -456,6 +633,9 @@ public class SeriesGeneration {
 			}
 		}
 
+		// keep the graph before this batch in case versioning is enabled
+		series.getGraph().getSnapshot();
+
 		// apply before batch
 		for (Metric m : series.getMetrics()) {
 			if (m.isAppliedBeforeBatch()) {
@@ -472,13 +652,21 @@ public class SeriesGeneration {
 
 		int removedNodes = SeriesGeneration.applyUpdates(series,
 				b.getNodeRemovals());
-		int removedEdges = SeriesGeneration.applyUpdates(series,
-				b.getEdgeRemovals());
-
-		int addedNodes = SeriesGeneration.applyUpdates(series,
-				b.getNodeAdditions());
-		int addedEdges = SeriesGeneration.applyUpdates(series,
-				b.getEdgeAdditions());
+		int removedEdges, addedNodes, addedEdges;
+		if (SeriesGeneration.isBulkUpdates(series)) {
+			// no metric needs to be called for single updates
+			Graph g = series.getGraph();
+			removedEdges = g.removeEdges(b.getRemovedEdges());
+			addedNodes = g.addNodes(b.getAddedNodes());
+			addedEdges = g.addEdges(b.getAddedEdges());
+		} else {
+			removedEdges = SeriesGeneration.applyUpdates(series,
+					b.getEdgeRemovals());
+			addedNodes = SeriesGeneration.applyUpdates(series,
+					b.getNodeAdditions());
+			addedEdges = SeriesGeneration.applyUpdates(series,
+					b.getEdgeAdditions());
+		}
 
 		int updatedNodeWeights = SeriesGeneration.applyUpdates(series,
 				b.getNodeWeights());
@@ -487,18 +675,36 @@ public class SeriesGeneration {
 
 		series.getGraph().setTimestamp(b.getTo());
 
-		// apply after batch
-		for (Metric m : series.getMetrics()) {
-			if (m.isAppliedAfterBatch()) {
-				m.applyAfterBatch(b);
-			}
-		}
+		if (SeriesGeneration.isParallelMetrics(series)) {
+			// apply after batch / compute concurrently
+			SeriesGeneration.applyMetricTasks(SeriesGeneration.getMetricTasks(
+					series, b));
+		} else {
+			// same random sources as in the concurrent application
+			RandomSource[] rands = SeriesGeneration
+					.getMetricRandomSources(series);
+			RandomSource rand = Rand.get();
+			try {
+				// apply after batch
+				for (int i = 0; i < series.getMetrics().length; i++) {
+					Metric m = series.getMetrics()[i];
+					if (m.isAppliedAfterBatch()) {
+						Rand.init(rands[i]);
+						m.applyAfterBatch(b);
+					}
+				}
 
-		// compute / cleanup
-		for (Metric m : series.getMetrics()) {
-			if (m.isRecomputed()) {
-				m.init();
-				m.compute();
+				// compute / cleanup
+				for (int i = 0; i < series.getMetrics().length; i++) {
+					Metric m = series.getMetrics()[i];
+					if (m.isRecomputed()) {
+						Rand.init(rands[i]);
+						m.init();
+						m.compute();
+					}
+				}
+			} finally {
+				Rand.init(rand);
 			}
 		}
 
@@ -521,6 +727,103 @@ public class SeriesGeneration {
 		return batchData;
 	}
 
+	/**
+	 * node additions as well as edge additions and removals can be applied
+	 * using the bulk operations of the graph in case no metric is applied
+	 * before / after single updates and the profiler, which observes each
+	 * update, is inactive
+	 */
+	private static boolean isBulkUpdates(Series series) {
+		if (Profiler.isActive()) {
+			return false;
+		}
+		for (Metric m : series.getMetrics()) {
+			if (m.isAppliedBeforeUpdate() || m.isAppliedAfterUpdate()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isParallelMetrics(Series series) {
+		if (!series.isParallelMetrics()) {
+			return false;
+		}
+		if (Profiler.isActive()) {
+			Log.warn("profiler is active, applying metrics sequentially");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * each metric that is applied after the batch or recomputed obtains a
+	 * separate random source split off the metric stream of the run (cf.
+	 * Series.getMetricRandom(), in the order of the metrics). the results are
+	 * the same for the sequential and the concurrent application, do not
+	 * depend on the scheduling and differ between runs. the random source of
+	 * the run, and with it the generated graph and batches, is not changed by
+	 * the metrics.
+	 * 
+	 * @return random source for each metric (null for metrics that are
+	 *         neither applied after the batch nor recomputed)
+	 */
+	private static RandomSource[] getMetricRandomSources(Series series) {
+		RandomSource rand = series.getMetricRandom();
+		RandomSource[] rands = new RandomSource[series.getMetrics().length];
+		for (int i = 0; i < rands.length; i++) {
+			Metric m = series.getMetrics()[i];
+			if (m.isAppliedAfterBatch() || m.isRecomputed()) {
+				rands[i] = rand.split();
+			}
+		}
+		return rands;
+	}
+
+	/**
+	 * creates a task for each metric that is applied after the batch or
+	 * recomputed. since the metrics only read the graph in these phases they
+	 * can be executed concurrently. each task uses the random source of its
+	 * metric (cf. getMetricRandomSources).
+	 */
+	private static MetricTask[] getMetricTasks(Series series, Batch b) {
+		ArrayList<MetricTask> tasks = new ArrayList<MetricTask>();
+		GraphDataStructure gds = series.getGraph().getGraphDatastructures();
+		RandomSource[] rands = SeriesGeneration.getMetricRandomSources(series);
+		for (int i = 0; i < rands.length; i++) {
+			if (rands[i] != null) {
+				tasks.add(new MetricTask(series.getMetrics()[i], b, gds,
+						rands[i]));
+			}
+		}
+		return tasks.toArray(new MetricTask[tasks.size()]);
+	}
+
+	/**
+	 * executes the given tasks in the shared pool (cf. Parallel) and waits
+	 * for all of them to finish. exceptions thrown by a metric are rethrown.
+	 */
+	private static void applyMetricTasks(MetricTask[] tasks) {
+		List<Future<Void>> futures = Parallel.getPool().invokeAll(
+				Arrays.asList(tasks));
+		try {
+			for (Future<Void> f : futures) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("interrupted while applying metrics", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
 	public static BatchData generateNextBatch(Series series)
 			throws MetricNotApplicableException {
 
@@ -0,0 +1,351 @@
+package dna.series;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import dna.series.aggdata.AggregatedBatch;
+import dna.series.aggdata.AggregatedBinnedDistribution;
+import dna.series.aggdata.AggregatedDistribution;
+import dna.series.aggdata.AggregatedDistributionList;
+import dna.series.aggdata.AggregatedMetric;
+import dna.series.aggdata.AggregatedMetricList;
+import dna.series.aggdata.AggregatedNodeValueList;
+import dna.series.aggdata.AggregatedNodeValueListList;
+import dna.series.aggdata.AggregatedRunTimeList;
+import dna.series.aggdata.AggregatedValue;
+import dna.series.aggdata.AggregatedValueList;
+import dna.series.data.BatchData;
+import dna.series.data.BinnedDistributionDouble;
+import dna.series.data.BinnedDistributionInt;
+import dna.series.data.BinnedDistributionLong;
+import dna.series.data.Distribution;
+import dna.series.data.DistributionDouble;
+import dna.series.data.DistributionInt;
+import dna.series.data.DistributionLong;
+import dna.series.data.MetricData;
+import dna.series.data.NodeValueList;
+import dna.series.data.RunData;
+import dna.series.data.RunTime;
+import dna.series.data.Value;
+import dna.series.lists.List;
+import dna.util.Config;
+import dna.util.OnlineStatistics;
+
+/**
+ *
+ * memory-bounded aggregation of a single batch over several runs
+ * (AGGREGATION_STREAMING). in contrast to Aggregation.aggregateRuns, the
+ * batches of all runs are not kept in memory at the same time. instead, they
+ * are read one after the other and added to OnlineStatistics so that only a
+ * single batch and a constant amount of memory per aggregated value are
+ * required, independent of the number of runs.
+ *
+ * missing values are treated as in Aggregation, i.e., a run that does not
+ * contain the batch is counted with 0 for all values (in case
+ * AGGREGATION_IGNORE_MISSING_VALUES is set) and distributions / node value
+ * lists of different length are padded with 0. the structure (names, types of
+ * distributions) is taken from the first batch that has been read.
+ *
+ * @author benni
+ *
+ */
+public class StreamingAggregation {
+
+	private ValueStatistics stats;
+
+	private ValueStatistics generalRuntimes;
+
+	private ValueStatistics metricRuntimes;
+
+	private LinkedHashMap<String, MetricStatistics> metrics;
+
+	/**
+	 * number of batches (including missing ones) that have been added
+	 */
+	private int positions;
+
+	public StreamingAggregation() {
+		this.positions = 0;
+	}
+
+	/**
+	 * reads the batch of all runs one after the other and aggregates them.
+	 *
+	 * @param dir
+	 *            directory of the series
+	 * @param runs
+	 *            runs to aggregate
+	 * @param structure
+	 *            batch containing the structure to read
+	 * @return aggregated batch
+	 */
+	public static AggregatedBatch aggregateBatch(String dir,
+			ArrayList<RunData> runs, BatchData structure) {
+		boolean nmode = Config.getBoolean("AGGREGATION_IGNORE_MISSING_VALUES");
+		StreamingAggregation aggregation = new StreamingAggregation();
+		for (int i = 0; i < runs.size(); i++) {
+			BatchData b;
+			try {
+				b = Aggregation.readBatch(dir, i, structure);
+			} catch (Exception e) {
+				if (nmode)
+					aggregation.addMissing();
+				continue;
+			}
+			aggregation.add(b);
+		}
+		return aggregation.getAggregatedBatch(structure.getTimestamp());
+	}
+
+	/**
+	 * adds a run that does not contain the batch
+	 */
+	public void addMissing() {
+		this.positions++;
+	}
+
+	public void add(BatchData b) {
+		if (this.metrics == null) {
+			this.init(b);
+		}
+		for (Value v : b.getValues().getList()) {
+			this.stats.add(v.getName(), this.positions, v.getValue());
+		}
+		for (RunTime rt : b.getGeneralRuntimes().getList()) {
+			this.generalRuntimes.add(rt.getName(), this.positions,
+					rt.getRuntime());
+		}
+		for (RunTime rt : b.getMetricRuntimes().getList()) {
+			this.metricRuntimes.add(rt.getName(), this.positions,
+					rt.getRuntime());
+		}
+		for (MetricStatistics m : this.metrics.values()) {
+			MetricData md = b.getMetrics().get(m.name);
+			if (md != null) {
+				m.add(md, this.positions);
+			}
+		}
+		this.positions++;
+	}
+
+	private void init(BatchData b) {
+		this.stats = new ValueStatistics(b.getValues().getNames());
+		this.generalRuntimes = new ValueStatistics(b.getGeneralRuntimes()
+				.getNames());
+		this.metricRuntimes = new ValueStatistics(b.getMetricRuntimes()
+				.getNames());
+		this.metrics = new LinkedHashMap<String, MetricStatistics>();
+		for (MetricData m : b.getMetrics().getList()) {
+			this.metrics.put(m.getName(), new MetricStatistics(m));
+		}
+	}
+
+	public AggregatedBatch getAggregatedBatch(long timestamp) {
+		if (this.metrics == null) {
+			return new AggregatedBatch(timestamp);
+		}
+		AggregatedValueList aStats = new AggregatedValueList(this.stats.size());
+		this.stats.aggregate(aStats, this.positions);
+		AggregatedRunTimeList aGeneralRuntimes = new AggregatedRunTimeList(
+				Config.get("BATCH_GENERAL_RUNTIMES"),
+				this.generalRuntimes.size());
+		this.generalRuntimes.aggregate(aGeneralRuntimes, this.positions);
+		AggregatedRunTimeList aMetricRuntimes = new AggregatedRunTimeList(
+				Config.get("BATCH_METRIC_RUNTIMES"), this.metricRuntimes.size());
+		this.metricRuntimes.aggregate(aMetricRuntimes, this.positions);
+		AggregatedMetricList aMetrics = new AggregatedMetricList(
+				this.metrics.size());
+		for (MetricStatistics m : this.metrics.values()) {
+			aMetrics.add(m.aggregate(this.positions));
+		}
+		return new AggregatedBatch(timestamp, aStats, aGeneralRuntimes,
+				aMetricRuntimes, aMetrics);
+	}
+
+	/**
+	 * statistics of a list of single values (identified by their name)
+	 */
+	private static class ValueStatistics {
+		private LinkedHashMap<String, Integer> indexes;
+
+		private OnlineStatistics statistics;
+
+		private ValueStatistics(Iterable<String> names) {
+			this.indexes = new LinkedHashMap<String, Integer>();
+			for (String name : names) {
+				this.indexes.put(name, this.indexes.size());
+			}
+			this.statistics = new OnlineStatistics(this.indexes.size());
+		}
+
+		private int size() {
+			return this.indexes.size();
+		}
+
+		private void add(String name, int position, double value) {
+			Integer index = this.indexes.get(name);
+			if (index != null) {
+				this.statistics.add(index, position, value);
+			}
+		}
+
+		private void aggregate(
+				List<AggregatedValue> list, int positions) {
+			for (Entry<String, Integer> e : this.indexes.entrySet()) {
+				list.add(new AggregatedValue(e.getKey(), this.statistics
+						.getAggregated(e.getValue(), positions)));
+			}
+		}
+	}
+
+	/**
+	 * statistics of the values of a distribution or node value list (identified
+	 * by their index), the rows of the aggregated list start with the index
+	 */
+	private static class ListStatistics {
+		private String name;
+
+		/**
+		 * bin size of binned distributions, NaN otherwise
+		 */
+		private double binsize;
+
+		private OnlineStatistics statistics;
+
+		private ListStatistics(String name, double binsize) {
+			this.name = name;
+			this.binsize = binsize;
+			this.statistics = new OnlineStatistics();
+		}
+
+		private void add(double[] values, int position) {
+			for (int i = 0; i < values.length; i++) {
+				this.statistics.add(i, position, values[i]);
+			}
+		}
+
+		private AggregatedValue[] aggregate(int positions) {
+			AggregatedValue[] aValues = new AggregatedValue[this.statistics
+					.size()];
+			for (int i = 0; i < aValues.length; i++) {
+				double[] aggregated = this.statistics.getAggregated(i,
+						positions);
+				double[] temp = new double[aggregated.length + 1];
+				temp[0] = i;
+				System.arraycopy(aggregated, 0, temp, 1, aggregated.length);
+				aValues[i] = new AggregatedValue(this.name, temp);
+			}
+			return aValues;
+		}
+	}
+
+	private static class MetricStatistics {
+		private String name;
+
+		private ValueStatistics values;
+
+		private LinkedHashMap<String, ListStatistics> distributions;
+
+		private LinkedHashMap<String, ListStatistics> nodevalues;
+
+		private MetricStatistics(MetricData m) {
+			this.name = m.getName();
+			this.values = new ValueStatistics(m.getValues().getNames());
+			this.distributions = new LinkedHashMap<String, ListStatistics>();
+			for (Distribution d : m.getDistributions().getList()) {
+				this.distributions.put(d.getName(),
+						new ListStatistics(d.getName(), getBinSize(d)));
+			}
+			this.nodevalues = new LinkedHashMap<String, ListStatistics>();
+			for (NodeValueList n : m.getNodeValues().getList()) {
+				this.nodevalues.put(n.getName(),
+						new ListStatistics(n.getName(), Double.NaN));
+			}
+		}
+
+		private void add(MetricData m, int position) {
+			for (Value v : m.getValues().getList()) {
+				this.values.add(v.getName(), position, v.getValue());
+			}
+			for (Distribution d : m.getDistributions().getList()) {
+				ListStatistics s = this.distributions.get(d.getName());
+				if (s != null) {
+					s.add(getValues(d), position);
+				}
+			}
+			for (NodeValueList n : m.getNodeValues().getList()) {
+				ListStatistics s = this.nodevalues.get(n.getName());
+				if (s != null) {
+					s.add(n.getValues(), position);
+				}
+			}
+		}
+
+		private AggregatedMetric aggregate(int positions) {
+			AggregatedValueList aValues = new AggregatedValueList(
+					this.values.size());
+			this.values.aggregate(aValues, positions);
+			AggregatedDistributionList aDistributions = new AggregatedDistributionList(
+					this.distributions.size());
+			for (ListStatistics s : this.distributions.values()) {
+				aDistributions.add(getAggregatedDistribution(s, positions));
+			}
+			AggregatedNodeValueListList aNodeValues = new AggregatedNodeValueListList(
+					this.nodevalues.size());
+			for (ListStatistics s : this.nodevalues.values()) {
+				aNodeValues.add(new AggregatedNodeValueList(s.name, s
+						.aggregate(positions)));
+			}
+			return new AggregatedMetric(this.name, aValues, aDistributions,
+					aNodeValues);
+		}
+	}
+
+	/**
+	 * values of a distribution as aggregated by Aggregation, i.e., relative
+	 * to the denominator for int and long distributions
+	 */
+	private static double[] getValues(Distribution d) {
+		if (d instanceof DistributionDouble) {
+			return ((DistributionDouble) d).getDoubleValues();
+		} else if (d instanceof DistributionInt) {
+			DistributionInt di = (DistributionInt) d;
+			int[] v = di.getIntValues();
+			double[] values = new double[v.length];
+			for (int i = 0; i < v.length; i++) {
+				values[i] = v[i] * 1.0 / di.getDenominator();
+			}
+			return values;
+		} else if (d instanceof DistributionLong) {
+			DistributionLong dl = (DistributionLong) d;
+			long[] v = dl.getLongValues();
+			double[] values = new double[v.length];
+			for (int i = 0; i < v.length; i++) {
+				values[i] = v[i] * 1.0 / dl.getDenominator();
+			}
+			return values;
+		} else {
+			return d.getValues();
+		}
+	}
+
+	private static double getBinSize(Distribution d) {
+		if (d instanceof BinnedDistributionDouble)
+			return ((BinnedDistributionDouble) d).getBinSize();
+		if (d instanceof BinnedDistributionInt)
+			return ((BinnedDistributionInt) d).getBinSize();
+		if (d instanceof BinnedDistributionLong)
+			return ((BinnedDistributionLong) d).getBinSize();
+		return Double.NaN;
+	}
+
+	private static AggregatedDistribution getAggregatedDistribution(
+			ListStatistics s, int positions) {
+		AggregatedValue[] aValues = s.aggregate(positions);
+		if (Double.isNaN(s.binsize))
+			return new AggregatedDistribution(s.name, aValues);
+		return new AggregatedBinnedDistribution(s.name, aValues, s.binsize);
+	}
+
+}
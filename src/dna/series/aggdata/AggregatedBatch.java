@@ -2,6 +2,7 @@ package dna.series.aggdata;
 
 import java.io.IOException;
 
+import dna.io.BinaryBatchData;
 import dna.io.ZipWriter;
 import dna.io.filesystem.Files;
 import dna.plot.PlottingConfig;
@@ -82,6 +83,10 @@ public class AggregatedBatch {
 	public void write(String dir) throws IOException {
 		Log.debug("writing AggregatedBatch for " + this.timestamp + " to "
 				+ dir);
+		if (Config.getBoolean("GENERATION_BATCHES_AS_BINARY")) {
+			BinaryBatchData.write(this, dir);
+			return;
+		}
 		this.stats.write(dir,
 				Files.getValuesFilename(Config.get("BATCH_STATS")));
 		this.generalRuntimes
@@ -95,15 +100,18 @@ public class AggregatedBatch {
 	/** Writes the whole aggregated batch in a single zip file **/
 	public void writeSingleFile(String fsDir, long timestamp, String dir)
 			throws IOException {
-		SeriesGeneration.writeFileSystem = ZipWriter.createBatchFileSystem(
-				fsDir, Config.get("SUFFIX_ZIP_FILE"), timestamp);
+		SeriesGeneration.setWriteFileSystem(ZipWriter.createBatchFileSystem(
+				fsDir, Config.get("SUFFIX_ZIP_FILE"), timestamp));
 		this.write(dir);
-		SeriesGeneration.writeFileSystem.close();
-		SeriesGeneration.writeFileSystem = null;
+		SeriesGeneration.getWriteFileSystem().close();
+		SeriesGeneration.setWriteFileSystem(null);
 	}
 
 	public static AggregatedBatch read(String dir, long timestamp,
 			BatchReadMode batchReadMode) throws IOException {
+		if (Config.getBoolean("GENERATION_BATCHES_AS_BINARY"))
+			return BinaryBatchData.readAggregatedBatch(dir, timestamp,
+					batchReadMode);
 		boolean readValues;
 		if (batchReadMode.equals(BatchReadMode.readNoValues)
 				|| batchReadMode.equals(BatchReadMode.readOnlyDistAndNvl))
@@ -128,11 +136,11 @@ public class AggregatedBatch {
 	public static AggregatedBatch readFromSingleFile(String fsDir,
 			long timestamp, String dir, BatchReadMode batchReadMode)
 			throws IOException {
-		SeriesGeneration.readFileSystem = ZipWriter.createBatchFileSystem(
-				fsDir, Config.get("SUFFIX_ZIP_FILE"), timestamp);
+		SeriesGeneration.setReadFileSystem(ZipWriter.createBatchFileSystem(
+				fsDir, Config.get("SUFFIX_ZIP_FILE"), timestamp));
 		AggregatedBatch tempBatchData = read(dir, timestamp, batchReadMode);
-		SeriesGeneration.readFileSystem.close();
-		SeriesGeneration.readFileSystem = null;
+		SeriesGeneration.getReadFileSystem().close();
+		SeriesGeneration.setReadFileSystem(null);
 		return tempBatchData;
 	}
 
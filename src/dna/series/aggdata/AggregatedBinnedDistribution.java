@@ -27,6 +27,10 @@ public class AggregatedBinnedDistribution extends AggregatedDistribution {
 		this.binsize = binsize;
 	}
 
+	public double getBinSize() {
+		return this.binsize;
+	}
+
 	// IO methods
 	public void write(String dir, String filename) throws IOException {
 		Writer w = Writer.getWriter(dir, filename);
@@ -2,6 +2,7 @@ package dna.series.data;
 
 import java.io.IOException;
 
+import dna.io.BinaryBatchData;
 import dna.io.ZipWriter;
 import dna.io.filesystem.Dir;
 import dna.io.filesystem.Files;
@@ -101,8 +102,28 @@ public class BatchData {
 		return this.metrics;
 	}
 
+	/**
+	 * @return copy of this BatchData (without its batch) that can be written
+	 *         while the metrics its data was taken from are updated (cf.
+	 *         MetricData.copy)
+	 */
+	public BatchData copy() {
+		MetricDataList metrics = new MetricDataList(this.metrics.size());
+		for (MetricData m : this.metrics.getList()) {
+			metrics.add(m.copy());
+		}
+		BatchData copy = new BatchData(this.timestamp, this.stats,
+				this.generalRuntimes, this.metricRuntimes, metrics);
+		copy.sanitizationStats = this.sanitizationStats;
+		return copy;
+	}
+
 	public void write(String dir) throws IOException {
 		Log.debug("writing BatchData for " + this.timestamp + " to " + dir);
+		if (Config.getBoolean("GENERATION_BATCHES_AS_BINARY")) {
+			BinaryBatchData.write(this, dir);
+			return;
+		}
 		this.stats.write(dir,
 				Files.getValuesFilename(Config.get("BATCH_STATS")));
 		this.generalRuntimes
@@ -115,6 +136,8 @@ public class BatchData {
 
 	public static BatchData read(String dir, long timestamp, boolean readValues)
 			throws IOException {
+		if (Config.getBoolean("GENERATION_BATCHES_AS_BINARY"))
+			return BinaryBatchData.readBatchData(dir, timestamp, readValues);
 		ValueList values = ValueList.read(dir,
 				Files.getValuesFilename(Config.get("BATCH_STATS")));
 		RunTimeList generalRuntimes = RunTimeList
@@ -139,6 +162,10 @@ public class BatchData {
 	 */
 	public static BatchData readBatchValues(String dir, long timestamp,
 			BatchData b) throws IOException {
+		// binary batches are always read as a whole
+		if (Config.getBoolean("GENERATION_BATCHES_AS_BINARY"))
+			return BinaryBatchData.readBatchData(dir, timestamp, true);
+
 		// read values
 		ValueList values = ValueList.read(dir,
 				Files.getValuesFilename(Config.get("BATCH_STATS")));
@@ -242,32 +269,32 @@ public class BatchData {
 	 */
 	public static BatchData readBatchValuesFromSingleFile(String fsDir,
 			long timestamp, String dir, BatchData structure) throws IOException {
-		SeriesGeneration.readFileSystem = ZipWriter.createBatchFileSystem(
-				fsDir, Config.get("SUFFIX_ZIP_FILE"), timestamp);
+		SeriesGeneration.setReadFileSystem(ZipWriter.createBatchFileSystem(
+				fsDir, Config.get("SUFFIX_ZIP_FILE"), timestamp));
 		BatchData tempBatchData = readBatchValues(dir, timestamp, structure);
-		SeriesGeneration.readFileSystem.close();
-		SeriesGeneration.readFileSystem = null;
+		SeriesGeneration.getReadFileSystem().close();
+		SeriesGeneration.setReadFileSystem(null);
 		return tempBatchData;
 	}
 
 	/** Writes the whole batch in a single zip file **/
 	public void writeSingleFile(String fsDir, long timestamp, String suffix,
 			String dir) throws IOException {
-		SeriesGeneration.writeFileSystem = ZipWriter.createBatchFileSystem(
-				fsDir, suffix, timestamp);
+		SeriesGeneration.setWriteFileSystem(ZipWriter.createBatchFileSystem(
+				fsDir, suffix, timestamp));
 		this.write(dir);
-		SeriesGeneration.writeFileSystem.close();
-		SeriesGeneration.writeFileSystem = null;
+		SeriesGeneration.getWriteFileSystem().close();
+		SeriesGeneration.setWriteFileSystem(null);
 	}
 
 	/** Reads the whole batch from a single zip file **/
 	public static BatchData readFromSingleFile(String fsDir, long timestamp,
 			String dir, boolean readValues) throws IOException {
-		SeriesGeneration.readFileSystem = ZipWriter.createBatchFileSystem(
-				fsDir, Config.get("SUFFIX_ZIP_FILE"), timestamp);
+		SeriesGeneration.setReadFileSystem(ZipWriter.createBatchFileSystem(
+				fsDir, Config.get("SUFFIX_ZIP_FILE"), timestamp));
 		BatchData tempBatchData = read(dir, timestamp, readValues);
-		SeriesGeneration.readFileSystem.close();
-		SeriesGeneration.readFileSystem = null;
+		SeriesGeneration.getReadFileSystem().close();
+		SeriesGeneration.setReadFileSystem(null);
 		return tempBatchData;
 	}
 
@@ -15,7 +15,7 @@ import dna.util.Config;
  * 
  * @date 24.06.2013
  */
-public class Distribution extends Data {
+public class Distribution extends Data implements Cloneable {
 
 	// member variables
 	private double[] values;
@@ -39,6 +39,20 @@ public class Distribution extends Data {
 		return this.values;
 	}
 
+	/**
+	 * @return copy of this distribution that does not share its values with
+	 *         it (e.g., to write it while the original is updated)
+	 */
+	public Distribution copy() {
+		try {
+			Distribution copy = (Distribution) this.clone();
+			copy.values = this.values == null ? null : this.values.clone();
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	// IO Methods
 	/**
 	 * @param dir
@@ -64,6 +64,13 @@ public class DistributionDouble extends Distribution {
 		return this.values;
 	}
 
+	@Override
+	public DistributionDouble copy() {
+		DistributionDouble copy = (DistributionDouble) super.copy();
+		copy.values = this.values == null ? null : this.values.clone();
+		return copy;
+	}
+
 	public int getMin() {
 		int y = 0;
 		while (values[y] < 0) {
@@ -67,6 +67,13 @@ public class DistributionInt extends Distribution {
 		return this.values;
 	}
 
+	@Override
+	public DistributionInt copy() {
+		DistributionInt copy = (DistributionInt) super.copy();
+		copy.values = this.values == null ? null : this.values.clone();
+		return copy;
+	}
+
 	public int getDenominator() {
 		return this.denominator;
 	}
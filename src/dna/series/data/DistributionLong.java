@@ -67,6 +67,13 @@ public class DistributionLong extends Distribution {
 		return this.values;
 	}
 
+	@Override
+	public DistributionLong copy() {
+		DistributionLong copy = (DistributionLong) super.copy();
+		copy.values = this.values == null ? null : this.values.clone();
+		return copy;
+	}
+
 	public long getDenominator() {
 		return this.denominator;
 	}
@@ -127,6 +134,41 @@ public class DistributionLong extends Distribution {
 		this.denominator++;
 	}
 
+	/**
+	 * Increments a value of the distribution by the given count. Note: Also
+	 * increments the denominator!
+	 * 
+	 * @param index
+	 *            Index of the value that will be incremented.
+	 * @param count
+	 *            Number the value (and the denominator) is incremented by.
+	 */
+	public void incr(int index, long count) {
+		if (index >= this.values.length) {
+			this.values = ArrayUtils.set(this.values, index, count, 0);
+		} else {
+			this.values[index] += count;
+		}
+		this.denominator += count;
+	}
+
+	/**
+	 * Adds all values of the given distribution to this one, e.g., to merge
+	 * distributions computed by separate threads. Note: Also increments the
+	 * denominator!
+	 * 
+	 * @param d
+	 *            Distribution whose values are added.
+	 */
+	public void add(DistributionLong d) {
+		long[] v = d.getLongValues();
+		for (int i = v.length - 1; i >= 0; i--) {
+			if (v[i] != 0) {
+				this.incr(i, v[i]);
+			}
+		}
+	}
+
 	/**
 	 * Decrements a value of the distribution. Note: Also decrements the
 	 * denominator!
@@ -179,6 +179,37 @@ public class MetricData implements ListItem {
 		return this.distributions;
 	}
 
+	/**
+	 * @return copy of this MetricData that does not share any distribution or
+	 *         node value list with it (values are immutable and shared)
+	 */
+	public MetricData copy() {
+		DistributionList distributions = null;
+		if (this.distributions != null) {
+			distributions = new DistributionList(this.distributions.size());
+			for (Distribution d : this.distributions.getList()) {
+				distributions.add(d.copy());
+			}
+		}
+		NodeValueListList nodevalues = null;
+		if (this.nodevalues != null) {
+			nodevalues = new NodeValueListList(this.nodevalues.size());
+			for (NodeValueList n : this.nodevalues.getList()) {
+				nodevalues.add(n.copy());
+			}
+		}
+		NodeNodeValueListList nodenodevalues = null;
+		if (this.nodenodevalues != null) {
+			nodenodevalues = new NodeNodeValueListList(
+					this.nodenodevalues.size());
+			for (NodeNodeValueList n : this.nodenodevalues.getList()) {
+				nodenodevalues.add(n.copy());
+			}
+		}
+		return new MetricData(this.name, this.type, this.values,
+				distributions, nodevalues, nodenodevalues);
+	}
+
 	public void write(String dir) throws IOException {
 		this.values.write(dir,
 				Files.getValuesFilename(Config.get("METRIC_DATA_VALUES")));
@@ -53,6 +53,20 @@ public class NodeNodeValueList extends Data {
 		return this.values;
 	}
 
+	/**
+	 * @return copy of this list that does not share its values with it
+	 */
+	public NodeNodeValueList copy() {
+		if (this.values == null) {
+			return new NodeNodeValueList(this.getName(), null);
+		}
+		double[][] values = new double[this.values.length][];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = this.values[i] == null ? null : this.values[i].clone();
+		}
+		return new NodeNodeValueList(this.getName(), values);
+	}
+
 	/** Returns the node values of the node with the given index. **/
 	public double[] getValuesByIndex(int index) {
 		try {
@@ -46,6 +46,14 @@ public class NodeValueList extends Data {
 		return this.values;
 	}
 
+	/**
+	 * @return copy of this list that does not share its values with it
+	 */
+	public NodeValueList copy() {
+		return new NodeValueList(this.getName(), this.values == null ? null
+				: this.values.clone());
+	}
+
 	public void setValue(int index, double value) {
 		this.values = ArrayUtils.set(this.values, index, value,
 				NodeValueList.emptyValue);
@@ -0,0 +1,170 @@
+package dna.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.generators.random.RandomGraph;
+import dna.graph.nodes.UndirectedNode;
+import dna.metrics.Metric;
+import dna.metrics.clusterCoefficient.UndirectedClusteringCoefficientR;
+import dna.metrics.degree.DegreeDistributionR;
+import dna.series.Aggregation;
+import dna.series.Series;
+import dna.series.Series.RandomSeedReset;
+import dna.series.Series.RandomSeedType;
+import dna.series.aggdata.AggregatedBatch;
+import dna.series.aggdata.AggregatedBatch.BatchReadMode;
+import dna.series.aggdata.AggregatedDistribution;
+import dna.series.aggdata.AggregatedMetric;
+import dna.series.aggdata.AggregatedNodeValueList;
+import dna.series.aggdata.AggregatedSeries;
+import dna.series.aggdata.AggregatedValue;
+import dna.series.data.SeriesData;
+import dna.updates.generators.random.RandomBatch;
+import dna.util.Config;
+
+/**
+ * compares the streaming (AGGREGATION_STREAMING) and concurrent
+ * (AGGREGATION_PARALLELISM) aggregation of the runs of a series with the
+ * aggregation of lists of all batches. since there are at most 5 runs, the
+ * streaming aggregation is exact as well (cf. OnlineStatistics).
+ */
+public class AggregationTest {
+	private static final String[] KEYS = new String[] {
+			"AGGREGATION_STREAMING", "AGGREGATION_PARALLELISM",
+			"AGGREGATION_WINDOW", "AGGREGATION_CALL_GC",
+			"AGGREGATION_GC_OCCURENCE" };
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String[] values;
+
+	private SeriesData sd;
+
+	@Before
+	public void init() throws Exception {
+		this.values = new String[KEYS.length];
+		for (int i = 0; i < KEYS.length; i++) {
+			this.values[i] = Config.get(KEYS[i]);
+		}
+
+		GraphDataStructure gds = new GraphDataStructure(
+				GraphDataStructure.getList(ListType.GlobalNodeList,
+						DArray.class, ListType.GlobalEdgeList,
+						DArrayList.class, ListType.LocalEdgeList,
+						DArrayList.class), UndirectedNode.class,
+				UndirectedEdge.class);
+		String dir = this.folder.getRoot().getAbsolutePath() + File.separator;
+		Series s = new Series(new RandomGraph(gds, 50, 150), new RandomBatch(
+				5, 5, 20, 20), new Metric[] { new DegreeDistributionR(),
+				new UndirectedClusteringCoefficientR() }, dir, "series");
+		s.setRandomSeedType(RandomSeedType.fixed);
+		s.setRandomSeedReset(RandomSeedReset.eachSeries);
+		this.sd = s.generate(4, 6, false, false, true, 0);
+	}
+
+	@After
+	public void restore() {
+		for (int i = 0; i < KEYS.length; i++) {
+			Config.overwrite(KEYS[i], this.values[i]);
+		}
+	}
+
+	/**
+	 * aggregates the series using the given settings and reads the result
+	 *
+	 * @return all aggregated values by timestamp, metric and name
+	 */
+	private Map<String, double[]> aggregate(boolean streaming,
+			int parallelism, int window) throws Exception {
+		Config.overwrite("AGGREGATION_STREAMING", Boolean.toString(streaming));
+		Config.overwrite("AGGREGATION_PARALLELISM",
+				Integer.toString(parallelism));
+		Config.overwrite("AGGREGATION_WINDOW", Integer.toString(window));
+		Config.overwrite("AGGREGATION_CALL_GC", "true");
+		Config.overwrite("AGGREGATION_GC_OCCURENCE", "2");
+		Aggregation.aggregateSeries(this.sd);
+
+		AggregatedSeries aggr = AggregatedSeries.read(this.sd.getDir(),
+				this.sd.getName(), BatchReadMode.readAllValues);
+		TreeMap<String, double[]> values = new TreeMap<String, double[]>();
+		for (AggregatedBatch b : aggr.getBatches()) {
+			String prefix = b.getTimestamp() + "/";
+			add(values, prefix + "values/", b.getValues().getList());
+			add(values, prefix + "general/", b.getGeneralRuntimes()
+					.getList());
+			add(values, prefix + "metric/", b.getMetricRuntimes().getList());
+			for (AggregatedMetric m : b.getMetrics().getList()) {
+				String mPrefix = prefix + m.getName() + "/";
+				add(values, mPrefix, m.getValues().getList());
+				for (AggregatedDistribution d : m.getDistributions()
+						.getList()) {
+					add(values, mPrefix + d.getName() + "/", d.getValues());
+				}
+				for (AggregatedNodeValueList nvl : m.getNodeValues()
+						.getList()) {
+					add(values, mPrefix + nvl.getName() + "/",
+							nvl.getValues());
+				}
+			}
+		}
+		return values;
+	}
+
+	private static void add(Map<String, double[]> values, String prefix,
+			Iterable<AggregatedValue> list) {
+		for (AggregatedValue v : list) {
+			values.put(prefix + v.getName(), v.getValues());
+		}
+	}
+
+	private static void add(Map<String, double[]> values, String prefix,
+			AggregatedValue[] rows) {
+		for (int i = 0; i < rows.length; i++) {
+			if (rows[i] != null) {
+				values.put(prefix + i, rows[i].getValues());
+			}
+		}
+	}
+
+	private static void assertSameAggregation(Map<String, double[]> expected,
+			Map<String, double[]> actual) {
+		assertEquals(expected.keySet(), actual.keySet());
+		for (String key : expected.keySet()) {
+			assertArrayEquals(key, expected.get(key), actual.get(key), 1e-9);
+		}
+	}
+
+	@Test
+	public void streamingAggregationMatchesListAggregation() throws Exception {
+		Map<String, double[]> expected = this.aggregate(false, 1, 0);
+		assertTrue(expected.size() > 0);
+		assertSameAggregation(expected, this.aggregate(true, 1, 0));
+	}
+
+	@Test
+	public void concurrentAggregationMatchesListAggregation()
+			throws Exception {
+		Map<String, double[]> expected = this.aggregate(false, 1, 0);
+		assertSameAggregation(expected, this.aggregate(false, 3, 0));
+		assertSameAggregation(expected, this.aggregate(false, 2, 2));
+		assertSameAggregation(expected, this.aggregate(true, 3, 4));
+	}
+}
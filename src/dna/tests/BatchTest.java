@@ -1,6 +1,8 @@
 package dna.tests;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
@@ -20,6 +22,7 @@ import org.junit.runners.Parameterized;
 
 import dna.graph.ClassPointers;
 import dna.graph.Graph;
+import dna.graph.IElement;
 import dna.graph.datastructures.DEmpty;
 import dna.graph.datastructures.DataStructure.ListType;
 import dna.graph.datastructures.GraphDataStructure;
@@ -43,8 +46,12 @@ import dna.graph.weights.IntWeight;
 import dna.graph.weights.Weight.WeightSelection;
 import dna.io.BatchReader;
 import dna.io.BatchWriter;
+import dna.io.BinaryBatchReader;
+import dna.io.BinaryGraphReader;
+import dna.io.BinaryGraphWriter;
 import dna.io.GraphReader;
 import dna.io.GraphWriter;
+import dna.io.InvalidFormatException;
 import dna.updates.batch.Batch;
 import dna.updates.batch.BatchSanitization;
 import dna.updates.generators.BatchGenerator;
@@ -161,12 +168,12 @@ public class BatchTest {
 			IllegalArgumentException, InvocationTargetException {
 
 		ArrayList<EnumMap<ListType, Class<? extends IDataStructure>>> simpleCombinations = GraphDataStructure
-				.getSimpleDatastructureCombinations();
+				.getTestDatastructureCombinations();
 
 		ArrayList<Object> result = new ArrayList<>();
 		for (EnumMap<ListType, Class<? extends IDataStructure>> combination : simpleCombinations) {
 			for (Class generator : ClassPointers.graphGenerators) {
-				for (Class edgeType : ClassPointers.edgeTypes) {
+				for (Class<?> edgeType : ClassPointers.edgeTypes) {
 					for (Class nodeType : ClassPointers.nodeTypes) {
 						if ((UndirectedEdge.class.isAssignableFrom(edgeType) && DirectedNode.class
 								.isAssignableFrom(nodeType))
@@ -183,7 +190,11 @@ public class BatchTest {
 								|| combination.get(ListType.LocalEdgeList) == DEmpty.class)
 							continue;
 
-						if (Rand.rand.nextInt(20) > 3)
+						if (!GraphDataStructure.validListTypesSet(combination,
+								edgeType.asSubclass(Edge.class)))
+							continue;
+
+						if (Rand.get().nextInt(20) > 3)
 							continue;
 
 						result.add(new Object[] { combination, nodeType,
@@ -286,4 +297,131 @@ public class BatchTest {
 
 	}
 
+	@Test
+	public void binaryGraphWriteAndRead() throws ClassNotFoundException,
+			IOException {
+		String tempFolder = folder.newFolder().getAbsolutePath();
+
+		Graph g = gg.generate();
+		assertTrue(BinaryGraphWriter.write(g, tempFolder, "gGen"));
+		assertTrue(BinaryGraphReader.isBinary(tempFolder, "gGen"));
+		assertEquals(g.getName(), GraphReader.readName(tempFolder, "gGen"));
+
+		Graph gRead = GraphReader.read(tempFolder, "gGen");
+		assertEquals(g, gRead);
+
+		Batch b = bGen.generate(g);
+		BatchSanitization.sanitize(b);
+		b.apply(g);
+		assertTrue(BinaryGraphWriter.write(g, tempFolder, "gGenUpdated"));
+		assertEquals(g, GraphReader.read(tempFolder, "gGenUpdated"));
+	}
+
+	@Test(expected = InvalidFormatException.class)
+	public void binaryGraphReaderRejectsTextGraphs() throws IOException {
+		String tempFolder = folder.newFolder().getAbsolutePath();
+
+		Graph g = gg.generate();
+		GraphWriter.write(g, tempFolder, "gGen");
+		assertFalse(BinaryGraphReader.isBinary(tempFolder, "gGen"));
+		BinaryGraphReader.read(tempFolder, "gGen");
+	}
+
+	@Test
+	public void binaryBatchWriteAndRead() throws ClassNotFoundException,
+			IOException {
+		String tempFolder = folder.newFolder().getAbsolutePath();
+
+		Graph g = gg.generate();
+		GraphWriter.write(g, tempFolder, "gGen");
+		Graph gRead = GraphReader.read(tempFolder, "gGen");
+		Graph gApplied = GraphReader.read(tempFolder, "gGen");
+
+		Batch b = bGen.generate(g);
+		BatchSanitization.sanitize(b);
+
+		assertTrue(BatchWriter.write(b, tempFolder, "bGen", true));
+		assertTrue(BinaryBatchReader.isBinary(tempFolder, "bGen"));
+		assertArrayEquals(new long[] { b.getFrom(), b.getTo() },
+				BatchReader.readTimestamps(tempFolder, "bGen"));
+
+		Batch b2 = BatchReader.read(tempFolder, "bGen", gRead);
+		assertEquals(b, b2);
+
+		assertTrue(b.apply(g));
+		assertTrue(b2.apply(gRead));
+		assertEquals(g, gRead);
+
+		// apply the updates while decoding them
+		assertTrue(BinaryBatchReader.apply(tempFolder, "bGen", gApplied));
+		assertEquals(g, gApplied);
+	}
+
+	@Test
+	public void binaryBatchKeepsEdgeWeights() throws ClassNotFoundException,
+			IOException {
+		assumeTrue(IWeighted.class.isAssignableFrom(edgeType));
+		String tempFolder = folder.newFolder().getAbsolutePath();
+
+		Graph g = gg.generate();
+		GraphWriter.write(g, tempFolder, "gGen");
+		Graph gRead = GraphReader.read(tempFolder, "gGen");
+
+		Batch b;
+		do {
+			b = bGen.generate(g);
+			BatchSanitization.sanitize(b);
+		} while (b.getEdgeWeightsCount() == 0);
+
+		assertTrue(BatchWriter.write(b, tempFolder, "bGen", true));
+		Batch b2 = BatchReader.read(tempFolder, "bGen", gRead);
+		assertEquals(b, b2);
+
+		assertTrue(b.apply(g));
+		assertTrue(b2.apply(gRead));
+		assertEquals(g, gRead);
+		for (IElement e_ : g.getEdges()) {
+			Edge e = (Edge) e_;
+			assertEquals(((IWeighted) e).getWeight(),
+					((IWeighted) gRead.getEdge(e.getN1Index(), e.getN2Index()))
+							.getWeight());
+		}
+	}
+
+	@Test
+	public void binaryEmptyBatchWriteAndRead() throws ClassNotFoundException,
+			IOException {
+		String tempFolder = folder.newFolder().getAbsolutePath();
+
+		Graph g = gg.generate();
+		GraphWriter.write(g, tempFolder, "gGen");
+		Graph gRead = GraphReader.read(tempFolder, "gGen");
+
+		Batch b = new Batch(gds, g.getTimestamp(), g.getTimestamp() + 1);
+		assertTrue(BatchWriter.write(b, tempFolder, "bEmpty", true));
+		assertTrue(BinaryBatchReader.isBinary(tempFolder, "bEmpty"));
+
+		Batch b2 = BatchReader.read(tempFolder, "bEmpty", gRead);
+		assertEquals(b, b2);
+		assertEquals(0, b2.getSize());
+		assertEquals(b.getTo(), b2.getTo());
+
+		assertTrue(BinaryBatchReader.apply(tempFolder, "bEmpty", gRead));
+		assertEquals(b.getTo(), gRead.getTimestamp());
+		assertEquals(g.getNodeCount(), gRead.getNodeCount());
+		assertEquals(g.getEdgeCount(), gRead.getEdgeCount());
+	}
+
+	@Test(expected = InvalidFormatException.class)
+	public void binaryBatchReaderRejectsTextBatches() throws IOException {
+		String tempFolder = folder.newFolder().getAbsolutePath();
+
+		Graph g = gg.generate();
+		Batch b = bGen.generate(g);
+		BatchSanitization.sanitize(b);
+		assertTrue(BatchWriter.write(b, tempFolder, "bGen", false));
+		assertFalse(BinaryBatchReader.isBinary(tempFolder, "bGen"));
+		new BinaryBatchReader(tempFolder, "bGen", g);
+	}
+
 }
@@ -0,0 +1,347 @@
+package dna.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.generators.GraphGenerator;
+import dna.graph.generators.random.RandomGraph;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.metrics.Metric;
+import dna.metrics.betweenessCentrality.BCStorage;
+import dna.metrics.betweenessCentrality.BCStorage.BCStorageType;
+import dna.metrics.betweenessCentrality.BCStorage.ParentTable;
+import dna.metrics.betweenessCentrality.BetweenessCentralityR;
+import dna.metrics.betweenessCentrality.BetweenessCentralityU;
+import dna.updates.batch.Batch;
+import dna.updates.batch.BatchSanitization;
+import dna.updates.generators.BatchGenerator;
+import dna.updates.generators.random.RandomBatch;
+import dna.updates.update.Update;
+import dna.util.RandomSource;
+
+@RunWith(Parameterized.class)
+public class BetweenessCentralityTest {
+	private GraphDataStructure gds;
+
+	public BetweenessCentralityTest(Class<? extends Node> nodeType,
+			Class<? extends Edge> edgeType) {
+		this.gds = new GraphDataStructure(GraphDataStructure.getList(
+				ListType.GlobalNodeList, DArray.class, ListType.GlobalEdgeList,
+				DArrayList.class, ListType.LocalEdgeList, DArrayList.class),
+				nodeType, edgeType);
+	}
+
+	@Parameterized.Parameters(name = "{0} {1}")
+	public static Collection<Object[]> testPairs() {
+		ArrayList<Object[]> result = new ArrayList<Object[]>();
+		result.add(new Object[] { DirectedNode.class, DirectedEdge.class });
+		result.add(new Object[] { UndirectedNode.class, UndirectedEdge.class });
+		return result;
+	}
+
+	private Graph newGraph() {
+		return this.newGraph(60, 200, 42);
+	}
+
+	private Graph newGraph(int nodes, int edges, long seed) {
+		GraphGenerator gg = new RandomGraph(this.gds, nodes, edges);
+		gg.setRandom(RandomSource.newInstance(seed));
+		return gg.generate();
+	}
+
+	/**
+	 * random graph whose node indices are multiples of 16, i.e., all parents
+	 * of a node fall into the same bucket of a HashSet of default capacity
+	 */
+	private Graph newSparseGraph(int nodes, int edges, long seed) {
+		Graph g = this.gds.newGraphInstance("sparse", 0, nodes, edges);
+		Node[] n = new Node[nodes];
+		for (int i = 0; i < nodes; i++) {
+			n[i] = this.gds.newNodeInstance(16 * i);
+			assertTrue(g.addNode(n[i]));
+		}
+		Random rand = new Random(seed);
+		while (g.getEdgeCount() < edges) {
+			Node n1 = n[rand.nextInt(nodes)];
+			Node n2 = n[rand.nextInt(nodes)];
+			Edge e = this.gds.newEdgeInstance(n1, n2);
+			if (n1 != n2 && !g.containsEdge(e)) {
+				assertTrue(g.addEdge(e));
+				e.connectToNodes();
+			}
+		}
+		return g;
+	}
+
+	private static BatchGenerator newBatchGenerator() {
+		return newBatchGenerator(43);
+	}
+
+	private static BatchGenerator newBatchGenerator(long seed) {
+		BatchGenerator bGen = new RandomBatch(2, 2, 20, 20);
+		bGen.setRandom(RandomSource.newInstance(seed));
+		return bGen;
+	}
+
+	private static void compute(Graph g, Metric m) {
+		m.setGraph(g);
+		m.init();
+		m.compute();
+	}
+
+	/**
+	 * applies the updates of the batch in the same order as SeriesGeneration
+	 */
+	private static void apply(Graph g, Batch b, Metric m) {
+		BatchSanitization.sanitize(b);
+		apply(g, b.getNodeRemovals(), m);
+		apply(g, b.getEdgeRemovals(), m);
+		apply(g, b.getNodeAdditions(), m);
+		apply(g, b.getEdgeAdditions(), m);
+		g.setTimestamp(b.getTo());
+	}
+
+	private static void apply(Graph g, Iterable<? extends Update> updates,
+			Metric m) {
+		for (Update u : updates) {
+			assertTrue(u.apply(g));
+			m.applyAfterUpdate(u);
+		}
+	}
+
+	/**
+	 * both metrics are applied to separate (but identical) graphs since
+	 * BetweenessCentralityU temporarily re-inserts removed nodes
+	 */
+	@Test
+	public void arrayStorageMatchesHashMapStorage() {
+		Graph g1 = this.newGraph();
+		Graph g2 = this.newGraph();
+		BetweenessCentralityU maps = new BetweenessCentralityU(
+				BCStorageType.HashMaps);
+		BetweenessCentralityU arrays = new BetweenessCentralityU(
+				BCStorageType.PrimitiveArrays);
+		compute(g1, maps);
+		compute(g2, arrays);
+		assertTrue(maps.equals(arrays));
+
+		BatchGenerator bGen1 = newBatchGenerator();
+		BatchGenerator bGen2 = newBatchGenerator();
+		for (int i = 0; i < 10; i++) {
+			apply(g1, bGen1.generate(g1), maps);
+			apply(g2, bGen2.generate(g2), arrays);
+			assertTrue(maps.equals(arrays));
+		}
+
+		BetweenessCentralityR r = new BetweenessCentralityR();
+		compute(g2, r);
+		assertTrue(r.equals(arrays));
+	}
+
+	/**
+	 * BetweenessCentralityU sums up floating point values in the iteration
+	 * order of the storage, i.e., the results of both storages are only
+	 * bitwise identical in case they iterate in the same order
+	 */
+	@Test
+	public void arrayStorageIsBitIdenticalToHashMapStorage() {
+		for (long seed = 0; seed < 6; seed++) {
+			Graph g1 = this.newGraph(seed);
+			Graph g2 = this.newGraph(seed);
+			BetweenessCentralityU maps = new BetweenessCentralityU(
+					BCStorageType.HashMaps);
+			BetweenessCentralityU arrays = new BetweenessCentralityU(
+					BCStorageType.PrimitiveArrays);
+			compute(g1, maps);
+			compute(g2, arrays);
+			assertIdentical(maps, arrays);
+
+			BatchGenerator bGen1 = newBatchGenerator(seed);
+			BatchGenerator bGen2 = newBatchGenerator(seed);
+			for (int i = 0; i < 10; i++) {
+				apply(g1, bGen1.generate(g1), maps);
+				apply(g2, bGen2.generate(g2), arrays);
+				assertIdentical(maps, arrays);
+			}
+		}
+	}
+
+	/**
+	 * sparse random graph, dense random graph (with parent sets that exceed
+	 * the default capacity of a HashSet), or the default random graph
+	 */
+	private Graph newGraph(long seed) {
+		switch ((int) (seed % 3)) {
+		case 0:
+			return this.newSparseGraph(40, 400, seed);
+		case 1:
+			return this.newGraph(30, 300, seed);
+		default:
+			return this.newGraph(60, 200, seed);
+		}
+	}
+
+	private static void assertIdentical(BetweenessCentralityU expected,
+			BetweenessCentralityU actual) {
+		double[] e = expected.getNodeValueLists()[0].getValues();
+		double[] a = actual.getNodeValueLists()[0].getValues();
+		assertEquals(e.length, a.length);
+		for (int i = 0; i < e.length; i++) {
+			assertEquals("bc of node " + i, Double.doubleToLongBits(e[i]),
+					Double.doubleToLongBits(a[i]));
+		}
+		assertEquals(Double.doubleToLongBits(expected.getValues()[0]
+				.getValue()), Double.doubleToLongBits(actual.getValues()[0]
+				.getValue()));
+	}
+
+	/**
+	 * compares the parents stored by PrimitiveArrays with HashSets under the
+	 * same random operations, using indices that collide in the buckets of a
+	 * HashSet (multiples of 64) so that buckets are split and treeified
+	 */
+	@Test
+	public void arrayParentSetsIterateLikeHashSets() {
+		Node[] nodes = new Node[300];
+		ArrayList<IElement> elements = new ArrayList<IElement>();
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = this.gds.newNodeInstance(i % 3 == 0 ? i : 64 * i);
+			elements.add(nodes[i]);
+		}
+		BCStorage storage = BCStorage
+				.newInstance(BCStorageType.PrimitiveArrays);
+		storage.addTree(nodes[0], elements);
+		ParentTable p = storage.getParents(nodes[0]);
+		HashMap<Node, Set<Node>> expected = new HashMap<Node, Set<Node>>();
+		for (Node n : nodes) {
+			expected.put(n, new HashSet<Node>());
+		}
+
+		Random rand = new Random(42);
+		for (int step = 0; step < 40000; step++) {
+			Node n = nodes[rand.nextInt(4)];
+			Node parent = nodes[rand.nextInt(nodes.length)];
+			int op = rand.nextInt(200);
+			if (op < 130) {
+				assertEquals(expected.get(n).add(parent), p.get(n).add(parent));
+			} else if (op < 196) {
+				assertEquals(expected.get(n).remove(parent),
+						p.get(n).remove(parent));
+			} else if (op < 198) {
+				expected.get(n).clear();
+				p.get(n).clear();
+			} else {
+				HashSet<Node> e = new HashSet<Node>();
+				Set<Node> a = storage.newParentSet();
+				for (int i = rand.nextInt(100); i > 0; i--) {
+					Node x = nodes[rand.nextInt(nodes.length)];
+					assertEquals(e.add(x), a.add(x));
+				}
+				HashMap<Node, Set<Node>> newParents = new HashMap<Node, Set<Node>>();
+				newParents.put(n, a);
+				p.putAll(newParents);
+				expected.put(n, e);
+			}
+			assertEquals(expected.get(n).size(), p.get(n).size());
+			assertEquals(expected.get(n).contains(parent),
+					p.get(n).contains(parent));
+			assertEquals(new ArrayList<Node>(expected.get(n)),
+					new ArrayList<Node>(p.get(n)));
+		}
+	}
+
+	/**
+	 * compares the order in which the nodes of a tree are iterated by both
+	 * storages after adding and removing nodes (including a node that is
+	 * added again with the index of a removed one)
+	 */
+	@Test
+	public void arrayTreeNodesIterateLikeHashMaps() {
+		BCStorage maps = BCStorage.newInstance(BCStorageType.HashMaps);
+		BCStorage arrays = BCStorage.newInstance(BCStorageType.PrimitiveArrays);
+		ArrayList<IElement> elements = new ArrayList<IElement>();
+		ArrayList<Node> roots = new ArrayList<Node>();
+		Random rand = new Random(42);
+		for (int i = 0; i < 40; i++) {
+			elements.add(this.gds.newNodeInstance(rand.nextInt(4) * 4096 + i));
+		}
+		for (IElement ie : elements) {
+			maps.addTree((Node) ie, elements);
+			arrays.addTree((Node) ie, elements);
+			roots.add((Node) ie);
+		}
+		for (int i = 0; i < 60; i++) {
+			if (rand.nextBoolean()) {
+				Node n = roots.remove(rand.nextInt(roots.size()));
+				elements.remove(n);
+				maps.removeTree(n);
+				arrays.removeTree(n);
+			} else {
+				Node n = this.gds.newNodeInstance(rand.nextInt(8) == 0 ? 7
+						: 40 + i * 33);
+				if (roots.contains(n)) {
+					continue;
+				}
+				elements.add(n);
+				maps.addNode(n);
+				maps.addTree(n, elements);
+				arrays.addNode(n);
+				arrays.addTree(n, elements);
+				roots.add(n);
+			}
+			for (Node root : roots) {
+				assertEquals(
+						toList(maps.getAccSums(root).getNodes()),
+						toList(arrays.getAccSums(root).getNodes()));
+			}
+		}
+	}
+
+	private static ArrayList<Node> toList(Iterable<Node> nodes) {
+		ArrayList<Node> list = new ArrayList<Node>();
+		for (Node n : nodes) {
+			list.add(n);
+		}
+		return list;
+	}
+
+	@Test
+	public void arrayStorageIsDeterministic() {
+		double[][] values = new double[2][];
+		for (int run = 0; run < values.length; run++) {
+			Graph g = this.newGraph();
+			BetweenessCentralityU arrays = new BetweenessCentralityU(
+					BCStorageType.PrimitiveArrays);
+			compute(g, arrays);
+			BatchGenerator bGen = newBatchGenerator();
+			for (int i = 0; i < 5; i++) {
+				apply(g, bGen.generate(g), arrays);
+			}
+			values[run] = arrays.getNodeValueLists()[0].getValues();
+		}
+		assertArrayEquals(values[0], values[1], 0);
+	}
+}
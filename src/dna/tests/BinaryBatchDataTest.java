@@ -0,0 +1,459 @@
+package dna.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.generators.random.RandomGraph;
+import dna.graph.nodes.UndirectedNode;
+import dna.io.filesystem.Dir;
+import dna.metrics.Metric;
+import dna.metrics.Metric.MetricType;
+import dna.metrics.betweenessCentrality.BetweenessCentralityR;
+import dna.metrics.clusterCoefficient.UndirectedClusteringCoefficientR;
+import dna.metrics.degree.DegreeDistributionR;
+import dna.series.Aggregation;
+import dna.series.Series;
+import dna.series.Series.RandomSeedReset;
+import dna.series.Series.RandomSeedType;
+import dna.series.SeriesStats;
+import dna.series.aggdata.AggregatedBatch;
+import dna.series.aggdata.AggregatedBatch.BatchReadMode;
+import dna.series.aggdata.AggregatedBinnedDistribution;
+import dna.series.aggdata.AggregatedDistribution;
+import dna.series.aggdata.AggregatedMetric;
+import dna.series.aggdata.AggregatedNodeValueList;
+import dna.series.aggdata.AggregatedSeries;
+import dna.series.aggdata.AggregatedValue;
+import dna.series.data.BatchData;
+import dna.series.data.BinnedDistributionDouble;
+import dna.series.data.BinnedDistributionInt;
+import dna.series.data.BinnedDistributionLong;
+import dna.series.data.Distribution;
+import dna.series.data.DistributionDouble;
+import dna.series.data.DistributionInt;
+import dna.series.data.DistributionLong;
+import dna.series.data.MetricData;
+import dna.series.data.NodeNodeValueList;
+import dna.series.data.NodeValueList;
+import dna.series.data.RunTime;
+import dna.series.data.SeriesData;
+import dna.series.data.Value;
+import dna.series.lists.DistributionList;
+import dna.series.lists.MetricDataList;
+import dna.series.lists.NodeNodeValueListList;
+import dna.series.lists.NodeValueListList;
+import dna.series.lists.RunTimeList;
+import dna.series.lists.ValueList;
+import dna.updates.generators.random.RandomBatch;
+import dna.util.Config;
+
+/**
+ * writes BatchData and AggregatedBatch objects in binary format
+ * (GENERATION_BATCHES_AS_BINARY), plain and zipped, and compares what is read
+ * back with the output of the text format readers, for all BatchReadModes and
+ * with and without reading values.
+ */
+public class BinaryBatchDataTest {
+	private static final String[] KEYS = new String[] {
+			"GENERATION_BATCHES_AS_BINARY", "GENERATION_BATCHES_AS_ZIP",
+			"AGGREGATION_STREAMING",
+			"AGGREGATION_PARALLELISM", "AGGREGATION_WINDOW" };
+
+	private static final long TIMESTAMP = 17;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String[] values;
+
+	@Before
+	public void init() {
+		this.values = new String[KEYS.length];
+		for (int i = 0; i < KEYS.length; i++) {
+			this.values[i] = Config.get(KEYS[i]);
+		}
+	}
+
+	@After
+	public void restore() {
+		for (int i = 0; i < KEYS.length; i++) {
+			Config.overwrite(KEYS[i], this.values[i]);
+		}
+	}
+
+	private String getDir(String name) {
+		return this.folder.getRoot().getAbsolutePath() + File.separator + name
+				+ File.separator;
+	}
+
+	private static void setBinary(boolean binary) {
+		setFormat(binary, false);
+	}
+
+	private static void setFormat(boolean binary, boolean zip) {
+		Config.overwrite("GENERATION_BATCHES_AS_BINARY",
+				Boolean.toString(binary));
+		Config.overwrite("GENERATION_BATCHES_AS_ZIP", Boolean.toString(zip));
+	}
+
+	/**
+	 * @return batch containing values, runtimes, all types of distributions
+	 *         and node value lists in two metrics
+	 * @param nodeNodeValues
+	 *            add a node node value list (which the text format reads with
+	 *            its file extension appended to its name)
+	 */
+	private static BatchData newBatchData(boolean nodeNodeValues) {
+		ValueList values = new ValueList();
+		values.add(new Value("nodes", 40));
+		values.add(new Value("edges", 1d / 3));
+		RunTimeList general = new RunTimeList();
+		general.add(new RunTime("total", 12.5));
+		general.add(new RunTime("graphUpdate", 0.125));
+		RunTimeList metric = new RunTimeList();
+		metric.add(new RunTime("m1", 7));
+
+		ValueList mValues = new ValueList();
+		mValues.add(new Value("avg", Math.PI));
+		mValues.add(new Value("max", -2.5e-7));
+		DistributionList distributions = new DistributionList();
+		distributions.add(new Distribution("plain", new double[] { 0.25, 0.75,
+				0 }));
+		distributions.add(new DistributionInt("int", new int[] { 1, 0, 3 }, 4));
+		distributions.add(new DistributionLong("long", new long[] { 5,
+				1L << 40 }, (1L << 40) + 5));
+		distributions.add(new DistributionDouble("double", new double[] {
+				1d / 7, 6d / 7 }));
+		distributions.add(new BinnedDistributionInt("binnedInt", 0.5,
+				new int[] { 2, 2 }, 4));
+		distributions.add(new BinnedDistributionLong("binnedLong", 10,
+				new long[] { 0, 3, 1 }, 4));
+		distributions.add(new BinnedDistributionDouble("binnedDouble", 0.01,
+				new double[] { 0.1, 0.2, 0.7 }));
+		NodeValueListList nodeValues = new NodeValueListList();
+		nodeValues.add(new NodeValueList("nvl", new double[] { 1.5,
+				Double.NaN, 1d / 3, 0 }));
+		NodeNodeValueListList nodeNodeValueLists = new NodeNodeValueListList();
+		if (nodeNodeValues) {
+			nodeNodeValueLists.add(new NodeNodeValueList("nnvl",
+					new double[][] { { 0, 1d / 3 }, { 2.5, 0 } }));
+		}
+
+		MetricDataList metrics = new MetricDataList();
+		metrics.add(new MetricData("m1", MetricType.exact, mValues,
+				distributions, nodeValues, nodeNodeValueLists));
+		ValueList m2Values = new ValueList();
+		m2Values.add(new Value("count", 3));
+		metrics.add(new MetricData("m2", MetricType.heuristic, m2Values,
+				new DistributionList()));
+		return new BatchData(TIMESTAMP, values, general, metric, metrics);
+	}
+
+	@Test
+	public void batchDataRoundTrip() throws Exception {
+		BatchData b = newBatchData(true);
+		String dir = this.getDir("binary");
+		String zipDir = this.getDir("zip");
+		setBinary(true);
+		b.write(dir);
+		b.writeSingleFile(zipDir, TIMESTAMP, Config.get("SUFFIX_ZIP_FILE"),
+				Dir.delimiter);
+		assertSameContent(toMap(b), toMap(BatchData.read(dir, TIMESTAMP, true)));
+		assertSameContent(toMap(b), toMap(BatchData.readFromSingleFile(zipDir,
+				TIMESTAMP, Dir.delimiter, true)));
+
+		BatchData structure = BatchData.read(dir, TIMESTAMP, false);
+		assertEquals(1, structure.getMetrics().get("m1").getNodeNodeValues()
+				.size());
+		assertEquals(null, structure.getMetrics().get("m1")
+				.getNodeNodeValues().get("nnvl").getValues());
+		assertSameContent(toMap(b),
+				toMap(BatchData.readBatchValues(dir, TIMESTAMP, structure)));
+	}
+
+	@Test
+	public void batchDataMatchesTextFormat() throws Exception {
+		BatchData b = newBatchData(false);
+		String textDir = this.getDir("text");
+		String binaryDir = this.getDir("binary");
+		setBinary(false);
+		b.write(textDir);
+		setBinary(true);
+		b.write(binaryDir);
+		assertTrue(new File(binaryDir).list().length == 1);
+
+		for (boolean readValues : new boolean[] { true, false }) {
+			setBinary(false);
+			BatchData text = BatchData.read(textDir, TIMESTAMP, readValues);
+			setBinary(true);
+			BatchData binary = BatchData.read(binaryDir, TIMESTAMP,
+					readValues);
+			assertEquals(TIMESTAMP, binary.getTimestamp());
+			assertSameContent(toMap(text), toMap(binary));
+			if (readValues) {
+				assertSameContent(toMap(b), toMap(binary));
+			}
+		}
+	}
+
+	@Test
+	public void batchValuesMatchTextFormat() throws Exception {
+		BatchData b = newBatchData(false);
+		String textDir = this.getDir("text");
+		String binaryDir = this.getDir("binary");
+		setBinary(false);
+		b.write(textDir);
+		BatchData structure = BatchData.read(textDir, TIMESTAMP, false);
+		BatchData text = BatchData.readBatchValues(textDir, TIMESTAMP,
+				structure);
+		setBinary(true);
+		b.write(binaryDir);
+		BatchData binary = BatchData.readBatchValues(binaryDir, TIMESTAMP,
+				structure);
+		assertSameContent(toMap(text), toMap(binary));
+		assertSameContent(toMap(b), toMap(binary));
+	}
+
+	@Test
+	public void zippedBatchDataMatchesTextFormat() throws Exception {
+		BatchData b = newBatchData(false);
+		String textDir = this.getDir("text");
+		String zipDir = this.getDir("zip");
+		String suffix = Config.get("SUFFIX_ZIP_FILE");
+		setBinary(false);
+		b.write(textDir);
+		setBinary(true);
+		b.writeSingleFile(zipDir, TIMESTAMP, suffix, Dir.delimiter);
+		assertTrue(new File(zipDir).list().length == 1);
+
+		for (boolean readValues : new boolean[] { true, false }) {
+			setBinary(false);
+			BatchData text = BatchData.read(textDir, TIMESTAMP, readValues);
+			setBinary(true);
+			BatchData binary = BatchData.readFromSingleFile(zipDir,
+					TIMESTAMP, Dir.delimiter, readValues);
+			assertSameContent(toMap(text), toMap(binary));
+		}
+	}
+
+	/**
+	 * generates and aggregates the same series in text format, in binary
+	 * format and in zipped binary format and compares the aggregated batches
+	 * read in all BatchReadModes (runtimes and memory usage are measured anew
+	 * by each generation so only their names are compared)
+	 */
+	@Test
+	public void aggregatedBatchMatchesTextFormat() throws Exception {
+		SeriesData text = this.generate("text", false, false);
+		SeriesData binary = this.generate("binary", true, false);
+		SeriesData zip = this.generate("zip", true, true);
+		String aggrDir = Dir.getAggregationDataDir(binary.getDir());
+		assertEquals(1, new File(Dir.getBatchDataDir(aggrDir, 0)).list().length);
+
+		for (BatchReadMode mode : BatchReadMode.values()) {
+			Map<String, String> expected = read(text, false, false, mode);
+			assertTrue(expected.size() > 0);
+			assertSameContent(expected, read(binary, true, false, mode));
+			assertSameContent(expected, read(zip, true, true, mode));
+		}
+	}
+
+	private SeriesData generate(String name, boolean binary, boolean zip)
+			throws Exception {
+		setFormat(binary, zip);
+		Config.overwrite("AGGREGATION_STREAMING", "false");
+		Config.overwrite("AGGREGATION_PARALLELISM", "1");
+		Config.overwrite("AGGREGATION_WINDOW", "0");
+		GraphDataStructure gds = new GraphDataStructure(
+				GraphDataStructure.getList(ListType.GlobalNodeList,
+						DArray.class, ListType.GlobalEdgeList,
+						DArrayList.class, ListType.LocalEdgeList,
+						DArrayList.class), UndirectedNode.class,
+				UndirectedEdge.class);
+		Series s = new Series(new RandomGraph(gds, 30, 80), new RandomBatch(
+				3, 3, 10, 10), new Metric[] { new DegreeDistributionR(),
+				new UndirectedClusteringCoefficientR(),
+				new BetweenessCentralityR() }, this.getDir(name), "series");
+		s.setRandomSeedType(RandomSeedType.fixed);
+		s.setRandomSeedReset(RandomSeedReset.eachSeries);
+		SeriesData sd = s.generate(2, 3, false, false, true, 0);
+		Aggregation.aggregateSeries(sd);
+		return sd;
+	}
+
+	/**
+	 * @return content of all aggregated batches of the series by timestamp
+	 */
+	private static Map<String, String> read(SeriesData sd, boolean binary,
+			boolean zip, BatchReadMode mode) throws Exception {
+		setFormat(binary, zip);
+		AggregatedSeries aggr = AggregatedSeries.read(sd.getDir(),
+				sd.getName(), mode);
+		TreeMap<String, String> map = new TreeMap<String, String>();
+		for (AggregatedBatch b : aggr.getBatches()) {
+			for (Map.Entry<String, String> e : toMap(b).entrySet()) {
+				map.put(b.getTimestamp() + "/" + e.getKey(), e.getValue());
+			}
+		}
+		return map;
+	}
+
+	/*
+	 * CONTENT
+	 */
+
+	private static void assertSameContent(Map<String, String> expected,
+			Map<String, String> actual) {
+		TreeSet<String> missing = new TreeSet<String>(expected.keySet());
+		missing.removeAll(actual.keySet());
+		TreeSet<String> unexpected = new TreeSet<String>(actual.keySet());
+		unexpected.removeAll(expected.keySet());
+		assertTrue("missing " + missing + ", unexpected " + unexpected,
+				missing.isEmpty() && unexpected.isEmpty());
+		for (String key : expected.keySet()) {
+			assertEquals(key, expected.get(key), actual.get(key));
+		}
+	}
+
+	/**
+	 * @return string representation of all values of the batch by metric,
+	 *         type and name
+	 */
+	private static Map<String, String> toMap(BatchData b) {
+		TreeMap<String, String> map = new TreeMap<String, String>();
+		for (Value v : b.getValues().getList()) {
+			map.put("values/" + v.getName(), Double.toString(v.getValue()));
+		}
+		for (RunTime rt : b.getGeneralRuntimes().getList()) {
+			map.put("general/" + rt.getName(),
+					Double.toString(rt.getRuntime()));
+		}
+		for (RunTime rt : b.getMetricRuntimes().getList()) {
+			map.put("metric/" + rt.getName(), Double.toString(rt.getRuntime()));
+		}
+		for (MetricData m : b.getMetrics().getList()) {
+			String prefix = m.getName() + "/";
+			map.put(prefix, m.getType().toString());
+			for (Value v : m.getValues().getList()) {
+				map.put(prefix + "values/" + v.getName(),
+						Double.toString(v.getValue()));
+			}
+			for (Distribution d : m.getDistributions().getList()) {
+				map.put(prefix + "distributions/" + d.getName(), toString(d));
+			}
+			for (NodeValueList nvl : m.getNodeValues().getList()) {
+				map.put(prefix + "nodevalues/" + nvl.getName(),
+						Arrays.toString(nvl.getValues()));
+			}
+			for (NodeNodeValueList nnvl : m.getNodeNodeValues().getList()) {
+				map.put(prefix + "nodenodevalues/" + nnvl.getName(),
+						Arrays.deepToString(nnvl.getValues()));
+			}
+		}
+		return map;
+	}
+
+	private static String toString(Distribution d) {
+		String type = d.getClass().getSimpleName();
+		if (d instanceof BinnedDistributionInt) {
+			BinnedDistributionInt b = (BinnedDistributionInt) d;
+			return type + " " + b.getBinSize() + " " + b.getDenominator() + " "
+					+ Arrays.toString(b.getIntValues());
+		} else if (d instanceof BinnedDistributionLong) {
+			BinnedDistributionLong b = (BinnedDistributionLong) d;
+			return type + " " + b.getBinSize() + " " + b.getDenominator() + " "
+					+ Arrays.toString(b.getLongValues());
+		} else if (d instanceof BinnedDistributionDouble) {
+			BinnedDistributionDouble b = (BinnedDistributionDouble) d;
+			return type + " " + b.getBinSize() + " "
+					+ Arrays.toString(b.getDoubleValues());
+		} else if (d instanceof DistributionInt) {
+			DistributionInt di = (DistributionInt) d;
+			return type + " " + di.getDenominator() + " "
+					+ Arrays.toString(di.getIntValues());
+		} else if (d instanceof DistributionLong) {
+			DistributionLong dl = (DistributionLong) d;
+			return type + " " + dl.getDenominator() + " "
+					+ Arrays.toString(dl.getLongValues());
+		} else if (d instanceof DistributionDouble) {
+			return type + " "
+					+ Arrays.toString(((DistributionDouble) d).getDoubleValues());
+		}
+		return type + " " + Arrays.toString(d.getValues());
+	}
+
+	/**
+	 * @return string representation of all values of the aggregated batch by
+	 *         metric, type and name (only the names of runtimes and memory)
+	 */
+	private static Map<String, String> toMap(AggregatedBatch b) {
+		TreeMap<String, String> map = new TreeMap<String, String>();
+		put(map, "values/", b.getValues().getList());
+		map.put("values/" + SeriesStats.memory, "");
+		for (AggregatedValue v : b.getGeneralRuntimes().getList()) {
+			map.put("general/" + v.getName(), "");
+		}
+		for (AggregatedValue v : b.getMetricRuntimes().getList()) {
+			map.put("metric/" + v.getName(), "");
+		}
+		for (AggregatedMetric m : b.getMetrics().getList()) {
+			String prefix = m.getName() + "/";
+			map.put(prefix, "");
+			put(map, prefix + "values/", m.getValues().getList());
+			for (AggregatedDistribution d : m.getDistributions().getList()) {
+				String dPrefix = prefix + "distributions/" + d.getName();
+				map.put(dPrefix, d.getClass().getSimpleName());
+				if (d instanceof AggregatedBinnedDistribution
+						&& d.getValues() != null) {
+					map.put(dPrefix, d.getClass().getSimpleName()
+							+ " "
+							+ ((AggregatedBinnedDistribution) d).getBinSize());
+				}
+				put(map, dPrefix + "/", d.getValues());
+			}
+			for (AggregatedNodeValueList nvl : m.getNodeValues().getList()) {
+				String nPrefix = prefix + "nodevalues/" + nvl.getName();
+				map.put(nPrefix, "");
+				put(map, nPrefix + "/", nvl.getValues());
+			}
+		}
+		return map;
+	}
+
+	private static void put(Map<String, String> map, String prefix,
+			Iterable<AggregatedValue> values) {
+		for (AggregatedValue v : values) {
+			map.put(prefix + v.getName(), Arrays.toString(v.getValues()));
+		}
+	}
+
+	private static void put(Map<String, String> map, String prefix,
+			AggregatedValue[] rows) {
+		if (rows == null) {
+			return;
+		}
+		for (int i = 0; i < rows.length; i++) {
+			if (rows[i] != null) {
+				map.put(prefix + i + "/" + rows[i].getName(),
+						Arrays.toString(rows[i].getValues()));
+			}
+		}
+	}
+}
@@ -0,0 +1,261 @@
+package dna.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.csr.CSRGraph;
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.generators.GraphGenerator;
+import dna.graph.generators.random.RandomGraph;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.metrics.Metric;
+import dna.metrics.apsp.UnweightedAllPairsShortestPathsR;
+import dna.metrics.betweenessCentrality.BetweenessCentralityR;
+import dna.metrics.betweenessCentrality.BetweenessCentralityU;
+import dna.metrics.clusterCoefficient.UndirectedClusteringCoefficientR;
+import dna.series.data.DistributionLong;
+import dna.util.RandomSource;
+
+/**
+ * compares the metrics computed on the CSR snapshot of a graph with the
+ * results of a traversal of the graph's node and edge objects
+ */
+@RunWith(Parameterized.class)
+public class CSRGraphTest {
+	private GraphDataStructure gds;
+
+	public CSRGraphTest(Class<? extends Node> nodeType,
+			Class<? extends Edge> edgeType) {
+		this.gds = new GraphDataStructure(GraphDataStructure.getList(
+				ListType.GlobalNodeList, DArray.class, ListType.GlobalEdgeList,
+				DArrayList.class, ListType.LocalEdgeList, DArrayList.class),
+				nodeType, edgeType);
+	}
+
+	@Parameterized.Parameters(name = "{0} {1}")
+	public static Collection<Object[]> testPairs() {
+		ArrayList<Object[]> result = new ArrayList<Object[]>();
+		result.add(new Object[] { DirectedNode.class, DirectedEdge.class });
+		result.add(new Object[] { UndirectedNode.class, UndirectedEdge.class });
+		return result;
+	}
+
+	private Graph newGraph() {
+		GraphGenerator gg = new RandomGraph(this.gds, 80, 400);
+		gg.setRandom(RandomSource.newInstance(42));
+		return gg.generate();
+	}
+
+	private static void compute(Graph g, Metric m) {
+		m.setGraph(g);
+		m.init();
+		m.compute();
+	}
+
+	@Test
+	public void csrContainsTheEdgesOfTheGraph() {
+		Graph g = this.newGraph();
+		CSRGraph csr = g.getCSR();
+		assertEquals(g.getNodeCount(), csr.getNodeCount());
+		assertEquals(g.getEdgeCount(), csr.getEdgeCount());
+		for (IElement n_ : g.getNodes()) {
+			Node n = (Node) n_;
+			TreeSet<Integer> out = new TreeSet<Integer>();
+			TreeSet<Integer> in = new TreeSet<Integer>();
+			for (Node m : getOutNeighbors(n)) {
+				out.add(m.getIndex());
+				assertTrue(csr.containsEdge(n.getIndex(), m.getIndex()));
+			}
+			for (Node m : getInNeighbors(n)) {
+				in.add(m.getIndex());
+			}
+			assertEquals(out, getTargets(csr, n.getIndex(), true));
+			assertEquals(in, getTargets(csr, n.getIndex(), false));
+		}
+	}
+
+	@Test
+	public void betweenessCentralityMatchesObjectGraph() {
+		Graph g = this.newGraph();
+		BetweenessCentralityR csr = new BetweenessCentralityR();
+		BetweenessCentralityU objects = new BetweenessCentralityU();
+		compute(g, csr);
+		compute(g, objects);
+		assertTrue(objects.equals(csr));
+	}
+
+	@Test
+	public void apspMatchesObjectGraph() {
+		Graph g = this.newGraph();
+		UnweightedAllPairsShortestPathsR csr = new UnweightedAllPairsShortestPathsR();
+		compute(g, csr);
+		DistributionLong d = (DistributionLong) csr.getDistributions()[0];
+		assertArrayEquals(getApsp(g), trim(d.getLongValues()));
+	}
+
+	@Test
+	public void clusteringCoefficientMatchesObjectGraph() {
+		Graph g = this.newGraph();
+		UndirectedClusteringCoefficientR csr = new UndirectedClusteringCoefficientR();
+		compute(g, csr);
+
+		long triangles = 0;
+		long potentials = 0;
+		double[] localCC = csr.getNodeValueLists()[0].getValues();
+		for (IElement n_ : g.getNodes()) {
+			Node n = (Node) n_;
+			long[] counts = getTriangles(n);
+			triangles += counts[0];
+			potentials += counts[1];
+			double expected = counts[1] == 0 ? 0 : (double) counts[0]
+					/ counts[1];
+			assertEquals(expected, localCC[n.getIndex()], 1e-12);
+		}
+		assertTrue(potentials > 0);
+		assertEquals((double) triangles / potentials,
+				csr.getValues()[0].getValue(), 1e-12);
+	}
+
+	/*
+	 * TRAVERSAL OF THE OBJECT GRAPH
+	 */
+
+	private static ArrayList<Node> getOutNeighbors(Node n) {
+		ArrayList<Node> neighbors = new ArrayList<Node>();
+		if (n instanceof DirectedNode) {
+			for (IElement e : ((DirectedNode) n).getOutgoingEdges()) {
+				neighbors.add(((DirectedEdge) e).getDst());
+			}
+		} else {
+			for (IElement e : n.getEdges()) {
+				neighbors.add(((UndirectedEdge) e).getDifferingNode(n));
+			}
+		}
+		return neighbors;
+	}
+
+	private static ArrayList<Node> getInNeighbors(Node n) {
+		if (!(n instanceof DirectedNode)) {
+			return getOutNeighbors(n);
+		}
+		ArrayList<Node> neighbors = new ArrayList<Node>();
+		for (IElement e : ((DirectedNode) n).getIncomingEdges()) {
+			neighbors.add(((DirectedEdge) e).getSrc());
+		}
+		return neighbors;
+	}
+
+	private static TreeSet<Integer> getTargets(CSRGraph csr, int index,
+			boolean out) {
+		TreeSet<Integer> targets = new TreeSet<Integer>();
+		if (out) {
+			for (int i = csr.outStart(index); i < csr.outEnd(index); i++) {
+				targets.add(csr.outTarget(i));
+			}
+		} else {
+			for (int i = csr.inStart(index); i < csr.inEnd(index); i++) {
+				targets.add(csr.inTarget(i));
+			}
+		}
+		return targets;
+	}
+
+	/**
+	 *
+	 * @return number of shortest paths per length, obtained from a BFS over
+	 *         the node objects starting at each node of the graph
+	 */
+	static long[] getApsp(Graph g) {
+		long[] apsp = new long[g.getNodeCount()];
+		for (IElement source : g.getNodes()) {
+			int[] dist = new int[g.getMaxNodeIndex() + 1];
+			Arrays.fill(dist, -1);
+			LinkedList<Node> queue = new LinkedList<Node>();
+			queue.add((Node) source);
+			dist[((Node) source).getIndex()] = 0;
+			while (!queue.isEmpty()) {
+				Node current = queue.pop();
+				for (Node out : getOutNeighbors(current)) {
+					if (dist[out.getIndex()] == -1) {
+						dist[out.getIndex()] = dist[current.getIndex()] + 1;
+						apsp[dist[out.getIndex()]]++;
+						queue.addLast(out);
+					}
+				}
+			}
+		}
+		return trim(apsp);
+	}
+
+	/**
+	 *
+	 * @return the given values without trailing zeros
+	 */
+	static long[] trim(long[] values) {
+		int length = values.length;
+		while (length > 0 && values[length - 1] == 0) {
+			length--;
+		}
+		return Arrays.copyOf(values, length);
+	}
+
+	/**
+	 *
+	 * @return number of triangles and potential triangles of the node (pairs
+	 *         of neighbors are considered once)
+	 */
+	private static long[] getTriangles(Node a) {
+		long[] counts = new long[2];
+		if (a instanceof DirectedNode) {
+			for (IElement b_ : ((DirectedNode) a).getNeighbors()) {
+				DirectedNode b = (DirectedNode) b_;
+				for (IElement c_ : ((DirectedNode) a).getNeighbors()) {
+					DirectedNode c = (DirectedNode) c_;
+					if (b.equals(c)) {
+						continue;
+					}
+					counts[1]++;
+					if (b.hasNeighbor(c)) {
+						counts[0]++;
+					}
+				}
+			}
+		} else {
+			for (Node b : getOutNeighbors(a)) {
+				for (Node c : getOutNeighbors(a)) {
+					if (b.equals(c)) {
+						continue;
+					}
+					counts[1]++;
+					if (b.hasEdge(b, c)) {
+						counts[0]++;
+					}
+				}
+			}
+		}
+		counts[0] /= 2;
+		counts[1] /= 2;
+		return counts;
+	}
+}
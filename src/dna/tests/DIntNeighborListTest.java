@@ -0,0 +1,311 @@
+package dna.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DIntNeighborList;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.datastructures.IDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.DirectedWeightedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.edges.UndirectedWeightedEdge;
+import dna.graph.generators.GraphGenerator;
+import dna.graph.generators.random.RandomGraph;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.graph.weights.IntWeight;
+import dna.updates.generators.BatchGenerator;
+import dna.updates.generators.random.RandomBatch;
+import dna.util.RandomSource;
+
+/**
+ * compares graphs whose local lists are DIntNeighborLists with graphs whose
+ * local lists are DArrayLists under random batches
+ */
+@RunWith(Parameterized.class)
+public class DIntNeighborListTest {
+	private Class<? extends Node> nodeType;
+
+	private Class<? extends Edge> edgeType;
+
+	public DIntNeighborListTest(Class<? extends Node> nodeType,
+			Class<? extends Edge> edgeType) {
+		this.nodeType = nodeType;
+		this.edgeType = edgeType;
+	}
+
+	@Parameterized.Parameters(name = "{0} {1}")
+	public static Collection<Object[]> testPairs() {
+		ArrayList<Object[]> result = new ArrayList<Object[]>();
+		result.add(new Object[] { DirectedNode.class, DirectedEdge.class });
+		result.add(new Object[] { UndirectedNode.class, UndirectedEdge.class });
+		return result;
+	}
+
+	private GraphDataStructure newGDS(
+			Class<? extends IDataStructure> localListType) {
+		return new GraphDataStructure(GraphDataStructure.getList(
+				ListType.GlobalNodeList, DArray.class, ListType.GlobalEdgeList,
+				DArrayList.class, ListType.LocalEdgeList, localListType,
+				ListType.LocalNodeList, localListType), this.nodeType,
+				this.edgeType);
+	}
+
+	private static Graph generate(GraphDataStructure gds, long seed) {
+		GraphGenerator gg = new RandomGraph(gds, 200, 1000);
+		gg.setRandom(RandomSource.newInstance(seed));
+		return gg.generate();
+	}
+
+	private static boolean apply(Graph g, long seed) {
+		BatchGenerator bg = new RandomBatch(10, 10, 100, 100);
+		bg.setRandom(RandomSource.newInstance(seed));
+		return bg.generate(g).apply(g);
+	}
+
+	private static TreeSet<String> toStrings(Iterable<IElement> elements) {
+		TreeSet<String> strings = new TreeSet<String>();
+		for (IElement e : elements) {
+			strings.add(e instanceof Edge ? ((Edge) e).asString() : ""
+					+ ((Node) e).getIndex());
+		}
+		return strings;
+	}
+
+	private static void assertSameLocalLists(Graph expected, Graph actual) {
+		assertEquals(expected.getNodeCount(), actual.getNodeCount());
+		assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+		for (IElement element : expected.getNodes()) {
+			Node n1 = (Node) element;
+			Node n2 = actual.getNode(n1.getIndex());
+			assertEquals(n1.getDegree(), n2.getDegree());
+			assertEquals(toStrings(n1.getEdges()), toStrings(n2.getEdges()));
+			if (n1 instanceof DirectedNode) {
+				DirectedNode d1 = (DirectedNode) n1;
+				DirectedNode d2 = (DirectedNode) n2;
+				assertEquals(toStrings(d1.getIncomingEdges()),
+						toStrings(d2.getIncomingEdges()));
+				assertEquals(toStrings(d1.getOutgoingEdges()),
+						toStrings(d2.getOutgoingEdges()));
+				assertEquals(toStrings(d1.getNeighbors()),
+						toStrings(d2.getNeighbors()));
+			}
+		}
+		for (IElement element : actual.getEdges()) {
+			Edge e = (Edge) element;
+			assertTrue(e.getN1().hasEdge(e));
+			assertTrue(e.getN2().hasEdge(e));
+		}
+	}
+
+	@Test
+	public void localListsMatchDArrayList() {
+		Graph expected = generate(this.newGDS(DArrayList.class), 42);
+		Graph actual = generate(this.newGDS(DIntNeighborList.class), 42);
+		assertSameLocalLists(expected, actual);
+		for (long seed = 0; seed < 10; seed++) {
+			assertEquals(apply(expected, seed), apply(actual, seed));
+			assertSameLocalLists(expected, actual);
+		}
+	}
+
+	private static void addRing(Graph g, Node[] nodes) {
+		GraphDataStructure gds = g.getGraphDatastructures();
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = gds.newNodeInstance(i);
+			assertTrue(g.addNode(nodes[i]));
+		}
+		for (int i = 0; i < nodes.length; i++) {
+			addEdge(g, nodes[i], nodes[(i + 1) % nodes.length]);
+		}
+	}
+
+	private static void addEdge(Graph g, Node n1, Node n2) {
+		Edge e = g.getGraphDatastructures().newEdgeInstance(n1, n2);
+		assertTrue(g.addEdge(e));
+		assertTrue(e.connectToNodes());
+	}
+
+	private static void assertOwnNodes(Graph g, Node[] nodes) {
+		for (IElement element : g.getNodes()) {
+			assertSame(nodes[((Node) element).getIndex()], element);
+		}
+		for (IElement element : g.getEdges()) {
+			Edge e = (Edge) element;
+			assertSame(nodes[e.getN1Index()], e.getN1());
+			assertSame(nodes[e.getN2Index()], e.getN2());
+		}
+		for (Node n : nodes) {
+			assertSame(n, g.getNode(n.getIndex()));
+			for (IElement element : n.getEdges()) {
+				Edge e = (Edge) element;
+				assertSame(nodes[e.getN1Index()], e.getN1());
+				assertSame(nodes[e.getN2Index()], e.getN2());
+			}
+			if (n instanceof DirectedNode) {
+				for (IElement neighbor : ((DirectedNode) n).getNeighbors()) {
+					assertSame(nodes[((Node) neighbor).getIndex()], neighbor);
+				}
+			}
+		}
+	}
+
+	/**
+	 * two graphs created from the same gds resolve the indices stored in
+	 * their lists to their own nodes (cf. NodeTable)
+	 */
+	@Test
+	public void graphsOfOneGDSResolveTheirOwnNodes() {
+		GraphDataStructure gds = this.newGDS(DIntNeighborList.class);
+		Node[] nodes1 = new Node[10];
+		Node[] nodes2 = new Node[10];
+		// the nodes of both graphs are created after both graphs
+		Graph g1 = gds.newGraphInstance("g1", 0, nodes1.length, 0);
+		Graph g2 = gds.newGraphInstance("g2", 0, nodes2.length, 0);
+		addRing(g1, nodes1);
+		addRing(g2, nodes2);
+		// edges added to the first graph after the second one was filled
+		addEdge(g1, nodes1[0], nodes1[5]);
+		if (g1.isDirected()) {
+			addEdge(g1, nodes1[5], nodes1[0]);
+		}
+		assertOwnNodes(g1, nodes1);
+		assertOwnNodes(g2, nodes2);
+		assertEquals(nodes1.length + (g1.isDirected() ? 2 : 1), g1.getEdgeCount());
+		assertEquals(nodes2.length, g2.getEdgeCount());
+	}
+
+	/**
+	 * the node an undirected list belongs to is only known from its second
+	 * edge on
+	 */
+	@Test
+	public void singleEdgeIsFoundBeforeOwnerIsKnown() {
+		GraphDataStructure gds = this.newGDS(DIntNeighborList.class);
+		Node n0 = gds.newNodeInstance(0);
+		Node n1 = gds.newNodeInstance(1);
+		Node n2 = gds.newNodeInstance(2);
+		DIntNeighborList l = (DIntNeighborList) gds
+				.newList(this.nodeType == DirectedNode.class ? ListType.LocalOutEdgeList
+						: ListType.LocalEdgeList);
+		Edge e01 = gds.newEdgeInstance(n0, n1);
+		Edge e12 = gds.newEdgeInstance(n1, n2);
+		Edge e10 = gds.newEdgeInstance(n1, n0);
+
+		assertTrue(l.add(e10));
+		assertTrue(l.contains(e10));
+		assertEquals(e10, l.get(e10));
+		assertTrue(l.add(e12));
+		assertTrue(l.contains(e10));
+		assertTrue(l.contains(e12));
+		assertEquals(2, l.size());
+		assertEquals(toStrings(l), toStrings(l.getElements()));
+		if (this.nodeType == DirectedNode.class) {
+			assertFalse(l.contains(e01));
+			assertNull(l.get(0, 1));
+		}
+
+		assertTrue(l.remove(e12));
+		assertTrue(l.remove(e10));
+		assertEquals(0, l.size());
+		assertFalse(l.contains(e10));
+	}
+
+	@Test
+	public void weightedEdgesAreRejected() {
+		GraphDataStructure gds = new GraphDataStructure(
+				GraphDataStructure.getList(ListType.GlobalNodeList,
+						DArray.class, ListType.GlobalEdgeList,
+						DArrayList.class, ListType.LocalEdgeList,
+						DIntNeighborList.class), DirectedNode.class,
+				DirectedEdge.class);
+		DIntNeighborList l = (DIntNeighborList) gds
+				.newList(ListType.LocalOutEdgeList);
+		Edge e = new DirectedWeightedEdge(
+				(DirectedNode) gds.newNodeInstance(0),
+				(DirectedNode) gds.newNodeInstance(1), new IntWeight(1));
+		try {
+			l.add(e);
+		} catch (RuntimeException ex) {
+			assertEquals("DIntNeighborList cannot store weighted edges",
+					ex.getMessage());
+			return;
+		}
+		fail();
+	}
+
+	@Test
+	public void cannotBeGlobalEdgeList() {
+		assertFalse(GraphDataStructure.validListTypesSet(GraphDataStructure
+				.getList(ListType.GlobalNodeList, DArray.class,
+						ListType.GlobalEdgeList, DIntNeighborList.class,
+						ListType.LocalEdgeList, DArrayList.class)));
+	}
+
+	@Test
+	public void cannotBeGlobalNodeList() {
+		assertFalse(GraphDataStructure.validListTypesSet(GraphDataStructure
+				.getList(ListType.GlobalNodeList, DIntNeighborList.class,
+						ListType.GlobalEdgeList, DArrayList.class,
+						ListType.LocalNodeList, DIntNeighborList.class)));
+		assertTrue(GraphDataStructure.validListTypesSet(GraphDataStructure
+				.getList(ListType.GlobalNodeList, DArray.class,
+						ListType.GlobalEdgeList, DArrayList.class,
+						ListType.LocalNodeList, DIntNeighborList.class)));
+	}
+
+	@Test
+	public void onlyCombinedWithUnweightedEdges() {
+		EnumMap<ListType, Class<? extends IDataStructure>> listTypes = GraphDataStructure
+				.getList(ListType.GlobalNodeList, DArray.class,
+						ListType.GlobalEdgeList, DArrayList.class,
+						ListType.LocalEdgeList, DIntNeighborList.class);
+		assertTrue(GraphDataStructure.validListTypesSet(listTypes,
+				DirectedEdge.class));
+		assertTrue(GraphDataStructure.validListTypesSet(listTypes,
+				UndirectedEdge.class));
+		assertFalse(GraphDataStructure.validListTypesSet(listTypes,
+				DirectedWeightedEdge.class));
+		assertFalse(GraphDataStructure.validListTypesSet(listTypes,
+				UndirectedWeightedEdge.class));
+	}
+
+	@Test
+	public void isProposedForUnweightedLocalListsOnly() {
+		boolean proposed = false;
+		for (EnumMap<ListType, Class<? extends IDataStructure>> combination : GraphDataStructure
+				.getSimpleDatastructureCombinations()) {
+			assertFalse(combination.get(ListType.GlobalNodeList) == DIntNeighborList.class);
+			assertFalse(combination.get(ListType.GlobalEdgeList) == DIntNeighborList.class);
+			if (combination.get(ListType.LocalEdgeList) == DIntNeighborList.class) {
+				proposed = true;
+				assertTrue(GraphDataStructure.validListTypesSet(combination,
+						DirectedEdge.class));
+				assertFalse(GraphDataStructure.validListTypesSet(combination,
+						DirectedWeightedEdge.class));
+			}
+		}
+		assertTrue(proposed);
+	}
+}
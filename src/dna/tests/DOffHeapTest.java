@@ -0,0 +1,406 @@
+package dna.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DOffHeap;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.datastructures.IDataStructure;
+import dna.graph.datastructures.IEdgeListDatastructureReadable;
+import dna.graph.datastructures.INodeListDatastructureReadable;
+import dna.graph.datastructures.OffHeapStore;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.DirectedWeightedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.edges.UndirectedWeightedEdge;
+import dna.graph.generators.GraphGenerator;
+import dna.graph.generators.random.RandomGraph;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.io.BatchReader;
+import dna.io.BatchWriter;
+import dna.metrics.Metric;
+import dna.metrics.betweenessCentrality.BetweenessCentralityU;
+import dna.metrics.degree.DegreeDistributionR;
+import dna.updates.batch.Batch;
+import dna.updates.generators.BatchGenerator;
+import dna.updates.generators.random.RandomBatch;
+import dna.util.Config;
+import dna.util.RandomSource;
+
+/**
+ * contract of DOffHeap node and edge lists (also across several chunks of the
+ * OffHeapStore and with chunks mapped from files) and comparison of metrics
+ * computed on graphs whose lists are all DOffHeaps with the ones computed on
+ * graphs whose lists are DArrayLists
+ */
+@RunWith(Parameterized.class)
+public class DOffHeapTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Class<? extends Node> nodeType;
+
+	private Class<? extends Edge> edgeType;
+
+	private String chunkSize;
+
+	private String directory;
+
+	public DOffHeapTest(Class<? extends Node> nodeType,
+			Class<? extends Edge> edgeType) {
+		this.nodeType = nodeType;
+		this.edgeType = edgeType;
+	}
+
+	@Parameterized.Parameters(name = "{0} {1}")
+	public static Collection<Object[]> testPairs() {
+		ArrayList<Object[]> result = new ArrayList<Object[]>();
+		result.add(new Object[] { DirectedNode.class, DirectedEdge.class });
+		result.add(new Object[] { UndirectedNode.class, UndirectedEdge.class });
+		return result;
+	}
+
+	@Before
+	public void init() {
+		this.chunkSize = Config.get("OFFHEAP_CHUNK_SIZE");
+		this.directory = Config.get("OFFHEAP_DIRECTORY");
+	}
+
+	@After
+	public void restore() {
+		Config.overwrite("OFFHEAP_CHUNK_SIZE", this.chunkSize);
+		Config.overwrite("OFFHEAP_DIRECTORY", this.directory);
+	}
+
+	private GraphDataStructure newGDS(Class<? extends IDataStructure> listType) {
+		return new GraphDataStructure(GraphDataStructure.getList(
+				ListType.GlobalNodeList, listType, ListType.GlobalEdgeList,
+				listType, ListType.LocalEdgeList, listType), this.nodeType,
+				this.edgeType);
+	}
+
+	private static TreeSet<String> toStrings(Iterable<IElement> elements) {
+		TreeSet<String> strings = new TreeSet<String>();
+		for (IElement e : elements) {
+			strings.add(e instanceof Edge ? ((Edge) e).asString() : ""
+					+ ((Node) e).getIndex());
+		}
+		return strings;
+	}
+
+	private static void addRing(Graph g, Node[] nodes) {
+		GraphDataStructure gds = g.getGraphDatastructures();
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = gds.newNodeInstance(i);
+			assertTrue(g.addNode(nodes[i]));
+		}
+		for (int i = 0; i < nodes.length; i++) {
+			addEdge(g, nodes[i], nodes[(i + 1) % nodes.length]);
+		}
+	}
+
+	private static void addEdge(Graph g, Node n1, Node n2) {
+		Edge e = g.getGraphDatastructures().newEdgeInstance(n1, n2);
+		assertTrue(g.addEdge(e));
+		assertTrue(e.connectToNodes());
+	}
+
+	private static void assertOwnNodes(Graph g, Node[] nodes) {
+		for (IElement element : g.getNodes()) {
+			assertSame(nodes[((Node) element).getIndex()], element);
+		}
+		for (IElement element : g.getEdges()) {
+			Edge e = (Edge) element;
+			assertSame(nodes[e.getN1Index()], e.getN1());
+			assertSame(nodes[e.getN2Index()], e.getN2());
+		}
+		for (Node n : nodes) {
+			assertSame(n, g.getNode(n.getIndex()));
+			for (IElement element : n.getEdges()) {
+				Edge e = (Edge) element;
+				assertSame(nodes[e.getN1Index()], e.getN1());
+				assertSame(nodes[e.getN2Index()], e.getN2());
+			}
+		}
+	}
+
+	/**
+	 * two graphs created from the same gds resolve the indices stored in
+	 * their lists to their own nodes (cf. NodeTable)
+	 */
+	@Test
+	public void graphsOfOneGDSResolveTheirOwnNodes() {
+		GraphDataStructure gds = this.newGDS(DOffHeap.class);
+		Node[] nodes1 = new Node[10];
+		Node[] nodes2 = new Node[10];
+		// the nodes of both graphs are created after both graphs
+		Graph g1 = gds.newGraphInstance("g1", 0, nodes1.length, 0);
+		Graph g2 = gds.newGraphInstance("g2", 0, nodes2.length, 0);
+		addRing(g1, nodes1);
+		addRing(g2, nodes2);
+		// edges added to the first graph after the second one was filled
+		addEdge(g1, nodes1[0], nodes1[5]);
+		assertOwnNodes(g1, nodes1);
+		assertOwnNodes(g2, nodes2);
+		assertEquals(nodes1.length + 1, g1.getEdgeCount());
+		assertEquals(nodes2.length, g2.getEdgeCount());
+	}
+
+	@Test
+	public void nodeListContract() {
+		GraphDataStructure gds = this.newGDS(DOffHeap.class);
+		INodeListDatastructureReadable l = (INodeListDatastructureReadable) gds
+				.newList(ListType.GlobalNodeList);
+		assertNull(l.getRandom());
+
+		Node[] nodes = new Node[100];
+		TreeSet<String> expected = new TreeSet<String>();
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = gds.newNodeInstance(3 * i);
+			assertTrue(l.add(nodes[i]));
+			assertFalse(l.add(nodes[i]));
+			assertEquals(3 * i, l.getMaxNodeIndex());
+			expected.add("" + (3 * i));
+		}
+		assertEquals(nodes.length, l.size());
+		assertEquals(expected, toStrings(l));
+		assertEquals(expected, toStrings(l.getElements()));
+		// the first chunk is only doubled as far as needed
+		assertTrue(gds.getOffHeapStore().getSize() < 1 << 20);
+
+		for (int i = 0; i < nodes.length; i++) {
+			assertTrue(l.contains(nodes[i]));
+			assertSame(nodes[i], l.get(3 * i));
+			assertNull(l.get(3 * i + 1));
+		}
+		for (int i = 0; i < 2 * nodes.length; i++) {
+			Node n = (Node) l.getRandom();
+			assertNotNull(n);
+			assertSame(nodes[n.getIndex() / 3], n);
+		}
+
+		for (int i = 0; i < nodes.length; i += 2) {
+			assertTrue(l.remove(nodes[i]));
+			assertFalse(l.remove(nodes[i]));
+		}
+		assertEquals(nodes.length / 2, l.size());
+		for (int i = 0; i < nodes.length; i++) {
+			assertEquals(i % 2 == 1, l.contains(nodes[i]));
+		}
+		assertTrue(l.remove(nodes[nodes.length - 1]));
+		assertEquals(3 * (nodes.length - 3), l.getMaxNodeIndex());
+	}
+
+	@Test
+	public void edgeListContract() {
+		GraphDataStructure gds = this.newGDS(DOffHeap.class);
+		IEdgeListDatastructureReadable l = (IEdgeListDatastructureReadable) gds
+				.newList(ListType.GlobalEdgeList);
+		assertNull(l.getRandom());
+
+		Node[] nodes = new Node[20];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = gds.newNodeInstance(i);
+		}
+		ArrayList<Edge> edges = new ArrayList<Edge>();
+		TreeSet<String> expected = new TreeSet<String>();
+		for (int i = 0; i < nodes.length; i++) {
+			for (int j = i + 1; j < nodes.length; j += 3) {
+				Edge e = gds.newEdgeInstance(nodes[i], nodes[j]);
+				assertTrue(l.add(e));
+				assertFalse(l.add(e));
+				edges.add(e);
+				expected.add(e.asString());
+			}
+		}
+		assertEquals(edges.size(), l.size());
+		assertEquals(expected, toStrings(l));
+		assertEquals(expected, toStrings(l.getElements()));
+
+		for (Edge e : edges) {
+			assertTrue(l.contains(e));
+			// edges are materialized from the indices of their nodes
+			Edge stored = l.get(e.getN1Index(), e.getN2Index());
+			assertEquals(e, stored);
+			assertNotSame(e, stored);
+			assertSame(e.getN1(), stored.getN1());
+			assertSame(e.getN2(), stored.getN2());
+		}
+		assertFalse(l.contains(gds.newEdgeInstance(nodes[0], nodes[2])));
+		assertNull(l.get(0, 2));
+		for (int i = 0; i < 2 * edges.size(); i++) {
+			Edge e = (Edge) l.getRandom();
+			assertNotNull(e);
+			assertTrue(expected.contains(e.asString()));
+		}
+
+		for (int i = 0; i < edges.size(); i += 2) {
+			assertTrue(l.remove(edges.get(i)));
+			assertFalse(l.remove(edges.get(i)));
+			expected.remove(edges.get(i).asString());
+		}
+		assertEquals(expected.size(), l.size());
+		assertEquals(expected, toStrings(l));
+		for (int i = 0; i < edges.size(); i++) {
+			assertEquals(i % 2 == 1, l.contains(edges.get(i)));
+		}
+	}
+
+	/**
+	 * adds and removes enough edges to fill several chunks of 1 MB and checks
+	 * the list afterwards
+	 */
+	private void fillSeveralChunks() {
+		Config.overwrite("OFFHEAP_CHUNK_SIZE", "1");
+		GraphDataStructure gds = this.newGDS(DOffHeap.class);
+		IEdgeListDatastructureReadable l = (IEdgeListDatastructureReadable) gds
+				.newList(ListType.GlobalEdgeList);
+
+		Node[] nodes = new Node[800];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = gds.newNodeInstance(i);
+		}
+		int count = 0;
+		for (int i = 0; i < 500; i++) {
+			for (int j = 500; j < nodes.length; j++) {
+				assertTrue(l.add(gds.newEdgeInstance(nodes[i], nodes[j])));
+				count++;
+			}
+		}
+		assertEquals(count, l.size());
+		OffHeapStore store = gds.getOffHeapStore();
+		assertTrue(store.getSize() > 2 << 20);
+
+		for (int i = 0; i < 500; i++) {
+			for (int j = 500; j < nodes.length; j++) {
+				if ((i + j) % 2 == 0) {
+					assertTrue(l.remove(gds
+							.newEdgeInstance(nodes[i], nodes[j])));
+				}
+			}
+		}
+		assertEquals(count / 2, l.size());
+		for (int i = 0; i < 500; i++) {
+			for (int j = 500; j < nodes.length; j++) {
+				assertEquals((i + j) % 2 == 1, l.contains(gds.newEdgeInstance(
+						nodes[i], nodes[j])));
+			}
+		}
+		int iterated = 0;
+		for (IElement e : l) {
+			assertEquals(1,
+					(((Edge) e).getN1Index() + ((Edge) e).getN2Index()) % 2);
+			iterated++;
+		}
+		assertEquals(count / 2, iterated);
+	}
+
+	@Test
+	public void growsAcrossChunks() {
+		Config.overwrite("OFFHEAP_DIRECTORY", "");
+		this.fillSeveralChunks();
+	}
+
+	@Test
+	public void growsAcrossMappedChunks() {
+		Config.overwrite("OFFHEAP_DIRECTORY", this.folder.getRoot()
+				.getAbsolutePath());
+		this.fillSeveralChunks();
+		// the mapped files are deleted once they are mapped
+		assertEquals(0, this.folder.getRoot().list().length);
+	}
+
+	private static Graph generate(GraphDataStructure gds, long seed) {
+		GraphGenerator gg = new RandomGraph(gds, 200, 1000);
+		gg.setRandom(RandomSource.newInstance(seed));
+		return gg.generate();
+	}
+
+	/**
+	 * applies a random batch to expected and the same batch (written and read
+	 * again) to actual since the lists draw different random elements
+	 */
+	private void apply(Graph expected, Graph actual, long seed) {
+		BatchGenerator bg = new RandomBatch(10, 10, 100, 100);
+		bg.setRandom(RandomSource.newInstance(seed));
+		Batch b = bg.generate(expected);
+		String dir = this.folder.getRoot().getAbsolutePath() + "/";
+		assertTrue(BatchWriter.write(b, dir, "batch", false));
+		Batch copy = BatchReader.read(dir, "batch", actual);
+		assertEquals(b.getSize(), copy.getSize());
+		// random batches may remove edges of removed nodes, i.e., fail partly
+		assertEquals(b.apply(expected), copy.apply(actual));
+	}
+
+	private static void compute(Graph g, Metric m) {
+		m.setGraph(g);
+		m.init();
+		m.compute();
+	}
+
+	private static void assertSameMetrics(Graph expected, Graph actual) {
+		Metric[][] metrics = new Metric[][] {
+				{ new DegreeDistributionR(), new DegreeDistributionR() },
+				{ new BetweenessCentralityU(), new BetweenessCentralityU() } };
+		for (Metric[] m : metrics) {
+			compute(expected, m[0]);
+			compute(actual, m[1]);
+			assertTrue(m[0].getName(), m[0].equals(m[1]));
+		}
+	}
+
+	@Test
+	public void metricsMatchDArrayList() {
+		Graph expected = generate(this.newGDS(DArrayList.class), 42);
+		Graph actual = generate(this.newGDS(DOffHeap.class), 42);
+		assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+		assertEquals(toStrings(expected.getEdges()),
+				toStrings(actual.getEdges()));
+		assertSameMetrics(expected, actual);
+		for (long seed = 0; seed < 5; seed++) {
+			this.apply(expected, actual, seed);
+			assertEquals(toStrings(expected.getEdges()),
+					toStrings(actual.getEdges()));
+			assertSameMetrics(expected, actual);
+		}
+	}
+
+	@Test
+	public void onlyCombinedWithUnweightedEdges() {
+		EnumMap<ListType, Class<? extends IDataStructure>> listTypes = GraphDataStructure
+				.getList(ListType.GlobalNodeList, DArray.class,
+						ListType.GlobalEdgeList, DOffHeap.class,
+						ListType.LocalEdgeList, DArrayList.class);
+		assertTrue(GraphDataStructure.validListTypesSet(listTypes,
+				this.edgeType));
+		assertFalse(GraphDataStructure.validListTypesSet(listTypes,
+				DirectedNode.class.isAssignableFrom(this.nodeType) ? DirectedWeightedEdge.class
+						: UndirectedWeightedEdge.class));
+	}
+}
@@ -21,6 +21,7 @@ import dna.graph.Graph;
 import dna.graph.IElement;
 import dna.graph.datastructures.DArray;
 import dna.graph.datastructures.DEmpty;
+import dna.graph.datastructures.DOffHeap;
 import dna.graph.datastructures.DataStructure.ListType;
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.datastructures.IDataStructure;
@@ -62,10 +63,16 @@ public class DatastructureSwitcherTest {
 	@Parameterized.Parameters(name = "{0} {1}")
 	public static Collection<Object> testPairs() {
 		ArrayList<Object> result = new ArrayList<>();
-		for (Class oldDS : ClassPointers.dataStructures) {
-			for (Class newDS : ClassPointers.dataStructures) {
+		for (Class<?> oldDS : ClassPointers.dataStructures) {
+			for (Class<?> newDS : ClassPointers.dataStructures) {
 				if (oldDS.equals(DEmpty.class))
 					continue;
+				// all conversions are done on global lists
+				if (GraphDataStructure.storesLocalListsOnly(oldDS
+						.asSubclass(IDataStructure.class))
+						|| GraphDataStructure.storesLocalListsOnly(newDS
+								.asSubclass(IDataStructure.class)))
+					continue;
 				result.add(new Object[] { oldDS, newDS });
 			}
 		}
@@ -149,6 +156,11 @@ public class DatastructureSwitcherTest {
 
 	private IDataStructure instantiate(ListType lt,
 			Class<? extends IDataStructure> ds) {
+		// DOffHeap lists are assigned to a store and a node table by a gds
+		if (ds == DOffHeap.class) {
+			return new GraphDataStructure(listTypes, DirectedNode.class,
+					DirectedEdge.class).newList(lt, ds);
+		}
 
 		Class<? extends IElement> storedElementClass = null;
 		switch (lt) {
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumMap;
 import java.util.Iterator;
+import java.util.Random;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -22,8 +23,13 @@ import org.junit.runners.Parameterized;
 import dna.graph.Element;
 import dna.graph.ClassPointers;
 import dna.graph.IElement;
+import dna.graph.datastructures.DAdaptiveList;
 import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DBloomFilter;
 import dna.graph.datastructures.DEmpty;
+import dna.graph.datastructures.DIntArray;
+import dna.graph.datastructures.DIntHashSet;
+import dna.graph.datastructures.DOffHeap;
 import dna.graph.datastructures.DataStructure;
 import dna.graph.datastructures.DataStructure.ListType;
 import dna.graph.datastructures.GraphDataStructure;
@@ -39,8 +45,10 @@ import dna.graph.nodes.DirectedNode;
 import dna.graph.nodes.Node;
 import dna.graph.nodes.UndirectedNode;
 import dna.graph.weights.DoubleWeight;
+import dna.graph.weights.IWeighted;
 import dna.graph.weights.IntWeight;
 import dna.graph.weights.Weight.WeightSelection;
+import dna.util.Config;
 import dna.util.Rand;
 
 @RunWith(Parameterized.class)
@@ -50,6 +58,7 @@ public class DatastructureTester {
 	private DataStructure dataStructure;
 	private Class<? extends Element> elementClass;
 
+	@SuppressWarnings("unchecked")
 	public DatastructureTester(Class<?> d, Class<? extends Element> e)
 			throws InstantiationException, IllegalAccessException,
 			IllegalArgumentException, InvocationTargetException,
@@ -57,6 +66,23 @@ public class DatastructureTester {
 		this.dataStructure = (DataStructure) d.getConstructor(ListType.class,
 				Class.class).newInstance(null, e);
 		this.elementClass = e;
+
+		/*
+		 * DOffHeap lists are assigned to the store and the node table of a gds
+		 * (cf. GraphDataStructure.newList), which has to create edges of the
+		 * stored class
+		 */
+		if (this.dataStructure instanceof DOffHeap) {
+			GraphDataStructure gds = new GraphDataStructure(
+					GraphDataStructure.getList(ListType.GlobalNodeList,
+							DArray.class, ListType.GlobalEdgeList, DArray.class),
+					Node.class.isAssignableFrom(e) ? (Class<? extends Node>) e
+							: null,
+					Edge.class.isAssignableFrom(e) ? (Class<? extends Edge>) e
+							: null);
+			((DOffHeap) this.dataStructure).setStore(gds.getOffHeapStore());
+			((DOffHeap) this.dataStructure).setNodeTable(gds.getNodeTable());
+		}
 	}
 
 	@Parameterized.Parameters(name = "{0} {1}")
@@ -65,7 +91,7 @@ public class DatastructureTester {
 			InvocationTargetException, NoSuchMethodException, SecurityException {
 
 		ArrayList<Object> result = new ArrayList<>();
-		for (Class sD : ClassPointers.dataStructures) {
+		for (Class<?> sD : ClassPointers.dataStructures) {
 			for (Class sE : ClassPointers.elementClasses) {
 				// Check whether we can store an object of sE in sD
 				if ((Node.class.isAssignableFrom(sE) && !INodeListDatastructure.class
@@ -75,6 +101,18 @@ public class DatastructureTester {
 					continue;
 				if (sD == DEmpty.class)
 					continue;
+				/*
+				 * Lists that only store the elements of a single node are
+				 * created by a gds (cf. DIntNeighborListTest)
+				 */
+				if (GraphDataStructure.storesLocalListsOnly(sD
+						.asSubclass(IDataStructure.class)))
+					continue;
+				if (Edge.class.isAssignableFrom(sE)
+						&& IWeighted.class.isAssignableFrom(sE)
+						&& !GraphDataStructure.canStoreWeightedEdges(sD
+								.asSubclass(IDataStructure.class)))
+					continue;
 				result.add(new Object[] { sD, sE });
 			}
 		}
@@ -212,7 +250,7 @@ public class DatastructureTester {
 		for (int i = 0; i < secondDummies.length; i++) {
 			secondDummies[i] = (Node) mock(this.elementClass);
 			prevIndex[i] = lastIndex;
-			lastIndex = lastIndex + Rand.rand.nextInt(i + 1) + 1;
+			lastIndex = lastIndex + Rand.get().nextInt(i + 1) + 1;
 			when(secondDummies[i].getIndex()).thenReturn(lastIndex);
 			assertTrue(tempDS.add(secondDummies[i]));
 			assertEquals(lastIndex, tempDS.getMaxNodeIndex());
@@ -398,6 +436,199 @@ public class DatastructureTester {
 		assertFalse(dataStructure.remove(dummy));
 	}
 
+	@Test
+	public void checkRandomOperations() {
+		/*
+		 * Adds and removes random elements and compares the list to the
+		 * elements that should be stored. Phases with mostly additions and
+		 * mostly removals alternate, so the lists grow and shrink several
+		 * times
+		 */
+		Random rand = new Random(42);
+		IElement[] dummies = new IElement[100];
+		for (int i = 0; i < dummies.length; i++) {
+			dummies[i] = getDummy(this.elementClass, 2 * i);
+		}
+		boolean[] stored = new boolean[dummies.length];
+		int size = 0;
+
+		for (int step = 0; step < 2000; step++) {
+			int i = rand.nextInt(dummies.length);
+			boolean growing = (step / 500) % 2 == 0;
+			if (rand.nextInt(10) < (growing ? 8 : 2)) {
+				assertEquals(!stored[i], dataStructure.add(dummies[i]));
+				if (!stored[i])
+					size++;
+				stored[i] = true;
+			} else {
+				assertEquals(stored[i], dataStructure.remove(dummies[i]));
+				if (stored[i])
+					size--;
+				stored[i] = false;
+			}
+			assertEquals(size, dataStructure.size());
+		}
+
+		for (int i = 0; i < dummies.length; i++) {
+			assertEquals(stored[i], dataStructure.contains(dummies[i]));
+			if (dataStructure instanceof INodeListDatastructureReadable
+					&& Node.class.isAssignableFrom(this.elementClass)) {
+				assertEquals(stored[i] ? dummies[i] : null,
+						((INodeListDatastructureReadable) dataStructure)
+								.get(2 * i));
+			}
+		}
+
+		int count = 0;
+		Iterator<IElement> elemIterator = dataStructure.iterator();
+		while (elemIterator.hasNext()) {
+			IElement e = elemIterator.next();
+			assertNotNull(e);
+			assertTrue(dataStructure.contains(e));
+			count++;
+		}
+		assertEquals(size, count);
+	}
+
+	@Test
+	public void checkLargeIndices() {
+		/*
+		 * Node indices that differ only beyond the lower 16 bits, i.e., edges
+		 * whose keys or hash codes are combined from both node indices
+		 * collide
+		 */
+		IElement[] dummies = new IElement[20];
+		for (int i = 0; i < dummies.length; i++) {
+			dummies[i] = getDummy(this.elementClass, 1 + (i << 16));
+			assertTrue(dataStructure.add(dummies[i]));
+		}
+		assertEquals(dummies.length, dataStructure.size());
+
+		for (int i = 0; i < dummies.length; i += 2) {
+			assertTrue(dataStructure.remove(dummies[i]));
+		}
+		for (int i = 0; i < dummies.length; i++) {
+			assertEquals(i % 2 == 1, dataStructure.contains(dummies[i]));
+		}
+		assertEquals(dummies.length / 2, dataStructure.size());
+	}
+
+	@Test
+	public void checkRemovalsAndReAdditions() {
+		/*
+		 * Removes most elements, which makes array-based lists compact or
+		 * shrink their arrays, and adds new ones afterwards, which are stored
+		 * at freed positions. Afterwards, exactly the remaining and the new
+		 * elements must be contained without any gaps (nulls) in between
+		 */
+		IElement[] dummies = new IElement[200];
+		for (int i = 0; i < dummies.length; i++) {
+			dummies[i] = getDummy(this.elementClass, 2 * i);
+		}
+		for (int i = 0; i < 100; i++) {
+			assertTrue(dataStructure.add(dummies[i]));
+		}
+		for (int i = 0; i < 100; i++) {
+			if (i % 10 != 0) {
+				assertTrue(dataStructure.remove(dummies[i]));
+			}
+		}
+		assertEquals(10, dataStructure.size());
+		for (int i = 100; i < 150; i++) {
+			assertTrue(dataStructure.add(dummies[i]));
+		}
+		assertEquals(60, dataStructure.size());
+
+		ArrayList<IElement> expected = new ArrayList<>();
+		for (int i = 0; i < 150; i++) {
+			boolean stored = i >= 100 || i % 10 == 0;
+			assertEquals(stored, dataStructure.contains(dummies[i]));
+			if (stored) {
+				expected.add(dummies[i]);
+			}
+		}
+
+		Iterator<IElement> elemIterator = dataStructure.iterator();
+		while (elemIterator.hasNext()) {
+			IElement e = elemIterator.next();
+			assertNotNull(e);
+			assertTrue(expected.remove(e));
+		}
+		assertTrue(expected.isEmpty());
+
+		if (dataStructure instanceof INodeListDatastructure
+				&& Node.class.isAssignableFrom(this.elementClass)) {
+			assertEquals(((Node) dummies[149]).getIndex(),
+					((INodeListDatastructure) dataStructure).getMaxNodeIndex());
+		}
+	}
+
+	@Test
+	public void checkBloomFilterWithoutFalseNegatives() {
+		/*
+		 * The filter is rebuilt several times while the elements are added
+		 * and its counters are decremented by the removals. No stored element
+		 * may be reported as missing afterwards
+		 */
+		assumeTrue(dataStructure instanceof DBloomFilter);
+
+		IElement[] dummies = new IElement[1000];
+		for (int i = 0; i < dummies.length; i++) {
+			dummies[i] = getDummy(this.elementClass, 2 * i);
+			assertTrue(dataStructure.add(dummies[i]));
+		}
+		for (int i = 0; i < dummies.length; i++) {
+			if (i % 3 != 0) {
+				assertTrue(dataStructure.remove(dummies[i]));
+			}
+		}
+		for (int i = 0; i < dummies.length; i++) {
+			assertEquals(i % 3 == 0, dataStructure.contains(dummies[i]));
+			if (i % 3 != 0) {
+				assertFalse(dataStructure.remove(dummies[i]));
+			}
+		}
+		assertEquals((dummies.length + 2) / 3, dataStructure.size());
+	}
+
+	@Test
+	public void checkAdaptiveListPromotionAndDemotion() {
+		assumeTrue(dataStructure instanceof DAdaptiveList);
+		DAdaptiveList list = (DAdaptiveList) dataStructure;
+		int promotionSize = Config.getInt("ADAPTIVELIST_PROMOTION_SIZE");
+
+		IElement[] dummies = new IElement[promotionSize + 1];
+		for (int i = 0; i < dummies.length; i++) {
+			assertFalse(list.isHashed());
+			dummies[i] = getDummy(this.elementClass, 3 * i);
+			assertTrue(list.add(dummies[i]));
+		}
+		assertTrue(list.isHashed());
+		assertEquals(DIntHashSet.class,
+				DAdaptiveList.getStorageClass(list.size()));
+		for (IElement e : dummies) {
+			assertTrue(list.contains(e));
+		}
+
+		int removed = 0;
+		while (list.size() > promotionSize / 4) {
+			assertTrue(list.isHashed());
+			assertTrue(list.remove(dummies[removed++]));
+		}
+		assertFalse(list.isHashed());
+		assertEquals(DIntArray.class,
+				DAdaptiveList.getStorageClass(list.size()));
+		for (int i = 0; i < dummies.length; i++) {
+			assertEquals(i >= removed, list.contains(dummies[i]));
+		}
+		int iterated = 0;
+		for (IElement e : list) {
+			assertNotNull(e);
+			iterated++;
+		}
+		assertEquals(dummies.length - removed, iterated);
+	}
+
 	private IElement getDummy(Class<? extends IElement> elementClass) {
 		return getDummy(elementClass, 1);
 	}
@@ -0,0 +1,219 @@
+package dna.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import dna.graph.Graph;
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.EdgeIndex;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.util.Config;
+import dna.util.RandomSource;
+
+/**
+ * compares an EdgeIndex with a HashMap under random additions and removals,
+ * which also exercises growing the table and shifting back entries on removal
+ * (cf. OpenAddressingTable), and the lookups of a graph whose edges are indexed
+ * (GRAPH_EDGE_INDEX) with the ones of a graph that looks them up in its edge
+ * list
+ */
+@RunWith(Parameterized.class)
+public class EdgeIndexTest {
+	private GraphDataStructure gds;
+
+	private boolean directed;
+
+	private Node[] nodes;
+
+	public EdgeIndexTest(Class<? extends Node> nodeType,
+			Class<? extends Edge> edgeType) {
+		this.gds = new GraphDataStructure(GraphDataStructure.getList(
+				ListType.GlobalNodeList, DArray.class, ListType.GlobalEdgeList,
+				DArrayList.class, ListType.LocalEdgeList, DArrayList.class),
+				nodeType, edgeType);
+		this.directed = this.gds.createsDirected();
+		this.nodes = new Node[50];
+		for (int i = 0; i < this.nodes.length; i++) {
+			this.nodes[i] = this.gds.newNodeInstance(i);
+		}
+	}
+
+	@Parameterized.Parameters(name = "{0} {1}")
+	public static Collection<Object[]> testPairs() {
+		ArrayList<Object[]> result = new ArrayList<Object[]>();
+		result.add(new Object[] { DirectedNode.class, DirectedEdge.class });
+		result.add(new Object[] { UndirectedNode.class, UndirectedEdge.class });
+		return result;
+	}
+
+	@After
+	public void resetConfig() {
+		Config.reset("GRAPH_EDGE_INDEX");
+	}
+
+	private String getKey(int n1, int n2) {
+		if (!this.directed && n1 > n2) {
+			return n2 + "-" + n1;
+		}
+		return n1 + "-" + n2;
+	}
+
+	@Test
+	public void addContainsGetRemove() {
+		EdgeIndex index = new EdgeIndex(this.directed);
+		Edge e = this.gds.newEdgeInstance(this.nodes[1], this.nodes[2]);
+		assertFalse(index.contains(e));
+		assertNull(index.get(1, 2));
+		assertFalse(index.remove(e));
+
+		assertTrue(index.add(e));
+		assertFalse(index.add(this.gds.newEdgeInstance(this.nodes[1],
+				this.nodes[2])));
+		assertEquals(1, index.size());
+		assertTrue(index.contains(1, 2));
+		assertSame(e, index.get(1, 2));
+		assertEquals(!this.directed, index.contains(2, 1));
+
+		assertTrue(index.remove(this.gds.newEdgeInstance(this.nodes[1],
+				this.nodes[2])));
+		assertFalse(index.contains(e));
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	public void randomOperationsMatchHashMap() {
+		RandomSource rand = RandomSource.newInstance(42);
+		EdgeIndex index = new EdgeIndex(this.directed);
+		HashMap<String, Edge> expected = new HashMap<String, Edge>();
+		for (int step = 0; step < 20000; step++) {
+			int n1 = rand.nextInt(this.nodes.length);
+			int n2 = rand.nextInt(this.nodes.length);
+			String key = this.getKey(n1, n2);
+			// more additions than removals in the first half, vice versa in
+			// the second one
+			if (rand.nextInt(10000) < (step < 10000 ? 7000 : 3000)) {
+				Edge e = this.gds.newEdgeInstance(this.nodes[n1],
+						this.nodes[n2]);
+				assertEquals(!expected.containsKey(key), index.add(e));
+				if (!expected.containsKey(key)) {
+					expected.put(key, e);
+				}
+			} else {
+				assertEquals(expected.remove(key) != null,
+						index.remove(n1, n2));
+			}
+			assertEquals(expected.size(), index.size());
+		}
+		for (int n1 = 0; n1 < this.nodes.length; n1++) {
+			for (int n2 = 0; n2 < this.nodes.length; n2++) {
+				Edge e = expected.get(this.getKey(n1, n2));
+				assertEquals(e != null, index.contains(n1, n2));
+				assertSame(e, index.get(n1, n2));
+			}
+		}
+	}
+
+	@Test
+	public void largeIndicesAreDistinguished() {
+		EdgeIndex index = new EdgeIndex(this.directed, 4);
+		Node large = this.gds.newNodeInstance(Integer.MAX_VALUE);
+		Edge e1 = this.gds.newEdgeInstance(this.nodes[0], large);
+		Edge e2 = this.gds.newEdgeInstance(this.nodes[1], large);
+		assertTrue(index.add(e1));
+		assertTrue(index.add(e2));
+		assertSame(e1, index.get(0, Integer.MAX_VALUE));
+		assertSame(e2, index.get(1, Integer.MAX_VALUE));
+		assertFalse(index.contains(0, 1));
+		assertTrue(index.remove(e1));
+		assertSame(e2, index.get(1, Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void graphLookupsMatchEdgeList() {
+		Config.overwrite("GRAPH_EDGE_INDEX", "true");
+		Graph indexed = this.newGraph(this.gds);
+		Config.overwrite("GRAPH_EDGE_INDEX", "false");
+		Graph plain = this.newGraph(this.gds.clone());
+		assertTrue(indexed.hasEdgeIndex());
+		assertFalse(plain.hasEdgeIndex());
+
+		RandomSource rand = RandomSource.newInstance(42);
+		for (int step = 0; step < 200; step++) {
+			// single and bulk additions and removals, the bulk ones also
+			// containing duplicates and edges that are (not) contained
+			boolean bulk = rand.nextInt(2) == 0;
+			boolean add = rand.nextInt(10000) < (step < 100 ? 7000 : 3000);
+			int count = bulk ? 1 + rand.nextInt(10) : 1;
+			int[] n1 = new int[count];
+			int[] n2 = new int[count];
+			for (int i = 0; i < count; i++) {
+				n1[i] = rand.nextInt(this.nodes.length);
+				n2[i] = rand.nextInt(this.nodes.length);
+			}
+			for (Graph g : new Graph[] { indexed, plain }) {
+				ArrayList<Edge> edges = new ArrayList<Edge>();
+				for (int i = 0; i < count; i++) {
+					edges.add(this.gds.newEdgeInstance(g.getNode(n1[i]),
+							g.getNode(n2[i])));
+				}
+				if (add && bulk) {
+					ArrayList<Edge> connected = new ArrayList<Edge>();
+					for (Edge e : edges) {
+						if (e.connectToNodes()) {
+							connected.add(e);
+						}
+					}
+					g.addConnectedEdges(connected);
+				} else if (add) {
+					if (g.addEdge(edges.get(0))) {
+						edges.get(0).connectToNodes();
+					}
+				} else if (bulk) {
+					g.removeEdges(edges);
+				} else if (g.removeEdge(edges.get(0))) {
+					edges.get(0).disconnectFromNodes();
+				}
+			}
+			assertEquals(plain.getEdgeCount(), indexed.getEdgeCount());
+		}
+		for (int n1 = 0; n1 < this.nodes.length; n1++) {
+			for (int n2 = 0; n2 < this.nodes.length; n2++) {
+				assertEquals(plain.containsEdge(n1, n2),
+						indexed.containsEdge(n1, n2));
+				assertEquals(plain.getEdge(n1, n2), indexed.getEdge(n1, n2));
+				if (indexed.containsEdge(n1, n2)) {
+					assertTrue(indexed.containsEdge(indexed.getEdge(n1, n2)));
+				}
+			}
+		}
+	}
+
+	private Graph newGraph(GraphDataStructure gds) {
+		Graph g = gds.newGraphInstance("EdgeIndexTest", 0, this.nodes.length,
+				0);
+		for (int i = 0; i < this.nodes.length; i++) {
+			g.addNode(gds.newNodeInstance(i));
+		}
+		return g;
+	}
+}
@@ -142,12 +142,12 @@ public class GeneratorsTest {
 			IllegalArgumentException, InvocationTargetException {
 
 		ArrayList<EnumMap<ListType, Class<? extends IDataStructure>>> simpleCombinations = GraphDataStructure
-				.getSimpleDatastructureCombinations();
+				.getTestDatastructureCombinations();
 
 		ArrayList<Object> result = new ArrayList<>();
 		for (EnumMap<ListType, Class<? extends IDataStructure>> combination : simpleCombinations) {
 			for (Class generator : ClassPointers.graphGenerators) {
-				for (Class edgeType : ClassPointers.edgeTypes) {
+				for (Class<?> edgeType : ClassPointers.edgeTypes) {
 					for (Class nodeType : ClassPointers.nodeTypes) {
 						if ((UndirectedEdge.class.isAssignableFrom(edgeType) && DirectedNode.class
 								.isAssignableFrom(nodeType))
@@ -161,7 +161,11 @@ public class GeneratorsTest {
 								|| combination.get(ListType.LocalEdgeList) == DEmpty.class)
 							continue;
 
-						if (Rand.rand.nextInt(30) > 2)
+						if (!GraphDataStructure.validListTypesSet(combination,
+								edgeType.asSubclass(Edge.class)))
+							continue;
+
+						if (Rand.get().nextInt(30) > 2)
 							continue;
 
 						result.add(new Object[] { combination, nodeType,
@@ -293,6 +297,9 @@ public class GeneratorsTest {
 		 */
 		assumeFalse(CliqueGraph.class.isAssignableFrom(generator));
 		assumeFalse(EmptyGraph.class.isAssignableFrom(generator));
+		// the weighted edges added below cannot be stored in all lists
+		assumeTrue(GraphDataStructure.canStoreWeightedEdges(gds
+				.getListClass(ListType.GlobalEdgeList)));
 
 		Graph g = gg.generate();
 
@@ -323,12 +330,12 @@ public class GeneratorsTest {
 				edgeMocked = new DirectedWeightedEdge(
 						(DirectedNode) edgeReal.getN1(),
 						(DirectedNode) edgeReal.getN2(), new IntWeight(
-								Rand.rand.nextInt()));
+								Rand.get().nextInt()));
 			} else if (gds.createsUndirected()) {
 				edgeMocked = new UndirectedWeightedEdge(
 						(UndirectedNode) edgeReal.getN1(),
 						(UndirectedNode) edgeReal.getN2(), new IntWeight(
-								Rand.rand.nextInt()));
+								Rand.get().nextInt()));
 			}
 
 			g.addEdge(edgeMocked);
@@ -4,14 +4,17 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumMap;
+import java.util.List;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -19,6 +22,7 @@ import org.junit.runners.Parameterized;
 
 import dna.graph.ClassPointers;
 import dna.graph.Graph;
+import dna.graph.datastructures.DArrayList;
 import dna.graph.datastructures.DEmpty;
 import dna.graph.datastructures.DataStructure.AccessType;
 import dna.graph.datastructures.DataStructure.ListType;
@@ -96,6 +100,10 @@ public class GraphTester {
 									|| nodeEdgeListType == DEmpty.class)
 								continue;
 
+							if (!isTestedCombination(nodeListType,
+									edgeListType, nodeEdgeListType))
+								continue;
+
 							EnumMap<ListType, Class<? extends IDataStructure>> listTypes = new EnumMap<ListType, Class<? extends IDataStructure>>(
 									ListType.class);
 							listTypes
@@ -105,6 +113,10 @@ public class GraphTester {
 							listTypes.put(ListType.LocalEdgeList,
 									nodeEdgeListType);
 
+							if (!GraphDataStructure.validListTypesSet(
+									listTypes, edgeType))
+								continue;
+
 							result.add(new Object[] { listTypes, nodeType,
 									edgeType });
 						}
@@ -116,6 +128,32 @@ public class GraphTester {
 		return result;
 	}
 
+	/**
+	 * 
+	 * @return true if all lists are common ones or the lists only consist of
+	 *         DArrayList and a single specialized list (cf.
+	 *         GraphDataStructure.getTestDatastructureCombinations)
+	 */
+	@SuppressWarnings("rawtypes")
+	private static boolean isTestedCombination(Class... lists) {
+		List<Class> common = Arrays.asList(ClassPointers.commonDataStructures);
+		Class specialized = null;
+		for (Class list : lists) {
+			if (common.contains(list))
+				continue;
+			if (specialized != null && specialized != list)
+				return false;
+			specialized = list;
+		}
+		if (specialized == null)
+			return true;
+		for (Class list : lists) {
+			if (list != specialized && list != DArrayList.class)
+				return false;
+		}
+		return true;
+	}
+
 	@Test
 	public void datastructureKnowsAboutItsComplexity() {
 		for (ListType lt : ListType.values()) {
@@ -231,6 +269,140 @@ public class GraphTester {
 		assertTrue(n2.hasEdge(e));
 	}
 
+	@Test
+	public void addEdgesSkipsContainedEdges() {
+		Node n1 = gds.newNodeInstance(1);
+		Node n2 = gds.newNodeInstance(2);
+		Node n3 = gds.newNodeInstance(3);
+		graph.addNode(n1);
+		graph.addNode(n2);
+		graph.addNode(n3);
+
+		Edge e12 = this.newEdge(n1, n2);
+		graph.addEdge(e12);
+		e12.connectToNodes();
+
+		ArrayList<Edge> edges = new ArrayList<Edge>();
+		edges.add(this.newEdge(n1, n2));
+		edges.add(this.newEdge(n1, n3));
+		edges.add(this.newEdge(n1, n3));
+		assertEquals(1, graph.addEdges(edges));
+
+		assertEquals(2, graph.getEdgeCount());
+		assertTrue(graph.containsEdge(e12));
+		assertTrue(graph.containsEdge(edges.get(1)));
+		assertTrue(n1.hasEdge(edges.get(1)));
+		assertTrue(n3.hasEdge(edges.get(1)));
+	}
+
+	@Test
+	public void addEdgesSkipsUnconnectedEdges() {
+		Node n1 = gds.newNodeInstance(1);
+		Node n3 = gds.newNodeInstance(3);
+		graph.addNode(n1);
+		graph.addNode(n3);
+
+		// the node already lists an equal edge, i.e., connecting fails
+		n1.addEdge(this.newEdge(n1, n3));
+
+		ArrayList<Edge> edges = new ArrayList<Edge>();
+		edges.add(this.newEdge(n1, n3));
+		assertEquals(0, graph.addEdges(edges));
+		if (graph.hasEdgeIndex()) {
+			assertFalse(graph.containsEdge(n1, n3));
+		}
+	}
+
+	@Test
+	public void removeEdgeNotContained() {
+		Node n1 = gds.newNodeInstance(1);
+		Node n2 = gds.newNodeInstance(2);
+		Node n3 = gds.newNodeInstance(3);
+		graph.addNode(n1);
+		graph.addNode(n2);
+		graph.addNode(n3);
+
+		Edge e12 = this.newEdge(n1, n2);
+		assertTrue(graph.addEdge(e12));
+
+		assertFalse(graph.removeEdge(this.newEdge(n1, n3)));
+		assertTrue(graph.containsEdge(n1, n2));
+		assertEquals(1, graph.getEdgeCount());
+
+		assertTrue(graph.removeEdge(this.newEdge(n1, n2)));
+		assertFalse(graph.containsEdge(n1, n2));
+		assertFalse(graph.removeEdge(e12));
+		assertEquals(0, graph.getEdgeCount());
+	}
+
+	@Test
+	public void removeEdgesSkipsAbsentEdges() {
+		Node n1 = gds.newNodeInstance(1);
+		Node n2 = gds.newNodeInstance(2);
+		Node n3 = gds.newNodeInstance(3);
+		graph.addNode(n1);
+		graph.addNode(n2);
+		graph.addNode(n3);
+
+		Edge e12 = this.newEdge(n1, n2);
+		assertTrue(graph.addEdge(e12));
+		e12.connectToNodes();
+
+		// the node lists an edge that is not contained in the graph
+		Edge e13 = this.newEdge(n1, n3);
+		n1.addEdge(e13);
+
+		ArrayList<Edge> edges = new ArrayList<Edge>();
+		edges.add(this.newEdge(n1, n2));
+		edges.add(this.newEdge(n1, n2));
+		edges.add(this.newEdge(n1, n3));
+		edges.add(this.newEdge(n2, n3));
+		assertEquals(1, graph.removeEdges(edges));
+
+		assertEquals(0, graph.getEdgeCount());
+		assertFalse(graph.containsEdge(n1, n2));
+		assertFalse(n1.hasEdge(e12));
+		assertFalse(n2.hasEdge(e12));
+		assertTrue(n1.hasEdge(e13));
+	}
+
+	@Test
+	public void addConnectedEdgesSkipsContainedEdges() {
+		Node n1 = gds.newNodeInstance(1);
+		Node n2 = gds.newNodeInstance(2);
+		Node n3 = gds.newNodeInstance(3);
+		graph.addNode(n1);
+		graph.addNode(n2);
+		graph.addNode(n3);
+
+		Edge e12 = this.newEdge(n1, n2);
+		assertTrue(graph.addEdge(e12));
+		e12.connectToNodes();
+		Edge e13 = this.newEdge(n1, n3);
+		e13.connectToNodes();
+
+		ArrayList<Edge> edges = new ArrayList<Edge>();
+		edges.add(this.newEdge(n1, n2));
+		edges.add(e13);
+		edges.add(this.newEdge(n1, n3));
+		assertEquals(1, graph.addConnectedEdges(edges));
+
+		assertEquals(2, graph.getEdgeCount());
+		assertTrue(graph.containsEdge(n1, n2));
+		assertTrue(graph.containsEdge(n1, n3));
+		if (graph.hasEdgeIndex()) {
+			assertSame(e12, graph.getEdge(n1, n2));
+			assertSame(e13, graph.getEdge(n1, n3));
+		}
+	}
+
+	private Edge newEdge(Node n1, Node n2) {
+		if (gds.createsWeightedEdges()) {
+			return (Edge) gds.newWeightedEdge(n1, n2, new IntWeight(1));
+		}
+		return gds.newEdgeInstance(n1, n2);
+	}
+
 	@Test
 	public void addEdgeByString() {
 		assumeTrue(gds.isReadable());
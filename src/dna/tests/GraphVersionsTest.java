@@ -0,0 +1,257 @@
+package dna.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DHashSet;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.datastructures.IDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.generators.random.RandomGraph;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.graph.snapshots.GraphSnapshot;
+import dna.graph.snapshots.GraphVersions;
+import dna.updates.batch.Batch;
+import dna.updates.batch.BatchSanitization;
+import dna.updates.generators.BatchGenerator;
+import dna.updates.generators.random.RandomBatch;
+
+@RunWith(Parameterized.class)
+public class GraphVersionsTest {
+	private GraphDataStructure gds;
+
+	private BatchGenerator bGen;
+
+	public GraphVersionsTest(Class<? extends Node> nodeType,
+			Class<? extends Edge> edgeType) {
+		EnumMap<ListType, Class<? extends IDataStructure>> listTypes = GraphDataStructure
+				.getList(ListType.GlobalNodeList, DArray.class,
+						ListType.GlobalEdgeList, DHashSet.class,
+						ListType.LocalEdgeList, DHashSet.class);
+		this.gds = new GraphDataStructure(listTypes, nodeType, edgeType);
+		this.bGen = new RandomBatch(10, 10, 50, 50);
+	}
+
+	@Parameterized.Parameters(name = "{0} {1}")
+	public static Collection<Object[]> testPairs() {
+		ArrayList<Object[]> result = new ArrayList<Object[]>();
+		result.add(new Object[] { DirectedNode.class, DirectedEdge.class });
+		result.add(new Object[] { UndirectedNode.class, UndirectedEdge.class });
+		return result;
+	}
+
+	private Graph newGraph(int maxSnapshots) {
+		Graph g = new RandomGraph(this.gds, 100, 300).generate();
+		g.enableVersioning(maxSnapshots, Long.MAX_VALUE);
+		return g;
+	}
+
+	private void applyBatch(Graph g) {
+		Batch b = this.bGen.generate(g);
+		BatchSanitization.sanitize(b);
+		assertTrue(b.apply(g));
+	}
+
+	@Test
+	public void snapshotsAreNotAffectedByLaterBatches() {
+		Graph g = this.newGraph(100);
+		ArrayList<GraphSnapshot> snapshots = new ArrayList<GraphSnapshot>();
+		ArrayList<TreeSet<String>> edges = new ArrayList<TreeSet<String>>();
+		ArrayList<TreeSet<Integer>> nodes = new ArrayList<TreeSet<Integer>>();
+
+		for (int i = 0; i < 10; i++) {
+			snapshots.add(g.getSnapshot());
+			edges.add(getEdges(g));
+			nodes.add(getNodes(g));
+			this.applyBatch(g);
+		}
+		snapshots.add(g.getSnapshot());
+		edges.add(getEdges(g));
+		nodes.add(getNodes(g));
+
+		for (int i = 0; i < snapshots.size(); i++) {
+			GraphSnapshot s = snapshots.get(i);
+			assertEquals(i, s.getTimestamp());
+			assertSame(s, g.getSnapshot(i));
+			assertEquals(edges.get(i), getEdges(s));
+			assertEquals(nodes.get(i), getNodes(s));
+			assertEquals(edges.get(i).size(), s.getEdgeCount());
+		}
+		assertSame(snapshots.get(snapshots.size() - 1), g.getVersions()
+				.getLatest());
+	}
+
+	@Test
+	public void changedNodesAreDetected() {
+		Graph g = this.newGraph(100);
+		GraphSnapshot before = g.getSnapshot();
+		this.applyBatch(g);
+		GraphSnapshot after = g.getSnapshot();
+
+		TreeSet<Integer> changed = new TreeSet<Integer>();
+		for (int i = 0; i <= Math.max(before.getMaxNodeIndex(),
+				after.getMaxNodeIndex()); i++) {
+			if (before.containsNode(i) != after.containsNode(i)
+					|| !Arrays.equals(before.getOutNeighbors(i),
+							after.getOutNeighbors(i))
+					|| !Arrays.equals(before.getInNeighbors(i),
+							after.getInNeighbors(i))) {
+				changed.add(i);
+			}
+		}
+		int[] expected = new int[changed.size()];
+		int pos = 0;
+		for (int index : changed) {
+			expected[pos++] = index;
+		}
+		assertArrayEquals(expected, after.getChangedNodes(before));
+		assertArrayEquals(expected, before.getChangedNodes(after));
+		assertEquals(0, after.getChangedNodes(after).length);
+	}
+
+	@Test
+	public void oldestSnapshotsAreDropped() {
+		Graph g = this.newGraph(3);
+		for (int i = 0; i < 5; i++) {
+			this.applyBatch(g);
+		}
+		GraphVersions versions = g.getVersions();
+		assertEquals(3, versions.getSnapshots().length);
+		assertNull(g.getSnapshot(0));
+		assertEquals(3, versions.getSnapshots()[0].getTimestamp());
+		assertSame(versions.getLatest(), g.getSnapshot(5));
+	}
+
+	@Test
+	public void latestSnapshotCanBeReadWhileGraphIsModified()
+			throws InterruptedException {
+		final Graph g = this.newGraph(2);
+		g.getSnapshot();
+		final GraphVersions versions = g.getVersions();
+		final boolean directed = g.isDirected();
+		final ArrayList<String> errors = new ArrayList<String>();
+		final boolean[] done = new boolean[1];
+
+		Thread reader = new Thread() {
+			public void run() {
+				while (true) {
+					boolean last;
+					synchronized (done) {
+						last = done[0];
+					}
+					String error = check(versions.getLatest(), directed);
+					if (error != null) {
+						synchronized (errors) {
+							errors.add(error);
+						}
+					}
+					if (last) {
+						return;
+					}
+					Thread.yield();
+				}
+			}
+		};
+		reader.start();
+		try {
+			for (int i = 0; i < 20; i++) {
+				this.applyBatch(g);
+				Thread.yield();
+			}
+		} finally {
+			synchronized (done) {
+				done[0] = true;
+			}
+			reader.join();
+		}
+
+		assertEquals(new ArrayList<String>(), errors);
+		assertEquals(getEdges(g), getEdges(versions.getLatest()));
+	}
+
+	/**
+	 *
+	 * @return description of the first inconsistency of the given snapshot,
+	 *         null if there is none
+	 */
+	private static String check(GraphSnapshot s, boolean directed) {
+		int edges = 0;
+		GraphSnapshot.EdgeCursor c = s.edges();
+		while (c.next()) {
+			edges++;
+			if (!s.containsEdge(c.getSrc(), c.getDst())
+					|| !s.containsNode(c.getDst())) {
+				return s + ": edge " + c.getSrc() + " " + c.getDst();
+			}
+			if (!directed && !s.containsEdge(c.getDst(), c.getSrc())) {
+				return s + ": asymmetric edge " + c.getSrc() + " " + c.getDst();
+			}
+		}
+		if (edges != s.getEdgeCount()) {
+			return s + ": " + edges + " edges";
+		}
+		return null;
+	}
+
+	private static TreeSet<String> getEdges(Graph g) {
+		TreeSet<String> edges = new TreeSet<String>();
+		for (IElement e_ : g.getEdges()) {
+			Edge e = (Edge) e_;
+			edges.add(key(e.getN1Index(), e.getN2Index(), g.isDirected()));
+		}
+		return edges;
+	}
+
+	private static TreeSet<String> getEdges(GraphSnapshot s) {
+		TreeSet<String> edges = new TreeSet<String>();
+		GraphSnapshot.EdgeCursor c = s.edges();
+		while (c.next()) {
+			edges.add(key(c.getSrc(), c.getDst(), s.isDirected()));
+		}
+		return edges;
+	}
+
+	private static String key(int n1, int n2, boolean directed) {
+		if (!directed && n1 > n2) {
+			return n2 + " " + n1;
+		}
+		return n1 + " " + n2;
+	}
+
+	private static TreeSet<Integer> getNodes(Graph g) {
+		TreeSet<Integer> nodes = new TreeSet<Integer>();
+		for (IElement n : g.getNodes()) {
+			nodes.add(((Node) n).getIndex());
+		}
+		return nodes;
+	}
+
+	private static TreeSet<Integer> getNodes(GraphSnapshot s) {
+		TreeSet<Integer> nodes = new TreeSet<Integer>();
+		for (int i = 0; i < s.getNodeCount(); i++) {
+			nodes.add(s.getNodeIndex(i));
+		}
+		return nodes;
+	}
+}
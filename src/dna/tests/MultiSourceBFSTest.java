@@ -0,0 +1,143 @@
+package dna.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import dna.graph.Graph;
+import dna.graph.csr.CSRGraph;
+import dna.graph.csr.IGraphTraversal;
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.generators.GraphGenerator;
+import dna.graph.generators.random.RandomGraph;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.metrics.apsp.MultiSourceBFS;
+import dna.series.data.DistributionLong;
+import dna.util.RandomSource;
+
+@RunWith(Parameterized.class)
+public class MultiSourceBFSTest {
+	private GraphDataStructure gds;
+
+	public MultiSourceBFSTest(Class<? extends Node> nodeType,
+			Class<? extends Edge> edgeType) {
+		this.gds = new GraphDataStructure(GraphDataStructure.getList(
+				ListType.GlobalNodeList, DArray.class, ListType.GlobalEdgeList,
+				DArrayList.class, ListType.LocalEdgeList, DArrayList.class),
+				nodeType, edgeType);
+	}
+
+	@Parameterized.Parameters(name = "{0} {1}")
+	public static Collection<Object[]> testPairs() {
+		ArrayList<Object[]> result = new ArrayList<Object[]>();
+		result.add(new Object[] { DirectedNode.class, DirectedEdge.class });
+		result.add(new Object[] { UndirectedNode.class, UndirectedEdge.class });
+		return result;
+	}
+
+	private CSRGraph newGraph(int nodes, int edges) {
+		GraphGenerator gg = new RandomGraph(this.gds, nodes, edges);
+		gg.setRandom(RandomSource.newInstance(42));
+		Graph g = gg.generate();
+		return g.getCSR();
+	}
+
+	private static int[] getAllNodes(IGraphTraversal g) {
+		int[] sources = new int[g.getNodeCount()];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = g.getNodeIndex(i);
+		}
+		return sources;
+	}
+
+	private static void assertSameDistribution(DistributionLong expected,
+			DistributionLong actual) {
+		expected.truncate();
+		actual.truncate();
+		assertArrayEquals(expected.getLongValues(), actual.getLongValues());
+		assertEquals(expected.getDenominator(), actual.getDenominator());
+	}
+
+	@Test
+	public void allSourcesOfDenseGraph() {
+		CSRGraph g = this.newGraph(150, 900);
+		int[] sources = getAllNodes(g);
+		assertSameDistribution(bfs(g, sources),
+				new MultiSourceBFS(g, sources).compute("APSP"));
+	}
+
+	@Test
+	public void allSourcesOfDisconnectedGraph() {
+		CSRGraph g = this.newGraph(200, 150);
+		int[] sources = getAllNodes(g);
+		DistributionLong expected = bfs(g, sources);
+		assertTrue(expected.getDenominator() < (long) g.getNodeCount()
+				* (g.getNodeCount() - 1));
+		assertSameDistribution(expected,
+				new MultiSourceBFS(g, sources).compute("APSP"));
+	}
+
+	@Test
+	public void subsetOfSources() {
+		CSRGraph g = this.newGraph(150, 300);
+		int[] sources = Arrays.copyOf(getAllNodes(g), 70);
+		assertSameDistribution(bfs(g, sources),
+				new MultiSourceBFS(g, sources).compute("APSP"));
+		sources = Arrays.copyOf(sources, 5);
+		assertSameDistribution(bfs(g, sources),
+				new MultiSourceBFS(g, sources).compute("APSP"));
+	}
+
+	@Test
+	public void noSources() {
+		CSRGraph g = this.newGraph(50, 100);
+		assertSameDistribution(new DistributionLong("APSP"),
+				new MultiSourceBFS(g, new int[0]).compute("APSP"));
+	}
+
+	/**
+	 *
+	 * @return distribution of the distances of all nodes reached by one BFS
+	 *         per source (except the source itself)
+	 */
+	private static DistributionLong bfs(IGraphTraversal g, int[] sources) {
+		DistributionLong d = new DistributionLong("APSP");
+		int[] dist = new int[g.getMaxNodeIndex() + 1];
+		int[] queue = new int[g.getNodeCount()];
+		for (int source : sources) {
+			Arrays.fill(dist, -1);
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = source;
+			dist[source] = 0;
+			while (head < tail) {
+				int v = queue[head++];
+				for (int i = g.outStart(v); i < g.outEnd(v); i++) {
+					int w = g.outTarget(i);
+					if (dist[w] == -1) {
+						dist[w] = dist[v] + 1;
+						d.incr(dist[w]);
+						queue[tail++] = w;
+					}
+				}
+			}
+		}
+		return d;
+	}
+}
@@ -0,0 +1,193 @@
+package dna.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import dna.util.ArrayUtils;
+import dna.util.OnlineStatistics;
+import dna.util.RandomSource;
+
+/**
+ * compares the single-pass statistics of OnlineStatistics with the ones
+ * computed from all values using ArrayUtils (as done by Aggregation)
+ */
+public class OnlineStatisticsTest {
+	private static final int AVG = 0;
+	private static final int MIN = 1;
+	private static final int MAX = 2;
+	private static final int MEDIAN = 3;
+	private static final int VAR = 4;
+	private static final int VAR_LOW = 5;
+	private static final int VAR_UP = 6;
+	private static final int CONF_LOW = 7;
+	private static final int CONF_UP = 8;
+
+	/**
+	 * maximum deviation of the estimated median from the exact one for more
+	 * than 5 values, given as a fraction of the values (rank error)
+	 */
+	private static final double MEDIAN_RANK_ERROR = 0.02;
+
+	/**
+	 * maximum relative error of variance-low / -up for more than 5 values
+	 */
+	private static final double VAR_LOW_UP_ERROR = 0.15;
+
+	/**
+	 *
+	 * @return the aggregated values computed from all values (cf.
+	 *         Aggregation.aggregate)
+	 */
+	private static double[] aggregate(double[] values) {
+		double avg = ArrayUtils.avg(values);
+		double[] varLowUp = ArrayUtils.varLowUp(values, avg);
+		double[] conf = ArrayUtils.conf(values);
+		return new double[] { avg, ArrayUtils.min(values),
+				ArrayUtils.max(values), ArrayUtils.med(values), varLowUp[0],
+				varLowUp[1], varLowUp[2], conf[0], conf[1] };
+	}
+
+	private static double[] getAggregated(double[] values) {
+		OnlineStatistics statistics = new OnlineStatistics();
+		for (int i = 0; i < values.length; i++) {
+			statistics.add(0, i, values[i]);
+		}
+		return statistics.getAggregated(0, values.length);
+	}
+
+	private static void assertClose(double expected, double actual) {
+		assertEquals(expected, actual, 1e-9 * Math.max(1, Math.abs(expected)));
+	}
+
+	private static double[] uniform(RandomSource rand, int n) {
+		double[] values = new double[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = 1000 * rand.nextDouble();
+		}
+		return values;
+	}
+
+	private static double[] gaussian(RandomSource rand, int n) {
+		double[] values = new double[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = 50 + 10 * rand.nextGaussian();
+		}
+		return values;
+	}
+
+	private static double[] exponential(RandomSource rand, int n) {
+		double[] values = new double[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = -Math.log(1 - rand.nextDouble());
+		}
+		return values;
+	}
+
+	@Test
+	public void allValuesAreExactForUpToFiveValues() {
+		RandomSource rand = RandomSource.newInstance(42);
+		for (int n = 1; n <= 5; n++) {
+			for (int i = 0; i < 100; i++) {
+				double[] values = uniform(rand, n);
+				if (i % 2 == 0) {
+					// duplicates
+					values[0] = values[n - 1];
+				}
+				double[] expected = aggregate(values);
+				double[] actual = getAggregated(values);
+				for (int j = 0; j < expected.length; j++) {
+					assertClose(expected[j], actual[j]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void momentsAreExact() {
+		RandomSource rand = RandomSource.newInstance(42);
+		for (int n : new int[] { 6, 10, 100, 10000 }) {
+			for (double[] values : new double[][] { uniform(rand, n),
+					gaussian(rand, n), exponential(rand, n) }) {
+				double[] expected = aggregate(values);
+				double[] actual = getAggregated(values);
+				assertClose(expected[AVG], actual[AVG]);
+				assertEquals(expected[MIN], actual[MIN], 0);
+				assertEquals(expected[MAX], actual[MAX], 0);
+				assertClose(expected[VAR], actual[VAR]);
+				assertClose(expected[CONF_LOW], actual[CONF_LOW]);
+				assertClose(expected[CONF_UP], actual[CONF_UP]);
+			}
+		}
+	}
+
+	@Test
+	public void medianIsWithinErrorBound() {
+		RandomSource rand = RandomSource.newInstance(42);
+		for (int n : new int[] { 1000, 10000 }) {
+			for (double[] values : new double[][] { uniform(rand, n),
+					gaussian(rand, n), exponential(rand, n) }) {
+				double median = getAggregated(values)[MEDIAN];
+				double[] sorted = values.clone();
+				Arrays.sort(sorted);
+				int error = (int) (MEDIAN_RANK_ERROR * n);
+				assertTrue(sorted[n / 2 - error] <= median);
+				assertTrue(median <= sorted[n / 2 + error]);
+			}
+		}
+	}
+
+	@Test
+	public void varianceLowUpIsWithinErrorBound() {
+		RandomSource rand = RandomSource.newInstance(42);
+		for (int n : new int[] { 1000, 10000 }) {
+			for (double[] values : new double[][] { uniform(rand, n),
+					gaussian(rand, n), exponential(rand, n) }) {
+				double[] expected = aggregate(values);
+				double[] actual = getAggregated(values);
+				assertEquals(expected[VAR_LOW], actual[VAR_LOW],
+						VAR_LOW_UP_ERROR * expected[VAR_LOW]);
+				assertEquals(expected[VAR_UP], actual[VAR_UP],
+						VAR_LOW_UP_ERROR * expected[VAR_UP]);
+			}
+		}
+	}
+
+	/**
+	 * NaN is assigned to the node values of removed nodes
+	 */
+	@Test
+	public void nanIsHandledLikeArrayUtils() {
+		double[][] values = new double[][] { { 0.5, Double.NaN, 0.2, 0.1 },
+				{ Double.NaN, 0.5, 0.2 }, { 0.5, 0.2, Double.NaN, 0.7, 0.1 } };
+		for (double[] v : values) {
+			double[] expected = aggregate(v);
+			double[] actual = getAggregated(v);
+			for (int j = 0; j < expected.length; j++) {
+				assertEquals(expected[j], actual[j], 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void missingValuesAreZero() {
+		OnlineStatistics statistics = new OnlineStatistics();
+		statistics.add(0, 0, 3);
+		statistics.add(0, 2, 5);
+		statistics.add(2, 1, 4);
+		assertEquals(3, statistics.size());
+
+		double[][] expected = new double[][] { { 3, 0, 5, 0 },
+				{ 0, 0, 0, 0 }, { 0, 4, 0, 0 } };
+		for (int i = 0; i < expected.length; i++) {
+			double[] e = aggregate(expected[i]);
+			double[] actual = statistics.getAggregated(i, 4);
+			for (int j = 0; j < e.length; j++) {
+				assertClose(e[j], actual[j]);
+			}
+		}
+	}
+}
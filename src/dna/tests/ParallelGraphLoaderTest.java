@@ -0,0 +1,174 @@
+package dna.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DHashSet;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.io.EdgeListGraphReader;
+import dna.io.EdgeListParser;
+import dna.io.InvalidFormatException;
+import dna.util.Config;
+
+public class ParallelGraphLoaderTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String parallelSize;
+
+	private String dir;
+
+	@Before
+	public void init() {
+		this.parallelSize = Config.get("GRAPH_READER_PARALLEL_SIZE");
+		this.dir = this.folder.getRoot().getAbsolutePath() + File.separator;
+	}
+
+	@After
+	public void restore() {
+		Config.overwrite("GRAPH_READER_PARALLEL_SIZE", this.parallelSize);
+	}
+
+	/**
+	 * writes a list of edges between random (large) ids that is long enough
+	 * to be split into several ranges, including comments, empty lines,
+	 * duplicates, and self-loops
+	 */
+	private void writeEdgeList(String filename) throws IOException {
+		Random rand = new Random(42);
+		long[] ids = new long[20000];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = rand.nextInt(1 << 30) * 7919L;
+		}
+		PrintWriter w = new PrintWriter(new FileWriter(this.dir + filename));
+		w.print(Config.get("COMMENT_PREFIX") + " edge list\n\n");
+		for (int i = 0; i < 250000; i++) {
+			long src = ids[rand.nextInt(ids.length)];
+			long dst = rand.nextInt(100) == 0 ? src : ids[rand
+					.nextInt(ids.length)];
+			w.print(src + "\t" + dst + "\n");
+			if (rand.nextInt(1000) == 0) {
+				w.print(src + "\t" + dst + "\n");
+				w.print(Config.get("COMMENT_PREFIX") + " " + i + "\n\n");
+			}
+		}
+		w.close();
+	}
+
+	private Graph read(String filename, boolean parallel, boolean directed)
+			throws IOException {
+		Config.overwrite("GRAPH_READER_PARALLEL_SIZE", parallel ? "0" : "-1");
+		GraphDataStructure gds = new GraphDataStructure(
+				GraphDataStructure.getList(ListType.GlobalNodeList,
+						DArray.class, ListType.GlobalEdgeList, DHashSet.class,
+						ListType.LocalEdgeList, DHashSet.class),
+				directed ? DirectedNode.class : UndirectedNode.class,
+				directed ? DirectedEdge.class : UndirectedEdge.class);
+		return EdgeListGraphReader.read(this.dir, filename, "\t", gds);
+	}
+
+	@Test
+	public void parallelLoaderReadsTheSameDirectedGraph() throws IOException {
+		this.writeEdgeList("graph.txt");
+		assertSameGraph(this.read("graph.txt", false, true),
+				this.read("graph.txt", true, true));
+	}
+
+	@Test
+	public void parallelLoaderReadsTheSameUndirectedGraph()
+			throws IOException {
+		this.writeEdgeList("graph.txt");
+		assertSameGraph(this.read("graph.txt", false, false),
+				this.read("graph.txt", true, false));
+	}
+
+	@Test
+	public void nonNumericIdsAreReadAsStrings() throws IOException {
+		PrintWriter w = new PrintWriter(new FileWriter(this.dir + "graph.txt"));
+		w.print("a\tb\nb\tc\nc\ta\n");
+		w.close();
+		Graph g = this.read("graph.txt", false, true);
+		assertEquals(3, g.getNodeCount());
+		assertEquals(3, g.getEdgeCount());
+	}
+
+	@Test
+	public void invalidLinesAreReported() throws IOException {
+		PrintWriter w = new PrintWriter(new FileWriter(this.dir + "graph.txt"));
+		w.print("1\t2\n2\tx\n");
+		w.close();
+		EdgeListParser parser = new EdgeListParser(this.dir, "graph.txt", "\t");
+		try {
+			assertTrue(parser.next());
+			assertEquals(1, parser.getSrc());
+			assertEquals(2, parser.getDst());
+			parser.next();
+			fail("invalid line was parsed");
+		} catch (InvalidFormatException e) {
+			assertFalse(e.getMessage().isEmpty());
+		} finally {
+			parser.close();
+		}
+	}
+
+	private static void assertSameGraph(Graph expected, Graph actual) {
+		assertEquals(expected.getNodeCount(), actual.getNodeCount());
+		assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+		assertEquals(expected.getMaxNodeIndex(), actual.getMaxNodeIndex());
+		assertEquals(getEdges(expected), getEdges(actual));
+		for (IElement n_ : expected.getNodes()) {
+			Node n = (Node) n_;
+			assertEquals(getEdges(n), getEdges(actual.getNode(n.getIndex())));
+		}
+	}
+
+	private static TreeSet<String> getEdges(Graph g) {
+		TreeSet<String> edges = new TreeSet<String>();
+		for (IElement e : g.getEdges()) {
+			edges.add(key((Edge) e));
+		}
+		return edges;
+	}
+
+	private static TreeSet<String> getEdges(Node n) {
+		TreeSet<String> edges = new TreeSet<String>();
+		for (IElement e : n.getEdges()) {
+			edges.add(key((Edge) e));
+		}
+		return edges;
+	}
+
+	private static String key(Edge e) {
+		int n1 = e.getN1Index();
+		int n2 = e.getN2Index();
+		if (e instanceof UndirectedEdge && n1 > n2) {
+			return n2 + " " + n1;
+		}
+		return n1 + " " + n2;
+	}
+}
@@ -0,0 +1,153 @@
+package dna.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import dna.graph.Graph;
+import dna.graph.csr.CSRGraph;
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.generators.GraphGenerator;
+import dna.graph.generators.random.RandomGraph;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.metrics.apsp.MultiSourceBFS;
+import dna.metrics.apsp.UnweightedAllPairsShortestPathsR;
+import dna.metrics.betweenessCentrality.BetweenessCentralityR;
+import dna.metrics.betweenessCentrality.ParallelBrandes;
+import dna.metrics.betweenessCentrality.ParallelBrandes.Accumulator;
+import dna.series.data.DistributionLong;
+import dna.util.RandomSource;
+
+/**
+ * compares the results of the parallel recomputation (ParallelBrandes,
+ * MultiSourceBFS) for different numbers of threads with a sequential
+ * execution, i.e., a pool with a single thread
+ */
+@RunWith(Parameterized.class)
+public class ParallelRecomputationTest {
+	private static final int[] THREADS = new int[] { 1, 2, 3, 8 };
+
+	private GraphDataStructure gds;
+
+	public ParallelRecomputationTest(Class<? extends Node> nodeType,
+			Class<? extends Edge> edgeType) {
+		this.gds = new GraphDataStructure(GraphDataStructure.getList(
+				ListType.GlobalNodeList, DArray.class, ListType.GlobalEdgeList,
+				DArrayList.class, ListType.LocalEdgeList, DArrayList.class),
+				nodeType, edgeType);
+	}
+
+	@Parameterized.Parameters(name = "{0} {1}")
+	public static Collection<Object[]> testPairs() {
+		ArrayList<Object[]> result = new ArrayList<Object[]>();
+		result.add(new Object[] { DirectedNode.class, DirectedEdge.class });
+		result.add(new Object[] { UndirectedNode.class, UndirectedEdge.class });
+		return result;
+	}
+
+	private Graph newGraph() {
+		GraphGenerator gg = new RandomGraph(this.gds, 300, 1200);
+		gg.setRandom(RandomSource.newInstance(42));
+		return gg.generate();
+	}
+
+	private static int[] getSources(CSRGraph csr) {
+		int[] sources = new int[csr.getNodeCount()];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = csr.getNodeIndex(i);
+		}
+		return sources;
+	}
+
+	private static Accumulator brandes(CSRGraph csr, int threads) {
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			return new ParallelBrandes(csr, getSources(csr)).compute(pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static DistributionLong msbfs(CSRGraph csr, int threads) {
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			DistributionLong d = new MultiSourceBFS(csr, getSources(csr))
+					.compute("APSP", pool);
+			d.truncate();
+			return d;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void brandesIsIndependentOfThreadCount() {
+		CSRGraph csr = this.newGraph().getCSR();
+		Accumulator sequential = brandes(csr, 1);
+		for (int threads : THREADS) {
+			Accumulator parallel = brandes(csr, threads);
+			assertEquals(sequential.sumShortestPaths, parallel.sumShortestPaths);
+			assertArrayEquals(sequential.bc, parallel.bc, 1e-9);
+			assertEquals(sequential.bCSum, parallel.bCSum, 1e-6);
+
+			// same configuration => same floating point result
+			Accumulator again = brandes(csr, threads);
+			assertArrayEquals(parallel.bc, again.bc, 0);
+			assertEquals(parallel.bCSum, again.bCSum, 0);
+		}
+	}
+
+	@Test
+	public void msbfsIsIndependentOfThreadCount() {
+		CSRGraph csr = this.newGraph().getCSR();
+		DistributionLong sequential = msbfs(csr, 1);
+		for (int threads : THREADS) {
+			DistributionLong parallel = msbfs(csr, threads);
+			assertArrayEquals(sequential.getLongValues(),
+					parallel.getLongValues());
+			assertEquals(sequential.getDenominator(),
+					parallel.getDenominator());
+		}
+	}
+
+	@Test
+	public void recomputationMetricsMatchSequentialExecution() {
+		Graph g = this.newGraph();
+		CSRGraph csr = g.getCSR();
+
+		BetweenessCentralityR bc = new BetweenessCentralityR();
+		bc.setGraph(g);
+		bc.init();
+		bc.compute();
+		Accumulator sequential = brandes(csr, 1);
+		double[] values = bc.getNodeValueLists()[0].getValues();
+		for (int pos = 0; pos < csr.getNodeCount(); pos++) {
+			int index = csr.getNodeIndex(pos);
+			assertEquals(sequential.bc[index], values[index], 1e-9);
+		}
+		assertEquals(sequential.sumShortestPaths, bc.getSumShortestPaths());
+
+		UnweightedAllPairsShortestPathsR apsp = new UnweightedAllPairsShortestPathsR();
+		apsp.setGraph(g);
+		apsp.init();
+		apsp.compute();
+		DistributionLong d = (DistributionLong) apsp.getDistributions()[0];
+		d.truncate();
+		assertArrayEquals(msbfs(csr, 1).getLongValues(), d.getLongValues());
+	}
+}
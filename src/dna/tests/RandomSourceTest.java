@@ -0,0 +1,174 @@
+package dna.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import dna.util.RandomSource;
+import dna.util.RandomSource.RandomSourceType;
+
+@RunWith(Parameterized.class)
+public class RandomSourceTest {
+	private static final int VALUES = 10000;
+
+	private RandomSourceType type;
+
+	public RandomSourceTest(RandomSourceType type) {
+		this.type = type;
+	}
+
+	@Parameterized.Parameters(name = "{0}")
+	public static Collection<Object[]> testPairs() {
+		ArrayList<Object[]> result = new ArrayList<Object[]>();
+		for (RandomSourceType type : RandomSourceType.values()) {
+			result.add(new Object[] { type });
+		}
+		return result;
+	}
+
+	private RandomSource newInstance(long seed) {
+		return RandomSource.newInstance(this.type, seed);
+	}
+
+	private static long[] next(RandomSource rand, int count) {
+		long[] values = new long[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = rand.nextLong();
+		}
+		return values;
+	}
+
+	@Test
+	public void sameSeedGivesSameStream() {
+		RandomSource r1 = this.newInstance(42);
+		RandomSource r2 = this.newInstance(42);
+		for (int i = 0; i < VALUES; i++) {
+			assertEquals(r1.nextLong(), r2.nextLong());
+			assertEquals(r1.nextInt(1000), r2.nextInt(1000));
+			assertEquals(r1.nextDouble(), r2.nextDouble(), 0);
+		}
+	}
+
+	@Test
+	public void setSeedRestartsStream() {
+		RandomSource rand = this.newInstance(42);
+		long[] expected = next(rand, 100);
+		rand.split();
+		rand.setSeed(42);
+		for (long value : expected) {
+			assertEquals(value, rand.nextLong());
+		}
+	}
+
+	@Test
+	public void differentSeedsGiveDifferentStreams() {
+		HashSet<Long> values = new HashSet<Long>();
+		for (long seed = 0; seed < 100; seed++) {
+			RandomSource rand = this.newInstance(seed);
+			for (int i = 0; i < 100; i++) {
+				assertTrue(values.add(rand.nextLong()));
+			}
+		}
+	}
+
+	@Test
+	public void splitIsDeterministic() {
+		RandomSource r1 = this.newInstance(42);
+		RandomSource r2 = this.newInstance(42);
+		for (int i = 0; i < 10; i++) {
+			RandomSource s1 = r1.split();
+			RandomSource s2 = r2.split();
+			for (int j = 0; j < 100; j++) {
+				assertEquals(s1.nextLong(), s2.nextLong());
+			}
+		}
+	}
+
+	/**
+	 * the streams of the parent and of its splits do not overlap and are not
+	 * correlated (on average, half of the bits of two values differ)
+	 */
+	@Test
+	public void splitGivesIndependentStreams() {
+		RandomSource parent = this.newInstance(42);
+		ArrayList<long[]> streams = new ArrayList<long[]>();
+		for (int i = 0; i < 8; i++) {
+			streams.add(next(parent.split(), VALUES));
+		}
+		streams.add(next(parent, VALUES));
+
+		HashSet<Long> values = new HashSet<Long>();
+		for (long[] stream : streams) {
+			for (long value : stream) {
+				assertTrue(values.add(value));
+			}
+		}
+		for (int i = 0; i < streams.size(); i++) {
+			for (int j = i + 1; j < streams.size(); j++) {
+				long differentBits = 0;
+				for (int k = 0; k < VALUES; k++) {
+					differentBits += Long.bitCount(streams.get(i)[k]
+							^ streams.get(j)[k]);
+				}
+				assertEquals(32.0, (double) differentBits / VALUES, 0.2);
+			}
+		}
+	}
+
+	@Test
+	public void splitDoesNotDependOnUsageOfOtherStreams() {
+		RandomSource r1 = this.newInstance(42);
+		RandomSource r2 = this.newInstance(42);
+		RandomSource s1 = r1.split();
+		next(r2.split(), 1000);
+		assertEquals(r1.nextLong(), r2.nextLong());
+
+		next(r1, 1000);
+		RandomSource s3 = this.newInstance(42).split();
+		for (int i = 0; i < 100; i++) {
+			assertEquals(s3.nextLong(), s1.nextLong());
+		}
+	}
+
+	@Test
+	public void valuesAreInRange() {
+		RandomSource rand = this.newInstance(42);
+		int[] counts = new int[10];
+		for (int i = 0; i < VALUES; i++) {
+			counts[rand.nextInt(counts.length)]++;
+			double d = rand.nextDouble();
+			assertTrue(d >= 0 && d < 1);
+			float f = rand.nextFloat();
+			assertTrue(f >= 0 && f < 1);
+		}
+		for (int count : counts) {
+			assertEquals(VALUES / counts.length, count, VALUES / 20);
+		}
+	}
+
+	@Test
+	public void splitMix64MatchesSplittableRandom() {
+		if (this.type != RandomSourceType.SplitMix64) {
+			return;
+		}
+		RandomSource rand = this.newInstance(42);
+		SplittableRandom reference = new SplittableRandom(42);
+		for (int i = 0; i < VALUES; i++) {
+			assertEquals(reference.nextLong(), rand.nextLong());
+		}
+		RandomSource split = rand.split();
+		SplittableRandom referenceSplit = reference.split();
+		for (int i = 0; i < VALUES; i++) {
+			assertEquals(referenceSplit.nextLong(), split.nextLong());
+		}
+		assertEquals(reference.nextLong(), rand.nextLong());
+	}
+}
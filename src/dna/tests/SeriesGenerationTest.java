@@ -0,0 +1,192 @@
+package dna.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dna.graph.datastructures.DArray;
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.DirectedWeightedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.generators.GraphGenerator;
+import dna.graph.generators.random.RandomGraph;
+import dna.graph.generators.util.ReadableDirGraph;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.weights.IntWeight;
+import dna.graph.weights.Weight.WeightSelection;
+import dna.io.GraphWriter;
+import dna.io.filesystem.Dir;
+import dna.metrics.Metric;
+import dna.metrics.degree.DegreeDistributionR;
+import dna.metrics.degree.DegreeDistributionU;
+import dna.series.Series;
+import dna.series.Series.RandomSeedReset;
+import dna.series.Series.RandomSeedType;
+import dna.series.SeriesStats;
+import dna.series.data.RunData;
+import dna.updates.batch.Batch;
+import dna.updates.generators.random.RandomBatch;
+import dna.updates.update.Update;
+import dna.util.Config;
+import dna.util.RandomSource;
+
+public class SeriesGenerationTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String parallelism;
+
+	private GraphDataStructure gds;
+
+	@Before
+	public void init() {
+		this.parallelism = Config.get("GENERATION_RUNS_PARALLELISM");
+		this.gds = new GraphDataStructure(GraphDataStructure.getList(
+				ListType.GlobalNodeList, DArray.class, ListType.GlobalEdgeList,
+				DArrayList.class, ListType.LocalEdgeList, DArrayList.class),
+				DirectedNode.class, DirectedEdge.class);
+	}
+
+	@After
+	public void restore() {
+		Config.overwrite("GENERATION_RUNS_PARALLELISM", this.parallelism);
+	}
+
+	/**
+	 * writes the given number of graphs, the i-th graph (in the order of
+	 * their filenames) has 10 * (i + 1) nodes
+	 *
+	 * @return directory containing the graph files
+	 */
+	private String writeGraphs(int graphs) throws IOException {
+		String dir = this.folder.newFolder("graphs").getAbsolutePath()
+				+ File.separator;
+		for (int i = 0; i < graphs; i++) {
+			GraphGenerator gg = new RandomGraph(this.gds, 10 * (i + 1),
+					20 * (i + 1));
+			gg.setRandom(RandomSource.newInstance(i));
+			GraphWriter.write(gg.generate(), dir, "graph-" + i + ".dnag");
+		}
+		return dir;
+	}
+
+	private Series newSeries(String graphDir) throws IOException {
+		String dir = this.folder.newFolder().getAbsolutePath()
+				+ File.separator;
+		Series s = new Series(new ReadableDirGraph(graphDir, this.gds),
+				new RandomBatch(1, 0, 1, 0), new Metric[0], dir, "series");
+		s.setRandomSeedReset(RandomSeedReset.eachRun);
+		return s;
+	}
+
+	private static int getInitialNodes(Series s, int run) throws IOException {
+		RunData runData = RunData.read(Dir.getRunDataDir(s.getDir(), run),
+				run, true);
+		return (int) runData.getBatches().get(0).getValues()
+				.get(SeriesStats.nodes).getValue();
+	}
+
+	@Test
+	public void concurrentRunsReadDifferentFiles() throws Exception {
+		Config.overwrite("GENERATION_RUNS_PARALLELISM", "3");
+		Series s = this.newSeries(this.writeGraphs(3));
+		s.generate(3, 1, false);
+		for (int run = 0; run < 3; run++) {
+			assertEquals(10 * (run + 1), getInitialNodes(s, run));
+		}
+
+		// generator continues with the file after the last run
+		s.generateRuns(3, 4, 1);
+		assertEquals(10, getInitialNodes(s, 3));
+		assertEquals(20, getInitialNodes(s, 4));
+	}
+
+	@Test
+	public void concurrentRunsMatchSequentialRuns() throws Exception {
+		String graphDir = this.writeGraphs(2);
+		Config.overwrite("GENERATION_RUNS_PARALLELISM", "1");
+		Series sequential = this.newSeries(graphDir);
+		sequential.generate(3, 1, false);
+		Config.overwrite("GENERATION_RUNS_PARALLELISM", "3");
+		Series concurrent = this.newSeries(graphDir);
+		concurrent.generate(3, 1, false);
+		for (int run = 0; run < 3; run++) {
+			assertEquals(getInitialNodes(sequential, run),
+					getInitialNodes(concurrent, run));
+		}
+	}
+
+	/**
+	 * generates a series of weighted graphs (the weights of new edges are
+	 * drawn from the random source of the run) with metrics that are applied
+	 * after each batch and records each generated batch
+	 * 
+	 * @return the generated batches followed by the edges of the final graph
+	 */
+	private ArrayList<String> generate(boolean parallelMetrics)
+			throws Exception {
+		GraphDataStructure gds = new GraphDataStructure(
+				GraphDataStructure.getList(ListType.GlobalNodeList,
+						DArray.class, ListType.GlobalEdgeList,
+						DArrayList.class, ListType.LocalEdgeList,
+						DArrayList.class), DirectedNode.class,
+				DirectedWeightedEdge.class, null, null, IntWeight.class,
+				WeightSelection.RandPos100);
+		final ArrayList<String> generated = new ArrayList<String>();
+		RandomBatch bg = new RandomBatch(2, 1, 0, null, 20, 5, 5,
+				WeightSelection.RandPos100) {
+			@Override
+			public Batch generate(Graph g) {
+				Batch b = super.generate(g);
+				ArrayList<String> updates = new ArrayList<String>();
+				for (Update u : b.getAllUpdates()) {
+					updates.add(u.asString());
+				}
+				Collections.sort(updates);
+				generated.add(updates.toString());
+				return b;
+			}
+		};
+		Series s = new Series(new RandomGraph(gds, 50, 200), bg, new Metric[] {
+				new DegreeDistributionR(), new DegreeDistributionU() },
+				this.folder.newFolder().getAbsolutePath() + File.separator,
+				"series");
+		s.setRandomSeedType(RandomSeedType.fixed);
+		s.setRandomSeedReset(RandomSeedReset.eachRun);
+		s.setSeed(42);
+		s.setParallelMetrics(parallelMetrics);
+		s.generate(1, 10, false);
+
+		ArrayList<String> edges = new ArrayList<String>();
+		for (IElement e : s.getGraph().getEdges()) {
+			edges.add(((Edge) e).asString());
+		}
+		Collections.sort(edges);
+		generated.add(edges.toString());
+		return generated;
+	}
+
+	@Test
+	public void parallelMetricsGenerateTheSameGraphs() throws Exception {
+		ArrayList<String> sequential = this.generate(false);
+		ArrayList<String> parallel = this.generate(true);
+		assertEquals(sequential.size(), parallel.size());
+		for (int i = 0; i < sequential.size(); i++) {
+			assertEquals(sequential.get(i), parallel.get(i));
+		}
+	}
+}
@@ -20,6 +20,7 @@ import dna.graph.datastructures.DEmpty;
 import dna.graph.datastructures.DHashSet;
 import dna.graph.datastructures.DHashTable;
 import dna.graph.datastructures.DLinkedHashMultimap;
+import dna.graph.datastructures.DataStructure;
 import dna.graph.datastructures.DataStructure.ListType;
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.datastructures.IDataStructure;
@@ -168,7 +169,8 @@ public class SingleTests {
 		for (Class dsClass : ClassPointers.dataStructures) {
 			if (!INodeListDatastructureReadable.class.isAssignableFrom(dsClass))
 				continue;
-			if (dsClass == DEmpty.class)
+			if (dsClass == DEmpty.class
+					|| GraphDataStructure.storesLocalListsOnly(dsClass))
 				continue;
 
 			EnumMap<ListType, Class<? extends IDataStructure>> list = GraphDataStructure
@@ -196,6 +198,12 @@ public class SingleTests {
 		}
 	}
 
+	@Test(expected = RuntimeException.class)
+	public void constructListFailsForAbstractLists() {
+		GraphDataStructure.constructList(ListType.GlobalNodeList,
+				DataStructure.class, Node.class);
+	}
+
 	@Test
 	public void equalityForDirectedEdgeDummies() {
 		GraphDataStructure gds = new GraphDataStructure(listTypes,
@@ -1,11 +1,15 @@
 package dna.updates.batch;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 
 import com.google.common.collect.Iterables;
 
 import dna.graph.Graph;
 import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.profiler.Profiler;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.EdgeRemoval;
 import dna.updates.update.EdgeWeight;
@@ -62,13 +66,25 @@ public class Batch {
 	 * APPLICATION
 	 */
 
+	/**
+	 * applies all updates of this batch to the given graph, the additions and
+	 * removals of edges as well as the additions of nodes are performed using
+	 * the bulk operations of the graph (cf. Graph.applyBulk) unless the
+	 * profiler needs to observe each update
+	 */
 	public boolean apply(Graph g) {
+		if (!Profiler.isActive()) {
+			return g.applyBulk(this);
+		}
 
 		if (this.from != g.getTimestamp()) {
 			throw new IllegalStateException("cannot apply batch "
 					+ this.toString() + " to graph " + g.toString());
 		}
 
+		// keep the graph before this batch in case versioning is enabled
+		g.getSnapshot();
+
 		boolean success = true;
 
 		success &= this.apply(g, this.nodeRemovals);
@@ -198,6 +214,34 @@ public class Batch {
 		this.to = to;
 	}
 
+	/*
+	 * ELEMENTS
+	 */
+
+	public ArrayList<Node> getAddedNodes() {
+		ArrayList<Node> nodes = new ArrayList<Node>(this.nodeAdditions.size());
+		for (NodeAddition u : this.nodeAdditions) {
+			nodes.add((Node) u.getNode());
+		}
+		return nodes;
+	}
+
+	public ArrayList<Edge> getAddedEdges() {
+		ArrayList<Edge> edges = new ArrayList<Edge>(this.edgeAdditions.size());
+		for (EdgeAddition u : this.edgeAdditions) {
+			edges.add((Edge) u.getEdge());
+		}
+		return edges;
+	}
+
+	public ArrayList<Edge> getRemovedEdges() {
+		ArrayList<Edge> edges = new ArrayList<Edge>(this.edgeRemovals.size());
+		for (EdgeRemoval u : this.edgeRemovals) {
+			edges.add((Edge) u.getEdge());
+		}
+		return edges;
+	}
+
 	/*
 	 * SIZE
 	 */
@@ -4,6 +4,7 @@ import java.util.HashSet;
 
 import dna.graph.edges.DirectedEdge;
 import dna.graph.edges.Edge;
+import dna.graph.edges.EdgeIndex;
 import dna.graph.edges.UndirectedEdge;
 import dna.graph.nodes.Node;
 import dna.updates.update.EdgeAddition;
@@ -39,7 +40,8 @@ public class BatchSanitization {
 			addedN.add((Node) u.getNode());
 		}
 
-		HashSet<Edge> removedE = new HashSet<Edge>(b.getEdgeRemovalsCount());
+		EdgeIndex removedE = new EdgeIndex(b.getGraphDatastructures()
+				.createsDirected(), b.getEdgeRemovalsCount());
 		for (EdgeRemoval u : b.getEdgeRemovals()) {
 			removedE.add((Edge) u.getEdge());
 		}
@@ -2,10 +2,13 @@ package dna.updates.generators;
 
 import dna.graph.Graph;
 import dna.updates.batch.Batch;
+import dna.util.Rand;
+import dna.util.RandomSource;
 import dna.util.parameters.Parameter;
 import dna.util.parameters.ParameterList;
 
-public abstract class BatchGenerator extends ParameterList {
+public abstract class BatchGenerator extends ParameterList implements
+		Cloneable {
 
 	public BatchGenerator(String name, Parameter... parameters) {
 		super(name, parameters);
@@ -17,4 +20,44 @@ public abstract class BatchGenerator extends ParameterList {
 
 	public abstract boolean isFurtherBatchPossible(Graph g);
 
+	private RandomSource rand;
+
+	/**
+	 * 
+	 * @return random source of this generator (the one of the current thread
+	 *         in case none has been set)
+	 */
+	public RandomSource getRandom() {
+		return this.rand != null ? this.rand : Rand.get();
+	}
+
+	/**
+	 * sets the random source used by this generator, e.g., a stream split off
+	 * the random source of a series.
+	 * 
+	 * @param rand
+	 *            random source to use
+	 */
+	public void setRandom(RandomSource rand) {
+		this.rand = rand;
+	}
+
+	/**
+	 * generators that keep references to other generators (or state that is
+	 * not re-created by reset) must override this method to copy them as
+	 * well.
+	 * 
+	 * @return copy of this generator without a random source, e.g., to
+	 *         generate a run concurrently to others (cf. Series.copy)
+	 */
+	public BatchGenerator copy() {
+		try {
+			BatchGenerator copy = (BatchGenerator) this.clone();
+			copy.rand = null;
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 }
@@ -11,7 +11,6 @@ import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.NodeAddition;
-import dna.util.Rand;
 import dna.util.parameters.IntParameter;
 
 public class BarabasiAlbertBatch extends BatchGenerator {
@@ -47,7 +46,7 @@ public class BarabasiAlbertBatch extends BatchGenerator {
 			for (int j = 0; j < this.m; j++) {
 				Node to = null;
 				while (to == null) {
-					int p = Rand.rand.nextInt(total);
+					int p = this.getRandom().nextInt(total);
 					int sum = 0;
 					for (IElement n : g.getNodes()) {
 						Node node = (Node) n;
@@ -13,7 +13,6 @@ import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.NodeAddition;
-import dna.util.Rand;
 import dna.util.parameters.DoubleParameter;
 import dna.util.parameters.IntParameter;
 
@@ -104,7 +103,7 @@ public class PositiveFeedbackPreferenceBatch extends BatchGenerator {
 
 			
 			// add links of the new node
-			double pi = Rand.rand.nextDouble();			
+			double pi = this.getRandom().nextDouble();			
 			int noIgnoredNode = -1;			
 			if (pi <= 1 - pPFP - qPFP){
 				// new node: 2 links to host nodes
@@ -119,7 +118,7 @@ public class PositiveFeedbackPreferenceBatch extends BatchGenerator {
 						maxOldId, newNodes[i].getIndex(), to1.getIndex(), newNodes[i].getIndex());
 				
 				// choose destination 1 or destination 2 randomly to be the source of the third edge
-				Node host = (Rand.rand.nextDouble() < 0.5) ? to1 : to2;
+				Node host = (this.getRandom().nextDouble() < 0.5) ? to1 : to2;
 				// calculate destination 3, ignore only the host/chosen destination/2
 				Node peer = getNPPNode(g, oldDegrees, newNodes, newDegrees, maxOldId, 
 						newNodes[i].getIndex(), host.getIndex(), host.getIndex());
@@ -244,7 +243,7 @@ public class PositiveFeedbackPreferenceBatch extends BatchGenerator {
 		
 		// iterate over all nodes ("old" and in this batch added) to find a destination for this edge
 		while(npp <0){
-			double takeNode = Rand.rand.nextDouble();
+			double takeNode = this.getRandom().nextDouble();
 			// check old nodes for valid destination
 			for(int k = 0; k <= maxOldId; k++){
 				int kj = oldDegrees[k];
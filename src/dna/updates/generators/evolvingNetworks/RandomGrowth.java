@@ -10,7 +10,6 @@ import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.NodeAddition;
-import dna.util.Rand;
 import dna.util.parameters.IntParameter;
 
 public class RandomGrowth extends BatchGenerator {
@@ -43,7 +42,7 @@ public class RandomGrowth extends BatchGenerator {
 			Node to = null;
 
 			while (to == null) {
-				int target = Rand.rand.nextInt(g.getNodeCount() + i);
+				int target = this.getRandom().nextInt(g.getNodeCount() + i);
 				if (target < g.getNodeCount()) {
 					int index = 0;
 					for (IElement n : g.getNodes()) {
@@ -38,10 +38,12 @@ public class RandomScalingBatch extends BatchGenerator {
 		int nodes = g.getNodeCount();
 		int edges = g.getEdgeCount();
 
-		return new RandomBatch((int) Math.ceil(nodes * nodeGrowthFactor),
-				(int) Math.ceil(nodes * nodeShrinkFactor), 0, null,
-				(int) Math.ceil(edges * edgeGrowthFactor),
+		RandomBatch rb = new RandomBatch((int) Math.ceil(nodes
+				* nodeGrowthFactor), (int) Math.ceil(nodes * nodeShrinkFactor),
+				0, null, (int) Math.ceil(edges * edgeGrowthFactor),
 				(int) Math.ceil(edges * edgeShrinkFactor), 0, null);
+		rb.setRandom(this.getRandom());
+		return rb;
 	}
 
 	@Override
@@ -41,8 +41,10 @@ public class GrowingRandomBatch extends BatchGenerator {
 	}
 
 	private RandomBatch getCurrentBatch() {
-		return new RandomBatch(na * time, nr * time, nw * time, nws, ea * time,
-				er * time, ew * time, ews);
+		RandomBatch rb = new RandomBatch(na * time, nr * time, nw * time, nws,
+				ea * time, er * time, ew * time, ews);
+		rb.setRandom(this.getRandom());
+		return rb;
 	}
 
 	@Override
@@ -6,6 +6,7 @@ import dna.graph.Graph;
 import dna.graph.weights.Weight.WeightSelection;
 import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
+import dna.util.RandomSource;
 import dna.util.parameters.IntParameter;
 import dna.util.parameters.ObjectParameter;
 
@@ -98,6 +99,24 @@ public class RandomBatch extends BatchGenerator {
 		return b;
 	}
 
+	@Override
+	public void setRandom(RandomSource rand) {
+		super.setRandom(rand);
+		for (BatchGenerator bg : this.bgs) {
+			bg.setRandom(rand);
+		}
+	}
+
+	@Override
+	public BatchGenerator copy() {
+		RandomBatch copy = (RandomBatch) super.copy();
+		copy.bgs = new ArrayList<BatchGenerator>(this.bgs.size());
+		for (BatchGenerator bg : this.bgs) {
+			copy.bgs.add(bg.copy());
+		}
+		return copy;
+	}
+
 	@Override
 	public void reset() {
 	}
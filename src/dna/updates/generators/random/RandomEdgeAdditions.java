@@ -1,10 +1,10 @@
 package dna.updates.generators.random;
 
 import java.math.BigInteger;
-import java.util.HashSet;
 
 import dna.graph.Graph;
 import dna.graph.edges.Edge;
+import dna.graph.edges.EdgeIndex;
 import dna.graph.nodes.Node;
 import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
@@ -25,7 +25,8 @@ public class RandomEdgeAdditions extends BatchGenerator {
 		Batch b = new Batch(g.getGraphDatastructures(), g.getTimestamp(),
 				g.getTimestamp() + 1, 0, 0, 0, this.count, 0, 0);
 
-		HashSet<Edge> added = new HashSet<Edge>();
+		EdgeIndex added = new EdgeIndex(g.getGraphDatastructures()
+				.createsDirected(), this.count);
 		int maxEdgesToAdd = this.count;
 
 		int oldEdgeCount = g.getEdgeCount();
@@ -48,8 +49,8 @@ public class RandomEdgeAdditions extends BatchGenerator {
 		}
 
 		while (added.size() < maxEdgesToAdd) {
-			Node n1 = g.getRandomNode();
-			Node n2 = g.getRandomNode();
+			Node n1 = g.getRandomNode(this.getRandom());
+			Node n2 = g.getRandomNode(this.getRandom());
 			if (n1.equals(n2)) {
 				continue;
 			}
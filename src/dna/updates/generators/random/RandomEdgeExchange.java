@@ -36,8 +36,8 @@ public class RandomEdgeExchange extends BatchGenerator {
 		while (b.getSize() / 4 < this.edges && fails < this.maxFails) {
 			if (g.getGraphDatastructures().getEdgeType()
 					.isAssignableFrom(DirectedEdge.class)) {
-				DirectedEdge e1 = (DirectedEdge) g.getRandomEdge();
-				DirectedEdge e2 = (DirectedEdge) g.getRandomEdge();
+				DirectedEdge e1 = (DirectedEdge) g.getRandomEdge(this.getRandom());
+				DirectedEdge e2 = (DirectedEdge) g.getRandomEdge(this.getRandom());
 				if (e1.getSrc().equals(e2.getSrc())
 						|| e1.getSrc().equals(e2.getDst())
 						|| e1.getDst().equals(e2.getSrc())
@@ -63,8 +63,8 @@ public class RandomEdgeExchange extends BatchGenerator {
 				b.add(new EdgeAddition(e2_));
 			} else if (g.getGraphDatastructures().getEdgeType()
 					.isAssignableFrom(UndirectedEdge.class)) {
-				UndirectedEdge e1 = (UndirectedEdge) g.getRandomEdge();
-				UndirectedEdge e2 = (UndirectedEdge) g.getRandomEdge();
+				UndirectedEdge e1 = (UndirectedEdge) g.getRandomEdge(this.getRandom());
+				UndirectedEdge e2 = (UndirectedEdge) g.getRandomEdge(this.getRandom());
 				if (e1.getNode1().equals(e2.getNode1())
 						|| e1.getNode1().equals(e2.getNode2())
 						|| e1.getNode2().equals(e2.getNode1())
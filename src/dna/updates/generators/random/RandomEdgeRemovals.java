@@ -1,9 +1,8 @@
 package dna.updates.generators.random;
 
-import java.util.HashSet;
-
 import dna.graph.Graph;
 import dna.graph.edges.Edge;
+import dna.graph.edges.EdgeIndex;
 import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
 import dna.updates.update.EdgeRemoval;
@@ -23,9 +22,10 @@ public class RandomEdgeRemovals extends BatchGenerator {
 		Batch b = new Batch(g.getGraphDatastructures(), g.getTimestamp(),
 				g.getTimestamp() + 1, 0, 0, 0, 0, this.count, 0);
 
-		HashSet<Edge> removed = new HashSet<Edge>();
+		EdgeIndex removed = new EdgeIndex(g.getGraphDatastructures()
+				.createsDirected(), this.count);
 		while (removed.size() < this.count && removed.size() < g.getEdgeCount()) {
-			Edge e = g.getRandomEdge();
+			Edge e = g.getRandomEdge(this.getRandom());
 			if (removed.contains(e)) {
 				continue;
 			}
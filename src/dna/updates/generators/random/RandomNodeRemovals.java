@@ -25,7 +25,7 @@ public class RandomNodeRemovals extends BatchGenerator {
 
 		HashSet<Node> removed = new HashSet<Node>();
 		while (removed.size() < this.count && removed.size() < g.getNodeCount()) {
-			Node n = g.getRandomNode();
+			Node n = g.getRandomNode(this.getRandom());
 			if (removed.contains(n)) {
 				continue;
 			}
@@ -40,12 +40,12 @@ public class RandomWeightChanges extends BatchGenerator {
 
 		HashSet<Edge> edges = new HashSet<Edge>();
 		while (edges.size() < this.edges) {
-			edges.add(g.getRandomEdge());
+			edges.add(g.getRandomEdge(this.getRandom()));
 		}
 
 		HashSet<Node> nodes = new HashSet<Node>();
 		while (nodes.size() < this.nodes) {
-			nodes.add(g.getRandomNode());
+			nodes.add(g.getRandomNode(this.getRandom()));
 		}
 
 		Weight w;
@@ -3,6 +3,7 @@ package dna.updates.generators.util;
 import dna.graph.Graph;
 import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
+import dna.util.RandomSource;
 
 public class BatchCombinator extends BatchGenerator {
 
@@ -44,6 +45,24 @@ public class BatchCombinator extends BatchGenerator {
 		return b;
 	}
 
+	@Override
+	public void setRandom(RandomSource rand) {
+		super.setRandom(rand);
+		for (BatchGenerator bg : this.bgs) {
+			bg.setRandom(rand);
+		}
+	}
+
+	@Override
+	public BatchGenerator copy() {
+		BatchCombinator copy = (BatchCombinator) super.copy();
+		copy.bgs = new BatchGenerator[this.bgs.length];
+		for (int i = 0; i < this.bgs.length; i++) {
+			copy.bgs[i] = this.bgs[i].copy();
+		}
+		return copy;
+	}
+
 	@Override
 	public void reset() {
 	}
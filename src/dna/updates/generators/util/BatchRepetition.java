@@ -3,6 +3,7 @@ package dna.updates.generators.util;
 import dna.graph.Graph;
 import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
+import dna.util.RandomSource;
 
 public class BatchRepetition extends BatchGenerator {
 
@@ -53,6 +54,25 @@ public class BatchRepetition extends BatchGenerator {
 		return null;
 	}
 
+	@Override
+	public void setRandom(RandomSource rand) {
+		super.setRandom(rand);
+		for (BatchRepetitionWrapper bg : this.bgs) {
+			bg.getBg().setRandom(rand);
+		}
+	}
+
+	@Override
+	public BatchGenerator copy() {
+		BatchRepetition copy = (BatchRepetition) super.copy();
+		copy.bgs = new BatchRepetitionWrapper[this.bgs.length];
+		for (int i = 0; i < this.bgs.length; i++) {
+			copy.bgs[i] = new BatchRepetitionWrapper(this.bgs[i].getBg()
+					.copy(), this.bgs[i].getCount());
+		}
+		return copy;
+	}
+
 	@Override
 	public void reset() {
 		this.index = 0;
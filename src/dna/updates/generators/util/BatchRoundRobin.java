@@ -3,6 +3,7 @@ package dna.updates.generators.util;
 import dna.graph.Graph;
 import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
+import dna.util.RandomSource;
 
 public class BatchRoundRobin extends BatchGenerator {
 
@@ -22,6 +23,24 @@ public class BatchRoundRobin extends BatchGenerator {
 		return b;
 	}
 
+	@Override
+	public void setRandom(RandomSource rand) {
+		super.setRandom(rand);
+		for (BatchGenerator bg : this.bgs) {
+			bg.setRandom(rand);
+		}
+	}
+
+	@Override
+	public BatchGenerator copy() {
+		BatchRoundRobin copy = (BatchRoundRobin) super.copy();
+		copy.bgs = new BatchGenerator[this.bgs.length];
+		for (int i = 0; i < this.bgs.length; i++) {
+			copy.bgs[i] = this.bgs[i].copy();
+		}
+		return copy;
+	}
+
 	@Override
 	public void reset() {
 		this.index = 0;
@@ -10,6 +10,7 @@ import dna.updates.generators.BatchGenerator;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.NodeAddition;
 import dna.util.ArrayUtils;
+import dna.util.RandomSource;
 import dna.util.parameters.ObjectParameter;
 
 public class BatchWeights extends BatchGenerator {
@@ -51,6 +52,19 @@ public class BatchWeights extends BatchGenerator {
 		return b;
 	}
 
+	@Override
+	public void setRandom(RandomSource rand) {
+		super.setRandom(rand);
+		this.bg.setRandom(rand);
+	}
+
+	@Override
+	public BatchGenerator copy() {
+		BatchWeights copy = (BatchWeights) super.copy();
+		copy.bg = this.bg.copy();
+		return copy;
+	}
+
 	@Override
 	public void reset() {
 	}
@@ -19,7 +19,8 @@ import dna.util.IOUtils;
  * from-timestamp. Every time a new batch is generated, the next file is read.
  * When all batches are read, the process start again at the beginning. Please
  * note that no sanity check is performed if the batches (ordered by
- * from-timestamp) actually can be executed one after the other.
+ * from-timestamp) actually can be executed one after the other. Batches can
+ * be stored as text (BatchWriter) or in binary format (BinaryBatchWriter).
  * 
  * @author benni
  * 
@@ -65,6 +66,11 @@ public class ReadableDirBatchGenerator extends BatchGenerator {
 		return BatchReader.read(dir, this.filenames[this.index++], g);
 	}
 
+	/**
+	 * restarts at the first file. since each run is started with a reset
+	 * (cf. SeriesGeneration.generateRun), runs generated concurrently from
+	 * copies of this generator read the same batches as sequential ones.
+	 */
 	@Override
 	public void reset() {
 		this.index = 0;
@@ -11,7 +11,8 @@ import dna.updates.generators.BatchGenerator;
  * 
  * Batch generator that reads batches from a given dir. the filename depends on
  * the given FilenameIndexType, either the graph's current timestamp or the next
- * (i.e., current + 1).
+ * (i.e., current + 1). Batches can be stored as text (BatchWriter) or in
+ * binary format (BinaryBatchWriter).
  * 
  * @author benni
  * 
@@ -4,6 +4,7 @@ import dna.graph.Graph;
 import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
 import dna.util.ArrayUtils;
+import dna.util.RandomSource;
 import dna.util.parameters.IntParameter;
 
 public class Timestamped extends BatchGenerator {
@@ -26,6 +27,19 @@ public class Timestamped extends BatchGenerator {
 		return b;
 	}
 
+	@Override
+	public void setRandom(RandomSource rand) {
+		super.setRandom(rand);
+		this.bg.setRandom(rand);
+	}
+
+	@Override
+	public BatchGenerator copy() {
+		Timestamped copy = (Timestamped) super.copy();
+		copy.bg = this.bg.copy();
+		return copy;
+	}
+
 	@Override
 	public void reset() {
 	}
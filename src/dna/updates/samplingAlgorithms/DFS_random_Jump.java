@@ -9,7 +9,6 @@ import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
 import dna.updates.samplingAlgorithms.startNodeSelection.StartNodeSelectionStrategy;
-import dna.util.Rand;
 import dna.util.parameters.Parameter;
 
 /**
@@ -122,7 +121,7 @@ public class DFS_random_Jump extends SamplingAlgorithm {
 		int size = neighbors.size();
 		for (int i = 0; i < size; i++) {
 			Node tempNode = neighbors
-					.remove(Rand.rand.nextInt(neighbors.size()));
+					.remove(this.getRandom().nextInt(neighbors.size()));
 			result.add(tempNode);
 		}
 		return result;
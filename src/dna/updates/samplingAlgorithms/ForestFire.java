@@ -6,7 +6,6 @@ import java.util.List;
 import dna.graph.Graph;
 import dna.graph.nodes.Node;
 import dna.updates.samplingAlgorithms.startNodeSelection.StartNodeSelectionStrategy;
-import dna.util.Rand;
 import dna.util.parameters.Parameter;
 
 /**
@@ -62,7 +61,7 @@ public class ForestFire extends SamplingAlgorithm {
 	@Override
 	protected Node findNextNode() {
 		if (queue.isEmpty()) {
-			currentNode = fullGraph.getRandomNode();
+			currentNode = fullGraph.getRandomNode(this.getRandom());
 			selectNeighbors();
 			return currentNode;
 		}
@@ -85,7 +84,7 @@ public class ForestFire extends SamplingAlgorithm {
 	private void selectNeighbors() {
 		List<Node> list = getAllNeighbors(currentNode);
 		for (Node n : list) {
-			if (Rand.rand.nextDouble() <= probability) {
+			if (this.getRandom().nextDouble() <= probability) {
 				queue.add(n);
 			}
 		}
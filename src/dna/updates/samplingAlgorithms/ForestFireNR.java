@@ -8,7 +8,6 @@ import java.util.List;
 import dna.graph.Graph;
 import dna.graph.nodes.Node;
 import dna.updates.samplingAlgorithms.startNodeSelection.StartNodeSelectionStrategy;
-import dna.util.Rand;
 import dna.util.parameters.Parameter;
 
 /**
@@ -92,7 +91,7 @@ public class ForestFireNR extends SamplingAlgorithm {
 				}
 			}
 
-			currentNode = visitableNodes[Rand.rand
+			currentNode = visitableNodes[this.getRandom()
 					.nextInt(notFullyVisitedNodeCount)];
 
 			selectNeighbors();
@@ -123,7 +122,7 @@ public class ForestFireNR extends SamplingAlgorithm {
 		}
 		for (Node n : list) {
 			if (!nodesInQueue.contains(n)) {
-				if (Rand.rand.nextDouble() <= probability) {
+				if (this.getRandom().nextDouble() <= probability) {
 					queue.add(n);
 					nodesInQueue.add(n);
 				}
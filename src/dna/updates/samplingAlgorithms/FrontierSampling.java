@@ -9,7 +9,6 @@ import dna.graph.Graph;
 import dna.graph.nodes.Node;
 import dna.updates.samplingAlgorithms.startNodeSelection.RandomSelection;
 import dna.updates.samplingAlgorithms.startNodeSelection.StartNodeSelectionStrategy;
-import dna.util.Rand;
 import dna.util.parameters.Parameter;
 
 /**
@@ -68,9 +67,9 @@ public class FrontierSampling extends SamplingAlgorithm {
 	@Override
 	protected Node findNextNode() {
 		if (initialize < m) {
-			Node m1 = fullGraph.getRandomNode();
+			Node m1 = fullGraph.getRandomNode(this.getRandom());
 			while (walkerPositions.contains(m1)) {
-				m1 = fullGraph.getRandomNode();
+				m1 = fullGraph.getRandomNode(this.getRandom());
 			}
 			addToList(m1);
 			initialize++;
@@ -112,13 +111,13 @@ public class FrontierSampling extends SamplingAlgorithm {
 				}
 			}
 
-			currentNode = visitableNodes[Rand.rand
+			currentNode = visitableNodes[this.getRandom()
 					.nextInt(notFullyVisitedNodeCount)];
 			addToList(currentNode);
 
 			return findNextNode();
 		} else {
-			currentNode = notVisitedNeighbors.get(Rand.rand
+			currentNode = notVisitedNeighbors.get(this.getRandom()
 					.nextInt(neighborCount));
 
 			addToList(currentNode);
@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import dna.graph.Graph;
 import dna.graph.nodes.Node;
 import dna.updates.samplingAlgorithms.startNodeSelection.StartNodeSelectionStrategy;
-import dna.util.Rand;
 import dna.util.parameters.Parameter;
 
 /**
@@ -52,7 +51,7 @@ public class RandomWalk extends SamplingAlgorithm {
 		ArrayList<Node> neighbors = getAllNeighbors(currentNode);
 		int neighborCount = neighbors.size();
 
-		currentNode = neighbors.get(Rand.rand.nextInt(neighborCount));
+		currentNode = neighbors.get(this.getRandom().nextInt(neighborCount));
 
 		return currentNode;
 	}
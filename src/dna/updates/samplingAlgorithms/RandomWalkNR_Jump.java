@@ -7,7 +7,6 @@ import java.util.Iterator;
 import dna.graph.Graph;
 import dna.graph.nodes.Node;
 import dna.updates.samplingAlgorithms.startNodeSelection.StartNodeSelectionStrategy;
-import dna.util.Rand;
 import dna.util.parameters.Parameter;
 
 /**
@@ -85,13 +84,13 @@ public class RandomWalkNR_Jump extends SamplingAlgorithm {
 				}
 			}
 
-			currentNode = visitableNodes[Rand.rand
+			currentNode = visitableNodes[this.getRandom()
 					.nextInt(notFullyVisitedNodeCount)];
 
 			return findNextNode();
 		} else {
 
-			currentNode = notVisitedNeighbors.get(Rand.rand
+			currentNode = notVisitedNeighbors.get(this.getRandom()
 					.nextInt(neighborCount));
 
 			return currentNode;
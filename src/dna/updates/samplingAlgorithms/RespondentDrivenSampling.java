@@ -6,7 +6,6 @@ import java.util.List;
 import dna.graph.Graph;
 import dna.graph.nodes.Node;
 import dna.updates.samplingAlgorithms.startNodeSelection.StartNodeSelectionStrategy;
-import dna.util.Rand;
 import dna.util.parameters.Parameter;
 
 /**
@@ -84,7 +83,7 @@ public class RespondentDrivenSampling extends SamplingAlgorithm {
 			if (list.size() == 0) {
 				break;
 			}
-			queue.add(list.remove(Rand.rand.nextInt(list.size())));
+			queue.add(list.remove(this.getRandom().nextInt(list.size())));
 		}
 	}
 
@@ -18,6 +18,7 @@ import dna.updates.samplingAlgorithms.startNodeSelection.StartNodeSelectionStrat
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.NodeAddition;
 import dna.updates.update.Update;
+import dna.util.RandomSource;
 import dna.util.parameters.Parameter;
 
 /**
@@ -171,6 +172,27 @@ public abstract class SamplingAlgorithm extends BatchGenerator {
 	 */
 	protected abstract Node init(StartNodeSelectionStrategy startNode);
 
+	/**
+	 * Sets the random source of this sampling algorithm and of its start node
+	 * selection strategy
+	 */
+	@Override
+	public void setRandom(RandomSource rand) {
+		super.setRandom(rand);
+		this.startNodeStartegy.setRandom(rand);
+	}
+
+	/**
+	 * Returns a copy of this sampling algorithm with a copy of its start node
+	 * selection strategy
+	 */
+	@Override
+	public BatchGenerator copy() {
+		SamplingAlgorithm copy = (SamplingAlgorithm) super.copy();
+		copy.startNodeStartegy = this.startNodeStartegy.copy();
+		return copy;
+	}
+
 	/**
 	 * Adds the node and if necessary the connected edges to the batch and
 	 * updates the seen and visited structures
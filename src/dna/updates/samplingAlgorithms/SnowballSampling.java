@@ -8,7 +8,6 @@ import java.util.List;
 import dna.graph.Graph;
 import dna.graph.nodes.Node;
 import dna.updates.samplingAlgorithms.startNodeSelection.StartNodeSelectionStrategy;
-import dna.util.Rand;
 import dna.util.parameters.Parameter;
 
 /**
@@ -86,7 +85,7 @@ public class SnowballSampling extends SamplingAlgorithm {
 				}
 			}
 
-			currentNode = visitableNodes[Rand.rand
+			currentNode = visitableNodes[this.getRandom()
 					.nextInt(notFullyVisitedNodeCount)];
 
 			selectNeighbors();
@@ -117,7 +116,7 @@ public class SnowballSampling extends SamplingAlgorithm {
 				fullyVisited.add(currentNode);
 				break;
 			}
-			Node n = list.remove(Rand.rand.nextInt(list.size()));
+			Node n = list.remove(this.getRandom().nextInt(list.size()));
 			if (!nodesInQueue.contains(n)) {
 				queue.add(n);
 				nodesInQueue.add(n);
@@ -7,7 +7,6 @@ import dna.graph.Graph;
 import dna.graph.IElement;
 import dna.graph.nodes.Node;
 import dna.updates.samplingAlgorithms.startNodeSelection.StartNodeSelectionStrategy;
-import dna.util.Rand;
 import dna.util.parameters.Parameter;
 
 /**
@@ -53,7 +52,7 @@ public class UniformSampling extends SamplingAlgorithm {
 			noNodeFound();
 			return null;
 		}
-		return (Node) notVisited.remove(Rand.rand.nextInt(notVisited.size()));
+		return (Node) notVisited.remove(this.getRandom().nextInt(notVisited.size()));
 	}
 
 	@Override
@@ -37,7 +37,7 @@ public class HighestRandomDegreeSelection extends StartNodeSelectionStrategy {
 
 		for (int i = 0; i < n; i++) {
 
-			Node tempNode = g.getRandomNode();
+			Node tempNode = g.getRandomNode(this.getRandom());
 			int tempDegree = getDegreeFromNode(tempNode);
 
 			if (tempDegree > maxDegree) {
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 
 import dna.graph.Graph;
 import dna.graph.nodes.Node;
-import dna.util.Rand;
 
 /**
  * Selects n random nodes and chooses m random neighbors of these nodes. The
@@ -48,7 +47,7 @@ public class HighestRandomDegreeSumSelection extends StartNodeSelectionStrategy
 
 		for (int i = 0; i < n; i++) {
 
-			Node tempNode = g.getRandomNode();
+			Node tempNode = g.getRandomNode(this.getRandom());
 
 			int tempDegreeSum = getDegreeFromNode(tempNode);
 
@@ -63,7 +62,7 @@ public class HighestRandomDegreeSumSelection extends StartNodeSelectionStrategy
 
 			for (int j = 0; j < steps; j++) {
 
-				tempDegreeSum += getDegreeFromNode(neighbors.get(Rand.rand
+				tempDegreeSum += getDegreeFromNode(neighbors.get(this.getRandom()
 						.nextInt(neighborCount)));
 
 			}
@@ -23,7 +23,7 @@ public class RandomSelection extends StartNodeSelectionStrategy {
 
 	@Override
 	public Node getStartNode() {
-		return g.getRandomNode();
+		return g.getRandomNode(this.getRandom());
 	}
 
 	@Override
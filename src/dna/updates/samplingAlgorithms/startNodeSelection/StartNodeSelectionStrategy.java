@@ -8,6 +8,8 @@ import dna.graph.edges.Edge;
 import dna.graph.nodes.DirectedNode;
 import dna.graph.nodes.Node;
 import dna.graph.nodes.UndirectedNode;
+import dna.util.Rand;
+import dna.util.RandomSource;
 
 /**
  * Basis class for start node selection strategies
@@ -15,10 +17,11 @@ import dna.graph.nodes.UndirectedNode;
  * @author Benedict Jahn
  * 
  */
-public abstract class StartNodeSelectionStrategy {
+public abstract class StartNodeSelectionStrategy implements Cloneable {
 
 	protected Graph g;
 	private int nodeDirection;
+	private RandomSource rand;
 
 	/**
 	 * Initializes the start node selection strategy.
@@ -37,6 +40,38 @@ public abstract class StartNodeSelectionStrategy {
 		}
 	}
 
+	/**
+	 * Returns the random source used to select nodes (the one of the current
+	 * thread in case none has been set)
+	 */
+	public RandomSource getRandom() {
+		return this.rand != null ? this.rand : Rand.get();
+	}
+
+	/**
+	 * Sets the random source used to select nodes
+	 * 
+	 * @param rand
+	 *            random source to use
+	 */
+	public void setRandom(RandomSource rand) {
+		this.rand = rand;
+	}
+
+	/**
+	 * Returns a copy of this strategy without a random source
+	 */
+	public StartNodeSelectionStrategy copy() {
+		try {
+			StartNodeSelectionStrategy copy = (StartNodeSelectionStrategy) this
+					.clone();
+			copy.rand = null;
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	/**
 	 * Returns a start node based on the specific node selection strategy
 	 */
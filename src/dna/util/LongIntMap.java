@@ -0,0 +1,120 @@
+package dna.util;
+
+import java.util.Arrays;
+
+/**
+ * Map from long keys to int values stored in an open-addressing hash table
+ * with linear probing (cf. OpenAddressingTable, two parallel primitive
+ * arrays, no entry objects and no boxing). Entries cannot be removed. The
+ * table grows when it is filled to 3/4.
+ *
+ * Used to map arbitrary (long) ids, e.g., the ids of nodes in an input file,
+ * to consecutive indices 0, 1, 2, ... in the order of their first occurrence.
+ *
+ * @author benni
+ *
+ */
+public class LongIntMap {
+	private static final int minBits = 4;
+
+	private static final int empty = -1;
+
+	private Table table;
+
+	/**
+	 * keys and values in two parallel arrays, -1 denotes an empty slot
+	 */
+	private static final class Table extends OpenAddressingTable<Table> {
+		private long[] keys;
+		private int[] values;
+
+		private Table(int bits) {
+			super(bits);
+			this.keys = new long[1 << bits];
+			this.values = new int[1 << bits];
+			Arrays.fill(this.values, empty);
+		}
+
+		@Override
+		public int home(long key) {
+			return this.hash(key);
+		}
+
+		@Override
+		public boolean isEmpty(int slot) {
+			return this.values[slot] == empty;
+		}
+
+		@Override
+		public long getKey(int slot) {
+			return this.keys[slot];
+		}
+
+		@Override
+		protected void copy(Table table, int from, int to) {
+			this.keys[to] = table.keys[from];
+			this.values[to] = table.values[from];
+		}
+
+		@Override
+		protected void clear(int slot) {
+			this.values[slot] = empty;
+		}
+
+		@Override
+		protected Table newTable(int bits) {
+			return new Table(bits);
+		}
+
+		private int put(long key, int value) {
+			int i = this.findOrEmpty(key);
+			int previous = this.values[i];
+			if (previous == empty) {
+				this.keys[i] = key;
+				this.size++;
+			}
+			this.values[i] = value;
+			return previous;
+		}
+	}
+
+	public LongIntMap() {
+		this(0);
+	}
+
+	public LongIntMap(int expectedSize) {
+		this.table = new Table(OpenAddressingTable.getBits(minBits,
+				expectedSize));
+	}
+
+	/**
+	 * @return value of the given key, -1 if it is not contained
+	 */
+	public int get(long key) {
+		int i = this.table.find(key);
+		return i < 0 ? empty : this.table.values[i];
+	}
+
+	public boolean containsKey(long key) {
+		return this.get(key) != empty;
+	}
+
+	/**
+	 * stores the given (non-negative) value for the given key
+	 *
+	 * @return previous value of the key, -1 if it was not contained
+	 */
+	public int put(long key, int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("negative value " + value);
+		}
+		if (this.table.isFull()) {
+			this.table = this.table.rehash(this.table.getBits() + 1);
+		}
+		return this.table.put(key, value);
+	}
+
+	public int size() {
+		return this.table.size();
+	}
+}
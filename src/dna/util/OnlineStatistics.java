@@ -0,0 +1,323 @@
+package dna.util;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass statistics of a (growable) list of variables, e.g., the values
+ * of a node value list over several runs. For each variable, the aggregated
+ * array known from Aggregation is computed: { avg, min, max, median, variance,
+ * variance-low, variance-up, confidence-low, confidence-up }.
+ *
+ * Only a constant amount of memory is required per variable, independent of
+ * the number of added values: the variance is computed using Welford's
+ * algorithm, the median is estimated using the P^2 algorithm (Jain and
+ * Chlamtac, 1985) and is exact for up to 5 values. variance-low / -up are
+ * computed around the final average but each value is assigned to the lower
+ * or upper part using the running average at the time it is added (exact for
+ * up to 5 values as well). For more values, the estimated median is within
+ * 2% of the values (in rank) of the exact one and variance-low / -up are
+ * within 15% of the exact values for independent, identically distributed
+ * values (cf. OnlineStatisticsTest). All values are stored in arrays indexed
+ * by the variable's index to avoid an object per variable.
+ *
+ * The values of a variable must be added in the order of their position
+ * (e.g., run). Variables that are not given a value for a position are
+ * assigned 0 for it, as done by Aggregation for missing values.
+ *
+ * @author benni
+ *
+ */
+public class OnlineStatistics {
+
+	private static final int MARKERS = 5;
+
+	private int size;
+
+	private int[] count;
+
+	private double[] sum;
+
+	private double[] mean;
+
+	private double[] m2;
+
+	private double[] min;
+
+	private double[] max;
+
+	/**
+	 * first value of each variable, the sums of the lower and upper parts are
+	 * computed relative to it to avoid cancellation
+	 */
+	private double[] shift;
+
+	private int[] lowCount;
+
+	private double[] lowSum;
+
+	private double[] lowSq;
+
+	private int[] upCount;
+
+	private double[] upSum;
+
+	private double[] upSq;
+
+	/**
+	 * marker heights of the P^2 algorithm, the first values before 5 values
+	 * have been added
+	 */
+	private double[] q;
+
+	/**
+	 * marker positions of the P^2 algorithm (starting at 1)
+	 */
+	private int[] pos;
+
+	public OnlineStatistics() {
+		this(0);
+	}
+
+	public OnlineStatistics(int size) {
+		this.count = new int[size];
+		this.sum = new double[size];
+		this.mean = new double[size];
+		this.m2 = new double[size];
+		this.min = new double[size];
+		this.max = new double[size];
+		this.shift = new double[size];
+		this.lowCount = new int[size];
+		this.lowSum = new double[size];
+		this.lowSq = new double[size];
+		this.upCount = new int[size];
+		this.upSum = new double[size];
+		this.upSq = new double[size];
+		this.q = new double[size * MARKERS];
+		this.pos = new int[size * MARKERS];
+		this.size = 0;
+	}
+
+	/**
+	 *
+	 * @return number of variables
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	private void ensure(int index) {
+		if (index < this.size) {
+			return;
+		}
+		if (index >= this.count.length) {
+			int capacity = Math.max(index + 1, this.count.length * 2);
+			this.count = Arrays.copyOf(this.count, capacity);
+			this.sum = Arrays.copyOf(this.sum, capacity);
+			this.mean = Arrays.copyOf(this.mean, capacity);
+			this.m2 = Arrays.copyOf(this.m2, capacity);
+			this.min = Arrays.copyOf(this.min, capacity);
+			this.max = Arrays.copyOf(this.max, capacity);
+			this.shift = Arrays.copyOf(this.shift, capacity);
+			this.lowCount = Arrays.copyOf(this.lowCount, capacity);
+			this.lowSum = Arrays.copyOf(this.lowSum, capacity);
+			this.lowSq = Arrays.copyOf(this.lowSq, capacity);
+			this.upCount = Arrays.copyOf(this.upCount, capacity);
+			this.upSum = Arrays.copyOf(this.upSum, capacity);
+			this.upSq = Arrays.copyOf(this.upSq, capacity);
+			this.q = Arrays.copyOf(this.q, capacity * MARKERS);
+			this.pos = Arrays.copyOf(this.pos, capacity * MARKERS);
+		}
+		this.size = index + 1;
+	}
+
+	/**
+	 * adds the value of a variable for the given position. in case values for
+	 * previous positions are missing, 0 is added for each of them.
+	 *
+	 * @param index
+	 *            index of the variable
+	 * @param position
+	 *            position of the value (starting at 0)
+	 * @param value
+	 *            value to add
+	 */
+	public void add(int index, int position, double value) {
+		this.ensure(index);
+		while (this.count[index] < position) {
+			this.add(index, 0);
+		}
+		this.add(index, value);
+	}
+
+	private void add(int i, double x) {
+		int n = ++this.count[i];
+		if (n == 1) {
+			this.min[i] = x;
+			this.max[i] = x;
+			this.shift[i] = x;
+		} else {
+			// same handling of NaN as ArrayUtils.min / max
+			if (x < this.min[i])
+				this.min[i] = x;
+			if (x > this.max[i])
+				this.max[i] = x;
+		}
+		this.sum[i] += x;
+
+		// Welford
+		double delta = x - this.mean[i];
+		this.mean[i] += delta / n;
+		this.m2[i] += delta * (x - this.mean[i]);
+
+		// lower / upper part, the first values are stored as markers of the
+		// P^2 algorithm and classified once all of them are known
+		if (n == MARKERS) {
+			for (int j = 0; j < MARKERS - 1; j++) {
+				this.addPart(i, this.q[i * MARKERS + j]);
+			}
+		}
+		if (n >= MARKERS) {
+			this.addPart(i, x);
+		}
+
+		this.addMedian(i, n, x);
+	}
+
+	private void addPart(int i, double x) {
+		double shifted = x - this.shift[i];
+		if (x < this.mean[i]) {
+			this.lowCount[i]++;
+			this.lowSum[i] += shifted;
+			this.lowSq[i] += shifted * shifted;
+		} else if (x > this.mean[i]) {
+			this.upCount[i]++;
+			this.upSum[i] += shifted;
+			this.upSq[i] += shifted * shifted;
+		}
+	}
+
+	private void addMedian(int i, int n, double x) {
+		int o = i * MARKERS;
+		if (n <= MARKERS) {
+			this.q[o + n - 1] = x;
+			if (n == MARKERS) {
+				Arrays.sort(this.q, o, o + MARKERS);
+				for (int j = 0; j < MARKERS; j++) {
+					this.pos[o + j] = j + 1;
+				}
+			}
+			return;
+		}
+
+		// find cell of x and adjust extreme markers
+		int k;
+		if (x < this.q[o]) {
+			this.q[o] = x;
+			k = 0;
+		} else if (x >= this.q[o + 4]) {
+			this.q[o + 4] = x;
+			k = 3;
+		} else {
+			k = 0;
+			while (k < 3 && x >= this.q[o + k + 1]) {
+				k++;
+			}
+		}
+		for (int j = k + 1; j < MARKERS; j++) {
+			this.pos[o + j]++;
+		}
+
+		// adjust inner markers towards their desired positions
+		for (int j = 1; j < MARKERS - 1; j++) {
+			double desired = 1 + (n - 1) * j / 4.0;
+			double d = desired - this.pos[o + j];
+			int right = this.pos[o + j + 1] - this.pos[o + j];
+			int left = this.pos[o + j - 1] - this.pos[o + j];
+			if ((d >= 1 && right > 1) || (d <= -1 && left < -1)) {
+				int s = d >= 1 ? 1 : -1;
+				double qj = this.parabolic(o + j, s);
+				if (this.q[o + j - 1] < qj && qj < this.q[o + j + 1]) {
+					this.q[o + j] = qj;
+				} else {
+					this.q[o + j] += s * (this.q[o + j + s] - this.q[o + j])
+							/ (this.pos[o + j + s] - this.pos[o + j]);
+				}
+				this.pos[o + j] += s;
+			}
+		}
+	}
+
+	private double parabolic(int j, int s) {
+		double n0 = this.pos[j - 1];
+		double n1 = this.pos[j];
+		double n2 = this.pos[j + 1];
+		return this.q[j]
+				+ s
+				/ (n2 - n0)
+				* ((n1 - n0 + s) * (this.q[j + 1] - this.q[j]) / (n2 - n1) + (n2
+						- n1 - s)
+						* (this.q[j] - this.q[j - 1]) / (n1 - n0));
+	}
+
+	private double getMedian(int i) {
+		int o = i * MARKERS;
+		int n = this.count[i];
+		if (n < MARKERS) {
+			double[] temp = Arrays.copyOfRange(this.q, o, o + n);
+			Arrays.sort(temp);
+			return temp[n / 2];
+		}
+		return this.q[o + 2];
+	}
+
+	/**
+	 * returns the aggregated values of a variable: { avg, min, max, median,
+	 * variance, variance-low, variance-up, confidence-low, confidence-up }.
+	 * before computing them, 0 is added for all missing positions.
+	 *
+	 * @param index
+	 *            index of the variable
+	 * @param positions
+	 *            number of positions, i.e., values of each variable
+	 * @return aggregated values of the variable
+	 */
+	public double[] getAggregated(int index, int positions) {
+		this.ensure(index);
+		while (this.count[index] < positions) {
+			this.add(index, 0);
+		}
+		int i = index;
+		int n = this.count[i];
+		double avg = this.sum[i] / n;
+		double var = this.m2[i] / n;
+		double varLow;
+		double varUp;
+		if (n < MARKERS) {
+			// exact, all values are still known
+			int o = i * MARKERS;
+			double[] temp = Arrays.copyOfRange(this.q, o, o + n);
+			double[] varLowUp = ArrayUtils.varLowUp(temp, avg);
+			varLow = varLowUp[1];
+			varUp = varLowUp[2];
+		} else {
+			double d = avg - this.shift[i];
+			varLow = this.lowCount[i] == 0 ? 0 : (this.lowSq[i] - 2 * d
+					* this.lowSum[i] + this.lowCount[i] * d * d)
+					/ this.lowCount[i];
+			varUp = this.upCount[i] == 0 ? 0 : (this.upSq[i] - 2 * d
+					* this.upSum[i] + this.upCount[i] * d * d)
+					/ this.upCount[i];
+		}
+		double confLow = this.min[i];
+		double confUp = this.min[i];
+		if (n > 1) {
+			double x = Settings.getStudentT(0.95, n - 1)
+					* Math.sqrt(this.m2[i] / (n - 1)) / Math.sqrt(n);
+			confLow = avg - x;
+			confUp = avg + x;
+		}
+		return new double[] { avg, this.min[i], this.max[i],
+				this.getMedian(i), var, Math.max(varLow, 0),
+				Math.max(varUp, 0), confLow, confUp };
+	}
+}
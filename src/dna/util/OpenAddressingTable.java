@@ -0,0 +1,193 @@
+package dna.util;
+
+/**
+ * Open-addressing hash table with linear probing over primitive keys, shared
+ * by the primitive maps and sets (LongIntMap, EdgeIndex) and the hash-based
+ * data structures (DIntHashSet, DArray, DOffHeap).
+ *
+ * A table consists of 2^bits slots that are stored by the subclass, e.g., in
+ * parallel arrays of keys and values or outside of the heap. This class
+ * implements the probing: lookups and insertions start at the home slot of a
+ * key (its Fibonacci hash) and continue with the next slot until the key or an
+ * empty slot is found. Removed entries are filled by shifting back the
+ * following entries of their probe sequence instead of leaving tombstones, so
+ * a lookup never passes deleted slots.
+ *
+ * The capacity of a table is fixed, rehash returns a new table with all
+ * entries. Owners grow their table once it is filled to 3/4 (isFull) and may
+ * shrink it once it is filled to less than 1/8 (isSparse).
+ *
+ * @author benni
+ *
+ * @param <T>
+ *            type of the subclass
+ */
+public abstract class OpenAddressingTable<T extends OpenAddressingTable<T>> {
+	private final int bits;
+
+	private final int mask;
+
+	protected int size;
+
+	protected OpenAddressingTable(int bits) {
+		this.bits = bits;
+		this.mask = (1 << bits) - 1;
+		this.size = 0;
+	}
+
+	/**
+	 *
+	 * @return number of bits of the smallest capacity (of at least 2^minBits)
+	 *         that holds the given number of entries at a fill rate of at most
+	 *         3/4
+	 */
+	public static int getBits(int minBits, int size) {
+		int bits = minBits;
+		while ((3L << bits) / 4 < size) {
+			bits++;
+		}
+		return bits;
+	}
+
+	public int getBits() {
+		return this.bits;
+	}
+
+	public int getCapacity() {
+		return this.mask + 1;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	protected int hash(int key) {
+		return (key * 0x9E3779B9) >>> (32 - this.bits);
+	}
+
+	protected int hash(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - this.bits));
+	}
+
+	/**
+	 * @return home slot of the given key, i.e., the first slot of its probe
+	 *         sequence (hash(int) or hash(long) of the key)
+	 */
+	public abstract int home(long key);
+
+	public abstract boolean isEmpty(int slot);
+
+	/**
+	 * @return key stored at the given (non-empty) slot
+	 */
+	public abstract long getKey(int slot);
+
+	/**
+	 * stores the entry at slot from of the given table at slot to of this
+	 * table
+	 */
+	protected abstract void copy(T table, int from, int to);
+
+	protected abstract void clear(int slot);
+
+	/**
+	 * @return new empty table of 2^bits slots with the same settings
+	 */
+	protected abstract T newTable(int bits);
+
+	/**
+	 * @return slot following the given one in a probe sequence
+	 */
+	public int next(int slot) {
+		return (slot + 1) & this.mask;
+	}
+
+	/**
+	 * @return slot of the given key, -1 if it is not contained
+	 */
+	public int find(long key) {
+		for (int i = this.home(key); !this.isEmpty(i); i = this.next(i)) {
+			if (this.getKey(i) == key)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return slot of the given key, the empty slot it would be inserted at in
+	 *         case it is not contained
+	 */
+	public int findOrEmpty(long key) {
+		int i = this.home(key);
+		while (!this.isEmpty(i) && this.getKey(i) != key) {
+			i = this.next(i);
+		}
+		return i;
+	}
+
+	/**
+	 * @return first empty slot of the probe sequence of the given key, i.e.,
+	 *         the slot to insert it at in case duplicate keys are allowed
+	 */
+	public int findEmpty(long key) {
+		int i = this.home(key);
+		while (!this.isEmpty(i)) {
+			i = this.next(i);
+		}
+		return i;
+	}
+
+	/**
+	 * @return true if adding another entry exceeds a fill rate of 3/4
+	 */
+	public boolean isFull() {
+		return this.size + 1 > (3L << this.bits) / 4;
+	}
+
+	/**
+	 * @return true if the table has more than 2^minBits slots and is filled to
+	 *         less than 1/8
+	 */
+	public boolean isSparse(int minBits) {
+		return this.bits > minBits && this.size < (1 << this.bits) / 8;
+	}
+
+	/**
+	 * removes the entry at slot i and moves back all following entries of the
+	 * probe sequence that would not be found anymore otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	public void removeAt(int i) {
+		int j = i;
+		while (true) {
+			j = this.next(j);
+			if (this.isEmpty(j))
+				break;
+			int k = this.home(this.getKey(j));
+			// entry at j can be moved to i in case its home slot k is not
+			// (cyclically) located in (i, j]
+			if (i <= j ? (i >= k || k > j) : (i >= k && k > j)) {
+				this.copy((T) this, j, i);
+				i = j;
+			}
+		}
+		this.clear(i);
+		this.size--;
+	}
+
+	/**
+	 * @return new table of 2^bits slots that contains all entries of this
+	 *         table
+	 */
+	@SuppressWarnings("unchecked")
+	public T rehash(int bits) {
+		T table = this.newTable(bits);
+		for (int j = 0; j <= this.mask; j++) {
+			if (!this.isEmpty(j)) {
+				table.copy((T) this, j, table.findEmpty(this.getKey(j)));
+			}
+		}
+		table.size = this.size;
+		return table;
+	}
+}
@@ -0,0 +1,37 @@
+package dna.util;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 
+ * provides the shared fork-join pool used by metrics that split their
+ * computation into parallel tasks. the number of worker threads is taken from
+ * the config key METRICS_PARALLELISM, values < 1 select the number of
+ * available processors.
+ * 
+ * @author benni
+ * 
+ */
+public class Parallel {
+
+	private static ForkJoinPool pool;
+
+	public static int getParallelism() {
+		String p = Config.get("METRICS_PARALLELISM");
+		int parallelism = p == null ? 0 : Integer.parseInt(p.trim());
+		if (parallelism < 1) {
+			parallelism = Runtime.getRuntime().availableProcessors();
+		}
+		return parallelism;
+	}
+
+	public static synchronized ForkJoinPool getPool() {
+		if (pool == null) {
+			pool = new ForkJoinPool(getParallelism());
+			Log.debug("initializing fork-join pool with "
+					+ pool.getParallelism() + " threads");
+		}
+		return pool;
+	}
+
+}
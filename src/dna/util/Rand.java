@@ -1,16 +1,90 @@
 package dna.util;
 
-import java.util.Random;
-
+/**
+ *
+ * provides the random source of the current thread. a series initializes it
+ * (Series.resetRand()) with its own RandomSource so that each run (and each
+ * thread in case runs are generated concurrently) uses a separate
+ * deterministic stream. generators should use the random source they are
+ * given (GraphGenerator.getRandom(), BatchGenerator.getRandom()), Rand.get()
+ * is used by all other components, e.g., data structures and weights.
+ *
+ * threads that have not been initialized explicitly use a source split off a
+ * separate stream of the run they have been started from, i.e., of the source
+ * that has been initialized by Rand.init(seed) in the thread that created
+ * them. their output does not depend on thread ids or the time but on the
+ * order in which these threads first call Rand.get(). the run's own stream
+ * is not advanced by them. threads that have not been started from a run
+ * split their source off a default stream that is seeded once (with the time
+ * the first of them calls Rand.get()) and is not changed by any run.
+ *
+ * @author benni
+ *
+ */
 public class Rand {
-	public static long seed = System.currentTimeMillis();
+	/**
+	 * stream of the threads that have not been started from a run (cf.
+	 * getDefaultSource())
+	 */
+	private static RandomSource defaultSource;
+
+	/**
+	 * stream of the current run that threads without an explicitly
+	 * initialized source are split off from (inherited by new threads)
+	 */
+	private static InheritableThreadLocal<RandomSource> runSource = new InheritableThreadLocal<RandomSource>() {
+		@Override
+		protected RandomSource initialValue() {
+			return Rand.getDefaultSource();
+		}
+	};
+
+	private static ThreadLocal<RandomSource> rand = new ThreadLocal<RandomSource>() {
+		@Override
+		protected RandomSource initialValue() {
+			RandomSource source = runSource.get();
+			synchronized (source) {
+				return source.split();
+			}
+		}
+	};
+
+	/**
+	 *
+	 * @return stream shared by all threads that have not been started from a
+	 *         run, which is never re-initialized
+	 */
+	private static synchronized RandomSource getDefaultSource() {
+		if (Rand.defaultSource == null) {
+			Rand.defaultSource = RandomSource.newInstance(
+					System.currentTimeMillis()).split();
+		}
+		return Rand.defaultSource;
+	}
 
-	public static Random rand = new Random(seed);
+	/**
+	 *
+	 * @return random source of the current thread
+	 */
+	public static RandomSource get() {
+		return rand.get();
+	}
 
 	public static void init(long seed) {
-		Rand.seed = seed;
-		Rand.rand = new Random(seed);
-		Log.debug("initializing Rand with seed " + Rand.seed);
+		RandomSource source = RandomSource.newInstance(seed);
+		Rand.runSource.set(source.split());
+		Rand.rand.set(source);
+		Log.debug("initializing Rand with seed " + seed);
+	}
+
+	/**
+	 * sets the random source of the current thread
+	 *
+	 * @param source
+	 *            new random source of the current thread
+	 */
+	public static void init(RandomSource source) {
+		Rand.rand.set(source);
 	}
 
 }
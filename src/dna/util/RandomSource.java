@@ -0,0 +1,122 @@
+package dna.util;
+
+import java.util.Random;
+
+/**
+ * 
+ * base class of all (pseudo) random number generators. in contrast to
+ * java.util.Random, implementations are not thread-safe (and hence do not
+ * require any synchronization) but splittable, i.e., a new independent stream
+ * can be derived from an existing one using split(). hence, each thread / run
+ * / generator should use its own instance derived from a single seed.
+ * 
+ * since RandomSource extends java.util.Random, it can be passed wherever a
+ * Random is expected. all methods of Random are based on nextLong().
+ * 
+ * the implementation used by newInstance(seed) is selected via the config key
+ * RANDOM_SOURCE.
+ * 
+ * @author benni
+ * 
+ */
+public abstract class RandomSource extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	public static enum RandomSourceType {
+		SplitMix64, Xoroshiro128
+	}
+
+	public static RandomSource newInstance(long seed) {
+		return newInstance(
+				RandomSourceType.valueOf(Config.get("RANDOM_SOURCE").trim()),
+				seed);
+	}
+
+	public static RandomSource newInstance(RandomSourceType type, long seed) {
+		switch (type) {
+		case SplitMix64:
+			return new SplitMix64(seed);
+		case Xoroshiro128:
+			return new Xoroshiro128(seed);
+		default:
+			throw new IllegalArgumentException("unknown random source " + type);
+		}
+	}
+
+	protected RandomSource() {
+		super(0L);
+	}
+
+	/**
+	 * (re-)initializes the state of this generator from the given seed
+	 */
+	@Override
+	public abstract void setSeed(long seed);
+
+	@Override
+	public abstract long nextLong();
+
+	/**
+	 * 
+	 * @return new generator whose stream is independent from this one (this
+	 *         generator is advanced in the process)
+	 */
+	public abstract RandomSource split();
+
+	@Override
+	protected int next(int bits) {
+		return (int) (this.nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (this.nextLong() >>> 32);
+	}
+
+	/**
+	 * same algorithm as in java.util.Random, i.e., without bias
+	 */
+	@Override
+	public int nextInt(int n) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("n must be positive");
+		}
+		if ((n & -n) == n) {
+			return (int) ((n * (long) this.next(31)) >> 31);
+		}
+		int bits, val;
+		do {
+			bits = this.next(31);
+			val = bits % n;
+		} while (bits - val + (n - 1) < 0);
+		return val;
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return this.nextLong() < 0;
+	}
+
+	@Override
+	public float nextFloat() {
+		return (this.nextLong() >>> 40) * 0x1.0p-24f;
+	}
+
+	@Override
+	public double nextDouble() {
+		return (this.nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	@Override
+	public void nextBytes(byte[] bytes) {
+		int i = 0;
+		while (i < bytes.length) {
+			long rnd = this.nextLong();
+			for (int n = Math.min(bytes.length - i, 8); n-- > 0; rnd >>>= 8) {
+				bytes[i++] = (byte) rnd;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package dna.util;
+
+/**
+ * 
+ * SplitMix64 generator (Steele, Lea, Flood: Fast splittable pseudorandom
+ * number generators, OOPSLA 2014), i.e., the algorithm of
+ * java.util.SplittableRandom. the state is a single long that is advanced by
+ * an odd constant (gamma), the output is a mix of the state. generators
+ * created by split() use a new gamma derived from their parent.
+ * 
+ * @author benni
+ * 
+ */
+public class SplitMix64 extends RandomSource {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private long state;
+
+	private long gamma;
+
+	public SplitMix64(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	private SplitMix64(long seed, long gamma) {
+		this.state = seed;
+		this.gamma = gamma;
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		this.state = seed;
+		this.gamma = GOLDEN_GAMMA;
+	}
+
+	@Override
+	public long nextLong() {
+		return mix(this.state += this.gamma);
+	}
+
+	@Override
+	public RandomSource split() {
+		long seed = this.nextLong();
+		return new SplitMix64(seed, mixGamma(this.state += this.gamma));
+	}
+
+	/**
+	 * 
+	 * @param z
+	 *            value to mix
+	 * @return the bits of z mixed using the finalizer of MurmurHash3
+	 *         (variant 13)
+	 */
+	public static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * 
+	 * @param z
+	 *            value to derive the gamma from
+	 * @return odd gamma with enough bit transitions (as in
+	 *         java.util.SplittableRandom)
+	 */
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+
+}
@@ -27,6 +27,14 @@ public class Timer {
 		return this.toString();
 	}
 
+	/**
+	 * adds the duration of another timer, e.g., one that measured the same
+	 * task in another thread
+	 */
+	public void add(Timer timer) {
+		this.duration += timer.duration;
+	}
+
 	public RunTime getRuntime() {
 		return new RunTime(this.name, this.duration);
 	}
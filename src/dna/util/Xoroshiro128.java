@@ -0,0 +1,50 @@
+package dna.util;
+
+/**
+ * 
+ * xoroshiro128++ generator (Blackman, Vigna: Scrambled linear pseudorandom
+ * number generators, 2018) with a state of two longs and a period of 2^128 - 1.
+ * the state is initialized from the seed using SplitMix64.
+ * 
+ * @author benni
+ * 
+ */
+public class Xoroshiro128 extends RandomSource {
+
+	private static final long serialVersionUID = 1L;
+
+	private long s0;
+
+	private long s1;
+
+	public Xoroshiro128(long seed) {
+		this.setSeed(seed);
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		SplitMix64 init = new SplitMix64(seed);
+		this.s0 = init.nextLong();
+		this.s1 = init.nextLong();
+		if (this.s0 == 0 && this.s1 == 0) {
+			this.s1 = 1;
+		}
+	}
+
+	@Override
+	public long nextLong() {
+		long s0 = this.s0;
+		long s1 = this.s1;
+		long result = Long.rotateLeft(s0 + s1, 17) + s0;
+		s1 ^= s0;
+		this.s0 = Long.rotateLeft(s0, 49) ^ s1 ^ (s1 << 21);
+		this.s1 = Long.rotateLeft(s1, 28);
+		return result;
+	}
+
+	@Override
+	public RandomSource split() {
+		return new Xoroshiro128(this.nextLong());
+	}
+
+}